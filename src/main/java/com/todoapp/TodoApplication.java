@@ -1,7 +1,11 @@
 package com.todoapp;
 
 import com.todoapp.controller.MainController;
+import com.todoapp.database.StatementTracer;
+import com.todoapp.metrics.MetricsRegistry;
+import com.todoapp.server.ApiServer;
 import com.todoapp.util.ConfigurationManager;
+import com.todoapp.util.StartupTimer;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -10,22 +14,41 @@ import javafx.stage.Stage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+
 //Main JavaFX Application class
 public class TodoApplication extends Application {
     private static final Logger logger = LoggerFactory.getLogger(TodoApplication.class);
+    private MainController controller;
 
     @Override
     public void start(Stage primaryStage) {
         try {
+            StartupTimer startupTimer = StartupTimer.getInstance();
+            startupTimer.milestone("toolkit");
+            long begin = startupTimer.begin();
             ConfigurationManager config = ConfigurationManager.getInstance();
+            startupTimer.phase("configuration", begin);
             
-            // Load FXML
+            // Load FXML; storage opens in the background, so this does not wait for it
+            begin = startupTimer.begin();
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/main.fxml"));
             Scene scene = new Scene(loader.load());
+            startupTimer.phase("fxml", begin);
             
             // Get controller and set stage reference
-            MainController controller = loader.getController();
+            controller = loader.getController();
             controller.setStage(primaryStage);
+
+            // Time to first paint: the first layout pulse after the stage is shown
+            Runnable firstPulse = new Runnable() {
+                @Override
+                public void run() {
+                    scene.removePostLayoutPulseListener(this);
+                    startupTimer.milestone("firstPaint");
+                }
+            };
+            scene.addPostLayoutPulseListener(firstPulse);
             
             // Configure stage
             primaryStage.setTitle(config.getProperty("app.title", "Todo List Manager"));
@@ -46,7 +69,9 @@ public class TodoApplication extends Application {
             }
             
             // Show the stage
+            begin = startupTimer.begin();
             primaryStage.show();
+            startupTimer.phase("show", begin);
             
             logger.info("Todo List application started successfully");
             
@@ -59,8 +84,25 @@ public class TodoApplication extends Application {
     @Override
     public void stop() {
         logger.info("Todo List application shutting down");
+        if (controller != null) {
+            controller.saveStartupSnapshot();
+            controller.shutdown();
+        }
         // Cleanup resources if needed
         try {
+            MetricsRegistry metrics = MetricsRegistry.getInstance();
+            if (metrics.isEnabled()) {
+                metrics.dumpPrometheus(null);
+            }
+        } catch (Exception e) {
+            logger.warn("Error writing metrics", e);
+        }
+        try {
+            StatementTracer tracer = StatementTracer.getInstance();
+            if (tracer.isEnabled() && !tracer.topStatements(1).isEmpty()) {
+                ConfigurationManager config = ConfigurationManager.getInstance();
+                logger.info(tracer.formatReport(config.getIntProperty("db.trace.report.size", 10)));
+            }
             com.todoapp.database.DatabaseConnection.getInstance().closeConnection();
         } catch (Exception e) {
             logger.warn("Error during cleanup", e);
@@ -72,7 +114,13 @@ public class TodoApplication extends Application {
         System.exit(1);
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        // Headless mode: serve the task API instead of opening a window
+        if (args.length > 0 && args[0].equals("--server")) {
+            ApiServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         // Set system properties for better JavaFX experience
         System.setProperty("prism.lcdtext", "false");
         System.setProperty("prism.text", "t2k");
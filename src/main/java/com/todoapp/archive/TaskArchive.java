@@ -0,0 +1,195 @@
+package com.todoapp.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.todoapp.metrics.MetricsRegistry;
+import com.todoapp.model.Task;
+import com.todoapp.util.ConfigurationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold store for completed tasks that left the working set. Each archival run appends
+ * immutable segments of gzip-compressed NDJSON (one task per line) to {@code archive.path};
+ * a segment's file name carries the range of completion dates it holds, so searches limited
+ * to a period only open the segments that overlap it. Segments are written to a temporary
+ * file, forced to disk and renamed into place, so a reader never sees a partial one.
+ */
+public class TaskArchive {
+    private static final Logger logger = LoggerFactory.getLogger(TaskArchive.class);
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+    // tasks-<first completion day>-<last completion day>-<sequence>.ndjson.gz
+    private static final Pattern SEGMENT_NAME = Pattern.compile("tasks-(\\d{8})-(\\d{8})-(\\d+)\\.ndjson\\.gz");
+
+    private final Path directory;
+    private final ObjectMapper mapper;
+    private final ObjectReader taskReader;
+
+    public TaskArchive() {
+        this(ConfigurationManager.getInstance().getProperty("archive.path", "data/archive"));
+    }
+
+    public TaskArchive(String directory) {
+        this.directory = Paths.get(directory);
+        // Same configuration as FileTaskDAO, so an archived task reads back unchanged
+        this.mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        this.taskReader = mapper.readerFor(Task.class);
+        MetricsRegistry.getInstance().gauge("archive.segments", () -> listSegments().size());
+    }
+
+    /**
+     * Writes {@code tasks} as one new segment and returns its path once it is durable.
+     * Every task must be completed with a completion date.
+     */
+    public synchronized Path writeSegment(List<Task> tasks) throws IOException {
+        LocalDate first = null;
+        LocalDate last = null;
+        for (Task task : tasks) {
+            LocalDate day = task.getCompletedDate().toLocalDate();
+            first = first == null || day.isBefore(first) ? day : first;
+            last = last == null || day.isAfter(last) ? day : last;
+        }
+        if (first == null) {
+            throw new IllegalArgumentException("Cannot archive an empty segment");
+        }
+
+        Files.createDirectories(directory);
+        Path segment = directory.resolve(String.format(Locale.ROOT, "tasks-%s-%s-%06d.ndjson.gz",
+                first.format(DAY), last.format(DAY), nextSequence()));
+        Path temp = directory.resolve(segment.getFileName() + ".tmp");
+        try (SequenceWriter writer = mapper.writerFor(Task.class).withRootValueSeparator("\n")
+                .writeValues(new BufferedWriter(new OutputStreamWriter(
+                        new GZIPOutputStream(Files.newOutputStream(temp), 1 << 16), StandardCharsets.UTF_8), 1 << 16))) {
+            for (Task task : tasks) {
+                writer.write(task);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            // The hot copies are deleted next; the archived ones must survive a crash first
+            channel.force(true);
+        }
+        Files.move(temp, segment, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Archived {} tasks to {}", tasks.size(), segment.getFileName());
+        return segment;
+    }
+
+    /**
+     * Archived tasks whose title or description contains {@code searchTerm} (any task when it
+     * is empty) and that were completed between {@code from} and {@code to}, inclusive; either
+     * bound may be null. Stops after {@code limit} matches.
+     */
+    public List<Task> search(String searchTerm, LocalDate from, LocalDate to, int limit) throws IOException {
+        String term = searchTerm != null ? searchTerm.trim().toLowerCase(Locale.ROOT) : "";
+        // A line can only hold the term literally if JSON escaping leaves it alone
+        boolean prefilter = !term.isEmpty() && term.chars().noneMatch(c -> c == '"' || c == '\\' || c < 0x20);
+        // A task archived twice (a run interrupted between writing and deleting) is reported once
+        Map<Long, Task> matches = new LinkedHashMap<>();
+
+        for (Segment segment : listSegments()) {
+            if ((from != null && segment.last.isBefore(from)) || (to != null && segment.first.isAfter(to))) {
+                continue;
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(segment.path), 1 << 16), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty() || (prefilter && !line.toLowerCase(Locale.ROOT).contains(term))) {
+                        continue;
+                    }
+                    Task task = taskReader.readValue(line);
+                    if (matches(task, term, from, to)) {
+                        matches.put(task.getId(), task);
+                        if (matches.size() >= limit) {
+                            return new ArrayList<>(matches.values());
+                        }
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(matches.values());
+    }
+
+    /** Segment files in the order they were written. */
+    public synchronized List<Segment> listSegments() {
+        List<Segment> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "tasks-*.ndjson.gz")) {
+            for (Path file : files) {
+                Matcher name = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (name.matches()) {
+                    segments.add(new Segment(file, LocalDate.parse(name.group(1), DAY),
+                            LocalDate.parse(name.group(2), DAY), Long.parseLong(name.group(3))));
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not list archive segments in {}", directory, e);
+        }
+        segments.sort((a, b) -> Long.compare(a.sequence, b.sequence));
+        return segments;
+    }
+
+    private long nextSequence() {
+        List<Segment> segments = listSegments();
+        return segments.isEmpty() ? 1 : segments.get(segments.size() - 1).sequence + 1;
+    }
+
+    private static boolean matches(Task task, String term, LocalDate from, LocalDate to) {
+        LocalDate day = task.getCompletedDate() != null ? task.getCompletedDate().toLocalDate() : null;
+        if (day != null && ((from != null && day.isBefore(from)) || (to != null && day.isAfter(to)))) {
+            return false;
+        }
+        return term.isEmpty() || contains(task.getTitle(), term) || contains(task.getDescription(), term);
+    }
+
+    private static boolean contains(String text, String term) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(term);
+    }
+
+    /** One archive file and the completion dates it covers. */
+    public static final class Segment {
+        private final Path path;
+        private final LocalDate first;
+        private final LocalDate last;
+        private final long sequence;
+
+        Segment(Path path, LocalDate first, LocalDate last, long sequence) {
+            this.path = path;
+            this.first = first;
+            this.last = last;
+            this.sequence = sequence;
+        }
+
+        public Path getPath() { return path; }
+        public LocalDate getFirst() { return first; }
+        public LocalDate getLast() { return last; }
+    }
+}
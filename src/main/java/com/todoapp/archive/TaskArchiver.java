@@ -0,0 +1,75 @@
+package com.todoapp.archive;
+
+import com.todoapp.dao.TaskDAO;
+import com.todoapp.model.Task;
+import com.todoapp.util.ConfigurationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves completed tasks older than a cutoff from a {@link TaskDAO} into a {@link TaskArchive}.
+ * Tasks are read in keyset pages and written out {@code archive.segment.size} at a time; each
+ * segment's tasks are deleted from the store only after the segment is durable, and only if
+ * unchanged since they were read, so a failure or a concurrent edit loses nothing and at worst
+ * leaves a task in both places ({@link TaskArchive#search} reports the newest copy once).
+ */
+public class TaskArchiver {
+    private static final Logger logger = LoggerFactory.getLogger(TaskArchiver.class);
+
+    private final TaskArchive archive;
+    private final int pageSize;
+    private final int segmentSize;
+
+    public TaskArchiver(TaskArchive archive) {
+        this(archive,
+             ConfigurationManager.getInstance().getIntProperty("transfer.batch.size", 1000),
+             ConfigurationManager.getInstance().getIntProperty("archive.segment.size", 10000));
+    }
+
+    public TaskArchiver(TaskArchive archive, int pageSize, int segmentSize) {
+        this.archive = archive;
+        this.pageSize = Math.max(1, pageSize);
+        this.segmentSize = Math.max(1, segmentSize);
+    }
+
+    /** Archives the tasks completed before {@code cutoff} and returns how many left the store. */
+    public int archiveCompletedBefore(TaskDAO taskDAO, LocalDateTime cutoff) throws IOException {
+        long started = System.nanoTime();
+        List<Task> segment = new ArrayList<>();
+        long lastId = 0;
+        int archived = 0;
+
+        while (true) {
+            List<Task> page = taskDAO.findCompletedBefore(cutoff, lastId, pageSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            lastId = page.get(page.size() - 1).getId();
+            segment.addAll(page);
+            if (segment.size() >= segmentSize) {
+                archived += move(taskDAO, segment);
+                segment.clear();
+            }
+        }
+        if (!segment.isEmpty()) {
+            archived += move(taskDAO, segment);
+        }
+
+        if (archived > 0) {
+            logger.info("Archived {} tasks completed before {} in {} ms", archived, cutoff,
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+        return archived;
+    }
+
+    private int move(TaskDAO taskDAO, List<Task> tasks) throws IOException {
+        archive.writeSegment(tasks);
+        // A task edited since it was read stays; the next run archives its newer copy
+        return taskDAO.deleteUnchanged(tasks);
+    }
+}
@@ -0,0 +1,298 @@
+package com.todoapp.backup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.todoapp.metrics.MetricsRegistry;
+import com.todoapp.model.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Backup history of a task store in one directory. Each {@link #record} writes a gzip delta
+ * holding only the tasks whose version changed and the ids that disappeared since the previous
+ * record, so backup I/O follows the size of the change rather than of the store. A gzip full
+ * snapshot starts a new chain every {@code fullEvery} deltas, or sooner once the chain's deltas
+ * add up to more than the snapshot they build on, which bounds restore work. The newest
+ * {@code retainFulls} chains are kept. {@link #restore} rebuilds the store as of any recorded
+ * moment by replaying a snapshot and the deltas after it.
+ */
+public class TaskBackups {
+    private static final Logger logger = LoggerFactory.getLogger(TaskBackups.class);
+    // full-<sequence>-<epoch millis>.json.gz and delta-<sequence>-<epoch millis>.json.gz
+    private static final Pattern FILE_NAME = Pattern.compile("(full|delta)-(\\d+)-(\\d+)\\.json\\.gz");
+    private static final TypeReference<List<Task>> TASK_LIST = new TypeReference<List<Task>>() {};
+    private static final TypeReference<Delta> DELTA = new TypeReference<Delta>() {};
+
+    private final Path directory;
+    private final int fullEvery;
+    private final int retainFulls;
+    private final Clock clock;
+    private final ObjectMapper mapper;
+    // Version of every task as of the last record; null until the first one, which is always full
+    private Map<Long, Long> recorded;
+    private long lastSequence = -1;
+    private long lastMillis;
+    private int deltasSinceFull;
+    private long deltaBytesSinceFull;
+    private long lastFullBytes;
+
+    public TaskBackups(Path directory, int fullEvery, int retainFulls) {
+        this(directory, fullEvery, retainFulls, Clock.systemDefaultZone());
+    }
+
+    TaskBackups(Path directory, int fullEvery, int retainFulls, Clock clock) {
+        this.directory = directory;
+        this.fullEvery = Math.max(1, fullEvery);
+        this.retainFulls = Math.max(1, retainFulls);
+        this.clock = clock;
+        // Same configuration as FileTaskDAO, so a restored task reads back unchanged
+        this.mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        MetricsRegistry.getInstance().gauge("backup.files", () -> listFiles().size());
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Records {@code tasks} as the store's current state and returns the bytes written, 0 when
+     * nothing changed since the previous record.
+     */
+    public synchronized long record(List<Task> tasks) throws IOException {
+        if (recorded == null || deltasSinceFull >= fullEvery || deltaBytesSinceFull > lastFullBytes) {
+            return writeFull(tasks);
+        }
+
+        List<Task> changed = new ArrayList<>();
+        int stillThere = 0;
+        for (Task task : tasks) {
+            Long version = recorded.get(task.getId());
+            if (version == null || version != task.getVersion()) {
+                changed.add(task);
+            }
+            if (version != null) {
+                stillThere++;
+            }
+        }
+        List<Long> deleted = new ArrayList<>();
+        if (stillThere < recorded.size()) {
+            Set<Long> ids = new HashSet<>();
+            for (Task task : tasks) {
+                ids.add(task.getId());
+            }
+            for (Long id : recorded.keySet()) {
+                if (!ids.contains(id)) {
+                    deleted.add(id);
+                }
+            }
+        }
+        if (changed.isEmpty() && deleted.isEmpty()) {
+            return 0;
+        }
+
+        Delta delta = new Delta();
+        delta.changed = changed;
+        delta.deleted = deleted;
+        long bytes = write("delta", delta);
+        for (Task task : changed) {
+            recorded.put(task.getId(), task.getVersion());
+        }
+        recorded.keySet().removeAll(deleted);
+        deltasSinceFull++;
+        deltaBytesSinceFull += bytes;
+        return bytes;
+    }
+
+    /**
+     * Forgets which sequence numbers are taken, for when another process sharing the directory
+     * may have recorded since; the next record lists the directory again.
+     */
+    public synchronized void rescan() {
+        lastSequence = -1;
+    }
+
+    /** The store as of {@code at}, or empty when no backup that old is left. */
+    public Optional<List<Task>> restore(LocalDateTime at) throws IOException {
+        return restore(at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    /** The store as last recorded, or empty when there are no backups. */
+    public Optional<List<Task>> restoreLatest() throws IOException {
+        return restore(Long.MAX_VALUE);
+    }
+
+    private synchronized Optional<List<Task>> restore(long atMillis) throws IOException {
+        List<BackupFile> files = listFiles();
+        int start = -1;
+        for (int i = 0; i < files.size() && files.get(i).millis <= atMillis; i++) {
+            if (files.get(i).full) {
+                start = i;
+            }
+        }
+        if (start < 0) {
+            return Optional.empty();
+        }
+
+        TreeMap<Long, Task> tasks = new TreeMap<>();
+        for (Task task : read(files.get(start).path, TASK_LIST)) {
+            tasks.put(task.getId(), task);
+        }
+        int deltas = 0;
+        for (int i = start + 1; i < files.size() && files.get(i).millis <= atMillis; i++) {
+            BackupFile file = files.get(i);
+            if (file.full) {
+                continue;
+            }
+            Delta delta = read(file.path, DELTA);
+            for (Task task : delta.changed) {
+                tasks.put(task.getId(), task);
+            }
+            tasks.keySet().removeAll(delta.deleted);
+            deltas++;
+        }
+        logger.info("Restored {} tasks from {} and {} deltas",
+                tasks.size(), files.get(start).path.getFileName(), deltas);
+        return Optional.of(new ArrayList<>(tasks.values()));
+    }
+
+    /** The moments {@link #restore} can return exactly, oldest first. */
+    public List<LocalDateTime> listRestorePoints() {
+        List<LocalDateTime> points = new ArrayList<>();
+        for (BackupFile file : listFiles()) {
+            points.add(LocalDateTime.ofInstant(Instant.ofEpochMilli(file.millis), ZoneId.systemDefault()));
+        }
+        return points;
+    }
+
+    private long writeFull(List<Task> tasks) throws IOException {
+        long bytes = write("full", tasks);
+        recorded = new HashMap<>();
+        for (Task task : tasks) {
+            recorded.put(task.getId(), task.getVersion());
+        }
+        deltasSinceFull = 0;
+        deltaBytesSinceFull = 0;
+        lastFullBytes = bytes;
+        prune();
+        return bytes;
+    }
+
+    private long write(String kind, Object value) throws IOException {
+        Files.createDirectories(directory);
+        if (lastSequence < 0) {
+            List<BackupFile> files = listFiles();
+            if (!files.isEmpty()) {
+                lastSequence = files.get(files.size() - 1).sequence;
+                lastMillis = files.get(files.size() - 1).millis;
+            } else {
+                lastSequence = 0;
+            }
+        }
+        // Never behind the previous file, so the sequence and time orders agree for restore
+        long millis = Math.max(clock.millis(), lastMillis);
+        Path file = directory.resolve(String.format(Locale.ROOT, "%s-%08d-%d.json.gz", kind, ++lastSequence, millis));
+        Path temp = directory.resolve(file.getFileName() + ".tmp");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), 1 << 16)) {
+            mapper.writeValue(out, value);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        lastMillis = millis;
+        return Files.size(file);
+    }
+
+    private <T> T read(Path file, TypeReference<T> type) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file), 1 << 16)) {
+            return mapper.readValue(in, type);
+        }
+    }
+
+    // Drops chains older than the newest retainFulls snapshots
+    private void prune() {
+        List<BackupFile> files = listFiles();
+        int fulls = 0;
+        int keepFrom = 0;
+        for (int i = files.size() - 1; i >= 0; i--) {
+            if (files.get(i).full && ++fulls == retainFulls) {
+                keepFrom = i;
+                break;
+            }
+        }
+        for (BackupFile file : files.subList(0, keepFrom)) {
+            try {
+                Files.deleteIfExists(file.path);
+            } catch (IOException e) {
+                logger.warn("Could not delete old backup {}", file.path, e);
+            }
+        }
+        if (keepFrom > 0) {
+            logger.debug("Pruned {} old backup files", keepFrom);
+        }
+    }
+
+    private List<BackupFile> listFiles() {
+        List<BackupFile> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, "*.json.gz")) {
+            for (Path entry : entries) {
+                Matcher name = FILE_NAME.matcher(entry.getFileName().toString());
+                if (name.matches()) {
+                    files.add(new BackupFile(entry, name.group(1).equals("full"),
+                            Long.parseLong(name.group(2)), Long.parseLong(name.group(3))));
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not list backups in {}", directory, e);
+        }
+        files.sort((a, b) -> Long.compare(a.sequence, b.sequence));
+        return files;
+    }
+
+    /** Tasks added or changed and ids removed since the previous record. */
+    static final class Delta {
+        public List<Task> changed = Collections.emptyList();
+        public List<Long> deleted = Collections.emptyList();
+    }
+
+    private static final class BackupFile {
+        final Path path;
+        final boolean full;
+        final long sequence;
+        final long millis;
+
+        BackupFile(Path path, boolean full, long sequence, long millis) {
+            this.path = path;
+            this.full = full;
+            this.sequence = sequence;
+            this.millis = millis;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.todoapp.controller;
+
+import com.todoapp.model.Priority;
+import com.todoapp.model.TaskAnalytics;
+import com.todoapp.rollup.TaskRollups;
+import com.todoapp.service.TaskService;
+import com.todoapp.util.ConfigurationManager;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Window charting {@link TaskService#getAnalytics}: tasks per priority, tasks created per
+ * week over the last {@code ui.analytics.weeks} weeks, completion lead times and how long
+ * overdue tasks have been overdue, plus daily activity over the last {@code ui.analytics.days}
+ * days from the activity rollups. Everything is computed off the JavaFX thread.
+ */
+public class AnalyticsDashboard {
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsDashboard.class);
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("MMM d");
+    private static final Map<TaskRollups.Metric, String> METRIC_NAMES = Map.of(
+            TaskRollups.Metric.CREATED, "Created",
+            TaskRollups.Metric.COMPLETED, "Completed",
+            TaskRollups.Metric.OVERDUE, "Went overdue");
+
+    private final TaskService taskService;
+    private final int weeks;
+    private final int days;
+    private final Stage stage = new Stage();
+    private final Label summaryLabel = new Label("Computing...");
+    private final Button refreshButton = new Button("Refresh");
+    private final BarChart<String, Number> priorityChart = chart("Tasks by priority");
+    private final BarChart<String, Number> weekChart = chart("Tasks created per week");
+    private final BarChart<String, Number> leadTimeChart = chart("Completed after");
+    private final BarChart<String, Number> overdueChart = chart("Overdue for");
+    private final LineChart<String, Number> activityChart = new LineChart<>(new CategoryAxis(), new NumberAxis());
+
+    public AnalyticsDashboard(TaskService taskService, Window owner) {
+        this.taskService = taskService;
+        this.weeks = ConfigurationManager.getInstance().getIntProperty("ui.analytics.weeks", 12);
+        this.days = ConfigurationManager.getInstance().getIntProperty("ui.analytics.days", 90);
+        activityChart.setTitle("Activity per day");
+        activityChart.setAnimated(false);
+        activityChart.setCreateSymbols(false);
+
+        GridPane charts = new GridPane();
+        charts.setHgap(10);
+        charts.setVgap(10);
+        charts.add(priorityChart, 0, 0);
+        charts.add(weekChart, 1, 0);
+        charts.add(leadTimeChart, 0, 1);
+        charts.add(overdueChart, 1, 1);
+        charts.add(activityChart, 0, 2, 2, 1);
+
+        HBox header = new HBox(10, refreshButton, summaryLabel);
+        header.setPadding(new Insets(0, 0, 10, 0));
+        BorderPane root = new BorderPane(charts);
+        root.setTop(header);
+        root.setPadding(new Insets(10));
+
+        refreshButton.setOnAction(e -> refresh());
+        stage.initOwner(owner);
+        stage.setTitle("Task Analytics");
+        stage.setScene(new Scene(root, 1000, 900));
+    }
+
+    public void show() {
+        stage.show();
+        refresh();
+    }
+
+    private void refresh() {
+        refreshButton.setDisable(true);
+        summaryLabel.setText("Computing...");
+        CompletableFuture.supplyAsync(taskService::getAnalytics).whenComplete((analytics, error) -> Platform.runLater(() -> {
+            refreshButton.setDisable(false);
+            if (error != null) {
+                logger.error("Error computing task analytics", error);
+                summaryLabel.setText("Could not compute analytics: " + error.getMessage());
+                return;
+            }
+            showAnalytics(analytics);
+        }));
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(days - 1);
+        CompletableFuture.supplyAsync(() -> {
+            List<XYChart.Series<String, Number>> activity = new ArrayList<>();
+            for (TaskRollups.Metric metric : TaskRollups.Metric.values()) {
+                long[] counts = taskService.getActivity(metric, TaskRollups.Granularity.DAY, from, to, null);
+                XYChart.Series<String, Number> series = series(METRIC_NAMES.get(metric));
+                for (int i = 0; i < counts.length; i++) {
+                    series.getData().add(new XYChart.Data<>(from.plusDays(i).format(DAY_FORMAT), counts[i]));
+                }
+                activity.add(series);
+            }
+            return activity;
+        }).whenComplete((activity, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                logger.error("Error loading task activity", error);
+                return;
+            }
+            activityChart.getData().setAll(activity);
+        }));
+    }
+
+    private void showAnalytics(TaskAnalytics analytics) {
+        summaryLabel.setText(String.format(Locale.ROOT, "%d tasks, completed on average %.1f days after creation",
+                analytics.getTotal(), analytics.getAverageLeadTimeDays()));
+
+        XYChart.Series<String, Number> total = series("Total");
+        XYChart.Series<String, Number> completed = series("Completed");
+        XYChart.Series<String, Number> overdue = series("Overdue");
+        for (Map.Entry<Priority, TaskAnalytics.Counts> entry : analytics.getByPriority().entrySet()) {
+            String name = entry.getKey().getDisplayName();
+            total.getData().add(new XYChart.Data<>(name, entry.getValue().getTotal()));
+            completed.getData().add(new XYChart.Data<>(name, entry.getValue().getCompleted()));
+            overdue.getData().add(new XYChart.Data<>(name, entry.getValue().getOverdue()));
+        }
+        priorityChart.getData().setAll(List.of(total, completed, overdue));
+
+        XYChart.Series<String, Number> created = series("Created");
+        XYChart.Series<String, Number> done = series("Completed since");
+        LocalDate thisWeek = TaskAnalytics.weekOf(analytics.getAsOf());
+        SortedMap<LocalDate, TaskAnalytics.Counts> byWeek = analytics.getByCreatedWeek();
+        for (int i = weeks - 1; i >= 0; i--) {
+            LocalDate week = thisWeek.minusWeeks(i);
+            TaskAnalytics.Counts counts = byWeek.get(week);
+            String label = week.format(DAY_FORMAT);
+            created.getData().add(new XYChart.Data<>(label, counts != null ? counts.getTotal() : 0));
+            done.getData().add(new XYChart.Data<>(label, counts != null ? counts.getCompleted() : 0));
+        }
+        weekChart.getData().setAll(List.of(created, done));
+
+        leadTimeChart.getData().setAll(List.of(buckets("Tasks",
+                TaskAnalytics.bucketLabels(TaskAnalytics.LEAD_TIME_BUCKETS), analytics.getLeadTimes())));
+        overdueChart.getData().setAll(List.of(buckets("Tasks",
+                TaskAnalytics.bucketLabels(TaskAnalytics.OVERDUE_AGE_BUCKETS), analytics.getOverdueAges())));
+    }
+
+    private static XYChart.Series<String, Number> buckets(String name, List<String> labels, List<Long> counts) {
+        XYChart.Series<String, Number> series = series(name);
+        for (int i = 0; i < labels.size(); i++) {
+            series.getData().add(new XYChart.Data<>(labels.get(i), counts.get(i)));
+        }
+        return series;
+    }
+
+    private static XYChart.Series<String, Number> series(String name) {
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        series.setName(name);
+        return series;
+    }
+
+    private static BarChart<String, Number> chart(String title) {
+        BarChart<String, Number> chart = new BarChart<>(new CategoryAxis(), new NumberAxis());
+        chart.setTitle(title);
+        chart.setAnimated(false);
+        return chart;
+    }
+}
@@ -1,19 +1,25 @@
 package com.todoapp.controller;
 
+import com.todoapp.dao.StaleTaskException;
+import com.todoapp.jfr.ControllerRefreshEvent;
 import com.todoapp.model.Priority;
 import com.todoapp.model.Task;
+import com.todoapp.service.CompletedTaskPurge;
+import com.todoapp.service.DueDateScheduler;
+import com.todoapp.service.TaskChangeEvent;
+import com.todoapp.service.TaskListRefresher;
 import com.todoapp.service.TaskService;
 import com.todoapp.service.TaskService.TaskFilter;
 import com.todoapp.service.TaskService.TaskSortCriteria;
 import com.todoapp.service.TaskService.TaskStatistics;
+import com.todoapp.util.ConfigurationManager;
+import com.todoapp.util.StartupTimer;
 import javafx.application.Platform;
-import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 
 import javafx.stage.Stage;
 import org.slf4j.Logger;
@@ -23,13 +29,14 @@ import java.net.URL;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.ResourceBundle;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class MainController implements Initializable {
     private static final Logger logger = LoggerFactory.getLogger(MainController.class);
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
     // FXML injected components
     @FXML private TableView<Task> taskTable;
@@ -57,6 +64,7 @@ public class MainController implements Initializable {
     @FXML private Button deleteButton;
     @FXML private Button completeButton;
     @FXML private Button clearCompletedButton;
+    @FXML private Button analyticsButton;
     
     @FXML private Label totalTasksLabel;
     @FXML private Label completedTasksLabel;
@@ -65,100 +73,187 @@ public class MainController implements Initializable {
     @FXML private ProgressBar completionProgressBar;
     
     @FXML private Label storageTypeLabel;
+    @FXML private Label reminderLabel;
+    @FXML private ListView<Task> nextUpList;
 
     // Service and data
     private TaskService taskService;
+    private TaskListRefresher taskListRefresher;
+    private TaskListUpdater taskListUpdater;
     private ObservableList<Task> taskList;
+    private final TaskRowCache taskRows = new TaskRowCache();
+    private final StartupSnapshot startupSnapshot = new StartupSnapshot();
+    private TaskStatistics statistics;
+    private DueDateScheduler dueDateScheduler;
+    private CompletedTaskPurge completedTaskPurge;
     private Task selectedTask;
     private Stage stage;
+    private final int nextUpSize = ConfigurationManager.getInstance().getIntProperty("ui.nextup.size", 10);
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        initializeService();
+        taskListUpdater = new TaskListUpdater();
+        taskList = FXCollections.observableArrayList();
         initializeTableView();
         initializeControls();
+        showStartupSnapshot();
         initializeEventHandlers();
+        openStorage();
+    }
+
+    // The window shows the last session's rows while storage is probed and loaded
+    private void showStartupSnapshot() {
+        startupSnapshot.load().ifPresent(snapshot -> {
+            filterComboBox.setValue(snapshot.getFilter());
+            sortComboBox.setValue(snapshot.getSort());
+            ascendingCheckBox.setSelected(snapshot.isAscending());
+            taskList.setAll(snapshot.getTasks());
+            showStatistics(snapshot.toStatistics());
+            logger.info("Showing startup snapshot of {} tasks until storage is ready", snapshot.getTasks().size());
+        });
+    }
+
+    private void openStorage() {
+        storageTypeLabel.setText("Storage: connecting...");
+        StartupTimer startupTimer = StartupTimer.getInstance();
+        long begin = startupTimer.begin();
+        CompletableFuture.supplyAsync(TaskService::new, daemonThread("storage-open")).whenComplete((service, error) -> Platform.runLater(() -> {
+            startupTimer.phase("storage", begin);
+            if (error != null) {
+                logger.error("Error opening task storage", error);
+                storageTypeLabel.setText("Storage: unavailable");
+                showError("Error opening task storage: " + error.getMessage());
+                return;
+            }
+            onStorageReady(service);
+            startupTimer.milestone("liveData");
+        }));
+    }
+
+    private void onStorageReady(TaskService service) {
+        taskService = service;
+        taskListRefresher = new TaskListRefresher(taskService);
+        // Writes update the table and statistics through their change events
+        taskService.addChangeListener(this::onTaskChanged);
+        storageTypeLabel.setText("Storage: " + taskService.getStorageName());
+
         refreshTaskList();
         updateStatistics();
+        updateNextUp();
+        updateButtonStates();
+
+        dueDateScheduler = new DueDateScheduler();
+        dueDateScheduler.addListener((task, alert) -> Platform.runLater(() -> onTaskDue(task, alert)));
+        dueDateScheduler.start(taskService);
+
+        // Moving old history out can take a while the first time; the BULK event reloads the table
+        CompletableFuture.runAsync(service::archiveCompletedTasks, daemonThread("task-archiver"))
+                .exceptionally(error -> {
+                    logger.error("Archiving old completed tasks failed", error);
+                    return null;
+                });
     }
 
-    private void initializeService() {
-        taskService = new TaskService();
-        taskList = FXCollections.observableArrayList();
-        
-        // Update storage type label
-        Platform.runLater(() -> {
-            storageTypeLabel.setText("Storage: " + 
-                (taskService.isUsingDatabaseStorage() ? "Database" : "File"));
-        });
+    private static Executor daemonThread(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            thread.start();
+        };
     }
 
-    private void initializeTableView() {
-        // Configure table columns
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        titleColumn.setCellValueFactory(new PropertyValueFactory<>("title"));
-        descriptionColumn.setCellValueFactory(new PropertyValueFactory<>("description"));
-        priorityColumn.setCellValueFactory(new PropertyValueFactory<>("priority"));
-        
-        dueDateColumn.setCellValueFactory(cellData -> {
-            LocalDateTime dueDate = cellData.getValue().getDueDate();
-            return new SimpleStringProperty(dueDate != null ? dueDate.format(DATE_FORMATTER) : "");
-        });
-        
-        statusColumn.setCellValueFactory(cellData -> {
-            Task task = cellData.getValue();
-            String status = task.isCompleted() ? "Completed" : "Pending";
-            if (!task.isCompleted() && task.isOverdue()) {
-                status += " (Overdue)";
+    // A due date passed: update that row's status and the overdue count without a reload
+    private void onTaskDue(Task task, DueDateScheduler.Alert alert) {
+        String due = task.getDueDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+        if (alert == DueDateScheduler.Alert.OVERDUE) {
+            reminderLabel.setText("Overdue: " + task.getTitle() + " (due " + due + ")");
+            if (statistics != null) {
+                showStatistics(statistics.withNewlyOverdue());
             }
-            return new SimpleStringProperty(status);
-        });
-        
-        createdDateColumn.setCellValueFactory(cellData -> {
-            LocalDateTime createdDate = cellData.getValue().getCreatedDate();
-            return new SimpleStringProperty(createdDate != null ? createdDate.format(DATE_FORMATTER) : "");
-        });
+        } else {
+            reminderLabel.setText("Due soon: " + task.getTitle() + " at " + due);
+        }
+        // Crossing a due date raises the task's urgency
+        updateNextUp();
 
-        // Set cell factories for styling
-        priorityColumn.setCellFactory(column -> new TableCell<Task, Priority>() {
+        Task row = taskList.stream().filter(t -> t.getId().equals(task.getId())).findFirst().orElse(task);
+        taskRows.invalidate(task.getId());
+        if (!taskListUpdater.reevaluate(taskList, row)) {
+            refreshTaskList();
+        }
+    }
+
+    /** Stops background work started with the storage, such as due-date alerts. */
+    public void shutdown() {
+        if (dueDateScheduler != null) {
+            dueDateScheduler.stop();
+        }
+    }
+
+    /** Saves the displayed rows for the next start; skipped while searching or before storage opened. */
+    public void saveStartupSnapshot() {
+        String searchTerm = searchField.getText();
+        if (taskService == null || (searchTerm != null && !searchTerm.trim().isEmpty())) {
+            return;
+        }
+        startupSnapshot.save(taskList, filterComboBox.getValue(), sortComboBox.getValue(),
+                ascendingCheckBox.isSelected(), statistics);
+    }
+
+    private void initializeTableView() {
+        // Cell values come from cached row view-models rather than being formatted per update
+        idColumn.setCellValueFactory(cellData -> taskRows.get(cellData.getValue()).idProperty());
+        titleColumn.setCellValueFactory(cellData -> taskRows.get(cellData.getValue()).titleProperty());
+        descriptionColumn.setCellValueFactory(cellData -> taskRows.get(cellData.getValue()).descriptionProperty());
+        priorityColumn.setCellValueFactory(cellData -> taskRows.get(cellData.getValue()).priorityProperty());
+        dueDateColumn.setCellValueFactory(cellData -> taskRows.get(cellData.getValue()).dueDateProperty());
+        statusColumn.setCellValueFactory(cellData -> taskRows.get(cellData.getValue()).statusProperty());
+        createdDateColumn.setCellValueFactory(cellData -> taskRows.get(cellData.getValue()).createdDateProperty());
+
+        // Set cell factories for styling; classes are defined in task-table.css
+        taskTable.getStylesheets().add(getClass().getResource("/styles/task-table.css").toExternalForm());
+        priorityColumn.setCellFactory(column -> new StyledCell<Priority>() {
             @Override
             protected void updateItem(Priority priority, boolean empty) {
                 super.updateItem(priority, empty);
                 if (empty || priority == null) {
                     setText(null);
-                    setStyle("");
+                    setStyleClass(null);
                 } else {
                     setText(priority.getDisplayName());
-                    setStyle("-fx-background-color: " + priority.getColor() + "40;");
+                    setStyleClass(TaskRow.priorityStyleClass(priority));
                 }
             }
         });
 
-        statusColumn.setCellFactory(column -> new TableCell<Task, String>() {
+        statusColumn.setCellFactory(column -> new StyledCell<String>() {
             @Override
             protected void updateItem(String status, boolean empty) {
                 super.updateItem(status, empty);
                 if (empty || status == null) {
                     setText(null);
-                    setStyle("");
+                    setStyleClass(null);
                 } else {
                     setText(status);
-                    if (status.contains("Overdue")) {
-                        setStyle("-fx-text-fill: #dc3545; -fx-font-weight: bold;");
-                    } else if (status.equals("Completed")) {
-                        setStyle("-fx-text-fill: #28a745;");
-                    } else {
-                        setStyle("");
-                    }
+                    setStyleClass(TaskRow.statusStyleClass(status));
                 }
             }
         });
 
         taskTable.setItems(taskList);
+
+        // List queries return summaries; fetch descriptions once the column is shown
+        descriptionColumn.visibleProperty().addListener((obs, wasVisible, isVisible) -> {
+            if (isVisible && taskListRefresher != null) {
+                taskListRefresher.loadDescriptions(taskList);
+                taskTable.refresh();
+            }
+        });
         
         // Selection listener
         taskTable.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
-            selectedTask = newSelection;
+            // Snapshot rows cannot be edited, so nothing is selected until storage is open
+            selectedTask = taskService != null ? taskService.loadDescription(newSelection) : null;
             updateFormFields();
             updateButtonStates();
         });
@@ -179,6 +274,21 @@ public class MainController implements Initializable {
         
         // Set time field placeholder
         dueTimeField.setPromptText("HH:MM (24-hour format)");
+
+        nextUpList.setCellFactory(list -> new ListCell<Task>() {
+            @Override
+            protected void updateItem(Task task, boolean empty) {
+                super.updateItem(task, empty);
+                if (empty || task == null) {
+                    setText(null);
+                } else if (task.getDueDate() != null) {
+                    setText(task.getTitle() + " (" + task.getPriority() + ", due "
+                            + task.getDueDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")) + ")");
+                } else {
+                    setText(task.getTitle() + " (" + task.getPriority() + ")");
+                }
+            }
+        });
         
         updateButtonStates();
     }
@@ -190,6 +300,7 @@ public class MainController implements Initializable {
         deleteButton.setOnAction(e -> deleteTask());
         completeButton.setOnAction(e -> toggleTaskCompletion());
         clearCompletedButton.setOnAction(e -> clearCompletedTasks());
+        analyticsButton.setOnAction(e -> new AnalyticsDashboard(taskService, stage).show());
         
         // Search and filter handlers
         searchField.textProperty().addListener((obs, oldText, newText) -> applyFiltersAndSort());
@@ -199,6 +310,16 @@ public class MainController implements Initializable {
         
         // Form validation
         titleField.textProperty().addListener((obs, oldText, newText) -> updateButtonStates());
+
+        // Picking a next up task selects its row, when the current view shows it
+        nextUpList.getSelectionModel().selectedItemProperty().addListener((obs, oldTask, newTask) -> {
+            if (newTask != null) {
+                taskList.stream().filter(row -> row.getId().equals(newTask.getId())).findFirst().ifPresent(row -> {
+                    taskTable.getSelectionModel().select(row);
+                    taskTable.scrollTo(row);
+                });
+            }
+        });
     }
 
     @FXML
@@ -213,8 +334,6 @@ public class MainController implements Initializable {
             logger.info("Task created: {}", task.getTitle());
             
             clearForm();
-            refreshTaskList();
-            updateStatistics();
             
             showSuccess("Task created successfully!");
             
@@ -239,11 +358,13 @@ public class MainController implements Initializable {
             logger.info("Task updated: {}", updatedTask.getTitle());
             
             clearForm();
-            refreshTaskList();
-            updateStatistics();
             
             showSuccess("Task updated successfully!");
             
+        } catch (StaleTaskException e) {
+            logger.warn("Task {} was modified concurrently", selectedTask.getId());
+            showError("This task was changed elsewhere. The list has been refreshed, please try again.");
+            refreshTaskList();
         } catch (Exception e) {
             logger.error("Error updating task", e);
             showError("Error updating task: " + e.getMessage());
@@ -262,12 +383,10 @@ public class MainController implements Initializable {
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
             try {
-                taskService.deleteTask(selectedTask.getId());
+                taskService.deleteTask(selectedTask);
                 logger.info("Task deleted: {}", selectedTask.getTitle());
                 
                 clearForm();
-                refreshTaskList();
-                updateStatistics();
                 
                 showSuccess("Task deleted successfully!");
                 
@@ -284,16 +403,20 @@ public class MainController implements Initializable {
         
         try {
             if (selectedTask.isCompleted()) {
-                taskService.markTaskPending(selectedTask.getId());
+                taskService.markTaskPending(selectedTask);
                 logger.info("Task marked as pending: {}", selectedTask.getTitle());
             } else {
-                taskService.markTaskCompleted(selectedTask.getId());
+                taskService.markTaskCompleted(selectedTask);
                 logger.info("Task marked as completed: {}", selectedTask.getTitle());
             }
             
-            refreshTaskList();
-            updateStatistics();
+            // The row keeps its selection, so the button label is not refreshed by the listener
+            updateButtonStates();
             
+        } catch (StaleTaskException e) {
+            logger.warn("Task {} was modified concurrently", selectedTask.getId());
+            showError("This task was changed elsewhere. The list has been refreshed, please try again.");
+            refreshTaskList();
         } catch (Exception e) {
             logger.error("Error toggling task completion", e);
             showError("Error updating task: " + e.getMessage());
@@ -302,6 +425,11 @@ public class MainController implements Initializable {
 
     @FXML
     private void clearCompletedTasks() {
+        if (completedTaskPurge != null) {
+            completedTaskPurge.cancel();
+            clearCompletedButton.setDisable(true);
+            return;
+        }
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
         alert.setTitle("Clear Completed Tasks");
         alert.setHeaderText("Are you sure you want to delete all completed tasks?");
@@ -309,63 +437,49 @@ public class MainController implements Initializable {
         
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            try {
-                int deletedCount = taskService.deleteAllCompletedTasks();
-                logger.info("Deleted {} completed tasks", deletedCount);
-                
-                refreshTaskList();
-                updateStatistics();
-                
-                showSuccess(deletedCount + " completed tasks deleted!");
-                
-            } catch (Exception e) {
-                logger.error("Error clearing completed tasks", e);
-                showError("Error clearing completed tasks: " + e.getMessage());
-            }
+            // Runs in chunks in the background; the button cancels it meanwhile
+            CompletedTaskPurge purge = taskService.purgeCompletedTasks();
+            purge.setListener((deleted, total) -> Platform.runLater(() ->
+                    reminderLabel.setText("Clearing completed tasks: " + deleted + " of " + total)));
+            completedTaskPurge = purge;
+            clearCompletedButton.setText("Cancel Clearing");
+            purge.start().whenComplete((deleted, error) -> Platform.runLater(() -> {
+                completedTaskPurge = null;
+                clearCompletedButton.setText("Clear Completed Tasks");
+                updateButtonStates();
+                reminderLabel.setText("");
+                if (error != null) {
+                    logger.error("Error clearing completed tasks", error);
+                    showError("Error clearing completed tasks: " + error.getMessage());
+                } else {
+                    logger.info("Deleted {} completed tasks", deleted);
+                    showSuccess(deleted + " completed tasks deleted" + (purge.isCancelled() ? " before cancelling." : "!"));
+                }
+            }));
         }
     }
 
     private void applyFiltersAndSort() {
+        if (taskService == null) {
+            // Still opening storage; onStorageReady loads with the chosen filter and sort
+            return;
+        }
+        ControllerRefreshEvent event = ControllerRefreshEvent.start("tasks");
         try {
-            List<Task> tasks;
-            
-            // Apply search filter
             String searchTerm = searchField.getText();
-            if (searchTerm != null && !searchTerm.trim().isEmpty()) {
-                tasks = taskService.searchTasks(searchTerm);
-            } else {
-                // Apply selected filter
-                TaskFilter filter = filterComboBox.getValue();
-                tasks = taskService.getFilteredTasks(filter);
-            }
-            
-            // Apply sorting
+            TaskFilter filter = filterComboBox.getValue();
             TaskSortCriteria sortCriteria = sortComboBox.getValue();
-            boolean ascending = ascendingCheckBox.isSelected();
-            
-            if (sortCriteria != null) {
-                tasks = taskService.getTasksSortedBy(sortCriteria, ascending);
-                
-                if (searchTerm != null && !searchTerm.trim().isEmpty()) {
-                    final String finalSearchTerm = searchTerm.toLowerCase();
-                    tasks = tasks.stream()
-                            .filter(task -> 
-                                (task.getTitle() != null && task.getTitle().toLowerCase().contains(finalSearchTerm)) ||
-                                (task.getDescription() != null && task.getDescription().toLowerCase().contains(finalSearchTerm)))
-                            .collect(Collectors.toList());
-                }
-                
-                // Apply filter to sorted and searched results
-                TaskFilter filter = filterComboBox.getValue();
-                if (filter != TaskFilter.ALL && (searchTerm == null || searchTerm.trim().isEmpty())) {
-                    // Only apply filter if no search term (to avoid double filtering)
-                    tasks = tasks.stream()
-                            .filter(task -> matchesFilter(task, filter))
-                            .collect(Collectors.toList());
-                }
+            List<Task> tasks = taskListRefresher.loadTasks(
+                    searchTerm, filter, sortCriteria, ascendingCheckBox.isSelected());
+            if (descriptionColumn.isVisible()) {
+                taskListRefresher.loadDescriptions(tasks);
             }
-            
+
+            taskRows.clear();
             taskList.setAll(tasks);
+            taskListUpdater.setView(searchTerm, filter, sortCriteria, ascendingCheckBox.isSelected());
+            ControllerRefreshEvent.end(event, String.valueOf(filter), String.valueOf(sortCriteria),
+                    searchTerm != null && !searchTerm.trim().isEmpty(), tasks.size());
             
         } catch (Exception e) {
             logger.error("Error applying filters and sort", e);
@@ -373,31 +487,42 @@ public class MainController implements Initializable {
         }
     }
 
-    private boolean matchesFilter(Task task, TaskFilter filter) {
-        switch (filter) {
-            case ALL:
-                return true;
-            case PENDING:
-                return !task.isCompleted();
-            case COMPLETED:
-                return task.isCompleted();
-            case OVERDUE:
-                return task.isOverdue();
-            case DUE_TODAY:
-                return task.isDueToday();
-            case HIGH_PRIORITY:
-                return task.getPriority() == Priority.HIGH;
-            case URGENT:
-                return task.getPriority() == Priority.URGENT;
-            default:
-                return true;
-        }
-    }
-
     private void refreshTaskList() {
         applyFiltersAndSort();
     }
 
+    private void onTaskChanged(TaskChangeEvent event) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> onTaskChanged(event));
+            return;
+        }
+        ControllerRefreshEvent refresh = ControllerRefreshEvent.start("delta");
+        taskRows.invalidate(event.getTaskId());
+        Task previous = taskListUpdater.previousOf(taskList, event);
+        if (taskListUpdater.apply(taskList, event)) {
+            String searchTerm = searchField.getText();
+            ControllerRefreshEvent.end(refresh, String.valueOf(filterComboBox.getValue()),
+                    String.valueOf(sortComboBox.getValue()),
+                    searchTerm != null && !searchTerm.trim().isEmpty(), taskList.size());
+        } else {
+            refreshTaskList();
+        }
+
+        if (event.getType() == TaskChangeEvent.Type.BULK) {
+            // Also published when the database goes offline or comes back
+            storageTypeLabel.setText("Storage: " + taskService.getStorageName());
+            updateButtonStates();
+        }
+
+        boolean previousKnown = previous != null || event.getType() == TaskChangeEvent.Type.CREATED;
+        if (statistics != null && event.getType() != TaskChangeEvent.Type.BULK && previousKnown) {
+            showStatistics(statistics.adjust(previous, event.getCurrent()));
+        } else {
+            updateStatistics();
+        }
+        updateNextUp();
+    }
+
     private void updateFormFields() {
         if (selectedTask == null) {
             clearForm();
@@ -431,11 +556,15 @@ public class MainController implements Initializable {
     private void updateButtonStates() {
         boolean hasSelection = selectedTask != null;
         boolean hasTitle = titleField.getText() != null && !titleField.getText().trim().isEmpty();
+        // While the database is offline the table shows the last known tasks, read-only
+        boolean storageOpen = taskService != null && taskService.isStorageWritable();
         
-        addButton.setDisable(!hasTitle || hasSelection);
-        updateButton.setDisable(!hasTitle || !hasSelection);
-        deleteButton.setDisable(!hasSelection);
-        completeButton.setDisable(!hasSelection);
+        addButton.setDisable(!hasTitle || hasSelection || !storageOpen);
+        clearCompletedButton.setDisable(!storageOpen || (completedTaskPurge != null && completedTaskPurge.isCancelled()));
+        updateButton.setDisable(!hasTitle || !hasSelection || !storageOpen);
+        deleteButton.setDisable(!hasSelection || !storageOpen);
+        completeButton.setDisable(!hasSelection || !storageOpen);
+        analyticsButton.setDisable(taskService == null);
         
         if (hasSelection) {
             completeButton.setText(selectedTask.isCompleted() ? "Mark Pending" : "Mark Complete");
@@ -445,21 +574,36 @@ public class MainController implements Initializable {
     }
 
     private void updateStatistics() {
+        ControllerRefreshEvent event = ControllerRefreshEvent.start("statistics");
         try {
-            TaskStatistics stats = taskService.getStatistics();
-            
-            totalTasksLabel.setText("Total: " + stats.getTotal());
-            completedTasksLabel.setText("Completed: " + stats.getCompleted());
-            pendingTasksLabel.setText("Pending: " + stats.getPending());
-            overdueTasksLabel.setText("Overdue: " + stats.getOverdue());
-            
-            completionProgressBar.setProgress(stats.getCompletionPercentage() / 100.0);
+            TaskStatistics stats = taskListRefresher.loadStatistics();
+            showStatistics(stats);
+            ControllerRefreshEvent.end(event, null, null, false, stats.getTotal());
             
         } catch (Exception e) {
             logger.error("Error updating statistics", e);
         }
     }
 
+    // A top-k query, so it stays cheap to rerun after every change
+    private void updateNextUp() {
+        try {
+            nextUpList.getItems().setAll(taskService.getTopTasks(nextUpSize, TaskSortCriteria.URGENCY, TaskFilter.PENDING));
+        } catch (Exception e) {
+            logger.error("Error loading next up tasks", e);
+        }
+    }
+
+    private void showStatistics(TaskStatistics stats) {
+        statistics = stats;
+        totalTasksLabel.setText("Total: " + stats.getTotal());
+        completedTasksLabel.setText("Completed: " + stats.getCompleted());
+        pendingTasksLabel.setText("Pending: " + stats.getPending());
+        overdueTasksLabel.setText("Overdue: " + stats.getOverdue());
+        
+        completionProgressBar.setProgress(stats.getCompletionPercentage() / 100.0);
+    }
+
     private LocalDateTime parseDueDateTime() {
         if (dueDatePicker.getValue() == null) {
             return null;
@@ -500,6 +644,24 @@ public class MainController implements Initializable {
         alert.showAndWait();
     }
 
+    /** Table cell that swaps a single style class as it is reused for other rows. */
+    private abstract static class StyledCell<T> extends TableCell<Task, T> {
+        private String styleClass;
+
+        void setStyleClass(String newStyleClass) {
+            if (Objects.equals(styleClass, newStyleClass)) {
+                return;
+            }
+            if (styleClass != null) {
+                getStyleClass().remove(styleClass);
+            }
+            if (newStyleClass != null) {
+                getStyleClass().add(newStyleClass);
+            }
+            styleClass = newStyleClass;
+        }
+    }
+
     public void setStage(Stage stage) {
         this.stage = stage;
     }
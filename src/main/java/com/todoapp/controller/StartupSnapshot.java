@@ -0,0 +1,142 @@
+package com.todoapp.controller;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.todoapp.model.Task;
+import com.todoapp.service.TaskService.TaskFilter;
+import com.todoapp.service.TaskService.TaskSortCriteria;
+import com.todoapp.service.TaskService.TaskStatistics;
+import com.todoapp.util.ConfigurationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The first rows and the statistics the table showed when the application last closed. They
+ * are displayed, read-only, while storage is still being opened at the next start, and are
+ * replaced as soon as live data arrives. Descriptions are left out.
+ */
+public class StartupSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(StartupSnapshot.class);
+
+    private final Path path;
+    private final int maxRows;
+    private final ObjectMapper mapper;
+
+    public StartupSnapshot() {
+        this(ConfigurationManager.getInstance().getProperty("startup.snapshot.path", ""),
+             ConfigurationManager.getInstance().getIntProperty("startup.snapshot.rows", 200));
+    }
+
+    public StartupSnapshot(String path, int maxRows) {
+        this.path = path == null || path.trim().isEmpty() ? null : Paths.get(path.trim());
+        this.maxRows = maxRows;
+        this.mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    }
+
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    public Optional<Contents> load() {
+        if (path == null || !Files.exists(path)) {
+            return Optional.empty();
+        }
+        try {
+            Contents contents = mapper.readValue(path.toFile(), Contents.class);
+            contents.getTasks().forEach(Task::markDescriptionUnloaded);
+            return Optional.of(contents);
+        } catch (IOException e) {
+            // Only a head start; storage still loads normally
+            logger.warn("Ignoring unreadable startup snapshot {}", path, e);
+            return Optional.empty();
+        }
+    }
+
+    public void save(List<Task> rows, TaskFilter filter, TaskSortCriteria sort, boolean ascending,
+                     TaskStatistics statistics) {
+        if (path == null) {
+            return;
+        }
+        Contents contents = new Contents();
+        contents.setFilter(filter);
+        contents.setSort(sort);
+        contents.setAscending(ascending);
+        contents.setStatistics(statistics);
+        List<Task> tasks = new ArrayList<>(Math.min(rows.size(), maxRows));
+        for (Task row : rows.subList(0, Math.min(rows.size(), maxRows))) {
+            Task task = row.copy();
+            task.markDescriptionUnloaded();
+            tasks.add(task);
+        }
+        contents.setTasks(tasks);
+
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            mapper.writeValue(temp.toFile(), contents);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.debug("Saved startup snapshot of {} tasks to {}", tasks.size(), path);
+        } catch (IOException e) {
+            logger.warn("Could not save startup snapshot {}", path, e);
+        }
+    }
+
+    /** Snapshot file contents. */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Contents {
+        private TaskFilter filter = TaskFilter.ALL;
+        private TaskSortCriteria sort;
+        private boolean ascending;
+        private long total;
+        private long completed;
+        private long pending;
+        private long overdue;
+        private long dueToday;
+        private List<Task> tasks = new ArrayList<>();
+
+        public TaskStatistics toStatistics() {
+            return new TaskStatistics(total, completed, pending, overdue, dueToday);
+        }
+
+        void setStatistics(TaskStatistics statistics) {
+            if (statistics != null) {
+                total = statistics.getTotal();
+                completed = statistics.getCompleted();
+                pending = statistics.getPending();
+                overdue = statistics.getOverdue();
+                dueToday = statistics.getDueToday();
+            }
+        }
+
+        public TaskFilter getFilter() { return filter; }
+        public void setFilter(TaskFilter filter) { this.filter = filter; }
+        public TaskSortCriteria getSort() { return sort; }
+        public void setSort(TaskSortCriteria sort) { this.sort = sort; }
+        public boolean isAscending() { return ascending; }
+        public void setAscending(boolean ascending) { this.ascending = ascending; }
+        public long getTotal() { return total; }
+        public void setTotal(long total) { this.total = total; }
+        public long getCompleted() { return completed; }
+        public void setCompleted(long completed) { this.completed = completed; }
+        public long getPending() { return pending; }
+        public void setPending(long pending) { this.pending = pending; }
+        public long getOverdue() { return overdue; }
+        public void setOverdue(long overdue) { this.overdue = overdue; }
+        public long getDueToday() { return dueToday; }
+        public void setDueToday(long dueToday) { this.dueToday = dueToday; }
+        public List<Task> getTasks() { return tasks; }
+        public void setTasks(List<Task> tasks) { this.tasks = tasks; }
+    }
+}
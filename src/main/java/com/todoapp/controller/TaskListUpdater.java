@@ -0,0 +1,159 @@
+package com.todoapp.controller;
+
+import com.todoapp.model.Task;
+import com.todoapp.service.TaskChangeEvent;
+import com.todoapp.service.TaskListRefresher;
+import com.todoapp.service.TaskService;
+import com.todoapp.service.TaskService.TaskFilter;
+import com.todoapp.service.TaskService.TaskSortCriteria;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Applies {@link TaskChangeEvent}s to the rows {@link TaskListRefresher} loaded, as single
+ * inserts, replacements and removals that keep the active search, filter and sort, so a
+ * one-task edit touches one row of an observable list and no storage. Like the refresher it
+ * has no JavaFX dependency.
+ */
+public class TaskListUpdater {
+    private String searchTerm;
+    private TaskFilter filter = TaskFilter.ALL;
+    private Comparator<Task> comparator;
+
+    /** Describes what the rows were loaded with; call after every full reload. */
+    public void setView(String searchTerm, TaskFilter filter, TaskSortCriteria sortCriteria, boolean ascending) {
+        this.searchTerm = searchTerm != null && !searchTerm.trim().isEmpty()
+                ? searchTerm.trim().toLowerCase(Locale.ROOT)
+                : null;
+        this.filter = filter != null ? filter : TaskFilter.ALL;
+        this.comparator = sortCriteria != null ? TaskService.getComparator(sortCriteria, ascending) : null;
+    }
+
+    /**
+     * The task as it was before {@code event}: the one the event carries, else the row with
+     * its id. Look it up before {@link #apply} replaces that row. Null when neither is known.
+     */
+    public Task previousOf(List<Task> rows, TaskChangeEvent event) {
+        if (event.getPrevious() != null) {
+            return event.getPrevious();
+        }
+        int index = indexOf(rows, event.getTaskId());
+        return index >= 0 ? rows.get(index) : null;
+    }
+
+    /**
+     * Updates {@code rows} for one change. Returns false, leaving the rows alone, when that
+     * cannot be done locally and the list has to be reloaded instead.
+     */
+    public boolean apply(List<Task> rows, TaskChangeEvent event) {
+        int index = indexOf(rows, event.getTaskId());
+        switch (event.getType()) {
+            case DELETED:
+                if (index >= 0) {
+                    rows.remove(index);
+                }
+                return true;
+            case CREATED:
+            case UPDATED:
+                return applyWrite(rows, index, event.getCurrent());
+            case BULK:
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Re-checks where {@code task} belongs after something other than a write changed how it
+     * filters or sorts, such as its due date passing. Returns false when a reload is needed.
+     */
+    public boolean reevaluate(List<Task> rows, Task task) {
+        return applyWrite(rows, indexOf(rows, task.getId()), task);
+    }
+
+    private boolean applyWrite(List<Task> rows, int index, Task task) {
+        Boolean visible = matches(task);
+        if (visible == null) {
+            return false;
+        }
+        if (!visible) {
+            if (index >= 0) {
+                rows.remove(index);
+            }
+            return true;
+        }
+
+        if (index >= 0 && isInOrder(rows, index, task)) {
+            rows.set(index, task);
+            return true;
+        }
+        if (comparator == null) {
+            // Unsorted rows are in storage order, which differs between queries and backends
+            if (index >= 0) {
+                rows.set(index, task);
+                return true;
+            }
+            return false;
+        }
+        if (index >= 0) {
+            rows.remove(index);
+        }
+        rows.add(insertionPoint(rows, task), task);
+        return true;
+    }
+
+    /** Whether {@code task} belongs in the rows; null when that needs the storage's search. */
+    private Boolean matches(Task task) {
+        // As in TaskListRefresher, a search term takes precedence over the filter
+        if (searchTerm == null) {
+            return TaskService.matchesFilter(task, filter);
+        }
+        if (containsSearchTerm(task.getTitle())) {
+            return true;
+        }
+        if (!task.isDescriptionLoaded()) {
+            return null;
+        }
+        return containsSearchTerm(task.getDescription());
+    }
+
+    private boolean containsSearchTerm(String text) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(searchTerm);
+    }
+
+    private boolean isInOrder(List<Task> rows, int index, Task task) {
+        if (comparator == null) {
+            return true;
+        }
+        return (index == 0 || comparator.compare(rows.get(index - 1), task) <= 0)
+                && (index == rows.size() - 1 || comparator.compare(task, rows.get(index + 1)) <= 0);
+    }
+
+    // After any rows that compare equal, as a stable sort of the reloaded rows would put a new task
+    private int insertionPoint(List<Task> rows, Task task) {
+        int low = 0;
+        int high = rows.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(rows.get(mid), task) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int indexOf(List<Task> rows, Long taskId) {
+        if (taskId == null) {
+            return -1;
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            if (taskId.equals(rows.get(i).getId())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,107 @@
+package com.todoapp.controller;
+
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.beans.value.ObservableValue;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * What the task table shows for one task, computed once: cell values are constant observables
+ * and styling is a CSS class, so cell updates while scrolling neither format nor allocate.
+ * See {@link TaskRowCache} for when a row is rebuilt.
+ */
+public final class TaskRow {
+    public static final String STATUS_PENDING = "Pending";
+    public static final String STATUS_OVERDUE = "Pending (Overdue)";
+    public static final String STATUS_COMPLETED = "Completed";
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final String[] PRIORITY_STYLE_CLASSES = new String[Priority.values().length];
+
+    static {
+        for (Priority priority : Priority.values()) {
+            PRIORITY_STYLE_CLASSES[priority.ordinal()] = "task-priority-" + priority.name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Task task;
+    private final long version;
+    private final boolean descriptionLoaded;
+    // Pending tasks become overdue once their due date passes, which changes the status
+    private final long validUntilMillis;
+
+    private final ObservableValue<Long> id;
+    private final ObservableValue<String> title;
+    private final ObservableValue<String> description;
+    private final ObservableValue<Priority> priority;
+    private final ObservableValue<String> dueDate;
+    private final ObservableValue<String> status;
+    private final ObservableValue<String> createdDate;
+
+    public TaskRow(Task task, LocalDateTime now) {
+        this.task = task;
+        this.version = task.getVersion();
+        this.descriptionLoaded = task.isDescriptionLoaded();
+
+        String statusText;
+        if (task.isCompleted()) {
+            statusText = STATUS_COMPLETED;
+        } else if (task.getDueDate() != null && now.isAfter(task.getDueDate())) {
+            statusText = STATUS_OVERDUE;
+        } else {
+            statusText = STATUS_PENDING;
+        }
+        this.validUntilMillis = STATUS_PENDING.equals(statusText) && task.getDueDate() != null
+                ? task.getDueDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : Long.MAX_VALUE;
+
+        this.id = new ReadOnlyObjectWrapper<>(task.getId()).getReadOnlyProperty();
+        this.title = new ReadOnlyStringWrapper(task.getTitle()).getReadOnlyProperty();
+        this.description = new ReadOnlyStringWrapper(task.getDescription()).getReadOnlyProperty();
+        this.priority = new ReadOnlyObjectWrapper<>(task.getPriority()).getReadOnlyProperty();
+        this.dueDate = new ReadOnlyStringWrapper(format(task.getDueDate())).getReadOnlyProperty();
+        this.status = new ReadOnlyStringWrapper(statusText).getReadOnlyProperty();
+        this.createdDate = new ReadOnlyStringWrapper(format(task.getCreatedDate())).getReadOnlyProperty();
+    }
+
+    /** Whether this row still shows {@code task} as it is at {@code nowMillis}. */
+    public boolean isCurrent(Task task, long nowMillis) {
+        return this.task == task
+                && version == task.getVersion()
+                && descriptionLoaded == task.isDescriptionLoaded()
+                && nowMillis <= validUntilMillis;
+    }
+
+    public ObservableValue<Long> idProperty() { return id; }
+    public ObservableValue<String> titleProperty() { return title; }
+    public ObservableValue<String> descriptionProperty() { return description; }
+    public ObservableValue<Priority> priorityProperty() { return priority; }
+    public ObservableValue<String> dueDateProperty() { return dueDate; }
+    public ObservableValue<String> statusProperty() { return status; }
+    public ObservableValue<String> createdDateProperty() { return createdDate; }
+
+    public static String priorityStyleClass(Priority priority) {
+        return PRIORITY_STYLE_CLASSES[priority.ordinal()];
+    }
+
+    /** Style class for one of the {@code STATUS_*} texts, or null for plain pending tasks. */
+    public static String statusStyleClass(String status) {
+        if (STATUS_OVERDUE.equals(status)) {
+            return "task-status-overdue";
+        }
+        if (STATUS_COMPLETED.equals(status)) {
+            return "task-status-completed";
+        }
+        return null;
+    }
+
+    private static String format(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.format(DATE_FORMATTER) : "";
+    }
+}
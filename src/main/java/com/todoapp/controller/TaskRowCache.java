@@ -0,0 +1,37 @@
+package com.todoapp.controller;
+
+import com.todoapp.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link TaskRow}s of the tasks the table has displayed, by task id. A row is rebuilt when its
+ * task is replaced, gets a new version or description, or turns overdue; cleared when the
+ * table reloads so it only ever holds rows that were scrolled into view.
+ */
+public class TaskRowCache {
+    private final Map<Long, TaskRow> rows = new HashMap<>();
+
+    public TaskRow get(Task task) {
+        TaskRow row = rows.get(task.getId());
+        if (row == null || !row.isCurrent(task, System.currentTimeMillis())) {
+            row = new TaskRow(task, LocalDateTime.now());
+            rows.put(task.getId(), row);
+        }
+        return row;
+    }
+
+    public void invalidate(Long taskId) {
+        rows.remove(taskId);
+    }
+
+    public void clear() {
+        rows.clear();
+    }
+
+    public int size() {
+        return rows.size();
+    }
+}
@@ -0,0 +1,467 @@
+package com.todoapp.dao;
+
+import com.todoapp.database.DatabaseConnection;
+import com.todoapp.metrics.Counter;
+import com.todoapp.metrics.MetricsRegistry;
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskAnalytics;
+import com.todoapp.model.TaskUrgency;
+import com.todoapp.util.CircuitBreaker;
+import com.todoapp.util.ConfigurationManager;
+import com.todoapp.util.TopK;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the application usable when the database goes away mid-session. Calls pass through
+ * to the wrapped DAO while its {@link CircuitBreaker} is closed; connection failures (not
+ * ordinary SQL errors or stale versions) count towards opening it. While it is open, reads
+ * are answered from a snapshot of the tasks last read or written, and writes fail at once
+ * with {@link StorageUnavailableException} instead of each waiting out a connect timeout.
+ * A background probe closes the breaker when the database answers again.
+ *
+ * <p>The snapshot holds copies of whatever was loaded; with the usual startup load of all
+ * tasks it covers everything, summaries included, but descriptions only where they were read.
+ */
+public class FailoverTaskDAO implements TaskDAO {
+    private static final Comparator<Task> NEWEST_FIRST =
+            Comparator.comparing(Task::getCreatedDate, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final TaskDAO primary;
+    private final CircuitBreaker breaker;
+    private final Counter snapshotReads;
+    private final Counter rejectedWrites;
+    // Last known copy of each task, by id; guarded by itself
+    private final TreeMap<Long, Task> snapshot = new TreeMap<>();
+
+    public FailoverTaskDAO(TaskDAO primary) {
+        this(primary, new CircuitBreaker("db",
+                ConfigurationManager.getInstance().getIntProperty("db.breaker.failures", 2),
+                ConfigurationManager.getInstance().getIntProperty("db.breaker.open.ms", 1000),
+                ConfigurationManager.getInstance().getIntProperty("db.breaker.open.max.ms", 30000),
+                DatabaseConnection.getInstance()::testConnection));
+    }
+
+    public FailoverTaskDAO(TaskDAO primary, CircuitBreaker breaker) {
+        this.primary = primary;
+        this.breaker = breaker;
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        this.snapshotReads = metrics.counter("db.failover.snapshotReads");
+        this.rejectedWrites = metrics.counter("db.failover.rejectedWrites");
+        metrics.gauge("db.failover.snapshotSize", this::snapshotSize);
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return breaker;
+    }
+
+    /** False while the breaker is open: reads come from the snapshot and writes are refused. */
+    public boolean isAvailable() {
+        return breaker.allowRequest();
+    }
+
+    /**
+     * Whether {@code error} means the database could not be reached, as opposed to a failed
+     * statement on a working connection. SQL state class 08 is "connection exception".
+     */
+    static boolean isConnectionFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLRecoverableException || cause instanceof SQLTransientConnectionException
+                    || cause instanceof SQLNonTransientConnectionException || cause instanceof SQLTimeoutException
+                    || cause instanceof IOException) {
+                return true;
+            }
+            if (cause instanceof SQLException) {
+                String sqlState = ((SQLException) cause).getSQLState();
+                if (sqlState != null && sqlState.startsWith("08")) {
+                    return true;
+                }
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    // Writes
+
+    @Override
+    public Task save(Task task) {
+        Task saved = write(() -> primary.save(task));
+        remember(saved);
+        return saved;
+    }
+
+    @Override
+    public void insertAll(List<Task> tasks) {
+        write(() -> {
+            primary.insertAll(tasks);
+            return null;
+        });
+        rememberAll(tasks);
+    }
+
+    @Override
+    public OptionalLong updateCompletion(Long id, boolean completed, LocalDateTime completedDate, long expectedVersion) {
+        OptionalLong version = write(() -> primary.updateCompletion(id, completed, completedDate, expectedVersion));
+        if (version.isPresent()) {
+            synchronized (snapshot) {
+                Task known = snapshot.get(id);
+                if (known != null) {
+                    known.setCompleted(completed);
+                    known.setCompletedDate(completed ? completedDate : null);
+                    known.setVersion(version.getAsLong());
+                }
+            }
+        }
+        return version;
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        boolean deleted = write(() -> primary.deleteById(id));
+        synchronized (snapshot) {
+            snapshot.remove(id);
+        }
+        return deleted;
+    }
+
+    @Override
+    public int deleteCompletedTasks() {
+        int deleted = write(primary::deleteCompletedTasks);
+        forget(Task::isCompleted);
+        return deleted;
+    }
+
+    @Override
+    public OptionalLong findCompletedChunkEnd(long afterId, int chunkSize) {
+        // Only used to delete what it finds, so it needs the database as much as the delete
+        return write(() -> primary.findCompletedChunkEnd(afterId, chunkSize));
+    }
+
+    @Override
+    public int deleteCompletedInRange(long afterId, long throughId) {
+        int deleted = write(() -> primary.deleteCompletedInRange(afterId, throughId));
+        forget(task -> task.isCompleted() && task.getId() > afterId && task.getId() <= throughId);
+        return deleted;
+    }
+
+    @Override
+    public int deleteUnchanged(Collection<Task> tasks) {
+        int deleted = write(() -> primary.deleteUnchanged(tasks));
+        Map<Long, Long> versions = new HashMap<>();
+        for (Task task : tasks) {
+            versions.put(task.getId(), task.getVersion());
+        }
+        forget(task -> {
+            Long version = versions.get(task.getId());
+            return version != null && version == task.getVersion();
+        });
+        return deleted;
+    }
+
+    @Override
+    public void beginBulkWrite() {
+        primary.beginBulkWrite();
+    }
+
+    @Override
+    public void endBulkWrite() {
+        primary.endBulkWrite();
+    }
+
+    // Reads
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        return read(() -> primary.findById(id), found -> found.ifPresent(this::remember),
+                () -> Optional.ofNullable(snapshotCopy(id)));
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return read(primary::findAll, this::replaceSnapshot, () -> fromSnapshot(task -> true, NEWEST_FIRST));
+    }
+
+    @Override
+    public List<Task> findPage(long afterId, int limit) {
+        return read(() -> primary.findPage(afterId, limit), this::rememberAll, () -> fromSnapshot(
+                task -> task.getId() > afterId, Comparator.comparing(Task::getId)).stream()
+                .limit(limit).collect(Collectors.toList()));
+    }
+
+    @Override
+    public Stream<Task> streamAll() {
+        // Only opening the stream fails over; a read failing midway surfaces to the caller
+        return read(primary::streamAll, stream -> { }, () -> fromSnapshot(
+                task -> true, Comparator.comparing(Task::getId)).stream());
+    }
+
+    @Override
+    public List<Task> findCompletedBefore(LocalDateTime cutoff, long afterId, int limit) {
+        return read(() -> primary.findCompletedBefore(cutoff, afterId, limit), this::rememberAll, () -> fromSnapshot(
+                task -> task.getId() > afterId && task.isCompleted() && task.getCompletedDate() != null
+                        && task.getCompletedDate().isBefore(cutoff), Comparator.comparing(Task::getId)).stream()
+                .limit(limit).collect(Collectors.toList()));
+    }
+
+    @Override
+    public List<Task> findByCompleted(boolean completed) {
+        return read(() -> primary.findByCompleted(completed), this::rememberAll,
+                () -> fromSnapshot(task -> task.isCompleted() == completed, NEWEST_FIRST));
+    }
+
+    @Override
+    public List<Task> findByPriority(Priority priority) {
+        return read(() -> primary.findByPriority(priority), this::rememberAll,
+                () -> fromSnapshot(task -> task.getPriority() == priority, NEWEST_FIRST));
+    }
+
+    @Override
+    public List<Task> findOverdueTasks() {
+        return read(primary::findOverdueTasks, this::rememberAll,
+                () -> fromSnapshot(FailoverTaskDAO::isOverdue, Comparator.comparing(Task::getDueDate)));
+    }
+
+    @Override
+    public List<Task> findTasksDueToday() {
+        return read(primary::findTasksDueToday, this::rememberAll,
+                () -> fromSnapshot(FailoverTaskDAO::isPendingToday, Comparator.comparing(Task::getDueDate)));
+    }
+
+    @Override
+    public List<Task> findMostUrgent(int limit, LocalDateTime now) {
+        return read(() -> primary.findMostUrgent(limit, now), this::rememberAll, () -> {
+            TopK<Task> top = new TopK<>(limit, TaskUrgency.mostUrgentFirst(now));
+            synchronized (snapshot) {
+                for (Task task : snapshot.values()) {
+                    if (!task.isCompleted()) {
+                        top.offer(task);
+                    }
+                }
+            }
+            return top.toList().stream().map(Task::copy).collect(Collectors.toList());
+        });
+    }
+
+    @Override
+    public List<Task> searchTasks(String searchTerm) {
+        String term = searchTerm.toLowerCase();
+        return read(() -> primary.searchTasks(searchTerm), this::rememberAll, () -> fromSnapshot(task ->
+                (task.getTitle() != null && task.getTitle().toLowerCase().contains(term))
+                        || (task.isDescriptionLoaded() && task.getDescription() != null
+                            && task.getDescription().toLowerCase().contains(term)), NEWEST_FIRST));
+    }
+
+    @Override
+    public long getTotalCount() {
+        return read(primary::getTotalCount, count -> { }, () -> countSnapshot(task -> true));
+    }
+
+    @Override
+    public long getCompletedCount() {
+        return read(primary::getCompletedCount, count -> { }, () -> countSnapshot(Task::isCompleted));
+    }
+
+    @Override
+    public long getPendingCount() {
+        return read(primary::getPendingCount, count -> { }, () -> countSnapshot(task -> !task.isCompleted()));
+    }
+
+    @Override
+    public long getOverdueCount() {
+        return read(primary::getOverdueCount, count -> { }, () -> countSnapshot(FailoverTaskDAO::isOverdue));
+    }
+
+    @Override
+    public long getDueTodayCount() {
+        return read(primary::getDueTodayCount, count -> { }, () -> countSnapshot(FailoverTaskDAO::isPendingToday));
+    }
+
+    @Override
+    public TaskAnalytics getAnalytics(LocalDateTime now) {
+        return read(() -> primary.getAnalytics(now), analytics -> { }, () -> {
+            List<Task> tasks;
+            synchronized (snapshot) {
+                tasks = new ArrayList<>(snapshot.values());
+            }
+            return TaskAnalytics.of(tasks, now);
+        });
+    }
+
+    // Nothing to remember: while the snapshot serves reads there is no stored state to fingerprint
+    @Override
+    public Optional<String> getChangeStamp() {
+        return read(primary::getChangeStamp, stamp -> { }, Optional::empty);
+    }
+
+    @Override
+    public Map<Long, String> findDescriptions(Collection<Long> ids) {
+        return read(() -> primary.findDescriptions(ids), this::rememberDescriptions, () -> {
+            Map<Long, String> descriptions = new HashMap<>();
+            synchronized (snapshot) {
+                for (Long id : ids) {
+                    Task task = snapshot.get(id);
+                    if (task != null && task.isDescriptionLoaded()) {
+                        descriptions.put(id, task.getDescription());
+                    }
+                }
+            }
+            return descriptions;
+        });
+    }
+
+    private <T> T read(Supplier<T> call, Consumer<T> remember, Supplier<T> fallback) {
+        if (!breaker.allowRequest()) {
+            snapshotReads.increment();
+            return fallback.get();
+        }
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            if (!isConnectionFailure(e)) {
+                throw e;
+            }
+            breaker.recordFailure(e);
+            snapshotReads.increment();
+            return fallback.get();
+        }
+        breaker.recordSuccess();
+        remember.accept(result);
+        return result;
+    }
+
+    private <T> T write(Supplier<T> call) {
+        if (!breaker.allowRequest()) {
+            rejectedWrites.increment();
+            throw new StorageUnavailableException("The database is unavailable; changes cannot be saved right now");
+        }
+        try {
+            T result = call.get();
+            breaker.recordSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            if (!isConnectionFailure(e)) {
+                throw e;
+            }
+            breaker.recordFailure(e);
+            throw new StorageUnavailableException("The database is unavailable; the change was not saved", e);
+        }
+    }
+
+    private void remember(Task task) {
+        synchronized (snapshot) {
+            snapshot.put(task.getId(), keepDescription(task.copy(), snapshot.get(task.getId())));
+        }
+    }
+
+    private void rememberAll(List<Task> tasks) {
+        synchronized (snapshot) {
+            for (Task task : tasks) {
+                snapshot.put(task.getId(), keepDescription(task.copy(), snapshot.get(task.getId())));
+            }
+        }
+    }
+
+    // A full listing also tells which tasks are gone
+    private void replaceSnapshot(List<Task> tasks) {
+        synchronized (snapshot) {
+            Map<Long, Task> previous = new HashMap<>(snapshot);
+            snapshot.clear();
+            for (Task task : tasks) {
+                snapshot.put(task.getId(), keepDescription(task.copy(), previous.get(task.getId())));
+            }
+        }
+    }
+
+    private void rememberDescriptions(Map<Long, String> descriptions) {
+        synchronized (snapshot) {
+            descriptions.forEach((id, description) -> {
+                Task task = snapshot.get(id);
+                if (task != null) {
+                    task.setDescription(description);
+                }
+            });
+        }
+    }
+
+    // Summary rows leave the description out; an unchanged task keeps the one already known
+    private static Task keepDescription(Task task, Task known) {
+        if (!task.isDescriptionLoaded() && known != null && known.isDescriptionLoaded()
+                && known.getVersion() == task.getVersion()) {
+            task.setDescription(known.getDescription());
+        }
+        return task;
+    }
+
+    private void forget(Predicate<Task> predicate) {
+        synchronized (snapshot) {
+            snapshot.values().removeIf(predicate);
+        }
+    }
+
+    private Task snapshotCopy(Long id) {
+        synchronized (snapshot) {
+            Task task = snapshot.get(id);
+            return task != null ? task.copy() : null;
+        }
+    }
+
+    private List<Task> fromSnapshot(Predicate<Task> predicate, Comparator<Task> order) {
+        List<Task> tasks = new ArrayList<>();
+        synchronized (snapshot) {
+            for (Task task : snapshot.values()) {
+                if (predicate.test(task)) {
+                    tasks.add(task.copy());
+                }
+            }
+        }
+        tasks.sort(order);
+        return tasks;
+    }
+
+    private long countSnapshot(Predicate<Task> predicate) {
+        synchronized (snapshot) {
+            return snapshot.values().stream().filter(predicate).count();
+        }
+    }
+
+    private long snapshotSize() {
+        synchronized (snapshot) {
+            return snapshot.size();
+        }
+    }
+
+    private static boolean isOverdue(Task task) {
+        return !task.isCompleted() && task.getDueDate() != null && task.getDueDate().isBefore(LocalDateTime.now());
+    }
+
+    private static boolean isPendingToday(Task task) {
+        return !task.isCompleted() && task.getDueDate() != null
+                && task.getDueDate().toLocalDate().equals(LocalDate.now());
+    }
+}
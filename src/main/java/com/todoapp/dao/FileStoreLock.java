@@ -0,0 +1,108 @@
+package com.todoapp.dao;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Cross-process lock for a file store, held in a {@code <store>.lock} file next to it. The lock
+ * file also carries the store's revision, a counter every writer bumps while holding the lock,
+ * so a process can tell cheaply whether anyone else wrote since it last read the store.
+ * Reentrant within one holder; callers serialize access within the holder themselves. File
+ * locks belong to the whole JVM, so holders of the same store in one JVM take turns through a
+ * shared semaphore first rather than failing with an overlapping lock.
+ */
+class FileStoreLock implements AutoCloseable {
+    private static final Map<Path, Semaphore> IN_PROCESS = new ConcurrentHashMap<>();
+
+    private final Path path;
+    private final Semaphore inProcess;
+    private final FileChannel channel;
+    private final ByteBuffer revisionBuffer = ByteBuffer.allocate(Long.BYTES);
+    private FileLock lock;
+    private int depth;
+
+    FileStoreLock(Path storePath) throws IOException {
+        this.path = storePath.resolveSibling(storePath.getFileName() + ".lock");
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                        StandardOpenOption.WRITE);
+        this.inProcess = IN_PROCESS.computeIfAbsent(path.toAbsolutePath().normalize(), key -> new Semaphore(1));
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    /** Blocks until no other process holds the lock. */
+    void lock() {
+        if (depth++ > 0) {
+            return;
+        }
+        inProcess.acquireUninterruptibly();
+        try {
+            lock = channel.lock();
+        } catch (IOException e) {
+            depth = 0;
+            inProcess.release();
+            throw new UncheckedIOException("Failed to lock " + path, e);
+        }
+    }
+
+    void unlock() {
+        if (--depth > 0) {
+            return;
+        }
+        try {
+            lock.release();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to unlock " + path, e);
+        } finally {
+            lock = null;
+            inProcess.release();
+        }
+    }
+
+    boolean isHeld() {
+        return depth > 0;
+    }
+
+    /** The store's revision; 0 for a store no writer has stamped yet. Call while locked. */
+    long readRevision() {
+        try {
+            revisionBuffer.clear();
+            while (revisionBuffer.hasRemaining()) {
+                if (channel.read(revisionBuffer, revisionBuffer.position()) < 0) {
+                    break;
+                }
+            }
+            return revisionBuffer.position() == Long.BYTES ? revisionBuffer.getLong(0) : 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + path, e);
+        }
+    }
+
+    /** Records a new revision after writing the store. Call while locked. */
+    void writeRevision(long revision) {
+        try {
+            revisionBuffer.clear();
+            revisionBuffer.putLong(0, revision);
+            while (revisionBuffer.hasRemaining()) {
+                channel.write(revisionBuffer, revisionBuffer.position());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write " + path, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,85 @@
+package com.todoapp.dao;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a file store's directory on a daemon thread and calls back when the store's lock
+ * file changes, which every writer touches last when it stamps a new revision. Bursts of
+ * events are coalesced over {@code quietMillis}, so one write gives one callback.
+ */
+class FileStoreWatcher implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(FileStoreWatcher.class);
+
+    private final Path watched;
+    private final long quietMillis;
+    private final Runnable onChange;
+    private final WatchService watchService;
+    private volatile boolean closed;
+
+    FileStoreWatcher(Path watched, long quietMillis, Runnable onChange) throws IOException {
+        this.watched = watched.toAbsolutePath();
+        this.quietMillis = quietMillis;
+        this.onChange = onChange;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.watched.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    void start() {
+        Thread thread = new Thread(this::run, "file-store-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        try {
+            while (!closed) {
+                if (!isRelevant(watchService.take())) {
+                    continue;
+                }
+                WatchKey more;
+                while ((more = watchService.poll(quietMillis, TimeUnit.MILLISECONDS)) != null) {
+                    isRelevant(more);
+                }
+                try {
+                    onChange.run();
+                } catch (RuntimeException e) {
+                    logger.error("Error handling a change to {}", watched, e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // close() was called
+        }
+    }
+
+    private boolean isRelevant(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            relevant |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || (context instanceof Path && watched.getFileName().equals(context));
+        }
+        key.reset();
+        return relevant;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        watchService.close();
+    }
+}
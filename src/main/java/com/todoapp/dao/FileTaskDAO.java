@@ -1,11 +1,23 @@
 package com.todoapp.dao;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.todoapp.backup.TaskBackups;
+import com.todoapp.jfr.DaoCallEvent;
+import com.todoapp.jfr.FileBackupEvent;
+import com.todoapp.jfr.FileFlushEvent;
+import com.todoapp.metrics.Counter;
+import com.todoapp.metrics.MetricsRegistry;
+import com.todoapp.metrics.Timer;
 import com.todoapp.model.Priority;
 import com.todoapp.model.Task;
+import com.todoapp.model.TaskAnalytics;
+import com.todoapp.model.TaskUrgency;
 import com.todoapp.util.ConfigurationManager;
+import com.todoapp.util.TopK;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,32 +28,100 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 public class FileTaskDAO implements TaskDAO {
     private static final Logger logger = LoggerFactory.getLogger(FileTaskDAO.class);
+    private static final String DAO_NAME = "file";
     private final ObjectMapper objectMapper;
     private final String filePath;
-    private final String backupPath;
+    private final TaskBackups backups;
     private final AtomicLong idGenerator;
+    private final Timer flushTimer;
+    private final Timer backupTimer;
+    private final Counter externalReloads;
+    private final FileStoreLock storeLock;
     private List<Task> tasks;
+    // While set, insertAll and deleteCompletedInRange change memory only; endBulkWrite writes the file once
+    private boolean bulkWriting;
+    // Revision of the file that tasks reflects; the lock file carries a newer one after another process writes
+    private long loadedRevision;
+    private boolean externalChangePending;
+    private volatile Runnable externalChangeListener;
+    private FileStoreWatcher watcher;
 
     public FileTaskDAO() {
+        this(ConfigurationManager.getInstance().getProperty("file.storage.path"),
+             ConfigurationManager.getInstance().getProperty("file.storage.backup.path"));
+        if (ConfigurationManager.getInstance().getBooleanProperty("file.storage.watch", true)) {
+            startWatching();
+        }
+    }
+
+    public FileTaskDAO(String filePath, String backupPath) {
+        this.filePath = filePath;
         ConfigurationManager config = ConfigurationManager.getInstance();
-        this.filePath = config.getProperty("file.storage.path");
-        this.backupPath = config.getProperty("file.storage.backup.path");
+        this.backups = new TaskBackups(Paths.get(backupPath), config.getIntProperty("backup.full.every", 200),
+                                       config.getIntProperty("backup.retain.fulls", 5));
         
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
         
         this.tasks = new ArrayList<>();
         this.idGenerator = new AtomicLong(1);
+
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        this.flushTimer = metrics.timer("file.flush");
+        this.backupTimer = metrics.timer("file.backup");
+        this.externalReloads = metrics.counter("file.externalReloads");
+        metrics.gauge("file.cachedTasks", () -> tasks.size());
         
         initializeStorage();
-        loadTasks();
+        try {
+            this.storeLock = new FileStoreLock(Paths.get(filePath));
+        } catch (IOException e) {
+            logger.error("Error opening lock file", e);
+            throw new RuntimeException("Failed to initialize storage", e);
+        }
+        storeLock.lock();
+        try {
+            loadedRevision = storeLock.readRevision();
+            loadTasks();
+        } finally {
+            storeLock.unlock();
+        }
+    }
+
+    /**
+     * Watches the store for writes by other processes and catches up with them as they happen,
+     * telling the external change listener. Without it, this process still sees their writes
+     * before its own next write, but reads may be stale until then.
+     */
+    public synchronized void startWatching() {
+        if (watcher != null) {
+            return;
+        }
+        try {
+            watcher = new FileStoreWatcher(storeLock.getPath(), 50, this::refreshIfChanged);
+            watcher.start();
+        } catch (IOException e) {
+            logger.warn("Cannot watch {} for changes by other processes", filePath, e);
+        }
+    }
+
+    /** Called, outside the store's lock, after tasks changed because another process wrote the file. */
+    public void setExternalChangeListener(Runnable listener) {
+        this.externalChangeListener = listener;
     }
 
     private void initializeStorage() {
@@ -67,6 +147,8 @@ public class FileTaskDAO implements TaskDAO {
         try {
             TypeReference<List<Task>> typeRef = new TypeReference<List<Task>>() {};
             tasks = objectMapper.readValue(file, typeRef);
+            // findPage relies on id order; ids are assigned ascending, so this is normally a no-op
+            tasks.sort(Comparator.comparing(Task::getId, Comparator.nullsFirst(Comparator.naturalOrder())));
             
             // Update ID generator to avoid conflicts
             long maxId = tasks.stream()
@@ -85,108 +167,416 @@ public class FileTaskDAO implements TaskDAO {
     }
 
     private void loadFromBackup() {
-        File backupFile = new File(backupPath);
-        if (!backupFile.exists()) {
-            logger.warn("No backup file found, starting with empty list");
-            return;
-        }
-
         try {
-            TypeReference<List<Task>> typeRef = new TypeReference<List<Task>>() {};
-            tasks = objectMapper.readValue(backupFile, typeRef);
-            logger.info("Loaded {} tasks from backup file", tasks.size());
+            Optional<List<Task>> restored = backups.restoreLatest();
+            if (!restored.isPresent()) {
+                logger.warn("No backup found, starting with empty list");
+                return;
+            }
+            tasks = restored.get();
+            idGenerator.set(tasks.isEmpty() ? 1 : tasks.get(tasks.size() - 1).getId() + 1);
+            logger.info("Loaded {} tasks from backup", tasks.size());
             
             // Save to main file
             saveTasks();
             
         } catch (IOException e) {
-            logger.error("Error loading tasks from backup file", e);
+            logger.error("Error loading tasks from backup", e);
             tasks = new ArrayList<>();
         }
     }
 
-    private synchronized void saveTasks() {
+    public TaskBackups getBackups() {
+        return backups;
+    }
+
+    public Path getPath() {
+        return Paths.get(filePath);
+    }
+
+    /**
+     * Replaces every task with the backup as of {@code at} and returns how many tasks that is.
+     * Restored tasks get versions above the ones they replace, so edits begun before the
+     * restore fail as stale instead of overwriting it.
+     */
+    public synchronized int restoreBackup(LocalDateTime at) throws IOException {
+        lockStore();
+        try {
+            Optional<List<Task>> restored = backups.restore(at);
+            if (!restored.isPresent()) {
+                throw new IllegalArgumentException("No backup as old as " + at);
+            }
+            Map<Long, Long> versions = new HashMap<>();
+            for (Task task : tasks) {
+                versions.put(task.getId(), task.getVersion());
+            }
+            for (Task task : restored.get()) {
+                task.setVersion(Math.max(task.getVersion(), versions.getOrDefault(task.getId(), -1L)) + 1);
+            }
+            tasks = restored.get();
+            if (!tasks.isEmpty() && tasks.get(tasks.size() - 1).getId() >= idGenerator.get()) {
+                idGenerator.set(tasks.get(tasks.size() - 1).getId() + 1);
+            }
+            saveTasks();
+            logger.info("Restored {} tasks as of {}", tasks.size(), at);
+            return tasks.size();
+        } finally {
+            unlockStore();
+        }
+    }
+
+    /** Rewrites the tasks file and returns the number of bytes written. Caller holds the store lock. */
+    private synchronized long saveTasks() {
+        long start = flushTimer.start();
         try {
-            // Create backup before saving
-            createBackup();
-            
             // Save to main file
-            objectMapper.writeValue(new File(filePath), tasks);
+            FileFlushEvent event = FileFlushEvent.start(filePath, tasks.size());
+            File file = new File(filePath);
+            objectMapper.writeValue(file, tasks);
+            long bytesWritten = file.length();
+            // Stamped last, so a process that sees the new revision also sees the new file
+            storeLock.writeRevision(++loadedRevision);
+            FileFlushEvent.end(event, bytesWritten);
+            recordBackup();
             logger.debug("Tasks saved to file successfully");
+            return bytesWritten;
             
         } catch (IOException e) {
             logger.error("Error saving tasks to file", e);
             throw new RuntimeException("Failed to save tasks", e);
+        } finally {
+            flushTimer.stop(start);
         }
     }
 
-    private void createBackup() {
-        File mainFile = new File(filePath);
-        if (mainFile.exists()) {
+    /**
+     * Takes the cross-process lock for a write. The outermost acquire first catches up with
+     * whatever other processes wrote since this one last read the file, so writes check
+     * versions against current data and never overwrite someone else's changes.
+     */
+    private void lockStore() {
+        boolean outermost = !storeLock.isHeld();
+        storeLock.lock();
+        if (outermost) {
             try {
-                Files.copy(mainFile.toPath(), Paths.get(backupPath), 
-                          java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-                logger.debug("Backup created successfully");
-            } catch (IOException e) {
-                logger.warn("Failed to create backup", e);
+                long revision = storeLock.readRevision();
+                if (revision != loadedRevision) {
+                    reloadChanged();
+                    loadedRevision = revision;
+                    externalChangePending = true;
+                }
+            } catch (RuntimeException e) {
+                storeLock.unlock();
+                throw e;
             }
         }
     }
 
+    private void unlockStore() {
+        storeLock.unlock();
+    }
+
+    /**
+     * Catches up with writes other processes made to the file and, if tasks changed since the
+     * last call, tells the external change listener. Does nothing during a bulk write, which
+     * holds the lock and so already has the latest data. Returns whether tasks changed.
+     */
+    public boolean refreshIfChanged() {
+        boolean changed;
+        synchronized (this) {
+            if (!storeLock.isHeld()) {
+                lockStore();
+                unlockStore();
+            }
+            changed = externalChangePending;
+            externalChangePending = false;
+        }
+        Runnable listener = externalChangeListener;
+        if (changed && listener != null) {
+            listener.run();
+        }
+        return changed;
+    }
+
+    /**
+     * Reloads the file after another process wrote it. One streaming pass reads just the id and
+     * version of each record; only records whose version differs from the one in memory are
+     * bound to a Task, so a change to one task costs a token scan rather than a full parse.
+     */
+    private void reloadChanged() {
+        byte[] content;
+        try {
+            content = Files.readAllBytes(Paths.get(filePath));
+        } catch (IOException e) {
+            logger.error("Error reloading tasks from file", e);
+            throw new RuntimeException("Failed to reload tasks", e);
+        }
+
+        Map<Long, Task> known = new HashMap<>();
+        for (Task task : tasks) {
+            known.put(task.getId(), task);
+        }
+        List<Task> reloaded = new ArrayList<>();
+        int parsed = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(content)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected an array of tasks in " + filePath);
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                int from = (int) parser.getTokenLocation().getByteOffset();
+                Long id = null;
+                long version = 0;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if ("id".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                        id = parser.getLongValue();
+                    } else if ("version".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                        version = parser.getLongValue();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                Task current = known.get(id);
+                if (current != null && current.getVersion() == version) {
+                    reloaded.add(current);
+                } else {
+                    int to = (int) parser.getCurrentLocation().getByteOffset();
+                    reloaded.add(objectMapper.readValue(content, from, to - from, Task.class));
+                    parsed++;
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Error reloading tasks from file", e);
+            throw new RuntimeException("Failed to reload tasks", e);
+        }
+
+        backups.rescan();
+        reloaded.sort(Comparator.comparing(Task::getId, Comparator.nullsFirst(Comparator.naturalOrder())));
+        tasks = reloaded;
+        long maxId = tasks.isEmpty() || tasks.get(tasks.size() - 1).getId() == null
+                ? 0 : tasks.get(tasks.size() - 1).getId();
+        if (maxId >= idGenerator.get()) {
+            idGenerator.set(maxId + 1);
+        }
+        externalReloads.increment();
+        logger.info("Caught up with another process: {} tasks, {} of them re-read", tasks.size(), parsed);
+    }
+
+    private void recordBackup() {
+        long start = backupTimer.start();
+        FileBackupEvent event = FileBackupEvent.start(backups.getDirectory().toString());
+        try {
+            long bytesWritten = backups.record(tasks);
+            FileBackupEvent.end(event, bytesWritten);
+            logger.debug("Backup recorded, {} bytes", bytesWritten);
+        } catch (IOException e) {
+            logger.warn("Failed to record backup", e);
+        } finally {
+            backupTimer.stop(start);
+        }
+    }
+
     @Override
     public synchronized Task save(Task task) {
-        if (task.getId() == null) {
-            // New task
-            task.setId(idGenerator.getAndIncrement());
-            tasks.add(task);
-            logger.info("New task created with ID: {}", task.getId());
-        } else {
-            // Update existing task
-            Optional<Task> existingTask = tasks.stream()
-                    .filter(t -> t.getId().equals(task.getId()))
-                    .findFirst();
-            
-            if (existingTask.isPresent()) {
-                int index = tasks.indexOf(existingTask.get());
-                tasks.set(index, task);
-                logger.info("Task updated with ID: {}", task.getId());
+        lockStore();
+        try {
+            DaoCallEvent event = DaoCallEvent.start(DAO_NAME, task.getId() == null ? "insert" : "update");
+            if (task.getId() == null) {
+                // New task
+                task.setId(idGenerator.getAndIncrement());
+                tasks.add(task);
+                logger.info("New task created with ID: {}", task.getId());
             } else {
-                throw new RuntimeException("Task not found for update: " + task.getId());
+                // Update existing task
+                Optional<Task> existingTask = tasks.stream()
+                        .filter(t -> t.getId().equals(task.getId()))
+                        .findFirst();
+            
+                if (existingTask.isPresent()) {
+                    if (existingTask.get().getVersion() != task.getVersion()) {
+                        DaoCallEvent.end(event, 0, 0);
+                        throw new StaleTaskException(task.getId(), task.getVersion());
+                    }
+                    int index = tasks.indexOf(existingTask.get());
+                    task.setVersion(task.getVersion() + 1);
+                    tasks.set(index, task);
+                    logger.info("Task updated with ID: {}", task.getId());
+                } else {
+                    DaoCallEvent.end(event, 0, 0);
+                    throw new RuntimeException("Task not found for update: " + task.getId());
+                }
             }
-        }
         
-        saveTasks();
-        return task;
+            DaoCallEvent.end(event, 1, saveTasks());
+            return task;
+        } finally {
+            unlockStore();
+        }
+    }
+
+    @Override
+    public synchronized void insertAll(List<Task> newTasks) {
+        lockStore();
+        try {
+            DaoCallEvent event = DaoCallEvent.start(DAO_NAME, "insertAll");
+            for (Task task : newTasks) {
+                task.setId(idGenerator.getAndIncrement());
+                task.setVersion(0);
+                tasks.add(task);
+            }
+            long bytesWritten = bulkWriting ? 0 : saveTasks();
+            DaoCallEvent.end(event, newTasks.size(), bytesWritten);
+            logger.debug("Inserted batch of {} tasks", newTasks.size());
+        } finally {
+            unlockStore();
+        }
+    }
+
+    /**
+     * Stores copies of tasks under the ids and versions they already have, replacing tasks
+     * with the same id, in one file rewrite. For mirroring another store, where ids are
+     * assigned elsewhere; later inserts get ids above all of them.
+     */
+    public synchronized void putAll(Collection<Task> replacements) {
+        lockStore();
+        try {
+            if (replacements.isEmpty()) {
+                return;
+            }
+            DaoCallEvent event = DaoCallEvent.start(DAO_NAME, "putAll");
+            for (Task replacement : replacements) {
+                Task task = replacement.copy();
+                int index = indexAfter(task.getId() - 1);
+                if (index < tasks.size() && tasks.get(index).getId().equals(task.getId())) {
+                    tasks.set(index, task);
+                } else {
+                    tasks.add(index, task);
+                }
+                if (task.getId() >= idGenerator.get()) {
+                    idGenerator.set(task.getId() + 1);
+                }
+            }
+            DaoCallEvent.end(event, replacements.size(), bulkWriting ? 0 : saveTasks());
+        } finally {
+            unlockStore();
+        }
+    }
+
+    /**
+     * Defers persistence of {@link #insertAll} batches and {@link #deleteCompletedInRange}
+     * chunks until {@link #endBulkWrite}, so a bulk import rewrites the tasks file once
+     * instead of once per batch. Other writes in between still save everything. The store
+     * lock is held throughout, so other processes wait for the bulk write to land; callers
+     * that pause between writes, like the completed task purge, end it before every pause.
+     */
+    @Override
+    public synchronized void beginBulkWrite() {
+        if (!bulkWriting) {
+            lockStore();
+            bulkWriting = true;
+        }
     }
 
     @Override
-    public Optional<Task> findById(Long id) {
+    public synchronized void endBulkWrite() {
+        if (bulkWriting) {
+            bulkWriting = false;
+            try {
+                saveTasks();
+            } finally {
+                unlockStore();
+            }
+        }
+    }
+
+    @Override
+    public synchronized OptionalLong updateCompletion(Long id, boolean completed, LocalDateTime completedDate,
+                                                      long expectedVersion) {
+        lockStore();
+        try {
+            DaoCallEvent event = DaoCallEvent.start(DAO_NAME, "updateCompletion");
+            Optional<Task> existingTask = findById(id);
+            if (!existingTask.isPresent()) {
+                DaoCallEvent.end(event, 0, 0);
+                return OptionalLong.empty();
+            }
+
+            Task task = existingTask.get();
+            if (task.getVersion() != expectedVersion) {
+                DaoCallEvent.end(event, 0, 0);
+                throw new StaleTaskException(id, expectedVersion);
+            }
+            task.setCompleted(completed);
+            task.setCompletedDate(completed ? completedDate : null);
+            task.setVersion(expectedVersion + 1);
+
+            DaoCallEvent.end(event, 1, saveTasks());
+            logger.info("Task {} marked {}", id, completed ? "completed" : "pending");
+            return OptionalLong.of(task.getVersion());
+        } finally {
+            unlockStore();
+        }
+    }
+
+    @Override
+    public synchronized Optional<Task> findById(Long id) {
         return tasks.stream()
                 .filter(task -> task.getId().equals(id))
                 .findFirst();
     }
 
     @Override
-    public List<Task> findAll() {
+    public synchronized List<Task> findAll() {
         return new ArrayList<>(tasks);
     }
 
     @Override
-    public List<Task> findByCompleted(boolean completed) {
+    public synchronized List<Task> findPage(long afterId, int limit) {
+        int from = indexAfter(afterId);
+        return new ArrayList<>(tasks.subList(from, Math.min(from + limit, tasks.size())));
+    }
+
+    // Tasks are kept in ascending id order, so the first id above afterId is a binary search away
+    private int indexAfter(long afterId) {
+        int low = 0;
+        int high = tasks.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (tasks.get(mid).getId() <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public synchronized List<Task> findCompletedBefore(LocalDateTime cutoff, long afterId, int limit) {
+        return tasks.stream()
+                .filter(task -> task.getId() > afterId && task.isCompleted()
+                        && task.getCompletedDate() != null && task.getCompletedDate().isBefore(cutoff))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized List<Task> findByCompleted(boolean completed) {
         return tasks.stream()
                 .filter(task -> task.isCompleted() == completed)
                 .collect(Collectors.toList());
     }
 
     @Override
-    public List<Task> findByPriority(Priority priority) {
+    public synchronized List<Task> findByPriority(Priority priority) {
         return tasks.stream()
                 .filter(task -> task.getPriority() == priority)
                 .collect(Collectors.toList());
     }
 
     @Override
-    public List<Task> findOverdueTasks() {
+    public synchronized List<Task> findOverdueTasks() {
         LocalDateTime now = LocalDateTime.now();
         return tasks.stream()
                 .filter(task -> !task.isCompleted() && 
@@ -196,14 +586,14 @@ public class FileTaskDAO implements TaskDAO {
     }
 
     @Override
-    public List<Task> findTasksDueToday() {
+    public synchronized List<Task> findTasksDueToday() {
         return tasks.stream()
                 .filter(Task::isDueToday)
                 .collect(Collectors.toList());
     }
 
     @Override
-    public List<Task> searchTasks(String searchTerm) {
+    public synchronized List<Task> searchTasks(String searchTerm) {
         String lowerSearchTerm = searchTerm.toLowerCase();
         return tasks.stream()
                 .filter(task -> 
@@ -212,46 +602,171 @@ public class FileTaskDAO implements TaskDAO {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public synchronized List<Task> findMostUrgent(int limit, LocalDateTime now) {
+        TopK<Task> top = new TopK<>(limit, TaskUrgency.mostUrgentFirst(now));
+        for (Task task : tasks) {
+            if (!task.isCompleted()) {
+                top.offer(task);
+            }
+        }
+        return top.toList();
+    }
+
     @Override
     public synchronized boolean deleteById(Long id) {
-        boolean removed = tasks.removeIf(task -> task.getId().equals(id));
-        if (removed) {
-            saveTasks();
-            logger.info("Task deleted with ID: {}", id);
+        lockStore();
+        try {
+            DaoCallEvent event = DaoCallEvent.start(DAO_NAME, "deleteById");
+            long bytesWritten = 0;
+            boolean removed = tasks.removeIf(task -> task.getId().equals(id));
+            if (removed) {
+                bytesWritten = saveTasks();
+                logger.info("Task deleted with ID: {}", id);
+            }
+            DaoCallEvent.end(event, removed ? 1 : 0, bytesWritten);
+            return removed;
+        } finally {
+            unlockStore();
         }
-        return removed;
     }
 
     @Override
     public synchronized int deleteCompletedTasks() {
-        int initialSize = tasks.size();
-        tasks.removeIf(Task::isCompleted);
-        int deletedCount = initialSize - tasks.size();
+        lockStore();
+        try {
+            DaoCallEvent event = DaoCallEvent.start(DAO_NAME, "deleteCompletedTasks");
+            long bytesWritten = 0;
+            int initialSize = tasks.size();
+            tasks.removeIf(Task::isCompleted);
+            int deletedCount = initialSize - tasks.size();
         
-        if (deletedCount > 0) {
-            saveTasks();
-            logger.info("Deleted {} completed tasks", deletedCount);
-        }
+            if (deletedCount > 0) {
+                bytesWritten = saveTasks();
+                logger.info("Deleted {} completed tasks", deletedCount);
+            }
+            DaoCallEvent.end(event, deletedCount, bytesWritten);
         
-        return deletedCount;
+            return deletedCount;
+        } finally {
+            unlockStore();
+        }
+    }
+
+    @Override
+    public synchronized OptionalLong findCompletedChunkEnd(long afterId, int chunkSize) {
+        int found = 0;
+        for (int i = indexAfter(afterId); i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (task.isCompleted() && ++found == chunkSize) {
+                return OptionalLong.of(task.getId());
+            }
+        }
+        return OptionalLong.empty();
+    }
+
+    @Override
+    public synchronized int deleteCompletedInRange(long afterId, long throughId) {
+        lockStore();
+        try {
+            DaoCallEvent event = DaoCallEvent.start(DAO_NAME, "deleteCompletedInRange");
+            long bytesWritten = 0;
+            // Only this id range is visited, so a chunk costs its size plus one shift of the tail
+            List<Task> range = tasks.subList(indexAfter(afterId), indexAfter(throughId));
+            int initialSize = range.size();
+            range.removeIf(Task::isCompleted);
+            int deletedCount = initialSize - range.size();
+
+            if (deletedCount > 0 && !bulkWriting) {
+                bytesWritten = saveTasks();
+            }
+            DaoCallEvent.end(event, deletedCount, bytesWritten);
+            return deletedCount;
+        } finally {
+            unlockStore();
+        }
+    }
+
+    @Override
+    public synchronized int deleteUnchanged(Collection<Task> doomed) {
+        lockStore();
+        try {
+            DaoCallEvent event = DaoCallEvent.start(DAO_NAME, "deleteUnchanged");
+            long bytesWritten = 0;
+            Map<Long, Long> versions = new HashMap<>();
+            for (Task task : doomed) {
+                versions.put(task.getId(), task.getVersion());
+            }
+            int initialSize = tasks.size();
+            tasks.removeIf(task -> {
+                Long version = versions.get(task.getId());
+                return version != null && version == task.getVersion();
+            });
+            int deletedCount = initialSize - tasks.size();
+
+            if (deletedCount > 0) {
+                bytesWritten = saveTasks();
+                logger.info("Deleted {} tasks", deletedCount);
+            }
+            DaoCallEvent.end(event, deletedCount, bytesWritten);
+            return deletedCount;
+        } finally {
+            unlockStore();
+        }
     }
 
     @Override
-    public long getTotalCount() {
+    public synchronized long getTotalCount() {
         return tasks.size();
     }
 
     @Override
-    public long getCompletedCount() {
+    public synchronized long getCompletedCount() {
         return tasks.stream()
                 .mapToLong(task -> task.isCompleted() ? 1 : 0)
                 .sum();
     }
 
     @Override
-    public long getPendingCount() {
+    public synchronized long getPendingCount() {
         return tasks.stream()
                 .mapToLong(task -> !task.isCompleted() ? 1 : 0)
                 .sum();
     }
+
+    @Override
+    public synchronized long getOverdueCount() {
+        LocalDateTime now = LocalDateTime.now();
+        return tasks.stream()
+                .filter(task -> !task.isCompleted() && 
+                               task.getDueDate() != null && 
+                               task.getDueDate().isBefore(now))
+                .count();
+    }
+
+    @Override
+    public synchronized long getDueTodayCount() {
+        return tasks.stream()
+                .filter(task -> !task.isCompleted() && task.isDueToday())
+                .count();
+    }
+
+    @Override
+    public synchronized TaskAnalytics getAnalytics(LocalDateTime now) {
+        // Writers wait on this lock while the pool's workers read the list
+        return TaskAnalytics.of(tasks, now);
+    }
+
+    @Override
+    public synchronized Map<Long, String> findDescriptions(Collection<Long> ids) {
+        // Descriptions are already in memory; list results here always carry them
+        Set<Long> wanted = new HashSet<>(ids);
+        Map<Long, String> descriptions = new HashMap<>();
+        for (Task task : tasks) {
+            if (wanted.contains(task.getId())) {
+                descriptions.put(task.getId(), task.getDescription());
+            }
+        }
+        return descriptions;
+    }
 }
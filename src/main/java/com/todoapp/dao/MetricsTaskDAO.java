@@ -0,0 +1,355 @@
+package com.todoapp.dao;
+
+import com.todoapp.metrics.MetricsRegistry;
+import com.todoapp.metrics.Timer;
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskAnalytics;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
+
+/**
+ * Times every call of the wrapped DAO under {@code dao.<method>}. Only installed when
+ * metrics are enabled, so a disabled registry costs nothing on the DAO path.
+ */
+public class MetricsTaskDAO implements TaskDAO {
+    private final TaskDAO delegate;
+    private final Timer saveTimer;
+    private final Timer findByIdTimer;
+    private final Timer findAllTimer;
+    private final Timer findByCompletedTimer;
+    private final Timer findByPriorityTimer;
+    private final Timer findOverdueTimer;
+    private final Timer findDueTodayTimer;
+    private final Timer searchTimer;
+    private final Timer findMostUrgentTimer;
+    private final Timer deleteByIdTimer;
+    private final Timer deleteCompletedTimer;
+    private final Timer totalCountTimer;
+    private final Timer completedCountTimer;
+    private final Timer pendingCountTimer;
+    private final Timer overdueCountTimer;
+    private final Timer dueTodayCountTimer;
+    private final Timer analyticsTimer;
+    private final Timer changeStampTimer;
+    private final Timer findDescriptionsTimer;
+    private final Timer updateCompletionTimer;
+    private final Timer insertAllTimer;
+    private final Timer findPageTimer;
+    private final Timer findCompletedBeforeTimer;
+    private final Timer deleteUnchangedTimer;
+    private final Timer findCompletedChunkEndTimer;
+    private final Timer deleteCompletedInRangeTimer;
+
+    public MetricsTaskDAO(TaskDAO delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        this.saveTimer = registry.timer("dao.save");
+        this.findByIdTimer = registry.timer("dao.findById");
+        this.findAllTimer = registry.timer("dao.findAll");
+        this.findByCompletedTimer = registry.timer("dao.findByCompleted");
+        this.findByPriorityTimer = registry.timer("dao.findByPriority");
+        this.findOverdueTimer = registry.timer("dao.findOverdueTasks");
+        this.findDueTodayTimer = registry.timer("dao.findTasksDueToday");
+        this.searchTimer = registry.timer("dao.searchTasks");
+        this.findMostUrgentTimer = registry.timer("dao.findMostUrgent");
+        this.deleteByIdTimer = registry.timer("dao.deleteById");
+        this.deleteCompletedTimer = registry.timer("dao.deleteCompletedTasks");
+        this.totalCountTimer = registry.timer("dao.getTotalCount");
+        this.completedCountTimer = registry.timer("dao.getCompletedCount");
+        this.pendingCountTimer = registry.timer("dao.getPendingCount");
+        this.overdueCountTimer = registry.timer("dao.getOverdueCount");
+        this.dueTodayCountTimer = registry.timer("dao.getDueTodayCount");
+        this.analyticsTimer = registry.timer("dao.getAnalytics");
+        this.changeStampTimer = registry.timer("dao.getChangeStamp");
+        this.findDescriptionsTimer = registry.timer("dao.findDescriptions");
+        this.updateCompletionTimer = registry.timer("dao.updateCompletion");
+        this.insertAllTimer = registry.timer("dao.insertAll");
+        this.findPageTimer = registry.timer("dao.findPage");
+        this.findCompletedBeforeTimer = registry.timer("dao.findCompletedBefore");
+        this.deleteUnchangedTimer = registry.timer("dao.deleteUnchanged");
+        this.findCompletedChunkEndTimer = registry.timer("dao.findCompletedChunkEnd");
+        this.deleteCompletedInRangeTimer = registry.timer("dao.deleteCompletedInRange");
+    }
+
+    @Override
+    public Task save(Task task) {
+        long start = saveTimer.start();
+        try {
+            return delegate.save(task);
+        } finally {
+            saveTimer.stop(start);
+        }
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        long start = findByIdTimer.start();
+        try {
+            return delegate.findById(id);
+        } finally {
+            findByIdTimer.stop(start);
+        }
+    }
+
+    @Override
+    public void insertAll(List<Task> tasks) {
+        long start = insertAllTimer.start();
+        try {
+            delegate.insertAll(tasks);
+        } finally {
+            insertAllTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<Task> findAll() {
+        long start = findAllTimer.start();
+        try {
+            return delegate.findAll();
+        } finally {
+            findAllTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<Task> findPage(long afterId, int limit) {
+        long start = findPageTimer.start();
+        try {
+            return delegate.findPage(afterId, limit);
+        } finally {
+            findPageTimer.stop(start);
+        }
+    }
+
+    @Override
+    public Stream<Task> streamAll() {
+        // Reads happen as the caller consumes the stream, so there is nothing to time here
+        return delegate.streamAll();
+    }
+
+    @Override
+    public List<Task> findCompletedBefore(LocalDateTime cutoff, long afterId, int limit) {
+        long start = findCompletedBeforeTimer.start();
+        try {
+            return delegate.findCompletedBefore(cutoff, afterId, limit);
+        } finally {
+            findCompletedBeforeTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<Task> findByCompleted(boolean completed) {
+        long start = findByCompletedTimer.start();
+        try {
+            return delegate.findByCompleted(completed);
+        } finally {
+            findByCompletedTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<Task> findByPriority(Priority priority) {
+        long start = findByPriorityTimer.start();
+        try {
+            return delegate.findByPriority(priority);
+        } finally {
+            findByPriorityTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<Task> findOverdueTasks() {
+        long start = findOverdueTimer.start();
+        try {
+            return delegate.findOverdueTasks();
+        } finally {
+            findOverdueTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<Task> findMostUrgent(int limit, LocalDateTime now) {
+        long start = findMostUrgentTimer.start();
+        try {
+            return delegate.findMostUrgent(limit, now);
+        } finally {
+            findMostUrgentTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<Task> findTasksDueToday() {
+        long start = findDueTodayTimer.start();
+        try {
+            return delegate.findTasksDueToday();
+        } finally {
+            findDueTodayTimer.stop(start);
+        }
+    }
+
+    @Override
+    public List<Task> searchTasks(String searchTerm) {
+        long start = searchTimer.start();
+        try {
+            return delegate.searchTasks(searchTerm);
+        } finally {
+            searchTimer.stop(start);
+        }
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        long start = deleteByIdTimer.start();
+        try {
+            return delegate.deleteById(id);
+        } finally {
+            deleteByIdTimer.stop(start);
+        }
+    }
+
+    @Override
+    public int deleteCompletedTasks() {
+        long start = deleteCompletedTimer.start();
+        try {
+            return delegate.deleteCompletedTasks();
+        } finally {
+            deleteCompletedTimer.stop(start);
+        }
+    }
+
+    @Override
+    public OptionalLong findCompletedChunkEnd(long afterId, int chunkSize) {
+        long start = findCompletedChunkEndTimer.start();
+        try {
+            return delegate.findCompletedChunkEnd(afterId, chunkSize);
+        } finally {
+            findCompletedChunkEndTimer.stop(start);
+        }
+    }
+
+    @Override
+    public int deleteCompletedInRange(long afterId, long throughId) {
+        long start = deleteCompletedInRangeTimer.start();
+        try {
+            return delegate.deleteCompletedInRange(afterId, throughId);
+        } finally {
+            deleteCompletedInRangeTimer.stop(start);
+        }
+    }
+
+    @Override
+    public int deleteUnchanged(Collection<Task> tasks) {
+        long start = deleteUnchangedTimer.start();
+        try {
+            return delegate.deleteUnchanged(tasks);
+        } finally {
+            deleteUnchangedTimer.stop(start);
+        }
+    }
+
+    @Override
+    public long getTotalCount() {
+        long start = totalCountTimer.start();
+        try {
+            return delegate.getTotalCount();
+        } finally {
+            totalCountTimer.stop(start);
+        }
+    }
+
+    @Override
+    public long getCompletedCount() {
+        long start = completedCountTimer.start();
+        try {
+            return delegate.getCompletedCount();
+        } finally {
+            completedCountTimer.stop(start);
+        }
+    }
+
+    @Override
+    public long getPendingCount() {
+        long start = pendingCountTimer.start();
+        try {
+            return delegate.getPendingCount();
+        } finally {
+            pendingCountTimer.stop(start);
+        }
+    }
+
+    @Override
+    public long getOverdueCount() {
+        long start = overdueCountTimer.start();
+        try {
+            return delegate.getOverdueCount();
+        } finally {
+            overdueCountTimer.stop(start);
+        }
+    }
+
+    @Override
+    public long getDueTodayCount() {
+        long start = dueTodayCountTimer.start();
+        try {
+            return delegate.getDueTodayCount();
+        } finally {
+            dueTodayCountTimer.stop(start);
+        }
+    }
+
+    @Override
+    public TaskAnalytics getAnalytics(LocalDateTime now) {
+        long start = analyticsTimer.start();
+        try {
+            return delegate.getAnalytics(now);
+        } finally {
+            analyticsTimer.stop(start);
+        }
+    }
+
+    @Override
+    public Optional<String> getChangeStamp() {
+        long start = changeStampTimer.start();
+        try {
+            return delegate.getChangeStamp();
+        } finally {
+            changeStampTimer.stop(start);
+        }
+    }
+
+    @Override
+    public Map<Long, String> findDescriptions(Collection<Long> ids) {
+        long start = findDescriptionsTimer.start();
+        try {
+            return delegate.findDescriptions(ids);
+        } finally {
+            findDescriptionsTimer.stop(start);
+        }
+    }
+
+    @Override
+    public OptionalLong updateCompletion(Long id, boolean completed, LocalDateTime completedDate, long expectedVersion) {
+        long start = updateCompletionTimer.start();
+        try {
+            return delegate.updateCompletion(id, completed, completedDate, expectedVersion);
+        } finally {
+            updateCompletionTimer.stop(start);
+        }
+    }
+
+    @Override
+    public void beginBulkWrite() {
+        delegate.beginBulkWrite();
+    }
+
+    @Override
+    public void endBulkWrite() {
+        delegate.endBulkWrite();
+    }
+}
@@ -0,0 +1,26 @@
+package com.todoapp.dao;
+
+/**
+ * Thrown when a write carries a task version that no longer matches storage, i.e. another
+ * client changed the task since it was read.
+ */
+public class StaleTaskException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final Long taskId;
+    private final long expectedVersion;
+
+    public StaleTaskException(Long taskId, long expectedVersion) {
+        super("Task " + taskId + " was modified concurrently (expected version " + expectedVersion + ")");
+        this.taskId = taskId;
+        this.expectedVersion = expectedVersion;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+}
@@ -0,0 +1,17 @@
+package com.todoapp.dao;
+
+/**
+ * Thrown for a write while the database is unreachable, either right away because the
+ * circuit breaker is open or after the write itself failed to connect.
+ */
+public class StorageUnavailableException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public StorageUnavailableException(String message) {
+        super(message);
+    }
+
+    public StorageUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
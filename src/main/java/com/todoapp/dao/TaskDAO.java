@@ -2,16 +2,62 @@ package com.todoapp.dao;
 
 import com.todoapp.model.Task;
 import com.todoapp.model.Priority;
+import com.todoapp.model.TaskAnalytics;
+import com.todoapp.model.TaskUrgency;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
 
 public interface TaskDAO {
-    
+    /** Page size of the default {@link #streamAll}. */
+    int STREAM_PAGE_SIZE = 1000;
+
     Task save(Task task);
     
     Optional<Task> findById(Long id);
 
+    /**
+     * Inserts new tasks in bulk and assigns their ids. Unlike {@link #save}, completion
+     * state and dates are taken from the tasks as given.
+     */
+    void insertAll(List<Task> tasks);
+
+    /**
+     * Atomically sets the completion state of a task if it is still at {@code expectedVersion}.
+     *
+     * @return the task's new version, or empty if no task has this id
+     * @throws StaleTaskException if the task exists at a different version
+     */
+    OptionalLong updateCompletion(Long id, boolean completed, LocalDateTime completedDate, long expectedVersion);
+
     List<Task> findAll();
+
+    /**
+     * Keyset page of complete tasks (descriptions included) with ids greater than
+     * {@code afterId}, in id order. Pass the last id of one page to get the next.
+     */
+    List<Task> findPage(long afterId, int limit);
+
+    /**
+     * Every task, descriptions included, in id order, read lazily so a full scan holds only
+     * part of the store at a time. The stream may hold storage resources until it is closed,
+     * so use it in a try-with-resources block. Defaults to walking {@link #findPage}.
+     */
+    default Stream<Task> streamAll() {
+        return Stream.iterate(findPage(0, STREAM_PAGE_SIZE), page -> !page.isEmpty(),
+                page -> findPage(page.get(page.size() - 1).getId(), STREAM_PAGE_SIZE))
+                .flatMap(List::stream);
+    }
+
+    /**
+     * Keyset page, as {@link #findPage}, of complete tasks that were completed before
+     * {@code cutoff}. Used to move old history out of the working set.
+     */
+    List<Task> findCompletedBefore(LocalDateTime cutoff, long afterId, int limit);
     
     List<Task> findByCompleted(boolean completed);
  
@@ -23,13 +69,66 @@ public interface TaskDAO {
 
     List<Task> searchTasks(String searchTerm);
 
+    /**
+     * The {@code limit} most urgent pending tasks as of {@code now}, most urgent first (see
+     * {@link TaskUrgency}). Stores find them without sorting or returning every pending task.
+     */
+    List<Task> findMostUrgent(int limit, LocalDateTime now);
+
     boolean deleteById(Long id);
 
     int deleteCompletedTasks();
 
+    /**
+     * Where the next chunk of a purge of completed tasks ends: the id of the
+     * {@code chunkSize}-th completed task after {@code afterId}, or empty when fewer remain.
+     */
+    OptionalLong findCompletedChunkEnd(long afterId, int chunkSize);
+
+    /** Deletes the completed tasks with ids in ({@code afterId}, {@code throughId}]. */
+    int deleteCompletedInRange(long afterId, long throughId);
+
+    /**
+     * Deletes the given tasks in one write, skipping any whose version moved on since they
+     * were read (so a concurrent edit is never lost). Returns how many were deleted.
+     */
+    int deleteUnchanged(Collection<Task> tasks);
+
     long getTotalCount();
 
     long getCompletedCount();
 
     long getPendingCount();
+
+    long getOverdueCount();
+
+    long getDueTodayCount();
+
+    /** Breakdowns of all tasks by priority, creation week, lead time and overdue age. */
+    TaskAnalytics getAnalytics(LocalDateTime now);
+
+    /**
+     * A fingerprint of the stored tasks that changes with every insert, update and delete,
+     * whichever client made it. Empty for stores whose writers are all heard of through
+     * change events anyway, and when it cannot be read right now.
+     */
+    default Optional<String> getChangeStamp() {
+        return Optional.empty();
+    }
+
+    /**
+     * Loads descriptions for tasks returned by list queries, which may leave them out
+     * (see {@link Task#isDescriptionLoaded()}). Ids that no longer exist are absent from the map.
+     */
+    Map<Long, String> findDescriptions(Collection<Long> ids);
+
+    /**
+     * Hints that many writes follow, until {@link #endBulkWrite}. Stores that persist by
+     * rewriting everything may then defer that to the end; others need not do anything.
+     */
+    default void beginBulkWrite() {
+    }
+
+    default void endBulkWrite() {
+    }
 }
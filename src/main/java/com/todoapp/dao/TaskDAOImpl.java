@@ -1,23 +1,95 @@
 package com.todoapp.dao;
 
 import com.todoapp.database.DatabaseConnection;
+import com.todoapp.database.StatementTracer;
+import com.todoapp.jfr.DaoCallEvent;
 import com.todoapp.model.Priority;
 import com.todoapp.model.Task;
+import com.todoapp.model.TaskAnalytics;
+import com.todoapp.model.TaskUrgency;
+import com.todoapp.util.TopK;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class TaskDAOImpl implements TaskDAO {
     private static final Logger logger = LoggerFactory.getLogger(TaskDAOImpl.class);
+    private static final String DAO_NAME = "jdbc";
+    // List queries leave out the TEXT description; it is fetched on demand via findDescriptions
+    private static final String SUMMARY_COLUMNS = "id, title, priority, completed, due_date, created_date, completed_date, version";
+    private static final int DESCRIPTION_BATCH_SIZE = 500;
+    private static final int DELETE_BATCH_SIZE = 500;
+
+    // Filter queries compare bare columns with half-open ranges, so the composite indexes
+    // (see DatabaseConnection) serve them as ref/range scans already in the ORDER BY order.
+    // TaskQueryPlanTest checks the plans with EXPLAIN.
+    static final String FIND_BY_COMPLETED_SQL =
+            "SELECT " + SUMMARY_COLUMNS + " FROM tasks WHERE completed = ? ORDER BY created_date DESC";
+    static final String FIND_BY_PRIORITY_SQL =
+            "SELECT " + SUMMARY_COLUMNS + " FROM tasks WHERE priority = ? ORDER BY created_date DESC";
+    static final String FIND_OVERDUE_SQL =
+            "SELECT " + SUMMARY_COLUMNS + " FROM tasks WHERE completed = FALSE AND due_date < ? ORDER BY due_date ASC";
+    static final String FIND_DUE_TODAY_SQL =
+            "SELECT " + SUMMARY_COLUMNS + " FROM tasks WHERE completed = FALSE AND due_date >= ? AND due_date < ? "
+            + "ORDER BY due_date ASC";
+    // Next up: one scan of idx_completed_priority_due_date per priority and due band (overdue, due
+    // within a day, later, none), each already in urgency order within its cell and cut off at
+    // LIMIT. UNION ALL runs every cell in one round trip; at most 16 * limit rows come back.
+    static final String URGENT_OVERDUE_SQL = "SELECT " + SUMMARY_COLUMNS + " FROM tasks "
+            + "WHERE completed = FALSE AND priority = ? AND due_date < ? ORDER BY due_date, id LIMIT ?";
+    static final String URGENT_DUE_SOON_SQL = "SELECT " + SUMMARY_COLUMNS + " FROM tasks "
+            + "WHERE completed = FALSE AND priority = ? AND due_date >= ? AND due_date < ? ORDER BY due_date, id LIMIT ?";
+    static final String URGENT_DUE_LATER_SQL = "SELECT " + SUMMARY_COLUMNS + " FROM tasks "
+            + "WHERE completed = FALSE AND priority = ? AND due_date >= ? ORDER BY due_date, id LIMIT ?";
+    static final String URGENT_UNDATED_SQL = "SELECT " + SUMMARY_COLUMNS + " FROM tasks "
+            + "WHERE completed = FALSE AND priority = ? AND due_date IS NULL ORDER BY id LIMIT ?";
+    private static final String FIND_MOST_URGENT_SQL = Arrays.stream(Priority.values())
+            .flatMap(priority -> Stream.of(URGENT_OVERDUE_SQL, URGENT_DUE_SOON_SQL, URGENT_DUE_LATER_SQL, URGENT_UNDATED_SQL))
+            .map(cell -> "(" + cell + ")")
+            .collect(Collectors.joining(" UNION ALL "));
+    static final String COUNT_OVERDUE_SQL = "SELECT COUNT(*) FROM tasks WHERE completed = FALSE AND due_date < ?";
+    static final String COUNT_DUE_TODAY_SQL =
+            "SELECT COUNT(*) FROM tasks WHERE completed = FALSE AND due_date >= ? AND due_date < ?";
+    // Analytics group in the database and return one row per group, not per task. Day counts
+    // use TIMESTAMPDIFF(DAY, ...) like task_details.age_in_days in schema.sql, computed here
+    // because the application does not create that view, and against the caller's clock
+    // rather than NOW() so they agree with TaskAnalytics.of over the same tasks.
+    static final String ANALYTICS_GROUPS_SQL = "SELECT priority, "
+            + "DATE_SUB(DATE(created_date), INTERVAL WEEKDAY(created_date) DAY) AS week, "
+            + "COUNT(*), SUM(completed = TRUE), SUM(completed = FALSE AND due_date < ?) "
+            + "FROM tasks GROUP BY priority, week";
+    static final String ANALYTICS_DURATIONS_SQL = "(SELECT 'lead' AS kind, "
+            + "TIMESTAMPDIFF(DAY, created_date, completed_date) AS days, COUNT(*) FROM tasks "
+            + "WHERE completed = TRUE AND completed_date IS NOT NULL GROUP BY days) UNION ALL "
+            + "(SELECT 'overdue' AS kind, TIMESTAMPDIFF(DAY, due_date, ?) AS days, COUNT(*) FROM tasks "
+            + "WHERE completed = FALSE AND due_date < ? GROUP BY days)";
+    // Every update bumps a version and new rows get higher ids, so any write by any client
+    // changes at least one of these
+    static final String CHANGE_STAMP_SQL = "SELECT COUNT(*), COALESCE(SUM(version), 0), COALESCE(MAX(id), 0) FROM tasks";
     private final DatabaseConnection dbConnection;
+    private final StatementTracer tracer;
 
     public TaskDAOImpl() {
         this.dbConnection = DatabaseConnection.getInstance();
+        this.tracer = StatementTracer.getInstance();
     }
 
     @Override
@@ -32,9 +104,12 @@ public class TaskDAOImpl implements TaskDAO {
     private Task insert(Task task) {
         String sql = "INSERT INTO tasks (title, description, priority, completed, due_date, created_date) " +
                      "VALUES (?, ?, ?, ?, ?, ?)";
+        DaoCallEvent event = DaoCallEvent.start(DAO_NAME, "insert");
+        int affectedRows = 0;
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        PreparedStatement stmt = null;
+        try {
+            stmt = dbConnection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
 
             stmt.setString(1, task.getTitle());
             stmt.setString(2, task.getDescription());
@@ -43,7 +118,10 @@ public class TaskDAOImpl implements TaskDAO {
             stmt.setTimestamp(5, task.getDueDate() != null ? Timestamp.valueOf(task.getDueDate()) : null);
             stmt.setTimestamp(6, Timestamp.valueOf(task.getCreatedDate()));
 
-            int affectedRows = stmt.executeUpdate();
+            StatementTracer.Trace trace = tracer.start("insert", sql, 6);
+            affectedRows = stmt.executeUpdate();
+            tracer.executed(trace);
+            tracer.finish(trace, affectedRows);
             if (affectedRows == 0) {
                 throw new SQLException("Creating task failed, no rows affected.");
             }
@@ -61,15 +139,87 @@ public class TaskDAOImpl implements TaskDAO {
         } catch (SQLException e) {
             logger.error("Error inserting task", e);
             throw new RuntimeException("Failed to insert task", e);
+        } finally {
+            dbConnection.releaseStatement(stmt);
+            DaoCallEvent.end(event, affectedRows, 0);
+        }
+    }
+
+    @Override
+    public void insertAll(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO tasks (title, description, priority, completed, due_date, created_date, completed_date) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        DaoCallEvent event = DaoCallEvent.start(DAO_NAME, "insertAll");
+        int affectedRows = 0;
+
+        // One transaction per batch on a connection of its own; rewriteBatchedStatements turns
+        // it into multi-row INSERTs
+        try (Connection connection = dbConnection.openTransactionConnection()) {
+            try (PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (Task task : tasks) {
+                    stmt.setString(1, task.getTitle());
+                    stmt.setString(2, task.getDescription());
+                    stmt.setString(3, task.getPriority().name());
+                    stmt.setBoolean(4, task.isCompleted());
+                    stmt.setTimestamp(5, task.getDueDate() != null ? Timestamp.valueOf(task.getDueDate()) : null);
+                    stmt.setTimestamp(6, Timestamp.valueOf(task.getCreatedDate()));
+                    stmt.setTimestamp(7, task.isCompleted() && task.getCompletedDate() != null
+                            ? Timestamp.valueOf(task.getCompletedDate()) : null);
+                    stmt.addBatch();
+                }
+
+                StatementTracer.Trace trace = tracer.start("insertAll", sql, 7);
+                stmt.executeBatch();
+                tracer.executed(trace);
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    for (Task task : tasks) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Bulk insert returned fewer ids than rows");
+                        }
+                        task.setId(generatedKeys.getLong(1));
+                        task.setVersion(0);
+                    }
+                }
+                connection.commit();
+                affectedRows = tasks.size();
+                tracer.finish(trace, affectedRows);
+                logger.debug("Inserted batch of {} tasks", affectedRows);
+            } catch (SQLException e) {
+                rollbackQuietly(connection);
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error inserting batch of {} tasks", tasks.size(), e);
+            throw new RuntimeException("Failed to insert tasks", e);
+        } finally {
+            DaoCallEvent.end(event, affectedRows, 0);
+        }
+    }
+
+    private void rollbackQuietly(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.warn("Rollback failed", e);
         }
     }
 
     private Task update(Task task) {
+        if (!task.isDescriptionLoaded()) {
+            return updateSummary(task);
+        }
         String sql = "UPDATE tasks SET title = ?, description = ?, priority = ?, completed = ?, " +
-                     "due_date = ?, completed_date = ? WHERE id = ?";
+                     "due_date = ?, completed_date = ?, version = version + 1 WHERE id = ? AND version = ?";
+        DaoCallEvent event = DaoCallEvent.start(DAO_NAME, "update");
+        int affectedRows = 0;
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        PreparedStatement stmt = null;
+        try {
+            stmt = dbConnection.prepareStatement(sql);
 
             stmt.setString(1, task.getTitle());
             stmt.setString(2, task.getDescription());
@@ -78,89 +228,259 @@ public class TaskDAOImpl implements TaskDAO {
             stmt.setTimestamp(5, task.getDueDate() != null ? Timestamp.valueOf(task.getDueDate()) : null);
             stmt.setTimestamp(6, task.getCompletedDate() != null ? Timestamp.valueOf(task.getCompletedDate()) : null);
             stmt.setLong(7, task.getId());
+            stmt.setLong(8, task.getVersion());
+
+            StatementTracer.Trace trace = tracer.start("update", sql, 8);
+            affectedRows = stmt.executeUpdate();
+            tracer.executed(trace);
+            tracer.finish(trace, affectedRows);
+            if (affectedRows == 0) {
+                throwIfStale(task.getId(), task.getVersion());
+                throw new SQLException("Updating task failed, no rows affected.");
+            }
+
+            task.setVersion(task.getVersion() + 1);
+            logger.info("Task updated with ID: {}", task.getId());
+            return task;
 
-            int affectedRows = stmt.executeUpdate();
+        } catch (SQLException e) {
+            logger.error("Error updating task", e);
+            throw new RuntimeException("Failed to update task", e);
+        } finally {
+            dbConnection.releaseStatement(stmt);
+            DaoCallEvent.end(event, affectedRows, 0);
+        }
+    }
+
+    /** Updates a task loaded from a summary query without touching its (unloaded) description. */
+    private Task updateSummary(Task task) {
+        String sql = "UPDATE tasks SET title = ?, priority = ?, completed = ?, " +
+                     "due_date = ?, completed_date = ?, version = version + 1 WHERE id = ? AND version = ?";
+        DaoCallEvent event = DaoCallEvent.start(DAO_NAME, "update");
+        int affectedRows = 0;
+
+        PreparedStatement stmt = null;
+        try {
+            stmt = dbConnection.prepareStatement(sql);
+
+            stmt.setString(1, task.getTitle());
+            stmt.setString(2, task.getPriority().name());
+            stmt.setBoolean(3, task.isCompleted());
+            stmt.setTimestamp(4, task.getDueDate() != null ? Timestamp.valueOf(task.getDueDate()) : null);
+            stmt.setTimestamp(5, task.getCompletedDate() != null ? Timestamp.valueOf(task.getCompletedDate()) : null);
+            stmt.setLong(6, task.getId());
+            stmt.setLong(7, task.getVersion());
+
+            StatementTracer.Trace trace = tracer.start("update", sql, 7);
+            affectedRows = stmt.executeUpdate();
+            tracer.executed(trace);
+            tracer.finish(trace, affectedRows);
             if (affectedRows == 0) {
+                throwIfStale(task.getId(), task.getVersion());
                 throw new SQLException("Updating task failed, no rows affected.");
             }
 
+            task.setVersion(task.getVersion() + 1);
             logger.info("Task updated with ID: {}", task.getId());
             return task;
 
         } catch (SQLException e) {
             logger.error("Error updating task", e);
             throw new RuntimeException("Failed to update task", e);
+        } finally {
+            dbConnection.releaseStatement(stmt);
+            DaoCallEvent.end(event, affectedRows, 0);
+        }
+    }
+
+    @Override
+    public OptionalLong updateCompletion(Long id, boolean completed, LocalDateTime completedDate, long expectedVersion) {
+        String sql = "UPDATE tasks SET completed = ?, completed_date = ?, version = version + 1 " +
+                     "WHERE id = ? AND version = ?";
+        DaoCallEvent event = DaoCallEvent.start(DAO_NAME, "updateCompletion");
+        int affectedRows = 0;
+
+        PreparedStatement stmt = null;
+        try {
+            stmt = dbConnection.prepareStatement(sql);
+
+            stmt.setBoolean(1, completed);
+            stmt.setTimestamp(2, completed && completedDate != null ? Timestamp.valueOf(completedDate) : null);
+            stmt.setLong(3, id);
+            stmt.setLong(4, expectedVersion);
+
+            StatementTracer.Trace trace = tracer.start("updateCompletion", sql, 4);
+            affectedRows = stmt.executeUpdate();
+            tracer.executed(trace);
+            tracer.finish(trace, affectedRows);
+            if (affectedRows == 0) {
+                throwIfStale(id, expectedVersion);
+                return OptionalLong.empty();
+            }
+
+            logger.info("Task {} marked {}", id, completed ? "completed" : "pending");
+            return OptionalLong.of(expectedVersion + 1);
+
+        } catch (SQLException e) {
+            logger.error("Error updating completion of task {}", id, e);
+            throw new RuntimeException("Failed to update task", e);
+        } finally {
+            dbConnection.releaseStatement(stmt);
+            DaoCallEvent.end(event, affectedRows, 0);
+        }
+    }
+
+    /** Called after a versioned write matched no row: distinguishes a stale version from a missing task. */
+    private void throwIfStale(Long id, long expectedVersion) throws SQLException {
+        String sql = "SELECT version FROM tasks WHERE id = ?";
+        PreparedStatement stmt = null;
+        try {
+            stmt = dbConnection.prepareStatement(sql);
+            stmt.setLong(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    throw new StaleTaskException(id, expectedVersion);
+                }
+            }
+        } finally {
+            dbConnection.releaseStatement(stmt);
         }
     }
 
     @Override
     public Optional<Task> findById(Long id) {
         String sql = "SELECT * FROM tasks WHERE id = ?";
+        DaoCallEvent event = DaoCallEvent.start(DAO_NAME, "findById");
+        int rowCount = 0;
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        PreparedStatement stmt = null;
+        try {
+            stmt = dbConnection.prepareStatement(sql);
 
             stmt.setLong(1, id);
+            StatementTracer.Trace trace = tracer.start("findById", sql, 1);
             try (ResultSet rs = stmt.executeQuery()) {
+                tracer.executed(trace);
                 if (rs.next()) {
-                    return Optional.of(mapResultSetToTask(rs));
+                    rowCount = 1;
+                    Task task = new TaskRowMapper(rs, true).map(rs);
+                    tracer.finish(trace, rowCount);
+                    return Optional.of(task);
                 }
+                tracer.finish(trace, rowCount);
             }
 
         } catch (SQLException e) {
             logger.error("Error finding task by ID: {}", id, e);
             throw new RuntimeException("Failed to find task", e);
+        } finally {
+            dbConnection.releaseStatement(stmt);
+            DaoCallEvent.end(event, rowCount, 0);
         }
 
         return Optional.empty();
     }
 
+    /**
+     * Reads a task on the caller's connection, so a transaction in progress on it sees its own
+     * uncommitted writes. The caller handles the exception and owns the connection.
+     */
+    public Optional<Task> findById(Connection connection, long id) throws SQLException {
+        String sql = "SELECT * FROM tasks WHERE id = ?";
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+            StatementTracer.Trace trace = tracer.start("findById", sql, 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                tracer.executed(trace);
+                Optional<Task> task = rs.next() ? Optional.of(new TaskRowMapper(rs, true).map(rs)) : Optional.empty();
+                tracer.finish(trace, task.isPresent() ? 1 : 0);
+                return task;
+            }
+        }
+    }
+
     @Override
     public List<Task> findAll() {
-        String sql = "SELECT * FROM tasks ORDER BY created_date DESC";
-        return executeQuery(sql);
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM tasks ORDER BY created_date DESC";
+        return executeQuery("findAll", sql);
+    }
+
+    @Override
+    public Stream<Task> streamAll() {
+        return streamTasks("streamAll", "SELECT * FROM tasks ORDER BY id");
+    }
+
+    @Override
+    public List<Task> findPage(long afterId, int limit) {
+        String sql = "SELECT * FROM tasks WHERE id > ? ORDER BY id LIMIT ?";
+        return queryTasks("findPage", sql, true, new Object[] {afterId, limit});
+    }
+
+    @Override
+    public List<Task> findCompletedBefore(LocalDateTime cutoff, long afterId, int limit) {
+        String sql = "SELECT * FROM tasks WHERE completed = TRUE AND completed_date < ? AND id > ? ORDER BY id LIMIT ?";
+        return queryTasks("findCompletedBefore", sql, true, new Object[] {Timestamp.valueOf(cutoff), afterId, limit});
     }
 
     @Override
     public List<Task> findByCompleted(boolean completed) {
-        String sql = "SELECT * FROM tasks WHERE completed = ? ORDER BY created_date DESC";
-        return executeQuery(sql, completed);
+        return executeQuery("findByCompleted", FIND_BY_COMPLETED_SQL, completed);
     }
 
     @Override
     public List<Task> findByPriority(Priority priority) {
-        String sql = "SELECT * FROM tasks WHERE priority = ? ORDER BY created_date DESC";
-        return executeQuery(sql, priority.name());
+        return executeQuery("findByPriority", FIND_BY_PRIORITY_SQL, priority.name());
     }
 
     @Override
     public List<Task> findOverdueTasks() {
-        String sql = "SELECT * FROM tasks WHERE due_date < NOW() AND completed = FALSE ORDER BY due_date ASC";
-        return executeQuery(sql);
+        // Bounds come from the application clock, as in Task.isOverdue, not the server's NOW()
+        return executeQuery("findOverdueTasks", FIND_OVERDUE_SQL, Timestamp.valueOf(LocalDateTime.now()));
     }
 
     @Override
     public List<Task> findTasksDueToday() {
-        String sql = "SELECT * FROM tasks WHERE DATE(due_date) = CURDATE() AND completed = FALSE ORDER BY due_date ASC";
-        return executeQuery(sql);
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        return executeQuery("findTasksDueToday", FIND_DUE_TODAY_SQL,
+                Timestamp.valueOf(today), Timestamp.valueOf(today.plusDays(1)));
     }
 
     @Override
     public List<Task> searchTasks(String searchTerm) {
-        String sql = "SELECT * FROM tasks WHERE (title LIKE ? OR description LIKE ?) ORDER BY created_date DESC";
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM tasks WHERE (title LIKE ? OR description LIKE ?) ORDER BY created_date DESC";
         String searchPattern = "%" + searchTerm + "%";
-        return executeQuery(sql, searchPattern, searchPattern);
+        return executeQuery("searchTasks", sql, searchPattern, searchPattern);
+    }
+
+    @Override
+    public List<Task> findMostUrgent(int limit, LocalDateTime now) {
+        Timestamp dueNow = Timestamp.valueOf(now);
+        Timestamp dueSoon = Timestamp.valueOf(now.plusHours(TaskUrgency.DUE_SOON_HOURS));
+        List<Object> parameters = new ArrayList<>();
+        for (Priority priority : Priority.values()) {
+            String name = priority.name();
+            parameters.addAll(Arrays.asList(name, dueNow, limit, name, dueNow, dueSoon, limit,
+                                            name, dueSoon, limit, name, limit));
+        }
+        List<Task> candidates = queryTasks("findMostUrgent", FIND_MOST_URGENT_SQL, false, parameters.toArray());
+        return TopK.of(candidates, limit, TaskUrgency.mostUrgentFirst(now));
     }
 
     @Override
     public boolean deleteById(Long id) {
         String sql = "DELETE FROM tasks WHERE id = ?";
+        DaoCallEvent event = DaoCallEvent.start(DAO_NAME, "deleteById");
+        int affectedRows = 0;
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        PreparedStatement stmt = null;
+        try {
+            stmt = dbConnection.prepareStatement(sql);
 
             stmt.setLong(1, id);
-            int affectedRows = stmt.executeUpdate();
+            StatementTracer.Trace trace = tracer.start("deleteById", sql, 1);
+            affectedRows = stmt.executeUpdate();
+            tracer.executed(trace);
+            tracer.finish(trace, affectedRows);
             
             if (affectedRows > 0) {
                 logger.info("Task deleted with ID: {}", id);
@@ -170,6 +490,9 @@ public class TaskDAOImpl implements TaskDAO {
         } catch (SQLException e) {
             logger.error("Error deleting task with ID: {}", id, e);
             throw new RuntimeException("Failed to delete task", e);
+        } finally {
+            dbConnection.releaseStatement(stmt);
+            DaoCallEvent.end(event, affectedRows, 0);
         }
 
         return false;
@@ -178,99 +501,481 @@ public class TaskDAOImpl implements TaskDAO {
     @Override
     public int deleteCompletedTasks() {
         String sql = "DELETE FROM tasks WHERE completed = TRUE";
+        DaoCallEvent event = DaoCallEvent.start(DAO_NAME, "deleteCompletedTasks");
+        int deletedCount = 0;
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        PreparedStatement stmt = null;
+        try {
+            stmt = dbConnection.prepareStatement(sql);
 
-            int deletedCount = stmt.executeUpdate();
+            StatementTracer.Trace trace = tracer.start("deleteCompletedTasks", sql, 0);
+            deletedCount = stmt.executeUpdate();
+            tracer.executed(trace);
+            tracer.finish(trace, deletedCount);
             logger.info("Deleted {} completed tasks", deletedCount);
             return deletedCount;
 
         } catch (SQLException e) {
             logger.error("Error deleting completed tasks", e);
             throw new RuntimeException("Failed to delete completed tasks", e);
+        } finally {
+            dbConnection.releaseStatement(stmt);
+            DaoCallEvent.end(event, deletedCount, 0);
+        }
+    }
+
+    @Override
+    public OptionalLong findCompletedChunkEnd(long afterId, int chunkSize) {
+        // Walks idx_completed, whose entries are ordered by id within completed = TRUE
+        String sql = "SELECT id FROM tasks WHERE completed = TRUE AND id > ? ORDER BY id LIMIT 1 OFFSET ?";
+        DaoCallEvent event = DaoCallEvent.start(DAO_NAME, "findCompletedChunkEnd");
+        int rowCount = 0;
+
+        PreparedStatement stmt = null;
+        try {
+            stmt = dbConnection.prepareStatement(sql);
+            stmt.setLong(1, afterId);
+            stmt.setInt(2, chunkSize - 1);
+
+            StatementTracer.Trace trace = tracer.start("findCompletedChunkEnd", sql, 2);
+            try (ResultSet rs = stmt.executeQuery()) {
+                tracer.executed(trace);
+                if (rs.next()) {
+                    rowCount = 1;
+                    tracer.finish(trace, 1);
+                    return OptionalLong.of(rs.getLong(1));
+                }
+                tracer.finish(trace, 0);
+                return OptionalLong.empty();
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error finding the next chunk of completed tasks after {}", afterId, e);
+            throw new RuntimeException("Failed to find completed tasks", e);
+        } finally {
+            dbConnection.releaseStatement(stmt);
+            DaoCallEvent.end(event, rowCount, 0);
+        }
+    }
+
+    @Override
+    public int deleteCompletedInRange(long afterId, long throughId) {
+        // The id range bounds the rows locked and the undo generated by one statement
+        String sql = "DELETE FROM tasks WHERE completed = TRUE AND id > ? AND id <= ?";
+        DaoCallEvent event = DaoCallEvent.start(DAO_NAME, "deleteCompletedInRange");
+        int deletedCount = 0;
+
+        PreparedStatement stmt = null;
+        try {
+            stmt = dbConnection.prepareStatement(sql);
+            stmt.setLong(1, afterId);
+            stmt.setLong(2, throughId);
+
+            StatementTracer.Trace trace = tracer.start("deleteCompletedInRange", sql, 2);
+            deletedCount = stmt.executeUpdate();
+            tracer.executed(trace);
+            tracer.finish(trace, deletedCount);
+            logger.debug("Deleted {} completed tasks with ids in ({}, {}]", deletedCount, afterId, throughId);
+            return deletedCount;
+
+        } catch (SQLException e) {
+            logger.error("Error deleting completed tasks with ids in ({}, {}]", afterId, throughId, e);
+            throw new RuntimeException("Failed to delete completed tasks", e);
+        } finally {
+            dbConnection.releaseStatement(stmt);
+            DaoCallEvent.end(event, deletedCount, 0);
+        }
+    }
+
+    @Override
+    public int deleteUnchanged(Collection<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+        DaoCallEvent event = DaoCallEvent.start(DAO_NAME, "deleteUnchanged");
+        int deletedCount = 0;
+
+        // All or nothing, so a caller that copied the tasks elsewhere first never loses any.
+        // One (id, version) IN list per chunk, whose update count is the rows really deleted
+        List<Task> doomed = new ArrayList<>(tasks);
+        try (Connection connection = dbConnection.openTransactionConnection()) {
+            try {
+                for (int from = 0; from < doomed.size(); from += DELETE_BATCH_SIZE) {
+                    List<Task> chunk = doomed.subList(from, Math.min(from + DELETE_BATCH_SIZE, doomed.size()));
+                    String sql = "DELETE FROM tasks WHERE (id, version) IN ("
+                            + String.join(", ", Collections.nCopies(chunk.size(), "(?, ?)")) + ")";
+                    try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                        int parameter = 1;
+                        for (Task task : chunk) {
+                            stmt.setLong(parameter++, task.getId());
+                            stmt.setLong(parameter++, task.getVersion());
+                        }
+                        StatementTracer.Trace trace = tracer.start("deleteUnchanged", sql, parameter - 1);
+                        int affectedRows = stmt.executeUpdate();
+                        tracer.executed(trace);
+                        tracer.finish(trace, affectedRows);
+                        deletedCount += affectedRows;
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                rollbackQuietly(connection);
+                throw e;
+            }
+            logger.info("Deleted {} tasks", deletedCount);
+            return deletedCount;
+
+        } catch (SQLException e) {
+            deletedCount = 0;
+            logger.error("Error deleting {} tasks", tasks.size(), e);
+            throw new RuntimeException("Failed to delete tasks", e);
+        } finally {
+            DaoCallEvent.end(event, deletedCount, 0);
         }
     }
 
     @Override
     public long getTotalCount() {
-        return getCount("SELECT COUNT(*) FROM tasks");
+        return getCount("getTotalCount", "SELECT COUNT(*) FROM tasks");
     }
 
     @Override
     public long getCompletedCount() {
-        return getCount("SELECT COUNT(*) FROM tasks WHERE completed = TRUE");
+        return getCount("getCompletedCount", "SELECT COUNT(*) FROM tasks WHERE completed = TRUE");
     }
 
     @Override
     public long getPendingCount() {
-        return getCount("SELECT COUNT(*) FROM tasks WHERE completed = FALSE");
+        return getCount("getPendingCount", "SELECT COUNT(*) FROM tasks WHERE completed = FALSE");
+    }
+
+    @Override
+    public long getOverdueCount() {
+        return getCount("getOverdueCount", COUNT_OVERDUE_SQL, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    @Override
+    public long getDueTodayCount() {
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        return getCount("getDueTodayCount", COUNT_DUE_TODAY_SQL,
+                Timestamp.valueOf(today), Timestamp.valueOf(today.plusDays(1)));
+    }
+
+    @Override
+    public Optional<String> getChangeStamp() {
+        String[] stamp = new String[1];
+        queryRows("getChangeStamp", CHANGE_STAMP_SQL,
+                rs -> stamp[0] = rs.getLong(1) + "-" + rs.getLong(2) + "-" + rs.getLong(3));
+        return Optional.ofNullable(stamp[0]);
+    }
+
+    @Override
+    public Map<Long, String> findDescriptions(Collection<Long> ids) {
+        Map<Long, String> descriptions = new HashMap<>();
+        List<Long> idList = new ArrayList<>(ids);
+
+        for (int from = 0; from < idList.size(); from += DESCRIPTION_BATCH_SIZE) {
+            List<Long> batch = idList.subList(from, Math.min(from + DESCRIPTION_BATCH_SIZE, idList.size()));
+            String placeholders = String.join(", ", Collections.nCopies(batch.size(), "?"));
+            String sql = "SELECT id, description FROM tasks WHERE id IN (" + placeholders + ")";
+            DaoCallEvent event = DaoCallEvent.start(DAO_NAME, "findDescriptions");
+            int rowCount = 0;
+
+            PreparedStatement stmt = null;
+            try {
+                stmt = dbConnection.prepareStatement(sql);
+                for (int i = 0; i < batch.size(); i++) {
+                    stmt.setLong(i + 1, batch.get(i));
+                }
+
+                StatementTracer.Trace trace = tracer.start("findDescriptions", sql, batch.size());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    tracer.executed(trace);
+                    while (rs.next()) {
+                        descriptions.put(rs.getLong(1), rs.getString(2));
+                        rowCount++;
+                    }
+                }
+                tracer.finish(trace, rowCount);
+
+            } catch (SQLException e) {
+                logger.error("Error loading task descriptions", e);
+                throw new RuntimeException("Failed to load task descriptions", e);
+            } finally {
+                dbConnection.releaseStatement(stmt);
+                DaoCallEvent.end(event, rowCount, 0);
+            }
+        }
+
+        return descriptions;
     }
 
-    private long getCount(String sql) {
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+    /**
+     * Version of every stored task by id, read from the primary key alone. Lets a replica
+     * find what changed without loading the tasks themselves.
+     */
+    public Map<Long, Long> findVersions() {
+        String sql = "SELECT id, version FROM tasks";
+        DaoCallEvent event = DaoCallEvent.start(DAO_NAME, "findVersions");
+        Map<Long, Long> versions = new HashMap<>();
+
+        PreparedStatement stmt = null;
+        try {
+            stmt = dbConnection.prepareStatement(sql);
 
-            if (rs.next()) {
-                return rs.getLong(1);
+            StatementTracer.Trace trace = tracer.start("findVersions", sql, 0);
+            try (ResultSet rs = stmt.executeQuery()) {
+                tracer.executed(trace);
+                while (rs.next()) {
+                    versions.put(rs.getLong(1), rs.getLong(2));
+                }
+            }
+            tracer.finish(trace, versions.size());
+
+        } catch (SQLException e) {
+            logger.error("Error loading task versions", e);
+            throw new RuntimeException("Failed to load task versions", e);
+        } finally {
+            dbConnection.releaseStatement(stmt);
+            DaoCallEvent.end(event, versions.size(), 0);
+        }
+
+        return versions;
+    }
+
+    /** Complete tasks (descriptions included) with the given ids; missing ids are skipped. */
+    public List<Task> findByIds(Collection<Long> ids) {
+        List<Task> tasks = new ArrayList<>();
+        List<Long> idList = new ArrayList<>(ids);
+
+        for (int from = 0; from < idList.size(); from += DESCRIPTION_BATCH_SIZE) {
+            List<Long> batch = idList.subList(from, Math.min(from + DESCRIPTION_BATCH_SIZE, idList.size()));
+            String placeholders = String.join(", ", Collections.nCopies(batch.size(), "?"));
+            String sql = "SELECT * FROM tasks WHERE id IN (" + placeholders + ")";
+            tasks.addAll(queryTasks("findByIds", sql, true, batch.toArray()));
+        }
+
+        return tasks;
+    }
+
+    @Override
+    public TaskAnalytics getAnalytics(LocalDateTime now) {
+        Timestamp asOf = Timestamp.valueOf(now);
+        TaskAnalytics.Accumulator accumulator = new TaskAnalytics.Accumulator(now);
+        queryRows("getAnalytics", ANALYTICS_GROUPS_SQL, rs -> {
+            long total = rs.getLong(3);
+            long completed = rs.getLong(4);
+            long overdue = rs.getLong(5);
+            accumulator.addPriority(Priority.valueOf(rs.getString(1)), total, completed, overdue);
+            Date week = rs.getDate(2);
+            if (week != null) {
+                accumulator.addWeek(week.toLocalDate(), total, completed, overdue);
+            }
+        }, asOf);
+        queryRows("getAnalytics", ANALYTICS_DURATIONS_SQL, rs -> {
+            if ("lead".equals(rs.getString(1))) {
+                accumulator.addLeadTime(rs.getLong(2), rs.getLong(3));
+            } else {
+                accumulator.addOverdueAge(rs.getLong(2), rs.getLong(3));
+            }
+        }, asOf, asOf);
+        return accumulator.toAnalytics();
+    }
+
+    private long getCount(String operation, String sql, Object... parameters) {
+        DaoCallEvent event = DaoCallEvent.start(DAO_NAME, operation);
+        PreparedStatement stmt = null;
+        try {
+            stmt = dbConnection.prepareStatement(sql);
+            for (int i = 0; i < parameters.length; i++) {
+                stmt.setObject(i + 1, parameters[i]);
+            }
+
+            StatementTracer.Trace trace = tracer.start(operation, sql, parameters.length);
+            try (ResultSet rs = stmt.executeQuery()) {
+                tracer.executed(trace);
+                if (rs.next()) {
+                    long count = rs.getLong(1);
+                    tracer.finish(trace, 1);
+                    return count;
+                }
+                tracer.finish(trace, 0);
             }
 
         } catch (SQLException e) {
             logger.error("Error executing count query: {}", sql, e);
             throw new RuntimeException("Failed to get count", e);
+        } finally {
+            dbConnection.releaseStatement(stmt);
+            DaoCallEvent.end(event, 1, 0);
         }
 
         return 0;
     }
 
-    private List<Task> executeQuery(String sql, Object... parameters) {
+    /** A result row, read column by column. */
+    @FunctionalInterface
+    private interface RowHandler {
+        void handle(ResultSet rs) throws SQLException;
+    }
+
+    private void queryRows(String operation, String sql, RowHandler handler, Object... parameters) {
+        DaoCallEvent event = DaoCallEvent.start(DAO_NAME, operation);
+        PreparedStatement stmt = null;
+        int rows = 0;
+        try {
+            stmt = dbConnection.prepareStatement(sql);
+            for (int i = 0; i < parameters.length; i++) {
+                stmt.setObject(i + 1, parameters[i]);
+            }
+
+            StatementTracer.Trace trace = tracer.start(operation, sql, parameters.length);
+            try (ResultSet rs = stmt.executeQuery()) {
+                tracer.executed(trace);
+                while (rs.next()) {
+                    handler.handle(rs);
+                    rows++;
+                }
+                tracer.finish(trace, rows);
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error executing query: {}", sql, e);
+            throw new RuntimeException("Failed to run " + operation, e);
+        } finally {
+            dbConnection.releaseStatement(stmt);
+            DaoCallEvent.end(event, rows, 0);
+        }
+    }
+
+    private List<Task> executeQuery(String operation, String sql, Object... parameters) {
+        return queryTasks(operation, sql, false, parameters);
+    }
+
+    private List<Task> queryTasks(String operation, String sql, boolean withDescription, Object[] parameters) {
         List<Task> tasks = new ArrayList<>();
+        DaoCallEvent event = DaoCallEvent.start(DAO_NAME, operation);
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        PreparedStatement stmt = null;
+        try {
+            stmt = dbConnection.prepareStatement(sql);
 
             for (int i = 0; i < parameters.length; i++) {
                 stmt.setObject(i + 1, parameters[i]);
             }
 
+            StatementTracer.Trace trace = tracer.start(operation, sql, parameters.length);
             try (ResultSet rs = stmt.executeQuery()) {
+                tracer.executed(trace);
+                TaskRowMapper mapper = new TaskRowMapper(rs, withDescription);
                 while (rs.next()) {
-                    tasks.add(mapResultSetToTask(rs));
+                    tasks.add(mapper.map(rs));
                 }
             }
+            tracer.finish(trace, tasks.size());
 
         } catch (SQLException e) {
             logger.error("Error executing query: {}", sql, e);
             throw new RuntimeException("Failed to execute query", e);
+        } finally {
+            dbConnection.releaseStatement(stmt);
+            DaoCallEvent.end(event, tasks.size(), 0);
         }
 
         return tasks;
     }
 
-    private Task mapResultSetToTask(ResultSet rs) throws SQLException {
-        Task task = new Task();
-        task.setId(rs.getLong("id"));
-        task.setTitle(rs.getString("title"));
-        task.setDescription(rs.getString("description"));
-        task.setPriority(Priority.valueOf(rs.getString("priority")));
-        task.setCompleted(rs.getBoolean("completed"));
+    private Stream<Task> streamTasks(String operation, String sql, Object... parameters) {
+        DaoCallEvent event = DaoCallEvent.start(DAO_NAME, operation);
+        Connection connection = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            connection = dbConnection.openStreamingConnection();
+            stmt = dbConnection.prepareStreamingStatement(connection, sql);
+            for (int i = 0; i < parameters.length; i++) {
+                stmt.setObject(i + 1, parameters[i]);
+            }
+
+            StatementTracer.Trace trace = tracer.start(operation, sql, parameters.length);
+            rs = stmt.executeQuery();
+            tracer.executed(trace);
+            TaskCursor cursor = new TaskCursor(connection, stmt, rs, trace, event);
+            return StreamSupport.stream(cursor, false).onClose(cursor::close);
+
+        } catch (SQLException e) {
+            logger.error("Error executing query: {}", sql, e);
+            closeQuietly(rs, stmt, connection);
+            DaoCallEvent.end(event, 0, 0);
+            throw new RuntimeException("Failed to execute query", e);
+        }
+    }
 
-        Timestamp dueDate = rs.getTimestamp("due_date");
-        if (dueDate != null) {
-            task.setDueDate(dueDate.toLocalDateTime());
+    private static void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource != null) {
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    logger.debug("Error closing {}", resource, e);
+                }
+            }
         }
+    }
 
-        Timestamp createdDate = rs.getTimestamp("created_date");
-        if (createdDate != null) {
-            task.setCreatedDate(createdDate.toLocalDateTime());
+    /**
+     * Hands out the rows of a streaming result set one at a time and owns its statement and
+     * connection, which are closed when the stream is.
+     */
+    private final class TaskCursor extends Spliterators.AbstractSpliterator<Task> {
+        private final Connection connection;
+        private final PreparedStatement stmt;
+        private final ResultSet rs;
+        private final TaskRowMapper mapper;
+        private final StatementTracer.Trace trace;
+        private final DaoCallEvent event;
+        private long rows;
+        private boolean closed;
+
+        TaskCursor(Connection connection, PreparedStatement stmt, ResultSet rs, StatementTracer.Trace trace,
+                   DaoCallEvent event) throws SQLException {
+            super(Long.MAX_VALUE, ORDERED | NONNULL);
+            this.connection = connection;
+            this.stmt = stmt;
+            this.rs = rs;
+            this.mapper = new TaskRowMapper(rs, true);
+            this.trace = trace;
+            this.event = event;
         }
 
-        Timestamp completedDate = rs.getTimestamp("completed_date");
-        if (completedDate != null) {
-            task.setCompletedDate(completedDate.toLocalDateTime());
+        @Override
+        public boolean tryAdvance(Consumer<? super Task> action) {
+            if (closed) {
+                return false;
+            }
+            try {
+                if (!rs.next()) {
+                    close();
+                    return false;
+                }
+                action.accept(mapper.map(rs));
+                rows++;
+                return true;
+            } catch (SQLException e) {
+                logger.error("Error streaming tasks after {} rows", rows, e);
+                close();
+                throw new RuntimeException("Failed to read tasks", e);
+            }
         }
 
-        return task;
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            tracer.finish(trace, rows);
+            closeQuietly(rs, stmt, connection);
+            DaoCallEvent.end(event, rows, 0);
+        }
     }
 }
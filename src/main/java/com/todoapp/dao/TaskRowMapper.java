@@ -0,0 +1,68 @@
+package com.todoapp.dao;
+
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * Maps the rows of one result set to tasks. Column ordinals are resolved once, when the
+ * mapper is created, instead of by name on every row, and dates are read straight into
+ * {@link LocalDateTime} rather than through {@link java.sql.Timestamp}.
+ */
+final class TaskRowMapper {
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private final int id;
+    private final int title;
+    private final int description;
+    private final int priority;
+    private final int completed;
+    private final int dueDate;
+    private final int createdDate;
+    private final int completedDate;
+    private final int version;
+
+    /** Resolves the columns of {@code rs}; {@code description} is only read when asked for. */
+    TaskRowMapper(ResultSet rs, boolean withDescription) throws SQLException {
+        this.id = rs.findColumn("id");
+        this.title = rs.findColumn("title");
+        this.description = withDescription ? rs.findColumn("description") : 0;
+        this.priority = rs.findColumn("priority");
+        this.completed = rs.findColumn("completed");
+        this.dueDate = rs.findColumn("due_date");
+        this.createdDate = rs.findColumn("created_date");
+        this.completedDate = rs.findColumn("completed_date");
+        this.version = rs.findColumn("version");
+    }
+
+    /** The task in the current row of the result set this mapper was created for. */
+    Task map(ResultSet rs) throws SQLException {
+        Task task = Task.unstamped();
+        task.setId(rs.getLong(id));
+        task.setTitle(rs.getString(title));
+        if (description > 0) {
+            task.setDescription(rs.getString(description));
+        } else {
+            task.markDescriptionUnloaded();
+        }
+        task.setPriority(priority(rs.getString(priority)));
+        task.setCompletion(rs.getBoolean(completed), rs.getObject(completedDate, LocalDateTime.class));
+        task.setDueDate(rs.getObject(dueDate, LocalDateTime.class));
+        task.setCreatedDate(rs.getObject(createdDate, LocalDateTime.class));
+        task.setVersion(rs.getLong(version));
+        return task;
+    }
+
+    // A linear scan of four constants; valueOf goes through a HashMap lookup per row
+    private static Priority priority(String name) {
+        for (Priority priority : PRIORITIES) {
+            if (priority.name().equals(name)) {
+                return priority;
+            }
+        }
+        return Priority.valueOf(name);
+    }
+}
@@ -1,23 +1,34 @@
 package com.todoapp.database;
 
+import com.todoapp.jfr.ConnectionAcquireEvent;
+import com.todoapp.metrics.MetricsRegistry;
 import com.todoapp.util.ConfigurationManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Properties;
 
 public class DatabaseConnection {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseConnection.class);
     private static DatabaseConnection instance;
     private Connection connection;
+    private StatementCache statementCache;
     
     private final String url;
     private final String username;
     private final String password;
     private final String driver;
+    private final int statementCacheSize;
+    private final boolean serverPrepare;
+    private final int connectTimeoutMillis;
+    private final int socketTimeoutMillis;
+    private final int streamFetchSize;
 
     private DatabaseConnection() {
         ConfigurationManager config = ConfigurationManager.getInstance();
@@ -25,6 +36,11 @@ public class DatabaseConnection {
         this.username = config.getProperty("db.username");
         this.password = config.getProperty("db.password");
         this.driver = config.getProperty("db.driver");
+        this.statementCacheSize = config.getIntProperty("db.statement.cache.size", 32);
+        this.serverPrepare = config.getBooleanProperty("db.server.prepare", true);
+        this.connectTimeoutMillis = config.getIntProperty("db.connect.timeout.ms", 2000);
+        this.socketTimeoutMillis = config.getIntProperty("db.socket.timeout.ms", 15000);
+        this.streamFetchSize = config.getIntProperty("db.stream.fetch.size", 0);
         
         try {
             Class.forName(driver);
@@ -33,6 +49,8 @@ public class DatabaseConnection {
             logger.error("Database driver not found", e);
             throw new RuntimeException("Database driver not found", e);
         }
+
+        MetricsRegistry.getInstance().gauge("db.statementCache.size", this::getStatementCacheSize);
     }
 
     public static synchronized DatabaseConnection getInstance() {
@@ -42,20 +60,131 @@ public class DatabaseConnection {
         return instance;
     }
 
-    public Connection getConnection() throws SQLException {
+    public synchronized Connection getConnection() throws SQLException {
+        ConnectionAcquireEvent event = ConnectionAcquireEvent.start(url);
         if (connection == null || connection.isClosed()) {
             try {
-                connection = DriverManager.getConnection(url, username, password);
+                if (statementCache != null) {
+                    statementCache.close();
+                    statementCache = null;
+                }
+                connection = DriverManager.getConnection(url, connectionProperties());
+                statementCache = new StatementCache(connection, statementCacheSize);
                 logger.info("Database connection established");
                 initializeDatabase();
+                ConnectionAcquireEvent.end(event, true, true);
             } catch (SQLException e) {
+                ConnectionAcquireEvent.end(event, true, false);
                 logger.error("Failed to establish database connection", e);
                 throw e;
             }
+            return connection;
         }
+        ConnectionAcquireEvent.end(event, false, true);
         return connection;
     }
 
+    /**
+     * Leases a prepared statement for {@code sql} from the current connection's statement
+     * cache. Callers must hand it back with {@link #releaseStatement} instead of closing it.
+     */
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        return prepareStatement(sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+        StatementCache cache;
+        synchronized (this) {
+            getConnection();
+            cache = statementCache;
+        }
+        return cache.prepare(sql, autoGeneratedKeys);
+    }
+
+    /**
+     * Opens a separate connection for one transaction, with auto-commit off; the caller
+     * commits or rolls back and closes it. Every other thread's statements run on the shared
+     * connection, so a transaction there would take in their writes and roll them back too.
+     */
+    public Connection openTransactionConnection() throws SQLException {
+        getConnection();
+        Connection transaction = DriverManager.getConnection(url, connectionProperties());
+        transaction.setAutoCommit(false);
+        return transaction;
+    }
+
+    /**
+     * Opens a separate connection for one streaming read; the caller closes it. A streaming
+     * result set keeps its connection busy until it is closed, so it cannot share the
+     * connection every other statement goes through.
+     */
+    public Connection openStreamingConnection() throws SQLException {
+        getConnection();
+        Properties properties = connectionProperties();
+        if (streamFetchSize > 0) {
+            properties.setProperty("useCursorFetch", "true");
+        }
+        Connection streaming = DriverManager.getConnection(url, properties);
+        streaming.setReadOnly(true);
+        return streaming;
+    }
+
+    /**
+     * Prepares a forward-only statement on a connection from {@link #openStreamingConnection}
+     * whose result set is fetched as it is read rather than buffered whole: row by row, or
+     * {@code db.stream.fetch.size} rows per server cursor fetch when that is set.
+     */
+    public PreparedStatement prepareStreamingStatement(Connection streaming, String sql) throws SQLException {
+        PreparedStatement stmt = streaming.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        // Connector/J streams rows one at a time only for this exact fetch size
+        stmt.setFetchSize(streamFetchSize > 0 ? streamFetchSize : Integer.MIN_VALUE);
+        return stmt;
+    }
+
+    /** Returns a leased statement; statements from a replaced connection are simply closed. */
+    public void releaseStatement(PreparedStatement stmt) {
+        if (stmt == null) {
+            return;
+        }
+        StatementCache cache;
+        synchronized (this) {
+            cache = statementCache;
+        }
+        if (cache != null) {
+            cache.release(stmt);
+        } else {
+            try {
+                stmt.close();
+            } catch (SQLException e) {
+                logger.debug("Error closing statement", e);
+            }
+        }
+    }
+
+    private synchronized long getStatementCacheSize() {
+        return statementCache != null ? statementCache.size() : 0;
+    }
+
+    private Properties connectionProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("user", username);
+        properties.setProperty("password", password);
+        // Bounds the storage probe at startup when the server is unreachable (0 waits for the OS)
+        properties.setProperty("connectTimeout", Integer.toString(connectTimeoutMillis));
+        // Bounds a statement on a connection whose server vanished mid-session (0 waits for the OS)
+        properties.setProperty("socketTimeout", Integer.toString(socketTimeoutMillis));
+        // Lets TaskDAOImpl.insertAll send a batch as multi-row INSERT statements
+        properties.setProperty("rewriteBatchedStatements", "true");
+        if (serverPrepare) {
+            // Let Connector/J keep server-side prepared statements alive across our cache
+            properties.setProperty("useServerPrepStmts", "true");
+            properties.setProperty("cachePrepStmts", "true");
+            properties.setProperty("prepStmtCacheSize", Integer.toString(Math.max(statementCacheSize, 25)));
+            properties.setProperty("prepStmtCacheSqlLimit", "2048");
+        }
+        return properties;
+    }
+
     private void initializeDatabase() {
         try (Statement statement = connection.createStatement()) {
             // Create tasks table if it doesn't exist
@@ -68,14 +197,39 @@ public class DatabaseConnection {
                     "due_date TIMESTAMP NULL, " +
                     "created_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
                     "completed_date TIMESTAMP NULL, " +
-                    "INDEX idx_priority (priority), " +
+                    "version BIGINT NOT NULL DEFAULT 0, " +
                     "INDEX idx_completed (completed), " +
                     "INDEX idx_due_date (due_date), " +
-                    "INDEX idx_created_date (created_date)" +
+                    "INDEX idx_created_date (created_date), " +
+                    "INDEX idx_completed_due_date (completed, due_date), " +
+                    "INDEX idx_completed_created_date (completed, created_date), " +
+                    "INDEX idx_priority_created_date (priority, created_date), " +
+                    "INDEX idx_completed_priority_due_date (completed, priority, due_date)" +
                     ")";
             
             statement.executeUpdate(createTableSQL);
+
+            // Tables created before optimistic locking lack the version column
+            if (!hasColumn("tasks", "version")) {
+                statement.executeUpdate("ALTER TABLE tasks ADD COLUMN version BIGINT NOT NULL DEFAULT 0");
+                logger.info("Added version column to table 'tasks'");
+            }
+            // Tables created before the composite indexes; each serves a filter plus its ORDER BY
+            addIndexIfMissing(statement, "idx_completed_due_date", "completed, due_date");
+            addIndexIfMissing(statement, "idx_completed_created_date", "completed, created_date");
+            if (addIndexIfMissing(statement, "idx_priority_created_date", "priority, created_date")
+                    && hasIndex("tasks", "idx_priority")) {
+                // A prefix of the new index, so it only costs writes
+                statement.executeUpdate("ALTER TABLE tasks DROP INDEX idx_priority");
+            }
+            addIndexIfMissing(statement, "idx_completed_priority_due_date", "completed, priority, due_date");
             logger.info("Database table 'tasks' initialized successfully");
+
+            // Outbox sequence applied per hybrid-mode client (see com.todoapp.sync.JdbcSyncTarget)
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS task_sync_clients (" +
+                    "client_id VARCHAR(64) NOT NULL PRIMARY KEY, " +
+                    "last_seq BIGINT NOT NULL DEFAULT 0" +
+                    ")");
             
         } catch (SQLException e) {
             logger.error("Failed to initialize database", e);
@@ -83,7 +237,37 @@ public class DatabaseConnection {
         }
     }
 
-    public void closeConnection() {
+    private boolean addIndexIfMissing(Statement statement, String name, String columns) throws SQLException {
+        if (hasIndex("tasks", name)) {
+            return false;
+        }
+        statement.executeUpdate("ALTER TABLE tasks ADD INDEX " + name + " (" + columns + ")");
+        logger.info("Added index {} ({}) to table 'tasks'", name, columns);
+        return true;
+    }
+
+    private boolean hasIndex(String table, String index) throws SQLException {
+        try (ResultSet indexes = connection.getMetaData().getIndexInfo(connection.getCatalog(), null, table, false, true)) {
+            while (indexes.next()) {
+                if (index.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private boolean hasColumn(String table, String column) throws SQLException {
+        try (ResultSet columns = connection.getMetaData().getColumns(connection.getCatalog(), null, table, column)) {
+            return columns.next();
+        }
+    }
+
+    public synchronized void closeConnection() {
+        if (statementCache != null) {
+            statementCache.close();
+            statementCache = null;
+        }
         if (connection != null) {
             try {
                 connection.close();
@@ -94,10 +278,19 @@ public class DatabaseConnection {
         }
     }
 
+    /**
+     * Whether the database answers a ping, reconnecting if needed. A connection that no
+     * longer answers is dropped, so the next call opens a fresh one.
+     */
     public boolean testConnection() {
         try {
             Connection conn = getConnection();
-            return conn != null && !conn.isClosed();
+            if (conn.isValid(Math.max(1, (connectTimeoutMillis + 999) / 1000))) {
+                return true;
+            }
+            logger.warn("Database connection no longer valid, dropping it");
+            closeConnection();
+            return false;
         } catch (SQLException e) {
             logger.error("Database connection test failed", e);
             return false;
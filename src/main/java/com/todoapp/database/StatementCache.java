@@ -0,0 +1,112 @@
+package com.todoapp.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of prepared statements for one connection, keyed by SQL text.
+ * Statements are leased: {@link #prepare} removes an idle statement from the cache (or
+ * prepares a new one) and {@link #release} puts it back, so two threads never share a
+ * statement. Evicted statements are closed.
+ */
+public class StatementCache {
+    private static final Logger logger = LoggerFactory.getLogger(StatementCache.class);
+
+    private final Connection connection;
+    private final int maxSize;
+    private final LinkedHashMap<String, PreparedStatement> idle;
+    private final Map<PreparedStatement, String> leased = new IdentityHashMap<>();
+    private long hits;
+    private long misses;
+    private boolean closed;
+
+    public StatementCache(Connection connection, int maxSize) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.idle = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > StatementCache.this.maxSize) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized PreparedStatement prepare(String sql) throws SQLException {
+        return prepare(sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    public synchronized PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? sql + "#keys" : sql;
+        PreparedStatement stmt = idle.remove(key);
+        if (stmt != null && !stmt.isClosed()) {
+            hits++;
+        } else {
+            misses++;
+            stmt = connection.prepareStatement(sql, autoGeneratedKeys);
+        }
+        leased.put(stmt, key);
+        return stmt;
+    }
+
+    /** Returns a leased statement to the cache, or closes it when caching is off or the cache is closed. */
+    public synchronized void release(PreparedStatement stmt) {
+        String key = leased.remove(stmt);
+        if (key == null || closed || maxSize <= 0) {
+            closeQuietly(stmt);
+            return;
+        }
+        try {
+            stmt.clearParameters();
+        } catch (SQLException e) {
+            closeQuietly(stmt);
+            return;
+        }
+        PreparedStatement previous = idle.put(key, stmt);
+        if (previous != null && previous != stmt) {
+            closeQuietly(previous);
+        }
+    }
+
+    public synchronized int size() {
+        return idle.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized void close() {
+        closed = true;
+        List<PreparedStatement> statements = new ArrayList<>(idle.values());
+        idle.clear();
+        for (PreparedStatement stmt : statements) {
+            closeQuietly(stmt);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            logger.debug("Error closing cached statement", e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.todoapp.database;
+
+import com.todoapp.util.ConfigurationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Traces JDBC statement execution: per statement shape it aggregates executions, execute and
+ * fetch time and rows, logs statements slower than {@code db.trace.slow.threshold.ms}, and
+ * produces a top-N report ordered by total time.
+ */
+public class StatementTracer {
+    private static final Logger logger = LoggerFactory.getLogger(StatementTracer.class);
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static StatementTracer instance;
+
+    private final boolean enabled;
+    private final long slowThresholdNanos;
+    private final ConcurrentMap<String, StatementStats> statistics = new ConcurrentHashMap<>();
+
+    private StatementTracer() {
+        this(ConfigurationManager.getInstance().getBooleanProperty("db.trace.enabled", true),
+             ConfigurationManager.getInstance().getIntProperty("db.trace.slow.threshold.ms", 200));
+    }
+
+    StatementTracer(boolean enabled, long slowThresholdMillis) {
+        this.enabled = enabled;
+        this.slowThresholdNanos = slowThresholdMillis * 1_000_000L;
+    }
+
+    public static synchronized StatementTracer getInstance() {
+        if (instance == null) {
+            instance = new StatementTracer();
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Starts tracing one execution; returns {@code null} when tracing is disabled. */
+    public Trace start(String operation, String sql, int bindCount) {
+        if (!enabled) {
+            return null;
+        }
+        return new Trace(operation, sql, bindCount, System.nanoTime());
+    }
+
+    /** Marks the end of statement execution; what follows is result fetching. */
+    public void executed(Trace trace) {
+        if (trace != null) {
+            trace.executedAt = System.nanoTime();
+        }
+    }
+
+    public void finish(Trace trace, long rowCount) {
+        if (trace == null) {
+            return;
+        }
+        long end = System.nanoTime();
+        long executedAt = trace.executedAt != 0 ? trace.executedAt : end;
+        long executeNanos = executedAt - trace.startedAt;
+        long fetchNanos = end - executedAt;
+
+        String shape = normalize(trace.sql);
+        statistics.computeIfAbsent(shape, key -> new StatementStats(key, trace.operation, trace.bindCount))
+                .record(executeNanos, fetchNanos, rowCount);
+
+        if (executeNanos + fetchNanos >= slowThresholdNanos) {
+            logger.warn("Slow query [{}] {} ms (execute {} ms, fetch {} ms, {} rows, {} binds): {}",
+                    trace.operation, millis(executeNanos + fetchNanos), millis(executeNanos), millis(fetchNanos),
+                    rowCount, trace.bindCount, shape);
+        }
+    }
+
+    /** Statement shapes ordered by total (execute + fetch) time, largest first. */
+    public List<StatementStats> topStatements(int limit) {
+        return statistics.values().stream()
+                .sorted(Comparator.comparingLong(StatementStats::getTotalNanos).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    public String formatReport(int limit) {
+        StringBuilder report = new StringBuilder("Top statements by total time:\n");
+        report.append(String.format(Locale.ROOT, "%-22s %8s %10s %10s %10s %10s %6s  %s%n",
+                "operation", "calls", "total ms", "exec ms", "fetch ms", "rows", "full", "sql"));
+        for (StatementStats stats : topStatements(limit)) {
+            report.append(String.format(Locale.ROOT, "%-22s %8d %10.1f %10.1f %10.1f %10d %6s  %s%n",
+                    stats.getOperation(), stats.getExecutions(), millis(stats.getTotalNanos()),
+                    millis(stats.getExecuteNanos()), millis(stats.getFetchNanos()), stats.getRows(),
+                    stats.isFullRowSelect() ? "yes" : "", stats.getShape()));
+        }
+        return report.toString();
+    }
+
+    public void reset() {
+        statistics.clear();
+    }
+
+    static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    public static final class Trace {
+        private final String operation;
+        private final String sql;
+        private final int bindCount;
+        private final long startedAt;
+        private long executedAt;
+
+        private Trace(String operation, String sql, int bindCount, long startedAt) {
+            this.operation = operation;
+            this.sql = sql;
+            this.bindCount = bindCount;
+            this.startedAt = startedAt;
+        }
+    }
+
+    public static final class StatementStats {
+        private final String shape;
+        private final String operation;
+        private final int bindCount;
+        private final boolean fullRowSelect;
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder executeNanos = new LongAdder();
+        private final LongAdder fetchNanos = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        StatementStats(String shape, String operation, int bindCount) {
+            this.shape = shape;
+            this.operation = operation;
+            this.bindCount = bindCount;
+            this.fullRowSelect = shape.toUpperCase(Locale.ROOT).startsWith("SELECT *");
+        }
+
+        void record(long execute, long fetch, long rowCount) {
+            executions.increment();
+            executeNanos.add(execute);
+            fetchNanos.add(fetch);
+            rows.add(rowCount);
+            maxNanos.accumulateAndGet(execute + fetch, Math::max);
+        }
+
+        public String getShape() { return shape; }
+        public String getOperation() { return operation; }
+        public int getBindCount() { return bindCount; }
+        /** True for {@code SELECT *}, i.e. rows that drag the TEXT description along. */
+        public boolean isFullRowSelect() { return fullRowSelect; }
+        public long getExecutions() { return executions.sum(); }
+        public long getExecuteNanos() { return executeNanos.sum(); }
+        public long getFetchNanos() { return fetchNanos.sum(); }
+        public long getTotalNanos() { return executeNanos.sum() + fetchNanos.sum(); }
+        public long getRows() { return rows.sum(); }
+        public long getMaxNanos() { return maxNanos.get(); }
+    }
+}
@@ -0,0 +1,41 @@
+package com.todoapp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.todoapp.ConnectionAcquire")
+@Label("Connection Acquire")
+@Category({"Todo App", "Database"})
+@Description("DatabaseConnection handing out a JDBC connection")
+public class ConnectionAcquireEvent extends Event {
+    @Label("URL")
+    public String url;
+
+    @Label("New Connection")
+    @Description("True when a physical connection had to be opened")
+    public boolean newConnection;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    public static ConnectionAcquireEvent start(String url) {
+        if (!JfrEvents.ENABLED) {
+            return null;
+        }
+        ConnectionAcquireEvent event = new ConnectionAcquireEvent();
+        event.url = url;
+        event.begin();
+        return event;
+    }
+
+    public static void end(ConnectionAcquireEvent event, boolean newConnection, boolean succeeded) {
+        if (event != null) {
+            event.newConnection = newConnection;
+            event.succeeded = succeeded;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.todoapp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.todoapp.ControllerRefresh")
+@Label("Controller Refresh")
+@Category({"Todo App", "UI"})
+@Description("MainController reloading the task table or statistics on the FX thread")
+public class ControllerRefreshEvent extends Event {
+    @Label("Phase")
+    public String phase;
+
+    @Label("Filter")
+    public String filter;
+
+    @Label("Sort")
+    public String sort;
+
+    @Label("Search Active")
+    public boolean searchActive;
+
+    @Label("Row Count")
+    public long rowCount;
+
+    public static ControllerRefreshEvent start(String phase) {
+        if (!JfrEvents.ENABLED) {
+            return null;
+        }
+        ControllerRefreshEvent event = new ControllerRefreshEvent();
+        event.phase = phase;
+        event.begin();
+        return event;
+    }
+
+    public static void end(ControllerRefreshEvent event, String filter, String sort, boolean searchActive, long rowCount) {
+        if (event != null) {
+            event.filter = filter;
+            event.sort = sort;
+            event.searchActive = searchActive;
+            event.rowCount = rowCount;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.todoapp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.todoapp.DaoCall")
+@Label("DAO Call")
+@Category({"Todo App", "Storage"})
+@Description("A TaskDAO operation")
+public class DaoCallEvent extends Event {
+    @Label("DAO")
+    public String dao;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Row Count")
+    public long rowCount;
+
+    @Label("Bytes Written")
+    @DataAmount
+    public long bytesWritten;
+
+    public static DaoCallEvent start(String dao, String operation) {
+        if (!JfrEvents.ENABLED) {
+            return null;
+        }
+        DaoCallEvent event = new DaoCallEvent();
+        event.dao = dao;
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    public static void end(DaoCallEvent event, long rowCount, long bytesWritten) {
+        if (event != null) {
+            event.rowCount = rowCount;
+            event.bytesWritten = bytesWritten;
+            event.commit();
+        }
+    }
+}
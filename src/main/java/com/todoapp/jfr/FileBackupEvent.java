@@ -0,0 +1,38 @@
+package com.todoapp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.todoapp.FileBackup")
+@Label("File Backup")
+@Category({"Todo App", "Storage"})
+@Description("FileTaskDAO recording a snapshot or delta of its tasks in the backup directory")
+public class FileBackupEvent extends Event {
+    @Label("Backup Directory")
+    public String path;
+
+    @Label("Bytes Written")
+    @DataAmount
+    public long bytesCopied;
+
+    public static FileBackupEvent start(String path) {
+        if (!JfrEvents.ENABLED) {
+            return null;
+        }
+        FileBackupEvent event = new FileBackupEvent();
+        event.path = path;
+        event.begin();
+        return event;
+    }
+
+    public static void end(FileBackupEvent event, long bytesCopied) {
+        if (event != null) {
+            event.bytesCopied = bytesCopied;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.todoapp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.todoapp.FileFlush")
+@Label("File Flush")
+@Category({"Todo App", "Storage"})
+@Description("FileTaskDAO rewriting its tasks file")
+public class FileFlushEvent extends Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Task Count")
+    public long taskCount;
+
+    @Label("Bytes Written")
+    @DataAmount
+    public long bytesWritten;
+
+    public static FileFlushEvent start(String path, long taskCount) {
+        if (!JfrEvents.ENABLED) {
+            return null;
+        }
+        FileFlushEvent event = new FileFlushEvent();
+        event.path = path;
+        event.taskCount = taskCount;
+        event.begin();
+        return event;
+    }
+
+    public static void end(FileFlushEvent event, long bytesWritten) {
+        if (event != null) {
+            event.bytesWritten = bytesWritten;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.todoapp.jfr;
+
+import com.todoapp.util.ConfigurationManager;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Holds the {@code jfr.events.enabled} switch. When it is off the event factories return
+ * {@code null} and no event object is ever created; when it is on, events are committed
+ * and show up in any running Flight Recorder session under the "Todo App" category.
+ */
+public final class JfrEvents {
+    public static final boolean ENABLED =
+            ConfigurationManager.getInstance().getBooleanProperty("jfr.events.enabled", false);
+
+    static {
+        if (ENABLED) {
+            FlightRecorder.register(DaoCallEvent.class);
+            FlightRecorder.register(FileFlushEvent.class);
+            FlightRecorder.register(FileBackupEvent.class);
+            FlightRecorder.register(ConnectionAcquireEvent.class);
+            FlightRecorder.register(ControllerRefreshEvent.class);
+        }
+    }
+
+    private JfrEvents() {
+    }
+}
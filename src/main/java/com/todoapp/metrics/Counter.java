@@ -0,0 +1,35 @@
+package com.todoapp.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class Counter implements CounterMXBean {
+    private final String name;
+    private final boolean enabled;
+    private final LongAdder count = new LongAdder();
+
+    Counter(String name, boolean enabled) {
+        this.name = name;
+        this.enabled = enabled;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void increment() {
+        if (enabled) {
+            count.increment();
+        }
+    }
+
+    public void add(long delta) {
+        if (enabled) {
+            count.add(delta);
+        }
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+}
@@ -0,0 +1,26 @@
+package com.todoapp.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A value sampled only when read (JMX attribute or Prometheus dump), so gauges cost
+ * nothing on the hot path.
+ */
+public class Gauge implements GaugeMXBean {
+    private final String name;
+    private final LongSupplier supplier;
+
+    Gauge(String name, LongSupplier supplier) {
+        this.name = name;
+        this.supplier = supplier;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getValue() {
+        return supplier.getAsLong();
+    }
+}
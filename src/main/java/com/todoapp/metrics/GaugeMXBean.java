@@ -0,0 +1,6 @@
+package com.todoapp.metrics;
+
+public interface GaugeMXBean {
+
+    long getValue();
+}
@@ -0,0 +1,194 @@
+package com.todoapp.metrics;
+
+import com.todoapp.util.ConfigurationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-wide registry of timers, counters and gauges. Metrics are published as MBeans
+ * under {@code com.todoapp:type=...} and can be dumped in Prometheus text format on demand.
+ */
+public class MetricsRegistry implements MetricsRegistryMXBean {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRegistry.class);
+    private static final String JMX_DOMAIN = "com.todoapp";
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+    private static MetricsRegistry instance;
+
+    private final boolean enabled;
+    private final boolean jmxEnabled;
+    private final String dumpPath;
+    private final Map<String, Timer> timers = new ConcurrentSkipListMap<>();
+    private final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentSkipListMap<>();
+
+    private MetricsRegistry() {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        this.enabled = config.getBooleanProperty("metrics.enabled", false);
+        this.jmxEnabled = enabled && config.getBooleanProperty("metrics.jmx.enabled", true);
+        this.dumpPath = config.getProperty("metrics.prometheus.path", "data/metrics.prom");
+
+        if (jmxEnabled) {
+            registerMBean("Registry", "metrics", this);
+        }
+        logger.info("Metrics {}", enabled ? "enabled" : "disabled");
+    }
+
+    public static synchronized MetricsRegistry getInstance() {
+        if (instance == null) {
+            instance = new MetricsRegistry();
+        }
+        return instance;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, key -> {
+            Timer timer = new Timer(key, enabled);
+            if (jmxEnabled) {
+                registerMBean("Timer", key, timer);
+            }
+            return timer;
+        });
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> {
+            Counter counter = new Counter(key, enabled);
+            if (jmxEnabled) {
+                registerMBean("Counter", key, counter);
+            }
+            return counter;
+        });
+    }
+
+    /** Registers (or replaces) a gauge. Ignored when metrics are disabled. */
+    public void gauge(String name, LongSupplier supplier) {
+        if (!enabled) {
+            return;
+        }
+        Gauge gauge = new Gauge(name, supplier);
+        gauges.put(name, gauge);
+        if (jmxEnabled) {
+            registerMBean("Gauge", name, gauge);
+        }
+    }
+
+    /** Removes a gauge, so the registry stops sampling (and holding on to) what it reads. */
+    public void removeGauge(String name) {
+        if (gauges.remove(name) != null && jmxEnabled) {
+            unregisterMBean("Gauge", name);
+        }
+    }
+
+    public void writePrometheus(Writer writer) throws IOException {
+        for (Timer timer : timers.values()) {
+            String metric = prometheusName(timer.getName()) + "_seconds";
+            writer.write("# TYPE " + metric + " summary\n");
+            for (double quantile : QUANTILES) {
+                writer.write(metric + "{quantile=\"" + quantile + "\"} "
+                        + seconds(timer.percentileNanos(quantile)) + "\n");
+            }
+            writer.write(metric + "_sum " + seconds(timer.getTotalNanos()) + "\n");
+            writer.write(metric + "_count " + timer.getCount() + "\n");
+        }
+        for (Counter counter : counters.values()) {
+            String metric = prometheusName(counter.getName()) + "_total";
+            writer.write("# TYPE " + metric + " counter\n");
+            writer.write(metric + " " + counter.getCount() + "\n");
+        }
+        for (Gauge gauge : gauges.values()) {
+            String metric = prometheusName(gauge.getName());
+            writer.write("# TYPE " + metric + " gauge\n");
+            try {
+                writer.write(metric + " " + gauge.getValue() + "\n");
+            } catch (RuntimeException e) {
+                logger.warn("Gauge {} could not be sampled", gauge.getName(), e);
+            }
+        }
+    }
+
+    @Override
+    public String getPrometheusText() {
+        StringWriter writer = new StringWriter();
+        try {
+            writePrometheus(writer);
+        } catch (IOException e) {
+            throw new IllegalStateException("StringWriter cannot fail", e);
+        }
+        return writer.toString();
+    }
+
+    /** Writes the Prometheus dump to {@code path} (or metrics.prometheus.path) and returns the file written. */
+    @Override
+    public String dumpPrometheus(String path) {
+        Path target = Paths.get(path != null && !path.trim().isEmpty() ? path : dumpPath);
+        try {
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+                writePrometheus(writer);
+            }
+            logger.info("Metrics written to {}", target);
+            return target.toAbsolutePath().toString();
+        } catch (IOException e) {
+            logger.error("Error writing metrics to {}", target, e);
+            throw new RuntimeException("Failed to write metrics", e);
+        }
+    }
+
+    private static String prometheusName(String name) {
+        return "todoapp_" + name.replaceAll("([a-z])([A-Z])", "$1_$2")
+                .replaceAll("[^a-zA-Z0-9_]", "_")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1_000_000_000.0);
+    }
+
+    private void registerMBean(String type, String name, Object mbean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(mbean, objectName);
+        } catch (JMException e) {
+            logger.warn("Could not register MBean for {}", name, e);
+        }
+    }
+
+    private void unregisterMBean(String type, String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            logger.warn("Could not unregister MBean for {}", name, e);
+        }
+    }
+}
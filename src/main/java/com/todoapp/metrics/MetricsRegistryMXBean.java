@@ -0,0 +1,10 @@
+package com.todoapp.metrics;
+
+public interface MetricsRegistryMXBean {
+
+    boolean isEnabled();
+
+    String getPrometheusText();
+
+    String dumpPrometheus(String path);
+}
@@ -0,0 +1,16 @@
+package com.todoapp.metrics;
+
+public interface TimerMXBean {
+
+    long getCount();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP99Millis();
+
+    double getP999Millis();
+
+    double getMaxMillis();
+}
@@ -1,6 +1,8 @@
 package com.todoapp.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
@@ -9,12 +11,15 @@ import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class Task {
     private Long id;
     private String title;
     private String description;
     private Priority priority;
     private boolean completed;
+    // Bumped by storage on every write; used for optimistic concurrency control
+    private long version;
     
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     @JsonSerialize(using = LocalDateTimeSerializer.class)
@@ -31,6 +36,10 @@ public class Task {
     @JsonDeserialize(using = LocalDateTimeDeserializer.class)
     private LocalDateTime completedDate;
 
+    // False for summary rows whose description has not been fetched yet
+    @JsonIgnore
+    private boolean descriptionLoaded = true;
+
     // Constructors
     public Task() {
         this.createdDate = LocalDateTime.now();
@@ -50,6 +59,18 @@ public class Task {
         this.dueDate = dueDate;
     }
 
+    /**
+     * An empty task for storage to fill in from a stored row. Unlike {@link #Task()} it does
+     * not read the clock for a creation date that the row overwrites anyway.
+     */
+    public static Task unstamped() {
+        return new Task(Priority.MEDIUM);
+    }
+
+    private Task(Priority priority) {
+        this.priority = priority;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -73,6 +94,18 @@ public class Task {
 
     public void setDescription(String description) {
         this.description = description;
+        this.descriptionLoaded = true;
+    }
+
+    @JsonIgnore
+    public boolean isDescriptionLoaded() {
+        return descriptionLoaded;
+    }
+
+    /** Marks this task as a summary row: its description is unknown rather than empty. */
+    public void markDescriptionUnloaded() {
+        this.description = null;
+        this.descriptionLoaded = false;
     }
 
     public Priority getPriority() {
@@ -96,6 +129,20 @@ public class Task {
         }
     }
 
+    /** Sets completion state and date exactly as stored, without stamping a missing date. */
+    public void setCompletion(boolean completed, LocalDateTime completedDate) {
+        this.completed = completed;
+        this.completedDate = completedDate;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public LocalDateTime getDueDate() {
         return dueDate;
     }
@@ -121,16 +168,19 @@ public class Task {
     }
 
     // Business logic methods
+    @JsonIgnore
     public boolean isOverdue() {
         return dueDate != null && !completed && LocalDateTime.now().isAfter(dueDate);
     }
 
+    @JsonIgnore
     public boolean isDueToday() {
         if (dueDate == null) return false;
         LocalDateTime now = LocalDateTime.now();
         return dueDate.toLocalDate().equals(now.toLocalDate());
     }
 
+    @JsonIgnore
     public boolean isDueSoon() {
         if (dueDate == null) return false;
         LocalDateTime now = LocalDateTime.now();
@@ -173,6 +223,10 @@ public class Task {
         copy.setDueDate(this.dueDate);
         copy.setCreatedDate(this.createdDate);
         copy.setCompletedDate(this.completedDate);
+        copy.setVersion(this.version);
+        if (!this.descriptionLoaded) {
+            copy.markDescriptionUnloaded();
+        }
         return copy;
     }
 }
@@ -0,0 +1,280 @@
+package com.todoapp.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Breakdowns of a task store as of one moment: tasks per priority and per creation week
+ * (total, completed, overdue), how long completed tasks took from creation to completion,
+ * and how long overdue tasks have been overdue. Lead time and overdue age count whole days
+ * and fall into {@link #LEAD_TIME_BUCKETS} and {@link #OVERDUE_AGE_BUCKETS}.
+ *
+ * <p>{@link #of} reduces an in-memory store on the fork/join common pool; database stores
+ * group in SQL and feed the grouped rows to an {@link Accumulator}, so both give the same
+ * answer.
+ */
+public final class TaskAnalytics {
+    /** Lower bounds in days of the lead time buckets: under a day, 1-2, 3-6, 7-29, 30 and more. */
+    public static final int[] LEAD_TIME_BUCKETS = {0, 1, 3, 7, 30};
+    /** Lower bounds in days of the overdue age buckets: under a day, 1-6, 7-29, 30 and more. */
+    public static final int[] OVERDUE_AGE_BUCKETS = {0, 1, 7, 30};
+    // Below this many tasks a reduction step runs sequentially rather than forking again
+    private static final int SEQUENTIAL_THRESHOLD = 8192;
+
+    private final LocalDateTime asOf;
+    private final Map<Priority, Counts> byPriority;
+    private final SortedMap<LocalDate, Counts> byCreatedWeek;
+    private final long[] leadTimes;
+    private final long leadTimeDays;
+    private final long[] overdueAges;
+
+    private TaskAnalytics(Accumulator accumulator) {
+        this.asOf = accumulator.now;
+        Map<Priority, Counts> priorities = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values()) {
+            priorities.put(priority, new Counts(accumulator.priorities[priority.ordinal()]));
+        }
+        this.byPriority = Collections.unmodifiableMap(priorities);
+        SortedMap<LocalDate, Counts> weeks = new TreeMap<>();
+        accumulator.weeks.forEach((week, counts) -> weeks.put(week, new Counts(counts)));
+        this.byCreatedWeek = Collections.unmodifiableSortedMap(weeks);
+        this.leadTimes = accumulator.leadTimes.clone();
+        this.leadTimeDays = accumulator.leadTimeDays;
+        this.overdueAges = accumulator.overdueAges.clone();
+    }
+
+    /**
+     * Computes the breakdowns of {@code tasks} as of {@code now}, splitting the list across
+     * the common fork/join pool so large stores use every core. Tasks must not change meanwhile.
+     */
+    public static TaskAnalytics of(List<Task> tasks, LocalDateTime now) {
+        return ForkJoinPool.commonPool().invoke(new Reduction(tasks, 0, tasks.size(), now)).toAnalytics();
+    }
+
+    /** The Monday starting the week of {@code date}, which keys {@link #getByCreatedWeek}. */
+    public static LocalDate weekOf(LocalDateTime date) {
+        return date.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    public LocalDateTime getAsOf() {
+        return asOf;
+    }
+
+    public long getTotal() {
+        return byPriority.values().stream().mapToLong(Counts::getTotal).sum();
+    }
+
+    public Map<Priority, Counts> getByPriority() {
+        return byPriority;
+    }
+
+    /** Counts of tasks created each week, keyed by the week's Monday, oldest first. */
+    public SortedMap<LocalDate, Counts> getByCreatedWeek() {
+        return byCreatedWeek;
+    }
+
+    /** Completed tasks per {@link #LEAD_TIME_BUCKETS} bucket. */
+    public List<Long> getLeadTimes() {
+        return toList(leadTimes);
+    }
+
+    /** Mean days from creation to completion, 0 when nothing was completed. */
+    public double getAverageLeadTimeDays() {
+        long completed = 0;
+        for (long count : leadTimes) {
+            completed += count;
+        }
+        return completed == 0 ? 0 : (double) leadTimeDays / completed;
+    }
+
+    /** Overdue tasks per {@link #OVERDUE_AGE_BUCKETS} bucket. */
+    public List<Long> getOverdueAges() {
+        return toList(overdueAges);
+    }
+
+    /** "1-2 days" style labels for the buckets starting at {@code bounds}. */
+    public static List<String> bucketLabels(int[] bounds) {
+        List<String> labels = new ArrayList<>();
+        for (int i = 0; i < bounds.length; i++) {
+            if (i + 1 == bounds.length) {
+                labels.add(bounds[i] + "+ days");
+            } else if (bounds[i] == 0) {
+                labels.add("< " + bounds[i + 1] + (bounds[i + 1] == 1 ? " day" : " days"));
+            } else if (bounds[i + 1] - 1 == bounds[i]) {
+                labels.add(bounds[i] + (bounds[i] == 1 ? " day" : " days"));
+            } else {
+                labels.add(bounds[i] + "-" + (bounds[i + 1] - 1) + " days");
+            }
+        }
+        return labels;
+    }
+
+    private static List<Long> toList(long[] counts) {
+        List<Long> list = new ArrayList<>(counts.length);
+        for (long count : counts) {
+            list.add(count);
+        }
+        return list;
+    }
+
+    private static int bucket(int[] bounds, long days) {
+        int bucket = 0;
+        while (bucket + 1 < bounds.length && days >= bounds[bucket + 1]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    /** Total, completed and overdue tasks of one group. */
+    public static final class Counts {
+        private final long total;
+        private final long completed;
+        private final long overdue;
+
+        private Counts(long[] counts) {
+            this.total = counts[0];
+            this.completed = counts[1];
+            this.overdue = counts[2];
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public long getCompleted() {
+            return completed;
+        }
+
+        public long getOverdue() {
+            return overdue;
+        }
+
+        public double getCompletionPercentage() {
+            return total == 0 ? 0 : (completed * 100.0) / total;
+        }
+    }
+
+    /**
+     * Mutable partial result: tasks are added one at a time or as pre-grouped counts, and two
+     * partials of disjoint task sets merge into the result of their union.
+     */
+    public static final class Accumulator {
+        private final LocalDateTime now;
+        private final long[][] priorities = new long[Priority.values().length][3];
+        private final Map<LocalDate, long[]> weeks = new HashMap<>();
+        private final long[] leadTimes = new long[LEAD_TIME_BUCKETS.length];
+        private long leadTimeDays;
+        private final long[] overdueAges = new long[OVERDUE_AGE_BUCKETS.length];
+
+        public Accumulator(LocalDateTime now) {
+            this.now = now;
+        }
+
+        public void add(Task task) {
+            boolean overdue = !task.isCompleted() && task.getDueDate() != null && task.getDueDate().isBefore(now);
+            long completed = task.isCompleted() ? 1 : 0;
+            addPriority(task.getPriority(), 1, completed, overdue ? 1 : 0);
+            if (task.getCreatedDate() != null) {
+                addWeek(weekOf(task.getCreatedDate()), 1, completed, overdue ? 1 : 0);
+                if (task.isCompleted() && task.getCompletedDate() != null) {
+                    addLeadTime(ChronoUnit.DAYS.between(task.getCreatedDate(), task.getCompletedDate()), 1);
+                }
+            }
+            if (overdue) {
+                addOverdueAge(ChronoUnit.DAYS.between(task.getDueDate(), now), 1);
+            }
+        }
+
+        public void addPriority(Priority priority, long total, long completed, long overdue) {
+            add(priorities[priority.ordinal()], total, completed, overdue);
+        }
+
+        /** Adds counts for the week starting {@code monday}, see {@link #weekOf}. */
+        public void addWeek(LocalDate monday, long total, long completed, long overdue) {
+            add(weeks.computeIfAbsent(monday, week -> new long[3]), total, completed, overdue);
+        }
+
+        /** Adds {@code count} tasks completed {@code days} after they were created. */
+        public void addLeadTime(long days, long count) {
+            days = Math.max(0, days);
+            leadTimes[bucket(LEAD_TIME_BUCKETS, days)] += count;
+            leadTimeDays += days * count;
+        }
+
+        /** Adds {@code count} tasks that have been overdue for {@code days}. */
+        public void addOverdueAge(long days, long count) {
+            overdueAges[bucket(OVERDUE_AGE_BUCKETS, Math.max(0, days))] += count;
+        }
+
+        public Accumulator merge(Accumulator other) {
+            for (int i = 0; i < priorities.length; i++) {
+                add(priorities[i], other.priorities[i][0], other.priorities[i][1], other.priorities[i][2]);
+            }
+            other.weeks.forEach((week, counts) -> addWeek(week, counts[0], counts[1], counts[2]));
+            for (int i = 0; i < leadTimes.length; i++) {
+                leadTimes[i] += other.leadTimes[i];
+            }
+            leadTimeDays += other.leadTimeDays;
+            for (int i = 0; i < overdueAges.length; i++) {
+                overdueAges[i] += other.overdueAges[i];
+            }
+            return this;
+        }
+
+        public TaskAnalytics toAnalytics() {
+            return new TaskAnalytics(this);
+        }
+
+        private static void add(long[] counts, long total, long completed, long overdue) {
+            counts[0] += total;
+            counts[1] += completed;
+            counts[2] += overdue;
+        }
+    }
+
+    /** Halves the range until it is small enough to accumulate, then merges the halves back. */
+    private static final class Reduction extends RecursiveTask<Accumulator> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Task> tasks;
+        private final int from;
+        private final int to;
+        private final LocalDateTime now;
+
+        Reduction(List<Task> tasks, int from, int to, LocalDateTime now) {
+            this.tasks = tasks;
+            this.from = from;
+            this.to = to;
+            this.now = now;
+        }
+
+        @Override
+        protected Accumulator compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                Accumulator accumulator = new Accumulator(now);
+                for (int i = from; i < to; i++) {
+                    accumulator.add(tasks.get(i));
+                }
+                return accumulator;
+            }
+            int middle = (from + to) >>> 1;
+            Reduction left = new Reduction(tasks, from, middle, now);
+            left.fork();
+            Accumulator right = new Reduction(tasks, middle, to, now).compute();
+            return left.join().merge(right);
+        }
+    }
+}
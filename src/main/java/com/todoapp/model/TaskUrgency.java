@@ -0,0 +1,39 @@
+package com.todoapp.model;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * How pressing a task is: its priority level, raised by 2 once it is overdue and by 1 while it
+ * is due within a day. An overdue high priority task thus ranks with urgent ones. Ties go to
+ * the earlier due date (tasks without one last), then to the older task.
+ */
+public final class TaskUrgency {
+    public static final int OVERDUE_BOOST = 2;
+    public static final int DUE_SOON_BOOST = 1;
+    public static final long DUE_SOON_HOURS = 24;
+
+    private TaskUrgency() {
+    }
+
+    public static int score(Task task, LocalDateTime now) {
+        return task.getPriority().getLevel() + boost(task.getDueDate(), now);
+    }
+
+    public static int boost(LocalDateTime dueDate, LocalDateTime now) {
+        if (dueDate == null) {
+            return 0;
+        }
+        if (dueDate.isBefore(now)) {
+            return OVERDUE_BOOST;
+        }
+        return dueDate.isBefore(now.plusHours(DUE_SOON_HOURS)) ? DUE_SOON_BOOST : 0;
+    }
+
+    /** Most urgent first, as of {@code now}. */
+    public static Comparator<Task> mostUrgentFirst(LocalDateTime now) {
+        return Comparator.<Task>comparingInt(task -> -score(task, now))
+                .thenComparing(Task::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Task::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+}
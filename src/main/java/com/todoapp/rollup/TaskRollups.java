@@ -0,0 +1,448 @@
+package com.todoapp.rollup;
+
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Daily and weekly counts of task activity per priority: tasks created, tasks completed and
+ * tasks that went overdue (due that day and not completed by their due time). Counts live in
+ * flat arrays indexed by day, so a range query reads one cell per bucket whatever the size of
+ * the history, and each change to a task adjusts a handful of cells.
+ *
+ * <p>Each task's contribution (its footprint: priority and the days it counts on) is
+ * remembered, so an edit moves its counts (a reopened task is no longer counted as completed)
+ * while a deleted task keeps its history. Counts and footprints persist in a compact binary
+ * file, written a while after changes rather than on each one: on open, {@link #reconcile}
+ * against the store's tasks catches up with whatever changed since the last save, whether by
+ * this process before it stopped or by another one. {@link #rebuild} recomputes everything
+ * from the tasks a store still holds. Days that have not ended yet count tasks due on them
+ * that are still open as overdue, which {@link #series} leaves out until the day comes.
+ */
+public class TaskRollups {
+    private static final Logger logger = LoggerFactory.getLogger(TaskRollups.class);
+    // "TRLP" and the format version
+    private static final int MAGIC = 0x54524c50;
+    private static final int FORMAT_VERSION = 1;
+    private static final int PRIORITIES = Priority.values().length;
+    private static final int CELLS = Metric.values().length * PRIORITIES;
+    // Epoch day 4 (1970-01-05) was a Monday
+    private static final int FIRST_MONDAY = 4;
+    private static final int NONE = Integer.MIN_VALUE;
+    // Footprint flags byte: the priority ordinal in the low bits, then which days are present
+    private static final int PRIORITY_MASK = 0x07;
+    private static final int CREATED_FLAG = 0x08;
+    private static final int COMPLETED_FLAG = 0x10;
+    private static final int OVERDUE_FLAG = 0x20;
+
+    public enum Metric { CREATED, COMPLETED, OVERDUE }
+
+    public enum Granularity { DAY, WEEK }
+
+    private final Path file;
+    private final Buckets days = new Buckets();
+    private final Buckets weeks = new Buckets();
+    // Sorted so saved ids delta-encode
+    private final NavigableMap<Long, Footprint> footprints = new TreeMap<>();
+    private final long saveDelayMillis;
+    private ScheduledExecutorService saver;
+    private boolean saveScheduled;
+
+    private TaskRollups(Path file, long saveDelayMillis) {
+        this.file = file;
+        this.saveDelayMillis = saveDelayMillis;
+    }
+
+    /**
+     * Opens the rollups stored in {@code file} for a store holding {@code tasks}, saving them
+     * {@code saveDelayMillis} after a change. Without a readable file the counts are rebuilt
+     * from the tasks. A null file keeps them in memory only.
+     */
+    public static TaskRollups open(Path file, Collection<Task> tasks, long saveDelayMillis) {
+        TaskRollups rollups = new TaskRollups(file, saveDelayMillis);
+        boolean loaded = false;
+        if (file != null) {
+            try {
+                loaded = rollups.load();
+            } catch (IOException e) {
+                logger.warn("Could not read task rollups from {}; rebuilding them", file, e);
+            }
+        }
+        if (loaded) {
+            rollups.reconcile(tasks);
+        } else {
+            rollups.rebuild(tasks);
+        }
+        return rollups;
+    }
+
+    /** Rollups of {@code tasks} held in memory only, for one-off queries. */
+    public static TaskRollups of(Collection<Task> tasks) {
+        return open(null, tasks, 0);
+    }
+
+    /** Counts {@code task} as it is now, replacing what it counted for before. */
+    public synchronized void put(Task task) {
+        Footprint current = Footprint.of(task);
+        Footprint previous = footprints.put(task.getId(), current);
+        if (!current.equals(previous)) {
+            apply(previous, -1);
+            apply(current, 1);
+            saveLater();
+        }
+    }
+
+    /** Forgets a deleted task; what it counted for stays in the history. */
+    public synchronized void remove(Long id) {
+        if (footprints.remove(id) != null) {
+            saveLater();
+        }
+    }
+
+    /**
+     * Catches up with {@code tasks} after changes made outside {@link #put} and
+     * {@link #remove}, such as another process writing the store.
+     */
+    public synchronized void reconcile(Collection<Task> tasks) {
+        Set<Long> present = new HashSet<>();
+        for (Task task : tasks) {
+            present.add(task.getId());
+            put(task);
+        }
+        if (footprints.keySet().retainAll(present)) {
+            saveLater();
+        }
+    }
+
+    /** Recomputes every count from {@code tasks}; the history of deleted tasks is lost. */
+    public synchronized void rebuild(Collection<Task> tasks) {
+        days.clear();
+        weeks.clear();
+        footprints.clear();
+        for (Task task : tasks) {
+            put(task);
+        }
+        saveLater();
+    }
+
+    /**
+     * One count per day or week (weeks start on Monday) from the bucket holding {@code from}
+     * through the one holding {@code to}, for one priority or all of them ({@code null}).
+     */
+    public synchronized long[] series(Metric metric, Granularity granularity, LocalDate from, LocalDate to,
+                                      Priority priority) {
+        boolean daily = granularity == Granularity.DAY;
+        int first = daily ? (int) from.toEpochDay() : weekOf((int) from.toEpochDay());
+        int last = daily ? (int) to.toEpochDay() : weekOf((int) to.toEpochDay());
+        // Overdue counts for days still to come are tasks that may yet be done in time
+        int today = (int) LocalDate.now().toEpochDay();
+        int lastKnown = metric != Metric.OVERDUE ? Integer.MAX_VALUE : daily ? today : weekOf(today);
+        Buckets buckets = daily ? days : weeks;
+        long[] series = new long[Math.max(0, last - first + 1)];
+        for (int i = 0; i < series.length && first + i <= lastKnown; i++) {
+            if (priority != null) {
+                series[i] = buckets.get(first + i, cell(metric, priority.ordinal()));
+            } else {
+                for (int p = 0; p < PRIORITIES; p++) {
+                    series[i] += buckets.get(first + i, cell(metric, p));
+                }
+            }
+        }
+        return series;
+    }
+
+    // One save per burst of changes, off the writer's thread
+    private void saveLater() {
+        if (file == null || saveScheduled) {
+            return;
+        }
+        if (saver == null) {
+            saver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "rollup-saver");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        saveScheduled = true;
+        saver.schedule(() -> {
+            try {
+                save();
+            } catch (IOException e) {
+                logger.warn("Could not save task rollups to {}", file, e);
+            }
+        }, saveDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes the daily counts and the footprints; weekly counts are summed from the daily
+     * ones again on load.
+     */
+    public synchronized void save() throws IOException {
+        saveScheduled = false;
+        if (file == null) {
+            return;
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            int first = days.first;
+            int end = days.first + days.size();
+            while (first < end && days.isEmpty(first)) {
+                first++;
+            }
+            while (end > first && days.isEmpty(end - 1)) {
+                end--;
+            }
+            out.writeInt(first);
+            writeVarint(out, end - first);
+            // Per day a bitmask of the cells in use, then those cells as zigzag varints:
+            // a quiet day takes two bytes
+            int[] counts = new int[CELLS];
+            for (int day = first; day < end; day++) {
+                int mask = 0;
+                for (int cell = 0; cell < CELLS; cell++) {
+                    counts[cell] = days.get(day, cell);
+                    if (counts[cell] != 0) {
+                        mask |= 1 << cell;
+                    }
+                }
+                out.writeShort(mask);
+                for (int cell = 0; cell < CELLS; cell++) {
+                    if (counts[cell] != 0) {
+                        writeVarint(out, zigzag(counts[cell]));
+                    }
+                }
+            }
+            // Per task the id as a delta from the previous one, a byte of priority and flags,
+            // then the days it counts on: creation as an epoch day, the others relative to it
+            writeVarint(out, footprints.size());
+            long previousId = 0;
+            for (Map.Entry<Long, Footprint> entry : footprints.entrySet()) {
+                Footprint footprint = entry.getValue();
+                writeVarint(out, (int) (entry.getKey() - previousId));
+                previousId = entry.getKey();
+                int flags = footprint.priority
+                        | (footprint.created != NONE ? CREATED_FLAG : 0)
+                        | (footprint.completed != NONE ? COMPLETED_FLAG : 0)
+                        | (footprint.overdue != NONE ? OVERDUE_FLAG : 0);
+                out.writeByte(flags);
+                int base = footprint.created != NONE ? footprint.created : 0;
+                if (footprint.created != NONE) {
+                    writeVarint(out, zigzag(footprint.created));
+                }
+                if (footprint.completed != NONE) {
+                    writeVarint(out, zigzag(footprint.completed - base));
+                }
+                if (footprint.overdue != NONE) {
+                    writeVarint(out, zigzag(footprint.overdue - base));
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private boolean load() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != FORMAT_VERSION) {
+                logger.warn("{} is not a task rollup file of a known version", file);
+                return false;
+            }
+            int first = in.readInt();
+            int size = readVarint(in);
+            for (int day = first; day < first + size; day++) {
+                int mask = in.readUnsignedShort();
+                for (int cell = 0; cell < CELLS; cell++) {
+                    if ((mask & (1 << cell)) != 0) {
+                        add(day, cell, unzigzag(readVarint(in)));
+                    }
+                }
+            }
+            int count = readVarint(in);
+            long id = 0;
+            for (int i = 0; i < count; i++) {
+                id += readVarint(in);
+                int flags = in.readUnsignedByte();
+                int created = (flags & CREATED_FLAG) != 0 ? unzigzag(readVarint(in)) : NONE;
+                int base = created != NONE ? created : 0;
+                int completed = (flags & COMPLETED_FLAG) != 0 ? base + unzigzag(readVarint(in)) : NONE;
+                int overdue = (flags & OVERDUE_FLAG) != 0 ? base + unzigzag(readVarint(in)) : NONE;
+                footprints.put(id, new Footprint(flags & PRIORITY_MASK, created, completed, overdue));
+            }
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private void apply(Footprint footprint, int delta) {
+        if (footprint == null) {
+            return;
+        }
+        add(footprint.created, cell(Metric.CREATED, footprint.priority), delta);
+        add(footprint.completed, cell(Metric.COMPLETED, footprint.priority), delta);
+        add(footprint.overdue, cell(Metric.OVERDUE, footprint.priority), delta);
+    }
+
+    private void add(int day, int cell, int delta) {
+        if (day != NONE) {
+            days.add(day, cell, delta);
+            weeks.add(weekOf(day), cell, delta);
+        }
+    }
+
+    private static int cell(Metric metric, int priority) {
+        return metric.ordinal() * PRIORITIES + priority;
+    }
+
+    private static int weekOf(int epochDay) {
+        return Math.floorDiv(epochDay - FIRST_MONDAY, 7);
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int encoded) {
+        return (encoded >>> 1) ^ -(encoded & 1);
+    }
+
+    private static void writeVarint(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(InputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("Truncated task rollup file");
+            }
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in task rollup file");
+    }
+
+    /** The priority a task counts for and the epoch days it counts on, NONE where it does not. */
+    private static final class Footprint {
+        final int priority;
+        final int created;
+        final int completed;
+        final int overdue;
+
+        private Footprint(int priority, int created, int completed, int overdue) {
+            this.priority = priority;
+            this.created = created;
+            this.completed = completed;
+            this.overdue = overdue;
+        }
+
+        static Footprint of(Task task) {
+            LocalDateTime due = task.getDueDate();
+            LocalDateTime completedDate = task.isCompleted() ? task.getCompletedDate() : null;
+            boolean missed = due != null && (!task.isCompleted() || completedDate == null || completedDate.isAfter(due));
+            return new Footprint(task.getPriority().ordinal(), day(task.getCreatedDate()), day(completedDate),
+                                 missed ? day(due) : NONE);
+        }
+
+        private static int day(LocalDateTime date) {
+            return date != null ? (int) date.toLocalDate().toEpochDay() : NONE;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Footprint)) {
+                return false;
+            }
+            Footprint other = (Footprint) o;
+            return priority == other.priority && created == other.created
+                    && completed == other.completed && overdue == other.overdue;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(priority, created, completed, overdue);
+        }
+    }
+
+    /** {@link #CELLS} counts per bucket for a contiguous, growable range of bucket numbers. */
+    private static final class Buckets {
+        int first;
+        int[] counts = new int[0];
+
+        int size() {
+            return counts.length / CELLS;
+        }
+
+        boolean isEmpty(int bucket) {
+            for (int cell = 0; cell < CELLS; cell++) {
+                if (get(bucket, cell) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int get(int bucket, int cell) {
+            int index = bucket - first;
+            return index >= 0 && index < size() ? counts[index * CELLS + cell] : 0;
+        }
+
+        void add(int bucket, int cell, int delta) {
+            if (counts.length == 0) {
+                first = bucket;
+                counts = new int[CELLS * 64];
+            } else if (bucket < first) {
+                // Grow downwards by at least doubling too, so adding ever older days stays cheap
+                int grow = Math.max(first - bucket, size());
+                int[] grown = new int[counts.length + grow * CELLS];
+                System.arraycopy(counts, 0, grown, grow * CELLS, counts.length);
+                counts = grown;
+                first -= grow;
+            } else if (bucket - first >= size()) {
+                counts = Arrays.copyOf(counts, Math.max(bucket - first + 1, size() * 2) * CELLS);
+            }
+            counts[(bucket - first) * CELLS + cell] += delta;
+        }
+
+        void clear() {
+            counts = new int[0];
+        }
+    }
+}
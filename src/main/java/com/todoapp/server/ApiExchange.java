@@ -0,0 +1,179 @@
+package com.todoapp.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Request/response helpers around one {@link HttpExchange}: query parsing, JSON bodies,
+ * conditional GETs and gzip encoding.
+ */
+class ApiExchange {
+    private final HttpExchange exchange;
+    private final ObjectMapper mapper;
+    private final int gzipMinBytes;
+    private Map<String, String> query;
+
+    ApiExchange(HttpExchange exchange, ObjectMapper mapper, int gzipMinBytes) {
+        this.exchange = exchange;
+        this.mapper = mapper;
+        this.gzipMinBytes = gzipMinBytes;
+    }
+
+    String method() {
+        return exchange.getRequestMethod();
+    }
+
+    String path() {
+        return exchange.getRequestURI().getPath();
+    }
+
+    String header(String name) {
+        return exchange.getRequestHeaders().getFirst(name);
+    }
+
+    String query(String name) {
+        if (query == null) {
+            query = parseQuery(exchange.getRequestURI().getRawQuery());
+        }
+        return query.get(name);
+    }
+
+    JsonNode readJson() {
+        try (InputStream body = exchange.getRequestBody()) {
+            JsonNode node = mapper.readTree(body);
+            if (node == null || !node.isObject()) {
+                throw new ApiException(400, "Request body must be a JSON object");
+            }
+            return node;
+        } catch (IOException e) {
+            throw new ApiException(400, "Malformed JSON: " + e.getMessage());
+        }
+    }
+
+    <T> T convert(JsonNode node, Class<T> type) {
+        try {
+            return mapper.treeToValue(node, type);
+        } catch (IOException e) {
+            throw new ApiException(400, "Invalid request body: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Answers 304 Not Modified when the client already holds {@code etag}; returns false
+     * (having sent nothing) when the full response is needed, always so for a null
+     * {@code etag}.
+     */
+    boolean notModified(String etag) throws IOException {
+        String ifNoneMatch = header("If-None-Match");
+        if (etag == null || ifNoneMatch == null || !matches(ifNoneMatch, etag)) {
+            return false;
+        }
+        exchange.getResponseHeaders().set("ETag", etag);
+        sendHeaders(304, -1);
+        exchange.close();
+        return true;
+    }
+
+    void sendJson(int status, Object body, String etag) throws IOException {
+        if (etag != null) {
+            exchange.getResponseHeaders().set("ETag", etag);
+        }
+        send(status, mapper.writeValueAsBytes(body));
+    }
+
+    void sendNoContent() throws IOException {
+        sendHeaders(204, -1);
+        exchange.close();
+    }
+
+    void sendError(int status, String message) throws IOException {
+        send(status, mapper.writeValueAsBytes(Collections.singletonMap("error", message)));
+    }
+
+    void sendText(int status, String contentType, String text) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        sendBytes(status, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void send(int status, byte[] json) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        sendBytes(status, json);
+    }
+
+    private void sendBytes(int status, byte[] body) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Vary", "Accept-Encoding");
+        if (body.length >= gzipMinBytes && acceptsGzip()) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(body);
+            }
+            body = compressed.toByteArray();
+            headers.set("Content-Encoding", "gzip");
+        }
+        sendHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+        exchange.close();
+    }
+
+    private void sendHeaders(int status, long length) throws IOException {
+        // A bodiless response completes inside sendResponseHeaders, and the server then drops
+        // the kept-alive connection unless the request body has already been read to its end
+        exchange.getRequestBody().close();
+        exchange.sendResponseHeaders(status, length);
+    }
+
+    private boolean acceptsGzip() {
+        String acceptEncoding = header("Accept-Encoding");
+        return acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch.trim().equals("*")) {
+            return true;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq >= 0 ? pair.substring(0, eq) : pair;
+            String value = eq >= 0 ? pair.substring(eq + 1) : "";
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                           URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+}
@@ -0,0 +1,167 @@
+package com.todoapp.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.todoapp.dao.StaleTaskException;
+import com.todoapp.dao.StorageUnavailableException;
+import com.todoapp.database.DatabaseConnection;
+import com.todoapp.metrics.MetricsRegistry;
+import com.todoapp.metrics.Timer;
+import com.todoapp.service.TaskService;
+import com.todoapp.util.ConfigurationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless JSON API over {@link TaskService} on the JDK's built-in HTTP server, so tools
+ * other than the JavaFX client can share the task store. Requests run one per virtual
+ * thread when the JVM has them (Java 21+) and on a bounded platform thread pool otherwise.
+ */
+public class ApiServer {
+    private static final Logger logger = LoggerFactory.getLogger(ApiServer.class);
+
+    private final TaskService taskService;
+    private final int port;
+    private final int gzipMinBytes;
+    private final ObjectMapper mapper;
+    private final TaskApiHandler taskHandler;
+    private final Timer requestTimer;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public ApiServer(TaskService taskService, int port) {
+        this.taskService = taskService;
+        this.port = port;
+        this.gzipMinBytes = ConfigurationManager.getInstance().getIntProperty("server.gzip.min.bytes", 1024);
+        this.mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        this.taskHandler = new TaskApiHandler(taskService);
+        this.requestTimer = MetricsRegistry.getInstance().timer("http.requests");
+    }
+
+    public synchronized void start() throws IOException {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        // Headers and body go out as separate writes; with Nagle on, each response with a body
+        // waits for the client's delayed ACK (~40 ms). Read once, when the first server is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        server = HttpServer.create(new InetSocketAddress(port), config.getIntProperty("server.backlog", 256));
+        executor = requestExecutor(config.getIntProperty("server.threads", 64));
+        server.setExecutor(executor);
+
+        server.createContext("/api/tasks", exchange -> handle(exchange, taskHandler::handleTasks));
+        server.createContext("/api/statistics", exchange -> handle(exchange, taskHandler::handleStatistics));
+        server.createContext("/api/archive", exchange -> handle(exchange, taskHandler::handleArchive));
+        server.createContext("/metrics", exchange -> handle(exchange, this::metrics));
+        server.start();
+
+        logger.info("Task API listening on port {} ({} storage)", getPort(),
+                taskService.getStorageName().toLowerCase(Locale.ROOT));
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(1);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    /** The bound port; differs from the configured one when that was 0. */
+    public synchronized int getPort() {
+        return server != null ? server.getAddress().getPort() : port;
+    }
+
+    private void metrics(ApiExchange exchange) throws IOException {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        if (!metrics.isEnabled()) {
+            throw new ApiException(404, "Metrics are disabled (metrics.enabled=false)");
+        }
+        exchange.sendText(200, "text/plain; version=0.0.4; charset=utf-8", metrics.getPrometheusText());
+    }
+
+    private void handle(HttpExchange httpExchange, Route route) {
+        long start = requestTimer.start();
+        ApiExchange exchange = new ApiExchange(httpExchange, mapper, gzipMinBytes);
+        try {
+            route.handle(exchange);
+        } catch (ApiException e) {
+            sendError(exchange, e.getStatus(), e.getMessage());
+        } catch (StaleTaskException e) {
+            sendError(exchange, 409, e.getMessage());
+        } catch (StorageUnavailableException e) {
+            sendError(exchange, 503, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, e.getMessage() != null && e.getMessage().startsWith("Task not found") ? 404 : 400,
+                      e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error handling {} {}", httpExchange.getRequestMethod(), httpExchange.getRequestURI(), e);
+            sendError(exchange, 500, "Internal server error");
+        } finally {
+            httpExchange.close();
+            requestTimer.stop(start);
+        }
+    }
+
+    private static void sendError(ApiExchange exchange, int status, String message) {
+        try {
+            exchange.sendError(status, message);
+        } catch (IOException e) {
+            logger.debug("Could not send error response", e);
+        }
+    }
+
+    /**
+     * Virtual-thread-per-request executor when available. The build targets Java 11, so the
+     * factory is looked up reflectively instead of being referenced directly.
+     */
+    static ExecutorService requestExecutor(int fallbackThreads) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            logger.info("Serving requests on virtual threads");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            logger.info("Virtual threads unavailable on Java {}, serving requests on {} threads",
+                    System.getProperty("java.specification.version"), fallbackThreads);
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(fallbackThreads, runnable -> {
+                Thread thread = new Thread(runnable, "api-request-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @FunctionalInterface
+    private interface Route {
+        void handle(ApiExchange exchange) throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0
+                ? Integer.parseInt(args[0])
+                : ConfigurationManager.getInstance().getIntProperty("server.port", 8080);
+        ApiServer apiServer = new ApiServer(new TaskService(), port);
+        apiServer.start();
+
+        // The server's dispatcher thread keeps the JVM alive until it is terminated
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            logger.info("Task API shutting down");
+            apiServer.stop();
+            DatabaseConnection.getInstance().closeConnection();
+        }, "api-shutdown"));
+    }
+}
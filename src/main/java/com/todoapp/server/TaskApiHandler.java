@@ -0,0 +1,261 @@
+package com.todoapp.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.todoapp.dao.StaleTaskException;
+import com.todoapp.model.Task;
+import com.todoapp.service.TaskListRefresher;
+import com.todoapp.service.TaskService;
+import com.todoapp.service.TaskService.TaskFilter;
+import com.todoapp.service.TaskService.TaskSortCriteria;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Routes of the task API:
+ * <pre>
+ *   GET    /api/tasks?filter=&amp;search=&amp;sort=&amp;order=asc|desc&amp;descriptions=true
+ *   POST   /api/tasks                      create from {title, description, priority, dueDate}
+ *   DELETE /api/tasks?completed=true       delete all completed tasks
+ *   GET    /api/tasks/{id}
+ *   PUT    /api/tasks/{id}                 update the fields present in the body
+ *   DELETE /api/tasks/{id}
+ *   POST   /api/tasks/{id}/complete | /pending
+ *   GET    /api/statistics
+ *   GET    /api/archive?search=&amp;from=yyyy-MM-dd&amp;to=yyyy-MM-dd&amp;limit=   archived tasks
+ * </pre>
+ * List and statistics ETags come from {@link TaskService#getDataTag()}, which on database
+ * storage is read from the stored rows; they are left off when no tag is available. Single-task
+ * ETags come from the task's row version, which also sees writes made by other processes.
+ */
+class TaskApiHandler {
+    private static final int DEFAULT_ARCHIVE_LIMIT = 100;
+
+    private final TaskService taskService;
+    private final TaskListRefresher refresher;
+    // Distinguishes data versions of different server runs
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    TaskApiHandler(TaskService taskService) {
+        this.taskService = taskService;
+        this.refresher = new TaskListRefresher(taskService);
+    }
+
+    void handleTasks(ApiExchange exchange) throws IOException {
+        String[] segments = exchange.path().replaceAll("/+$", "").split("/");
+        // "", "api", "tasks", {id}, {action}
+        if (segments.length < 3 || !segments[2].equals("tasks")) {
+            throw new ApiException(404, "Not found");
+        }
+        if (segments.length == 3) {
+            switch (exchange.method()) {
+                case "GET":
+                    listTasks(exchange);
+                    return;
+                case "POST":
+                    createTask(exchange);
+                    return;
+                case "DELETE":
+                    deleteCompleted(exchange);
+                    return;
+                default:
+                    throw new ApiException(405, "Method not allowed");
+            }
+        }
+
+        Long id = parseId(segments[3]);
+        if (segments.length == 4) {
+            switch (exchange.method()) {
+                case "GET":
+                    getTask(exchange, id);
+                    return;
+                case "PUT":
+                    updateTask(exchange, id);
+                    return;
+                case "DELETE":
+                    if (!taskService.deleteTask(id)) {
+                        throw new ApiException(404, "Task not found: " + id);
+                    }
+                    exchange.sendNoContent();
+                    return;
+                default:
+                    throw new ApiException(405, "Method not allowed");
+            }
+        }
+
+        if (segments.length == 5 && exchange.method().equals("POST")) {
+            Task task;
+            if (segments[4].equals("complete")) {
+                task = taskService.markTaskCompleted(id);
+            } else if (segments[4].equals("pending")) {
+                task = taskService.markTaskPending(id);
+            } else {
+                throw new ApiException(404, "Unknown action: " + segments[4]);
+            }
+            exchange.sendJson(200, task, taskETag(task));
+            return;
+        }
+        throw new ApiException(404, "Not found");
+    }
+
+    void handleStatistics(ApiExchange exchange) throws IOException {
+        if (!exchange.method().equals("GET")) {
+            throw new ApiException(405, "Method not allowed");
+        }
+        String etag = dataETag();
+        if (!exchange.notModified(etag)) {
+            exchange.sendJson(200, taskService.getStatistics(), etag);
+        }
+    }
+
+    void handleArchive(ApiExchange exchange) throws IOException {
+        if (!exchange.method().equals("GET")) {
+            throw new ApiException(405, "Method not allowed");
+        }
+        int limit = exchange.query("limit") != null ? parseInt(exchange.query("limit")) : DEFAULT_ARCHIVE_LIMIT;
+        List<Task> tasks = taskService.searchArchive(exchange.query("search"),
+                parseDate(exchange.query("from")), parseDate(exchange.query("to")), Math.max(1, limit));
+        exchange.sendJson(200, tasks, null);
+    }
+
+    private void listTasks(ApiExchange exchange) throws IOException {
+        // Read the version before querying so a concurrent write can only make the tag older
+        String etag = dataETag();
+        if (exchange.notModified(etag)) {
+            return;
+        }
+        TaskFilter filter = parseEnum(TaskFilter.class, exchange.query("filter"), TaskFilter.ALL);
+        TaskSortCriteria sort = parseEnum(TaskSortCriteria.class, exchange.query("sort"), null);
+        boolean ascending = !"desc".equalsIgnoreCase(exchange.query("order"));
+
+        List<Task> tasks = refresher.loadTasks(exchange.query("search"), filter, sort, ascending);
+        if ("true".equalsIgnoreCase(exchange.query("descriptions"))) {
+            refresher.loadDescriptions(tasks);
+        }
+        exchange.sendJson(200, tasks, etag);
+    }
+
+    private void getTask(ApiExchange exchange, Long id) throws IOException {
+        Task task = taskService.getTaskById(id)
+                .orElseThrow(() -> new ApiException(404, "Task not found: " + id));
+        String etag = taskETag(task);
+        if (!exchange.notModified(etag)) {
+            exchange.sendJson(200, task, etag);
+        }
+    }
+
+    private void createTask(ApiExchange exchange) throws IOException {
+        Task request = exchange.convert(exchange.readJson(), Task.class);
+        Task task = taskService.createTask(request.getTitle(), request.getDescription(),
+                                           request.getPriority(), request.getDueDate());
+        exchange.sendJson(201, task, taskETag(task));
+    }
+
+    private void updateTask(ApiExchange exchange, Long id) throws IOException {
+        JsonNode body = exchange.readJson();
+        Task request = exchange.convert(body, Task.class);
+        // Copy, so a rejected update cannot leave changes on the stored object (file storage)
+        Task task = taskService.getTaskById(id)
+                .orElseThrow(() -> new ApiException(404, "Task not found: " + id))
+                .copy();
+
+        if (body.has("title")) {
+            task.setTitle(request.getTitle());
+        }
+        if (body.has("description")) {
+            task.setDescription(request.getDescription());
+        }
+        if (body.has("priority")) {
+            task.setPriority(request.getPriority());
+        }
+        if (body.has("dueDate")) {
+            task.setDueDate(request.getDueDate());
+        }
+
+        String ifMatch = exchange.header("If-Match");
+        if (ifMatch != null) {
+            task.setVersion(parseTaskETag(ifMatch, id));
+        } else if (body.has("version")) {
+            task.setVersion(request.getVersion());
+        }
+
+        try {
+            Task saved = taskService.updateTask(task);
+            exchange.sendJson(200, saved, taskETag(saved));
+        } catch (StaleTaskException e) {
+            throw new ApiException(ifMatch != null ? 412 : 409, e.getMessage());
+        }
+    }
+
+    private void deleteCompleted(ApiExchange exchange) throws IOException {
+        if (!"true".equalsIgnoreCase(exchange.query("completed"))) {
+            throw new ApiException(400, "Only completed tasks can be deleted in bulk: use ?completed=true");
+        }
+        int deleted = taskService.deleteAllCompletedTasks();
+        exchange.sendJson(200, Collections.singletonMap("deleted", deleted), null);
+    }
+
+    // Null when the data cannot be tagged; the response then goes out without an ETag
+    private String dataETag() {
+        return taskService.getDataTag().map(tag -> "\"" + epoch + "-" + tag + "\"").orElse(null);
+    }
+
+    private static String taskETag(Task task) {
+        return "\"t" + task.getId() + "-" + task.getVersion() + "\"";
+    }
+
+    private static long parseTaskETag(String ifMatch, Long id) {
+        String prefix = "\"t" + id + "-";
+        String tag = ifMatch.trim();
+        if (tag.startsWith(prefix) && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // fall through
+            }
+        }
+        throw new ApiException(412, "If-Match does not name a version of task " + id);
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ApiException(400, "Dates look like 2024-01-31: " + value);
+        }
+    }
+
+    private static int parseInt(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Not a number: " + value);
+        }
+    }
+
+    private static Long parseId(String segment) {
+        try {
+            return Long.valueOf(segment);
+        } catch (NumberFormatException e) {
+            throw new ApiException(404, "Not found");
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, E defaultValue) {
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "Unknown " + type.getSimpleName() + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.todoapp.service;
+
+import com.todoapp.dao.TaskDAO;
+import com.todoapp.util.ConfigurationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+/**
+ * Deletes all completed tasks in id-range chunks of {@code purge.chunk.size}, pausing
+ * {@code purge.pause.ms} between chunks. Each chunk is one short statement, so row locks and
+ * undo stay bounded and other writers get in between chunks however many tasks there are.
+ * A store that saves by rewriting everything would rewrite once per chunk, though, so for the
+ * file store chunks are grouped into spans of up to {@code purge.span.ms}: a span deletes in
+ * memory as one bulk write under the store lock and saves once, and the pause, with the lock
+ * released, comes between spans. Reports progress after every span and stops at the next chunk
+ * boundary when cancelled; what was deleted by then stays deleted. Obtain one from
+ * {@link TaskService#purgeCompletedTasks}.
+ */
+public class CompletedTaskPurge {
+    private static final Logger logger = LoggerFactory.getLogger(CompletedTaskPurge.class);
+
+    /** Told after each span, on the purging thread. {@code total} is an estimate taken at the start. */
+    @FunctionalInterface
+    public interface Listener {
+        void onProgress(long deleted, long total);
+    }
+
+    private final TaskDAO taskDAO;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final long spanMillis;
+    private final LongConsumer onFinished;
+    private volatile Listener listener = (deleted, total) -> { };
+    private volatile boolean cancelled;
+
+    /** @param spans group chunks into {@code purge.span.ms} spans; otherwise every chunk is its own span */
+    CompletedTaskPurge(TaskDAO taskDAO, boolean spans, LongConsumer onFinished) {
+        this(taskDAO, ConfigurationManager.getInstance().getIntProperty("purge.chunk.size", 1000),
+             ConfigurationManager.getInstance().getIntProperty("purge.pause.ms", 20),
+             spans ? ConfigurationManager.getInstance().getIntProperty("purge.span.ms", 250) : 0, onFinished);
+    }
+
+    CompletedTaskPurge(TaskDAO taskDAO, int chunkSize, long pauseMillis, LongConsumer onFinished) {
+        this(taskDAO, chunkSize, pauseMillis, 0, onFinished);
+    }
+
+    CompletedTaskPurge(TaskDAO taskDAO, int chunkSize, long pauseMillis, long spanMillis, LongConsumer onFinished) {
+        this.taskDAO = taskDAO;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.pauseMillis = Math.max(0, pauseMillis);
+        this.spanMillis = Math.max(0, spanMillis);
+        this.onFinished = onFinished;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /** Runs the purge on a background thread; the future yields the number of tasks deleted. */
+    public CompletableFuture<Long> start() {
+        return CompletableFuture.supplyAsync(this::run, runnable -> {
+            Thread thread = new Thread(runnable, "completed-task-purge");
+            thread.setDaemon(true);
+            thread.start();
+        });
+    }
+
+    /** Stops after the chunk in progress. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** Runs the purge on the calling thread and returns the number of tasks deleted. */
+    public long run() {
+        long total = taskDAO.getCompletedCount();
+        long deleted = 0;
+        long afterId = 0;
+        boolean more = true;
+        try {
+            while (more && !cancelled) {
+                // One bulk write per span, never across a pause, which must leave the store unlocked
+                long spanEnd = System.currentTimeMillis() + spanMillis;
+                taskDAO.beginBulkWrite();
+                try {
+                    do {
+                        OptionalLong chunkEnd = taskDAO.findCompletedChunkEnd(afterId, chunkSize);
+                        long throughId = chunkEnd.orElse(Long.MAX_VALUE);
+                        deleted += taskDAO.deleteCompletedInRange(afterId, throughId);
+                        more = chunkEnd.isPresent();
+                        afterId = throughId;
+                    } while (more && !cancelled && System.currentTimeMillis() < spanEnd);
+                } finally {
+                    taskDAO.endBulkWrite();
+                }
+                // Tasks completed while purging can push the count past the estimate
+                listener.onProgress(deleted, Math.max(total, deleted));
+                if (more) {
+                    pause();
+                }
+            }
+        } finally {
+            onFinished.accept(deleted);
+        }
+        logger.info("{} {} completed tasks", cancelled ? "Cancelled purge after deleting" : "Purged", deleted);
+        return deleted;
+    }
+
+    private void pause() {
+        if (pauseMillis == 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled = true;
+        }
+    }
+}
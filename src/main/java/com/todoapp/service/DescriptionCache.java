@@ -0,0 +1,49 @@
+package com.todoapp.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of task descriptions fetched lazily for summary rows.
+ * Null descriptions are cached too, so a task without one is not re-queried.
+ */
+class DescriptionCache {
+    private final int maxSize;
+    private final LinkedHashMap<Long, String> descriptions;
+
+    DescriptionCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.descriptions = new LinkedHashMap<Long, String>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > DescriptionCache.this.maxSize;
+            }
+        };
+    }
+
+    synchronized boolean contains(Long id) {
+        return descriptions.containsKey(id);
+    }
+
+    synchronized String get(Long id) {
+        return descriptions.get(id);
+    }
+
+    synchronized void put(Long id, String description) {
+        if (maxSize > 0) {
+            descriptions.put(id, description);
+        }
+    }
+
+    synchronized void remove(Long id) {
+        descriptions.remove(id);
+    }
+
+    synchronized void clear() {
+        descriptions.clear();
+    }
+
+    synchronized int size() {
+        return descriptions.size();
+    }
+}
@@ -0,0 +1,13 @@
+package com.todoapp.service;
+
+import com.todoapp.model.Task;
+
+/**
+ * Told by {@link DueDateScheduler} when a pending task becomes due soon or overdue, on the
+ * scheduler's thread.
+ */
+@FunctionalInterface
+public interface DueDateListener {
+
+    void taskDue(Task task, DueDateScheduler.Alert alert);
+}
@@ -0,0 +1,235 @@
+package com.todoapp.service;
+
+import com.todoapp.metrics.MetricsRegistry;
+import com.todoapp.model.Task;
+import com.todoapp.service.TaskService.TaskFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires {@link Alert#DUE_SOON} and {@link Alert#OVERDUE} at the instants pending tasks cross
+ * those thresholds (the same ones as {@link Task#isDueSoon()} and {@link Task#isOverdue()}),
+ * so nothing has to rescan storage to notice. Due dates are seeded from storage once and then
+ * follow the service's change events: each change costs O(log n) on a priority queue, and
+ * entries made obsolete by a later change are dropped lazily when they reach the head.
+ * Only transitions that happen while running are reported, not the state found at startup.
+ */
+public class DueDateScheduler implements TaskChangeListener {
+    private static final Logger logger = LoggerFactory.getLogger(DueDateScheduler.class);
+
+    /** Matches the window of {@link Task#isDueSoon()}. */
+    static final Duration DUE_SOON_WINDOW = Duration.ofDays(3);
+    private static final String SCHEDULED_GAUGE = "dueDates.scheduled";
+
+    public enum Alert {
+        DUE_SOON, OVERDUE
+    }
+
+    private final Clock clock;
+    private final ScheduledExecutorService executor;
+    private final List<DueDateListener> listeners = new CopyOnWriteArrayList<>();
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(
+            Comparator.comparingLong((Entry entry) -> entry.fireAtMillis).thenComparingLong(entry -> entry.generation));
+    // Latest scheduling per task; queue entries from older generations are stale
+    private final Map<Long, Long> scheduled = new HashMap<>();
+    private long generation;
+    private ScheduledFuture<?> wakeup;
+    private long wakeupAtMillis = Long.MAX_VALUE;
+    private TaskService taskService;
+
+    public DueDateScheduler() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public DueDateScheduler(Clock clock) {
+        this.clock = clock;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "due-date-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        MetricsRegistry.getInstance().gauge(SCHEDULED_GAUGE, this::size);
+    }
+
+    public void addListener(DueDateListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(DueDateListener listener) {
+        listeners.remove(listener);
+    }
+
+    /** Schedules the pending tasks in storage and follows the service's writes from now on. */
+    public void start(TaskService service) {
+        this.taskService = service;
+        seed(service.getFilteredTasks(TaskFilter.PENDING));
+        service.addChangeListener(this);
+    }
+
+    /** Stops following the service and ends the scheduler thread; call on shutdown. */
+    public void stop() {
+        if (taskService != null) {
+            taskService.removeChangeListener(this);
+        }
+        executor.shutdownNow();
+        MetricsRegistry.getInstance().removeGauge(SCHEDULED_GAUGE);
+    }
+
+    @Override
+    public void taskChanged(TaskChangeEvent event) {
+        switch (event.getType()) {
+            case CREATED:
+            case UPDATED:
+                schedule(event.getCurrent());
+                break;
+            case DELETED:
+                cancel(event.getTaskId());
+                break;
+            case BULK:
+            default:
+                // Rare (clearing completed tasks): start over from storage
+                seed(taskService.getFilteredTasks(TaskFilter.PENDING));
+                break;
+        }
+    }
+
+    public synchronized void seed(List<Task> tasks) {
+        scheduled.clear();
+        queue.clear();
+        for (Task task : tasks) {
+            enqueue(task);
+        }
+        armWakeup();
+        logger.info("Scheduled due-date alerts for {} tasks", scheduled.size());
+    }
+
+    /** (Re)schedules the alerts of {@code task}, replacing any earlier ones. */
+    public synchronized void schedule(Task task) {
+        enqueue(task);
+        compactIfMostlyStale();
+        armWakeup();
+    }
+
+    public synchronized void cancel(Long taskId) {
+        scheduled.remove(taskId);
+    }
+
+    /** Tasks with at least one alert still to fire. */
+    public synchronized long size() {
+        return scheduled.size();
+    }
+
+    /** Fires every alert whose instant has passed; runs on the scheduler thread. */
+    void runDue() {
+        List<Entry> due = new ArrayList<>();
+        synchronized (this) {
+            wakeup = null;
+            wakeupAtMillis = Long.MAX_VALUE;
+            long now = clock.millis();
+            while (!queue.isEmpty() && queue.peek().fireAtMillis <= now) {
+                Entry entry = queue.poll();
+                if (isCurrent(entry)) {
+                    due.add(entry);
+                    if (entry.alert == Alert.OVERDUE) {
+                        scheduled.remove(entry.task.getId());
+                    }
+                }
+            }
+            armWakeup();
+        }
+        for (Entry entry : due) {
+            for (DueDateListener listener : listeners) {
+                try {
+                    listener.taskDue(entry.task, entry.alert);
+                } catch (RuntimeException e) {
+                    logger.error("Due date listener failed for task {}", entry.task.getId(), e);
+                }
+            }
+        }
+    }
+
+    private void enqueue(Task task) {
+        Long id = task.getId();
+        if (task.isCompleted() || task.getDueDate() == null) {
+            scheduled.remove(id);
+            return;
+        }
+        long now = clock.millis();
+        long dueMillis = toMillis(task.getDueDate());
+        // Both checks are strict (isAfter/isBefore), so each alert fires just past its boundary
+        long overdueAt = dueMillis + 1;
+        long dueSoonAt = dueMillis - DUE_SOON_WINDOW.toMillis() + 1;
+        if (overdueAt <= now) {
+            scheduled.remove(id);
+            return;
+        }
+
+        long taskGeneration = ++generation;
+        scheduled.put(id, taskGeneration);
+        if (dueSoonAt > now) {
+            queue.add(new Entry(task, Alert.DUE_SOON, dueSoonAt, taskGeneration));
+        }
+        queue.add(new Entry(task, Alert.OVERDUE, overdueAt, taskGeneration));
+    }
+
+    // Each reschedule leaves its old entries behind; rebuild once they outnumber live ones
+    // (at most two per task), which keeps the amortized cost per change at O(log n)
+    private void compactIfMostlyStale() {
+        if (queue.size() > 4 * scheduled.size() + 64) {
+            queue.removeIf(entry -> !isCurrent(entry));
+        }
+    }
+
+    private boolean isCurrent(Entry entry) {
+        Long current = scheduled.get(entry.task.getId());
+        return current != null && current == entry.generation;
+    }
+
+    private void armWakeup() {
+        Entry head = queue.peek();
+        if (head == null || executor.isShutdown()) {
+            return;
+        }
+        if (wakeup != null && wakeupAtMillis <= head.fireAtMillis) {
+            return;
+        }
+        if (wakeup != null) {
+            wakeup.cancel(false);
+        }
+        wakeupAtMillis = head.fireAtMillis;
+        wakeup = executor.schedule(this::runDue, Math.max(0, head.fireAtMillis - clock.millis()), TimeUnit.MILLISECONDS);
+    }
+
+    private long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    private static final class Entry {
+        final Task task;
+        final Alert alert;
+        final long fireAtMillis;
+        final long generation;
+
+        Entry(Task task, Alert alert, long fireAtMillis, long generation) {
+            this.task = task;
+            this.alert = alert;
+            this.fireAtMillis = fireAtMillis;
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.todoapp.service;
+
+import com.todoapp.model.Task;
+import com.todoapp.service.TaskService.TaskSortCriteria;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * All tasks in the order of every {@link TaskSortCriteria} at once, one red-black tree per
+ * criterion, kept current by single-task puts and removes (O(log n) per tree). A view in
+ * either direction is an in-order walk of one tree, so changing the sort costs the rows read
+ * rather than a sort, and the first {@code k} rows cost O(k + log n). Orders match
+ * {@link TaskService#getComparator}, ties broken by id. Each entry holds a copy of its task
+ * and the sort keys computed when it was put, titles as case-folded collation keys, so
+ * lookups never re-fold a title and changes made to a task elsewhere cannot unbalance a tree.
+ * {@link TaskSortCriteria#URGENCY} depends on the clock and is not indexed.
+ */
+class SortedTaskIndex {
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator
+            .comparing((Entry entry) -> entry.key, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingLong(entry -> entry.id);
+
+    private final Map<TaskSortCriteria, NavigableSet<Entry>> trees = new HashMap<>();
+    private final Map<Long, Entry[]> entries = new HashMap<>();
+    private boolean loaded;
+
+    SortedTaskIndex() {
+        for (TaskSortCriteria criteria : TaskSortCriteria.values()) {
+            if (supports(criteria)) {
+                trees.put(criteria, new TreeSet<>(ENTRY_ORDER));
+            }
+        }
+    }
+
+    static boolean supports(TaskSortCriteria criteria) {
+        return criteria != TaskSortCriteria.URGENCY;
+    }
+
+    synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /** Replaces the contents with {@code tasks}. */
+    synchronized void load(Collection<Task> tasks) {
+        trees.values().forEach(NavigableSet::clear);
+        entries.clear();
+        for (Task task : tasks) {
+            insert(task);
+        }
+        loaded = true;
+    }
+
+    /** Drops the contents after changes the index was not told about; {@link #load} again before use. */
+    synchronized void invalidate() {
+        trees.values().forEach(NavigableSet::clear);
+        entries.clear();
+        loaded = false;
+    }
+
+    /** Adds a task or moves it to where its new values sort; ignored until loaded. */
+    synchronized void put(Task task) {
+        if (loaded) {
+            insert(task);
+        }
+    }
+
+    private void insert(Task task) {
+        Task copy = task.copy();
+        Entry[] previous = entries.get(copy.getId());
+        Entry[] current = new Entry[TaskSortCriteria.values().length];
+        for (Map.Entry<TaskSortCriteria, NavigableSet<Entry>> tree : trees.entrySet()) {
+            int slot = tree.getKey().ordinal();
+            if (previous != null) {
+                tree.getValue().remove(previous[slot]);
+            }
+            current[slot] = new Entry(copy, key(tree.getKey(), copy));
+            tree.getValue().add(current[slot]);
+        }
+        entries.put(copy.getId(), current);
+    }
+
+    synchronized void remove(Long id) {
+        Entry[] previous = entries.remove(id);
+        if (previous != null) {
+            for (Map.Entry<TaskSortCriteria, NavigableSet<Entry>> tree : trees.entrySet()) {
+                tree.getValue().remove(previous[tree.getKey().ordinal()]);
+            }
+        }
+    }
+
+    /**
+     * Copies of up to {@code limit} tasks accepted by {@code filter}, in {@code criteria}
+     * order. Stops reading the tree as soon as it has them.
+     */
+    synchronized List<Task> walk(TaskSortCriteria criteria, boolean ascending, Predicate<Task> filter, int limit) {
+        NavigableSet<Entry> tree = trees.get(criteria);
+        Iterator<Entry> iterator = ascending ? tree.iterator() : tree.descendingIterator();
+        List<Task> tasks = new ArrayList<>(Math.min(limit, tree.size()));
+        while (tasks.size() < limit && iterator.hasNext()) {
+            Task task = iterator.next().task;
+            if (filter.test(task)) {
+                tasks.add(task.copy());
+            }
+        }
+        return tasks;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> key(TaskSortCriteria criteria, Task task) {
+        switch (criteria) {
+            case TITLE:
+                return (Comparable<Object>) (Comparable<?>) collationKey(task.getTitle());
+            case PRIORITY:
+                return (Comparable<Object>) (Comparable<?>) task.getPriority().getLevel();
+            case DUE_DATE:
+                return (Comparable<Object>) (Comparable<?>) task.getDueDate();
+            case COMPLETED_DATE:
+                return (Comparable<Object>) (Comparable<?>) task.getCompletedDate();
+            case CREATED_DATE:
+            default:
+                return (Comparable<Object>) (Comparable<?>) task.getCreatedDate();
+        }
+    }
+
+    /**
+     * A string whose natural order is {@link String#CASE_INSENSITIVE_ORDER} on {@code text}:
+     * that comparator folds each char the same way on every comparison; this folds it once.
+     */
+    static String collationKey(String text) {
+        if (text == null) {
+            return null;
+        }
+        char[] folded = new char[text.length()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = Character.toLowerCase(Character.toUpperCase(text.charAt(i)));
+        }
+        return new String(folded);
+    }
+
+    private static final class Entry {
+        final Task task;
+        final long id;
+        final Comparable<Object> key;
+
+        Entry(Task task, Comparable<Object> key) {
+            this.task = task;
+            this.id = task.getId();
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.todoapp.service;
+
+import com.todoapp.model.Task;
+
+/**
+ * One write made through {@link TaskService}, published to {@link TaskChangeListener}s after
+ * it is stored. {@code previous} is the task as it was before the write when the service knew
+ * it, and null otherwise; {@code current} is null for deletions. {@link Type#BULK} changes
+ * carry neither and mean "reload everything".
+ */
+public class TaskChangeEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, BULK
+    }
+
+    private final Type type;
+    private final Long taskId;
+    private final Task previous;
+    private final Task current;
+    private final long dataVersion;
+
+    TaskChangeEvent(Type type, Long taskId, Task previous, Task current, long dataVersion) {
+        this.type = type;
+        this.taskId = taskId;
+        this.previous = previous;
+        this.current = current;
+        this.dataVersion = dataVersion;
+    }
+
+    public Type getType() { return type; }
+    public Long getTaskId() { return taskId; }
+    public Task getPrevious() { return previous; }
+    public Task getCurrent() { return current; }
+
+    /** {@link TaskService#getDataVersion()} right after this change. */
+    public long getDataVersion() { return dataVersion; }
+
+    @Override
+    public String toString() {
+        return "TaskChangeEvent{" + type + ", taskId=" + taskId + ", dataVersion=" + dataVersion + "}";
+    }
+}
@@ -0,0 +1,11 @@
+package com.todoapp.service;
+
+/**
+ * Receives the changes written through a {@link TaskService}, on the thread that made each
+ * write, right after it was stored.
+ */
+@FunctionalInterface
+public interface TaskChangeListener {
+
+    void taskChanged(TaskChangeEvent event);
+}
@@ -0,0 +1,51 @@
+package com.todoapp.service;
+
+import com.todoapp.model.Task;
+import com.todoapp.service.TaskService.TaskFilter;
+import com.todoapp.service.TaskService.TaskSortCriteria;
+import com.todoapp.service.TaskService.TaskStatistics;
+
+import java.util.List;
+
+/**
+ * The filter/search/sort sequence behind the task table and the API's task list, kept
+ * free of JavaFX controls so it can be driven headlessly (see RefreshPipelineBenchmark).
+ */
+public class TaskListRefresher {
+    private final TaskService taskService;
+
+    public TaskListRefresher(TaskService taskService) {
+        this.taskService = taskService;
+    }
+
+    public List<Task> loadTasks(String searchTerm, TaskFilter filter, TaskSortCriteria sortCriteria, boolean ascending) {
+        List<Task> tasks;
+
+        // A search term takes precedence over the selected filter
+        if (searchTerm != null && !searchTerm.trim().isEmpty()) {
+            tasks = taskService.searchTasks(searchTerm);
+        } else if (sortCriteria != null) {
+            // Already in order, from the sorted index when there is one
+            return taskService.getSortedView(filter != null ? filter : TaskFilter.ALL, sortCriteria, ascending);
+        } else {
+            tasks = taskService.getFilteredTasks(filter != null ? filter : TaskFilter.ALL);
+        }
+
+        // Sort the rows we already have; storage matched search terms against descriptions
+        // that summary rows do not carry
+        if (sortCriteria != null) {
+            tasks = taskService.sortTasks(tasks, sortCriteria, ascending);
+        }
+
+        return tasks;
+    }
+
+    /** Loads descriptions for rows that will display them (description column visible). */
+    public void loadDescriptions(List<Task> tasks) {
+        taskService.loadDescriptions(tasks);
+    }
+
+    public TaskStatistics loadStatistics() {
+        return taskService.getStatistics();
+    }
+}
@@ -1,35 +1,215 @@
 package com.todoapp.service;
 
+import com.todoapp.archive.TaskArchive;
+import com.todoapp.archive.TaskArchiver;
+import com.todoapp.dao.FailoverTaskDAO;
 import com.todoapp.dao.TaskDAO;
 import com.todoapp.dao.TaskDAOImpl;
 import com.todoapp.dao.FileTaskDAO;
+import com.todoapp.dao.MetricsTaskDAO;
+import com.todoapp.dao.StaleTaskException;
 import com.todoapp.database.DatabaseConnection;
+import com.todoapp.metrics.MetricsRegistry;
+import com.todoapp.metrics.Timer;
 import com.todoapp.model.Priority;
 import com.todoapp.model.Task;
+import com.todoapp.model.TaskAnalytics;
+import com.todoapp.model.TaskUrgency;
+import com.todoapp.rollup.TaskRollups;
+import com.todoapp.sync.SyncingTaskDAO;
+import com.todoapp.util.CircuitBreaker;
+import com.todoapp.util.ConfigurationManager;
+import com.todoapp.util.TopK;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 public class TaskService {
     private static final Logger logger = LoggerFactory.getLogger(TaskService.class);
+    private static final int MAX_COMPLETION_ATTEMPTS = 3;
     private final TaskDAO taskDAO;
     private final boolean useDatabaseStorage;
+    private final String storageName;
+    // Set when the database is behind a circuit breaker
+    private final FailoverTaskDAO failover;
+    private final DescriptionCache descriptionCache;
+    private final TaskArchive archive;
+    // The archive is a local directory; only a store this client owns alone may move tasks there
+    private final boolean archiveSupported;
+    // Saves rewrite the whole tasks file
+    private final boolean fileStorage;
+    // Every task in every sort order; null when disabled or when storage is the database,
+    // which other clients write to without this service hearing of it
+    private final SortedTaskIndex sortedIndex;
+    // Daily and weekly activity counts of a file store; null for the database, see openRollups
+    private final TaskRollups rollups;
+    // BULK changes reconcile the rollups with the whole store on this thread, not the caller's;
+    // changes arriving while a reconcile is queued are covered by it
+    private final ExecutorService rollupReconciler;
+    private final AtomicBoolean rollupReconcileQueued = new AtomicBoolean();
+    // Bumped on every write made through this service; see getDataVersion()
+    private final AtomicLong dataVersion = new AtomicLong();
+    private final List<TaskChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+
+    private final Timer createTimer;
+    private final Timer updateTimer;
+    private final Timer getByIdTimer;
+    private final Timer getAllTimer;
+    private final Timer sortedTimer;
+    private final Timer topTimer;
+    private final Timer filteredTimer;
+    private final Timer searchTimer;
+    private final Timer markCompletedTimer;
+    private final Timer markPendingTimer;
+    private final Timer deleteTimer;
+    private final Timer deleteCompletedTimer;
+    private final Timer statisticsTimer;
+    private final Timer analyticsTimer;
+    private final Timer activityTimer;
+    private final Timer archiveTimer;
 
     public TaskService() {
-        // Try to use database first, fallback to file storage
-        this.useDatabaseStorage = initializeDatabaseConnection();
-        this.taskDAO = useDatabaseStorage ? new TaskDAOImpl() : new FileTaskDAO();
-        
-        logger.info("TaskService initialized with {} storage", 
-                   useDatabaseStorage ? "database" : "file");
+        this(openStorage());
+    }
+
+    private TaskService(TaskDAO taskDAO) {
+        this(taskDAO, taskDAO instanceof TaskDAOImpl || taskDAO instanceof FailoverTaskDAO);
+
+        logger.info("TaskService initialized with {} storage", storageName.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * The store selected by {@code storage.mode}: {@code database}, {@code file}, {@code hybrid}
+     * (local file store replicated to the database, see {@link SyncingTaskDAO}) or {@code auto},
+     * which uses the database when it answers and the file store otherwise.
+     */
+    private static TaskDAO openStorage() {
+        String mode = ConfigurationManager.getInstance().getProperty("storage.mode", "auto").trim().toLowerCase(Locale.ROOT);
+        switch (mode) {
+            case "database":
+                return databaseStorage();
+            case "file":
+                return new FileTaskDAO();
+            case "hybrid":
+                return SyncingTaskDAO.open();
+            default:
+                // Try to use database first, fallback to file storage
+                return initializeDatabaseConnection() ? databaseStorage() : new FileTaskDAO();
+        }
+    }
+
+    private static TaskDAO databaseStorage() {
+        boolean failover = ConfigurationManager.getInstance().getBooleanProperty("db.breaker.enabled", true);
+        return failover ? new FailoverTaskDAO(new TaskDAOImpl()) : new TaskDAOImpl();
     }
 
-    private boolean initializeDatabaseConnection() {
+    public TaskService(TaskDAO taskDAO, boolean useDatabaseStorage) {
+        this(taskDAO, useDatabaseStorage, new TaskArchive());
+    }
+
+    public TaskService(TaskDAO taskDAO, boolean useDatabaseStorage, TaskArchive archive) {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        this.taskDAO = metrics.isEnabled() ? new MetricsTaskDAO(taskDAO, metrics) : taskDAO;
+        this.useDatabaseStorage = useDatabaseStorage;
+        this.storageName = taskDAO instanceof SyncingTaskDAO ? "Hybrid" : useDatabaseStorage ? "Database" : "File";
+        this.descriptionCache = new DescriptionCache(
+                ConfigurationManager.getInstance().getIntProperty("cache.description.size", 1000));
+        this.archive = archive;
+        this.archiveSupported = taskDAO instanceof FileTaskDAO;
+        this.fileStorage = taskDAO instanceof FileTaskDAO;
+        this.failover = taskDAO instanceof FailoverTaskDAO ? (FailoverTaskDAO) taskDAO : null;
+        this.sortedIndex = !useDatabaseStorage
+                && ConfigurationManager.getInstance().getBooleanProperty("view.sort.index.enabled", true)
+                ? new SortedTaskIndex() : null;
+        this.rollups = openRollups(taskDAO);
+        this.rollupReconciler = rollups != null ? Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rollup-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        if (failover != null) {
+            // Reload views when the database goes away (snapshot) and when it comes back (fresh data)
+            failover.getCircuitBreaker().addListener((from, to) -> {
+                if (to != CircuitBreaker.State.HALF_OPEN) {
+                    publish(TaskChangeEvent.Type.BULK, null, null, null);
+                }
+            });
+        }
+        if (taskDAO instanceof FileTaskDAO) {
+            // Another process sharing the tasks file wrote to it
+            ((FileTaskDAO) taskDAO).setExternalChangeListener(() -> {
+                descriptionCache.clear();
+                publish(TaskChangeEvent.Type.BULK, null, null, null);
+            });
+        }
+        if (taskDAO instanceof SyncingTaskDAO) {
+            // Replication changed local tasks behind the service's back
+            ((SyncingTaskDAO) taskDAO).setRemoteChangeListener(() -> {
+                descriptionCache.clear();
+                publish(TaskChangeEvent.Type.BULK, null, null, null);
+            });
+        }
+
+        this.createTimer = metrics.timer("service.createTask");
+        this.updateTimer = metrics.timer("service.updateTask");
+        this.getByIdTimer = metrics.timer("service.getTaskById");
+        this.getAllTimer = metrics.timer("service.getAllTasks");
+        this.sortedTimer = metrics.timer("service.getTasksSortedBy");
+        this.topTimer = metrics.timer("service.getTopTasks");
+        this.filteredTimer = metrics.timer("service.getFilteredTasks");
+        this.searchTimer = metrics.timer("service.searchTasks");
+        this.markCompletedTimer = metrics.timer("service.markTaskCompleted");
+        this.markPendingTimer = metrics.timer("service.markTaskPending");
+        this.deleteTimer = metrics.timer("service.deleteTask");
+        this.deleteCompletedTimer = metrics.timer("service.deleteAllCompletedTasks");
+        this.statisticsTimer = metrics.timer("service.getStatistics");
+        this.analyticsTimer = metrics.timer("service.getAnalytics");
+        this.activityTimer = metrics.timer("service.getActivity");
+        this.archiveTimer = metrics.timer("service.archiveCompletedTasks");
+
+        metrics.gauge("tasks.total", taskDAO::getTotalCount);
+        metrics.gauge("tasks.completed", taskDAO::getCompletedCount);
+        metrics.gauge("tasks.pending", taskDAO::getPendingCount);
+        metrics.gauge("cache.descriptions.size", descriptionCache::size);
+    }
+
+    /**
+     * Rollups kept next to the tasks file they summarize, in {@code <name>.rollup}. The
+     * database is written by other clients this service never hears from, so its activity
+     * is counted on demand instead.
+     */
+    private static TaskRollups openRollups(TaskDAO taskDAO) {
+        FileTaskDAO store = taskDAO instanceof SyncingTaskDAO ? ((SyncingTaskDAO) taskDAO).getLocalStore()
+                : taskDAO instanceof FileTaskDAO ? (FileTaskDAO) taskDAO : null;
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        if (store == null || !config.getBooleanProperty("rollup.enabled", true)) {
+            return null;
+        }
+        Path path = store.getPath();
+        Path file = path.resolveSibling(path.getFileName().toString().replaceFirst("\\.json$", "") + ".rollup");
+        return TaskRollups.open(file, store.findAll(), config.getIntProperty("rollup.save.delay.ms", 5000));
+    }
+
+    private static boolean initializeDatabaseConnection() {
         try {
             DatabaseConnection dbConnection = DatabaseConnection.getInstance();
             return dbConnection.testConnection();
@@ -40,51 +220,199 @@ public class TaskService {
     }
 
     public Task createTask(String title, String description, Priority priority, LocalDateTime dueDate) {
-        if (title == null || title.trim().isEmpty()) {
-            throw new IllegalArgumentException("Task title cannot be empty");
-        }
+        long start = createTimer.start();
+        try {
+            TaskValidator.validateTitle(title);
 
-        Task task = new Task(title.trim(), description != null ? description.trim() : null);
-        task.setPriority(priority != null ? priority : Priority.MEDIUM);
-        task.setDueDate(dueDate);
+            Task task = new Task(title.trim(), description != null ? description.trim() : null);
+            task.setPriority(priority != null ? priority : Priority.MEDIUM);
+            task.setDueDate(dueDate);
 
-        return taskDAO.save(task);
+            Task saved = taskDAO.save(task);
+            publish(TaskChangeEvent.Type.CREATED, saved.getId(), null, saved);
+            return saved;
+        } finally {
+            createTimer.stop(start);
+        }
     }
 
     public Task updateTask(Task task) {
-        if (task == null || task.getId() == null) {
-            throw new IllegalArgumentException("Invalid task for update");
-        }
+        long start = updateTimer.start();
+        try {
+            if (task == null || task.getId() == null) {
+                throw new IllegalArgumentException("Invalid task for update");
+            }
 
-        if (task.getTitle() == null || task.getTitle().trim().isEmpty()) {
-            throw new IllegalArgumentException("Task title cannot be empty");
-        }
+            TaskValidator.validateTitle(task.getTitle());
 
-        return taskDAO.save(task);
+            Task saved = taskDAO.save(task);
+            if (saved.isDescriptionLoaded()) {
+                descriptionCache.put(saved.getId(), saved.getDescription());
+            }
+            publish(TaskChangeEvent.Type.UPDATED, saved.getId(), null, saved);
+            return saved;
+        } finally {
+            updateTimer.stop(start);
+        }
     }
 
     public Optional<Task> getTaskById(Long id) {
-        return taskDAO.findById(id);
+        long start = getByIdTimer.start();
+        try {
+            return taskDAO.findById(id);
+        } finally {
+            getByIdTimer.stop(start);
+        }
     }
 
     public List<Task> getAllTasks() {
-        return taskDAO.findAll();
+        long start = getAllTimer.start();
+        try {
+            return taskDAO.findAll();
+        } finally {
+            getAllTimer.stop(start);
+        }
     }
 
     public List<Task> getTasksSortedBy(TaskSortCriteria criteria, boolean ascending) {
-        List<Task> tasks = taskDAO.findAll();
-        
-        Comparator<Task> comparator = getComparator(criteria);
-        if (!ascending) {
-            comparator = comparator.reversed();
+        long start = sortedTimer.start();
+        try {
+            SortedTaskIndex index = sortedIndex(criteria);
+            if (index != null) {
+                return index.walk(criteria, ascending, task -> true, Integer.MAX_VALUE);
+            }
+            return sortTasks(taskDAO.findAll(), criteria, ascending);
+        } finally {
+            sortedTimer.stop(start);
         }
-        
+    }
+
+    /**
+     * The tasks of {@code filter} sorted by {@code criteria}, what {@link #sortTasks} makes of
+     * {@link #getFilteredTasks}. With the sorted index this reads the tasks in order instead of
+     * loading and sorting them, so changing the sort or its direction costs no sort at all.
+     */
+    public List<Task> getSortedView(TaskFilter filter, TaskSortCriteria criteria, boolean ascending) {
+        long start = sortedTimer.start();
+        try {
+            SortedTaskIndex index = sortedIndex(criteria);
+            if (index != null) {
+                return index.walk(criteria, ascending, task -> matchesFilter(task, filter), Integer.MAX_VALUE);
+            }
+        } finally {
+            sortedTimer.stop(start);
+        }
+        return sortTasks(getFilteredTasks(filter), criteria, ascending);
+    }
+
+    // The sorted index loaded and able to order by criteria, or null to query and sort instead
+    private SortedTaskIndex sortedIndex(TaskSortCriteria criteria) {
+        if (sortedIndex == null || !SortedTaskIndex.supports(criteria)) {
+            return null;
+        }
+        synchronized (sortedIndex) {
+            if (!sortedIndex.isLoaded()) {
+                sortedIndex.load(taskDAO.findAll());
+            }
+        }
+        return sortedIndex;
+    }
+
+    /**
+     * The first {@code k} tasks of {@code filter} in {@code criteria}'s most relevant first
+     * order: most urgent, highest priority, soonest due, newest created or completed, or A to
+     * Z. Pending tasks by urgency come from the store's next-up query and the other orders
+     * from the sorted index where there is one; the rest keep a bounded heap over the filter's
+     * result, O(n log k) instead of sorting all of it.
+     */
+    public List<Task> getTopTasks(int k, TaskSortCriteria criteria, TaskFilter filter) {
+        long start = topTimer.start();
+        try {
+            if (criteria == TaskSortCriteria.URGENCY && filter == TaskFilter.PENDING) {
+                return taskDAO.findMostUrgent(k, LocalDateTime.now());
+            }
+            // The index's descending null-last orders put tasks without a completion date first
+            SortedTaskIndex index = criteria != TaskSortCriteria.COMPLETED_DATE ? sortedIndex(criteria) : null;
+            if (index != null) {
+                boolean ascending = criteria == TaskSortCriteria.TITLE || criteria == TaskSortCriteria.DUE_DATE;
+                return index.walk(criteria, ascending, task -> matchesFilter(task, filter), k);
+            }
+            return TopK.of(getFilteredTasks(filter), k, getTopOrder(criteria));
+        } finally {
+            topTimer.stop(start);
+        }
+    }
+
+    // Like getComparator, but newest or highest first where that is what "top" means; tasks
+    // without the compared date stay last either way
+    private static Comparator<Task> getTopOrder(TaskSortCriteria criteria) {
+        switch (criteria) {
+            case PRIORITY:
+                return Comparator.comparing((Task task) -> task.getPriority().getLevel()).reversed();
+            case CREATED_DATE:
+                return Comparator.comparing(Task::getCreatedDate, Comparator.reverseOrder());
+            case COMPLETED_DATE:
+                return Comparator.comparing(Task::getCompletedDate, Comparator.nullsLast(Comparator.reverseOrder()));
+            default:
+                return getComparator(criteria);
+        }
+    }
+
+    /** Sorts an already loaded task list (e.g. a filter or search result) without another query. */
+    public List<Task> sortTasks(List<Task> tasks, TaskSortCriteria criteria, boolean ascending) {
         return tasks.stream()
-                .sorted(comparator)
+                .sorted(getComparator(criteria, ascending))
                 .collect(Collectors.toList());
     }
 
-    private Comparator<Task> getComparator(TaskSortCriteria criteria) {
+    /**
+     * Fills in the description of a summary task (see {@link Task#isDescriptionLoaded()}),
+     * from the cache when possible.
+     */
+    public Task loadDescription(Task task) {
+        if (task != null && !task.isDescriptionLoaded()) {
+            loadDescriptions(Collections.singletonList(task));
+        }
+        return task;
+    }
+
+    /** Batch version of {@link #loadDescription(Task)}: one query for all cache misses. */
+    public void loadDescriptions(List<Task> tasks) {
+        List<Long> missing = new ArrayList<>();
+        for (Task task : tasks) {
+            if (!task.isDescriptionLoaded()) {
+                if (descriptionCache.contains(task.getId())) {
+                    task.setDescription(descriptionCache.get(task.getId()));
+                } else {
+                    missing.add(task.getId());
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        Map<Long, String> descriptions = taskDAO.findDescriptions(missing);
+        for (Task task : tasks) {
+            if (!task.isDescriptionLoaded() && descriptions.containsKey(task.getId())) {
+                String description = descriptions.get(task.getId());
+                task.setDescription(description);
+                descriptionCache.put(task.getId(), description);
+            }
+        }
+    }
+
+    /**
+     * The order {@link #sortTasks} produces, for callers keeping a sorted list up to date. Ties
+     * go by id, as in the sorted index, so every path orders equal rows alike.
+     */
+    public static Comparator<Task> getComparator(TaskSortCriteria criteria, boolean ascending) {
+        Comparator<Task> comparator = getComparator(criteria)
+                .thenComparing(Task::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+        return ascending ? comparator : comparator.reversed();
+    }
+
+    private static Comparator<Task> getComparator(TaskSortCriteria criteria) {
         switch (criteria) {
             case TITLE:
                 return Comparator.comparing(Task::getTitle, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
@@ -96,84 +424,411 @@ public class TaskService {
                 return Comparator.comparing(Task::getCreatedDate);
             case COMPLETED_DATE:
                 return Comparator.comparing(Task::getCompletedDate, Comparator.nullsLast(Comparator.naturalOrder()));
+            case URGENCY:
+                return TaskUrgency.mostUrgentFirst(LocalDateTime.now());
             default:
                 return Comparator.comparing(Task::getCreatedDate);
         }
     }
 
-    public List<Task> getFilteredTasks(TaskFilter filter) {
+    /** Whether {@code task} belongs in {@link #getFilteredTasks}'s result for {@code filter}. */
+    public static boolean matchesFilter(Task task, TaskFilter filter) {
+        if (filter == null) {
+            return true;
+        }
         switch (filter) {
             case ALL:
-                return taskDAO.findAll();
+                return true;
             case PENDING:
-                return taskDAO.findByCompleted(false);
+                return !task.isCompleted();
             case COMPLETED:
-                return taskDAO.findByCompleted(true);
+                return task.isCompleted();
             case OVERDUE:
-                return taskDAO.findOverdueTasks();
+                return task.isOverdue();
             case DUE_TODAY:
-                return taskDAO.findTasksDueToday();
+                return task.isDueToday();
             case HIGH_PRIORITY:
-                return taskDAO.findByPriority(Priority.HIGH);
+                return task.getPriority() == Priority.HIGH;
             case URGENT:
-                return taskDAO.findByPriority(Priority.URGENT);
+                return task.getPriority() == Priority.URGENT;
             default:
-                return taskDAO.findAll();
+                return true;
+        }
+    }
+
+    public List<Task> getFilteredTasks(TaskFilter filter) {
+        long start = filteredTimer.start();
+        try {
+            switch (filter) {
+                case ALL:
+                    return taskDAO.findAll();
+                case PENDING:
+                    return taskDAO.findByCompleted(false);
+                case COMPLETED:
+                    return taskDAO.findByCompleted(true);
+                case OVERDUE:
+                    return taskDAO.findOverdueTasks();
+                case DUE_TODAY:
+                    return taskDAO.findTasksDueToday();
+                case HIGH_PRIORITY:
+                    return taskDAO.findByPriority(Priority.HIGH);
+                case URGENT:
+                    return taskDAO.findByPriority(Priority.URGENT);
+                default:
+                    return taskDAO.findAll();
+            }
+        } finally {
+            filteredTimer.stop(start);
         }
     }
 
     public List<Task> searchTasks(String searchTerm) {
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            return getAllTasks();
+        long start = searchTimer.start();
+        try {
+            if (searchTerm == null || searchTerm.trim().isEmpty()) {
+                return getAllTasks();
+            }
+            return taskDAO.searchTasks(searchTerm.trim());
+        } finally {
+            searchTimer.stop(start);
+        }
+    }
+
+    /**
+     * Marks a task completed with a single conditional update against the version the caller
+     * holds. Throws {@link StaleTaskException} when the task changed since it was read.
+     */
+    public Task markTaskCompleted(Task task) {
+        long start = markCompletedTimer.start();
+        try {
+            return applyCompletion(task, true);
+        } finally {
+            markCompletedTimer.stop(start);
+        }
+    }
+
+    public Task markTaskPending(Task task) {
+        long start = markPendingTimer.start();
+        try {
+            return applyCompletion(task, false);
+        } finally {
+            markPendingTimer.stop(start);
         }
-        return taskDAO.searchTasks(searchTerm.trim());
     }
 
     public Task markTaskCompleted(Long taskId) {
-        Optional<Task> taskOpt = taskDAO.findById(taskId);
-        if (taskOpt.isPresent()) {
-            Task task = taskOpt.get();
-            task.setCompleted(true);
-            return taskDAO.save(task);
+        long start = markCompletedTimer.start();
+        try {
+            return applyCompletion(taskId, true);
+        } finally {
+            markCompletedTimer.stop(start);
         }
-        throw new IllegalArgumentException("Task not found: " + taskId);
     }
 
     public Task markTaskPending(Long taskId) {
-        Optional<Task> taskOpt = taskDAO.findById(taskId);
-        if (taskOpt.isPresent()) {
-            Task task = taskOpt.get();
-            task.setCompleted(false);
-            return taskDAO.save(task);
+        long start = markPendingTimer.start();
+        try {
+            return applyCompletion(taskId, false);
+        } finally {
+            markPendingTimer.stop(start);
+        }
+    }
+
+    private Task applyCompletion(Task task, boolean completed) {
+        // The file store hands out its own instances, which it updates in place
+        Task previous = task.copy();
+        LocalDateTime completedDate = completed ? LocalDateTime.now() : null;
+        OptionalLong version = taskDAO.updateCompletion(task.getId(), completed, completedDate, task.getVersion());
+        if (!version.isPresent()) {
+            throw new IllegalArgumentException("Task not found: " + task.getId());
+        }
+        task.setCompleted(completed);
+        task.setCompletedDate(completedDate);
+        task.setVersion(version.getAsLong());
+        publish(TaskChangeEvent.Type.UPDATED, task.getId(), previous, task);
+        return task;
+    }
+
+    // Callers holding only an id read the current version first; a concurrent writer between
+    // the read and the update is retried rather than overwritten
+    private Task applyCompletion(Long taskId, boolean completed) {
+        for (int attempt = 1; ; attempt++) {
+            Task task = taskDAO.findById(taskId)
+                    .orElseThrow(() -> new IllegalArgumentException("Task not found: " + taskId));
+            try {
+                return applyCompletion(task, completed);
+            } catch (StaleTaskException e) {
+                if (attempt >= MAX_COMPLETION_ATTEMPTS) {
+                    throw e;
+                }
+                logger.debug("Task {} changed concurrently, retrying (attempt {})", taskId, attempt);
+            }
         }
-        throw new IllegalArgumentException("Task not found: " + taskId);
     }
 
     public boolean deleteTask(Long taskId) {
-        return taskDAO.deleteById(taskId);
+        return deleteTask(taskId, null);
+    }
+
+    /** Deletes a task the caller holds, so listeners learn what was removed. */
+    public boolean deleteTask(Task task) {
+        return deleteTask(task.getId(), task);
+    }
+
+    private boolean deleteTask(Long taskId, Task previous) {
+        long start = deleteTimer.start();
+        try {
+            descriptionCache.remove(taskId);
+            boolean deleted = taskDAO.deleteById(taskId);
+            if (deleted) {
+                publish(TaskChangeEvent.Type.DELETED, taskId, previous, null);
+            }
+            return deleted;
+        } finally {
+            deleteTimer.stop(start);
+        }
     }
 
+    /** Deletes all completed tasks on the calling thread, in the chunks of {@link #purgeCompletedTasks}. */
     public int deleteAllCompletedTasks() {
-        return taskDAO.deleteCompletedTasks();
+        long start = deleteCompletedTimer.start();
+        try {
+            return (int) purgeCompletedTasks().run();
+        } finally {
+            deleteCompletedTimer.stop(start);
+        }
+    }
+
+    /**
+     * A purge of all completed tasks, not yet started. Listeners get one BULK change when it
+     * ends, whether it finished or was cancelled part way.
+     */
+    public CompletedTaskPurge purgeCompletedTasks() {
+        return new CompletedTaskPurge(taskDAO, fileStorage, deleted -> {
+            if (deleted > 0) {
+                descriptionCache.clear();
+                publish(TaskChangeEvent.Type.BULK, null, null, null);
+            }
+        });
+    }
+
+    /**
+     * Moves tasks completed more than {@code archive.after.days} days ago to the archive, so
+     * they stop weighing on every list, count and rewrite of the working set. Returns 0 when
+     * archival is disabled (0 days) or the store is shared, see {@link #archiveCompletedBefore}.
+     */
+    public int archiveCompletedTasks() {
+        int days = ConfigurationManager.getInstance().getIntProperty("archive.after.days", 0);
+        if (days <= 0) {
+            return 0;
+        }
+        if (!archiveSupported) {
+            logger.info("Not archiving completed tasks: {} storage is shared with other clients", storageName);
+            return 0;
+        }
+        return archiveCompletedBefore(LocalDateTime.now().minusDays(days));
+    }
+
+    /**
+     * Archives the tasks completed before {@code cutoff}. Only the file store can be archived:
+     * the database (also behind hybrid storage) is shared, and deleting its tasks into this
+     * client's local archive would take them away from every other client.
+     *
+     * @throws IllegalStateException for database or hybrid storage
+     */
+    public int archiveCompletedBefore(LocalDateTime cutoff) {
+        if (!archiveSupported) {
+            throw new IllegalStateException("Archiving is only available for file storage, not " + storageName);
+        }
+        long start = archiveTimer.start();
+        try {
+            int archived = new TaskArchiver(archive).archiveCompletedBefore(taskDAO, cutoff);
+            if (archived > 0) {
+                descriptionCache.clear();
+                publish(TaskChangeEvent.Type.BULK, null, null, null);
+            }
+            return archived;
+        } catch (IOException e) {
+            logger.error("Error archiving tasks completed before {}", cutoff, e);
+            throw new RuntimeException("Failed to archive completed tasks", e);
+        } finally {
+            archiveTimer.stop(start);
+        }
+    }
+
+    /**
+     * Searches archived tasks by title and description, optionally limited to those completed
+     * between {@code from} and {@code to}. Reads the archive from disk on every call.
+     */
+    public List<Task> searchArchive(String searchTerm, LocalDate from, LocalDate to, int limit) {
+        try {
+            return archive.search(searchTerm, from, to, limit);
+        } catch (IOException e) {
+            logger.error("Error searching the task archive", e);
+            throw new RuntimeException("Failed to search the task archive", e);
+        }
+    }
+
+    /**
+     * Breakdowns by priority, creation week, completion lead time and overdue age for the
+     * analytics dashboard. In-memory stores reduce their tasks in parallel on the fork/join
+     * pool; the database groups them in SQL and returns only the groups.
+     */
+    public TaskAnalytics getAnalytics() {
+        long start = analyticsTimer.start();
+        try {
+            return taskDAO.getAnalytics(LocalDateTime.now());
+        } finally {
+            analyticsTimer.stop(start);
+        }
+    }
+
+    /**
+     * Tasks created, completed or gone overdue per day or week from {@code from} through
+     * {@code to}, for one priority or all ({@code null}). File stores answer from their
+     * rollups, reading one bucket per point whatever the history; the database counts its
+     * tasks for each call.
+     */
+    public long[] getActivity(TaskRollups.Metric metric, TaskRollups.Granularity granularity,
+                              LocalDate from, LocalDate to, Priority priority) {
+        long start = activityTimer.start();
+        try {
+            TaskRollups source = rollups != null ? rollups : TaskRollups.of(taskDAO.findAll());
+            return source.series(metric, granularity, from, to, priority);
+        } finally {
+            activityTimer.stop(start);
+        }
+    }
+
+    /**
+     * Recounts the activity rollups from the tasks storage holds now and saves them. Deleted
+     * and archived tasks drop out of the history. Returns false when there are no rollups.
+     */
+    public boolean rebuildRollups() {
+        if (rollups == null) {
+            return false;
+        }
+        try {
+            rollups.rebuild(taskDAO.findAll());
+            rollups.save();
+            return true;
+        } catch (IOException e) {
+            logger.error("Error saving rebuilt task rollups", e);
+            throw new RuntimeException("Failed to rebuild task rollups", e);
+        }
     }
 
     public TaskStatistics getStatistics() {
-        long total = taskDAO.getTotalCount();
-        long completed = taskDAO.getCompletedCount();
-        long pending = taskDAO.getPendingCount();
-        long overdue = taskDAO.findOverdueTasks().size();
-        long dueToday = taskDAO.findTasksDueToday().size();
+        long start = statisticsTimer.start();
+        try {
+            long total = taskDAO.getTotalCount();
+            long completed = taskDAO.getCompletedCount();
+            long pending = taskDAO.getPendingCount();
+            long overdue = taskDAO.getOverdueCount();
+            long dueToday = taskDAO.getDueTodayCount();
+
+            return new TaskStatistics(total, completed, pending, overdue, dueToday);
+        } finally {
+            statisticsTimer.stop(start);
+        }
+    }
+
+    /**
+     * Counter that changes whenever a task is written through this service, for cheap
+     * "has anything changed" checks such as HTTP ETags. Writes by other processes sharing
+     * the database are not seen.
+     */
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    /**
+     * Tag that changes whenever the stored tasks do, for HTTP ETags. On database storage it
+     * is read from the tasks table, so writes by other processes change it too, and it is
+     * empty when the store cannot provide one; otherwise it is {@link #getDataVersion()}.
+     */
+    public Optional<String> getDataTag() {
+        if (useDatabaseStorage) {
+            return taskDAO.getChangeStamp().map(stamp -> "db-" + stamp);
+        }
+        return Optional.of(Long.toString(dataVersion.get()));
+    }
+
+    public void addChangeListener(TaskChangeListener listener) {
+        changeListeners.add(listener);
+    }
 
-        return new TaskStatistics(total, completed, pending, overdue, dueToday);
+    public void removeChangeListener(TaskChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    private void publish(TaskChangeEvent.Type type, Long taskId, Task previous, Task current) {
+        if (sortedIndex != null) {
+            if (type == TaskChangeEvent.Type.DELETED) {
+                sortedIndex.remove(taskId);
+            } else if (current != null) {
+                sortedIndex.put(current);
+            } else {
+                sortedIndex.invalidate();
+            }
+        }
+        if (rollups != null) {
+            if (type == TaskChangeEvent.Type.DELETED) {
+                rollups.remove(taskId);
+            } else if (current != null) {
+                rollups.put(current);
+            } else {
+                reconcileRollupsLater();
+            }
+        }
+        TaskChangeEvent event = new TaskChangeEvent(type, taskId, previous, current, dataVersion.incrementAndGet());
+        for (TaskChangeListener listener : changeListeners) {
+            try {
+                listener.taskChanged(event);
+            } catch (RuntimeException e) {
+                // The write itself succeeded; a failing view must not turn it into an error
+                logger.error("Task change listener failed for {}", event, e);
+            }
+        }
+    }
+
+    private void reconcileRollupsLater() {
+        if (!rollupReconcileQueued.compareAndSet(false, true)) {
+            return;
+        }
+        rollupReconciler.execute(() -> {
+            // Cleared before reading, so a change made during the read queues another pass
+            rollupReconcileQueued.set(false);
+            try {
+                rollups.reconcile(taskDAO.findAll());
+            } catch (RuntimeException e) {
+                logger.warn("Could not reconcile task rollups after a bulk change", e);
+            }
+        });
     }
 
     public boolean isUsingDatabaseStorage() {
         return useDatabaseStorage;
     }
 
+    /** "Database", "File" or "Hybrid", for display, noting when the database is offline. */
+    public String getStorageName() {
+        return isStorageWritable() ? storageName : storageName + " (offline)";
+    }
+
+    /**
+     * False while the database is unreachable: reads then show the last known tasks and
+     * writes fail fast with {@link com.todoapp.dao.StorageUnavailableException}.
+     */
+    public boolean isStorageWritable() {
+        return failover == null || failover.isAvailable();
+    }
+
     // Inner classes for filtering and sorting
     public enum TaskSortCriteria {
-        TITLE, PRIORITY, DUE_DATE, CREATED_DATE, COMPLETED_DATE
+        TITLE, PRIORITY, DUE_DATE, CREATED_DATE, COMPLETED_DATE,
+        /** Most urgent first when ascending, see {@link TaskUrgency} */
+        URGENCY
     }
 
     public enum TaskFilter {
@@ -205,5 +860,33 @@ public class TaskService {
         public double getCompletionPercentage() {
             return total > 0 ? (double) completed / total * 100 : 0;
         }
+
+        /**
+         * These statistics after {@code previous} was replaced by {@code current}; either may
+         * be null for a creation or deletion. Overdue and due-today counts are evaluated now,
+         * so they drift as time passes until statistics are loaded again.
+         */
+        public TaskStatistics adjust(Task previous, Task current) {
+            return new TaskStatistics(
+                    total + count(current, t -> true) - count(previous, t -> true),
+                    completed + count(current, Task::isCompleted) - count(previous, Task::isCompleted),
+                    pending + count(current, t -> !t.isCompleted()) - count(previous, t -> !t.isCompleted()),
+                    overdue + count(current, Task::isOverdue) - count(previous, Task::isOverdue),
+                    dueToday + count(current, TaskStatistics::isPendingToday)
+                            - count(previous, TaskStatistics::isPendingToday));
+        }
+
+        /** These statistics after one more pending task passed its due date. */
+        public TaskStatistics withNewlyOverdue() {
+            return new TaskStatistics(total, completed, pending, overdue + 1, dueToday);
+        }
+
+        private static long count(Task task, Predicate<Task> predicate) {
+            return task != null && predicate.test(task) ? 1 : 0;
+        }
+
+        private static boolean isPendingToday(Task task) {
+            return !task.isCompleted() && task.isDueToday();
+        }
     }
 }
@@ -0,0 +1,48 @@
+package com.todoapp.service;
+
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rules a new task must satisfy, shared by {@link TaskService#createTask} and bulk import.
+ */
+public final class TaskValidator {
+    // tasks.title is VARCHAR(255)
+    public static final int MAX_TITLE_LENGTH = 255;
+
+    private TaskValidator() {
+    }
+
+    public static void validateTitle(String title) {
+        if (title == null || title.trim().isEmpty()) {
+            throw new IllegalArgumentException("Task title cannot be empty");
+        }
+        if (title.trim().length() > MAX_TITLE_LENGTH) {
+            throw new IllegalArgumentException("Task title cannot be longer than " + MAX_TITLE_LENGTH + " characters");
+        }
+    }
+
+    /**
+     * Validates a task built outside the service and normalizes it the way createTask does:
+     * trimmed title and description, MEDIUM when no priority is given, created now when no
+     * creation date is given.
+     *
+     * @throws IllegalArgumentException if the task would be rejected by createTask
+     */
+    public static Task prepareNew(Task task) {
+        validateTitle(task.getTitle());
+        task.setTitle(task.getTitle().trim());
+        if (task.getDescription() != null) {
+            task.setDescription(task.getDescription().trim());
+        }
+        if (task.getPriority() == null) {
+            task.setPriority(Priority.MEDIUM);
+        }
+        if (task.getCreatedDate() == null) {
+            task.setCreatedDate(LocalDateTime.now());
+        }
+        return task;
+    }
+}
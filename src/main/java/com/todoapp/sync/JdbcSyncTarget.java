@@ -0,0 +1,246 @@
+package com.todoapp.sync;
+
+import com.todoapp.dao.TaskDAOImpl;
+import com.todoapp.database.DatabaseConnection;
+import com.todoapp.database.StatementTracer;
+import com.todoapp.model.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replicates outbox batches to the MySQL {@code tasks} table. A batch is one transaction that
+ * also advances the client's row in {@code task_sync_clients}, so it applies exactly once
+ * however often it is replayed. Updates and deletes are conditional on the version the client
+ * last saw; one that matches nothing is a conflict, and the remote row wins. Tasks created
+ * locally keep their id unless another client took it first, in which case they are inserted
+ * under a fresh id and later entries of the batch follow them there.
+ */
+public class JdbcSyncTarget implements SyncTarget {
+    private static final Logger logger = LoggerFactory.getLogger(JdbcSyncTarget.class);
+
+    private static final String LOCK_CLIENT_SQL = "SELECT last_seq FROM task_sync_clients WHERE client_id = ? FOR UPDATE";
+    private static final String REGISTER_CLIENT_SQL = "INSERT IGNORE INTO task_sync_clients (client_id, last_seq) VALUES (?, 0)";
+    private static final String ADVANCE_CLIENT_SQL = "UPDATE task_sync_clients SET last_seq = ? WHERE client_id = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO tasks (id, title, description, priority, completed, due_date, created_date, completed_date, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_REKEYED_SQL =
+            "INSERT INTO tasks (title, description, priority, completed, due_date, created_date, completed_date, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL =
+            "UPDATE tasks SET title = ?, description = ?, priority = ?, completed = ?, due_date = ?, " +
+            "completed_date = ?, version = ? WHERE id = ? AND version = ?";
+    private static final String DELETE_SQL = "DELETE FROM tasks WHERE id = ? AND version = ?";
+
+    private final DatabaseConnection dbConnection;
+    private final StatementTracer tracer;
+    private final TaskDAOImpl taskDAO;
+
+    public JdbcSyncTarget() {
+        this.dbConnection = DatabaseConnection.getInstance();
+        this.tracer = StatementTracer.getInstance();
+        this.taskDAO = new TaskDAOImpl();
+    }
+
+    @Override
+    public List<SyncConflict> apply(String clientId, List<OutboxEntry> entries) {
+        // A connection of its own: the shared one reconnects silently, and a statement on a
+        // fresh connection would auto-commit outside the batch
+        try (Connection connection = dbConnection.openTransactionConnection()) {
+            try {
+                return apply(connection, clientId, entries);
+            } catch (SQLException | RuntimeException e) {
+                rollbackQuietly(connection);
+                throw e;
+            }
+        } catch (SQLException | RuntimeException e) {
+            throw new RuntimeException("Failed to replicate outbox batch", e);
+        }
+    }
+
+    private List<SyncConflict> apply(Connection connection, String clientId, List<OutboxEntry> entries)
+            throws SQLException {
+        long appliedSeq = lockClient(connection, clientId);
+
+        List<SyncConflict> conflicts = new ArrayList<>();
+        Map<Long, Long> rekeyed = new HashMap<>();
+        Map<Long, SyncConflict> conflicted = new HashMap<>();
+        long lastSeq = appliedSeq;
+        int skipped = 0;
+        for (OutboxEntry entry : entries) {
+            if (entry.getSeq() <= appliedSeq) {
+                skipped++;
+                continue;
+            }
+            lastSeq = entry.getSeq();
+            Long newId = rekeyed.get(entry.getTaskId());
+            OutboxEntry target = newId != null ? rekey(entry, newId) : entry;
+
+            SyncConflict earlier = conflicted.get(target.getTaskId());
+            if (earlier != null) {
+                // The remote copy already won; later local changes to the task lose too
+                conflicts.add(new SyncConflict(target, earlier.getReason(), earlier.getRemote(), null));
+                continue;
+            }
+            SyncConflict conflict = target.getOperation() == OutboxEntry.Operation.DELETE
+                    ? delete(connection, target) : upsert(connection, target);
+            if (conflict == null) {
+                continue;
+            }
+            conflicts.add(conflict);
+            if (conflict.getReason() == SyncConflict.Reason.ID_TAKEN) {
+                rekeyed.put(entry.getTaskId(), conflict.getNewId());
+            } else {
+                conflicted.put(target.getTaskId(), conflict);
+            }
+        }
+
+        advanceClient(connection, clientId, lastSeq);
+        connection.commit();
+        if (skipped > 0) {
+            logger.info("Skipped {} outbox entries already applied for client {}", skipped, clientId);
+        }
+        logger.debug("Replicated {} outbox entries through #{}", entries.size() - skipped, lastSeq);
+        return conflicts;
+    }
+
+    @Override
+    public Map<Long, Long> fetchVersions() {
+        return taskDAO.findVersions();
+    }
+
+    @Override
+    public List<Task> fetch(Collection<Long> ids) {
+        return taskDAO.findByIds(ids);
+    }
+
+    private long lockClient(Connection connection, String clientId) throws SQLException {
+        executeUpdate(connection, "registerSyncClient", REGISTER_CLIENT_SQL, clientId);
+        try (PreparedStatement stmt = connection.prepareStatement(LOCK_CLIENT_SQL)) {
+            stmt.setString(1, clientId);
+            StatementTracer.Trace trace = tracer.start("lockSyncClient", LOCK_CLIENT_SQL, 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                tracer.executed(trace);
+                tracer.finish(trace, 1);
+                if (!rs.next()) {
+                    throw new SQLException("Sync client " + clientId + " not registered");
+                }
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private void advanceClient(Connection connection, String clientId, long lastSeq) throws SQLException {
+        executeUpdate(connection, "advanceSyncClient", ADVANCE_CLIENT_SQL, lastSeq, clientId);
+    }
+
+    private SyncConflict upsert(Connection connection, OutboxEntry entry) throws SQLException {
+        Task task = entry.getTask();
+        if (entry.getBaseVersion() == OutboxEntry.NEW_TASK) {
+            try {
+                executeUpdate(connection, "syncInsert", INSERT_SQL, entry.getTaskId(), task.getTitle(), task.getDescription(),
+                        task.getPriority().name(), task.isCompleted(), timestamp(task.getDueDate()),
+                        timestamp(task.getCreatedDate()), timestamp(task.getCompletedDate()), task.getVersion());
+                return null;
+            } catch (SQLIntegrityConstraintViolationException e) {
+                long newId = insertRekeyed(connection, task);
+                logger.warn("Task {} was created remotely under the same id; replicated as task {}",
+                        entry.getTaskId(), newId);
+                return new SyncConflict(entry, SyncConflict.Reason.ID_TAKEN, findRemote(connection, entry.getTaskId()), newId);
+            }
+        }
+
+        int updated = executeUpdate(connection, "syncUpdate", UPDATE_SQL, task.getTitle(), task.getDescription(),
+                task.getPriority().name(), task.isCompleted(), timestamp(task.getDueDate()),
+                timestamp(task.getCompletedDate()), task.getVersion(), entry.getTaskId(), entry.getBaseVersion());
+        if (updated > 0) {
+            return null;
+        }
+        Task remote = findRemote(connection, entry.getTaskId());
+        return new SyncConflict(entry, remote != null ? SyncConflict.Reason.CHANGED_REMOTELY
+                : SyncConflict.Reason.DELETED_REMOTELY, remote, null);
+    }
+
+    private SyncConflict delete(Connection connection, OutboxEntry entry) throws SQLException {
+        if (executeUpdate(connection, "syncDelete", DELETE_SQL, entry.getTaskId(), entry.getBaseVersion()) > 0) {
+            return null;
+        }
+        Task remote = findRemote(connection, entry.getTaskId());
+        // Already gone is what the delete wanted
+        return remote == null ? null : new SyncConflict(entry, SyncConflict.Reason.CHANGED_REMOTELY, remote, null);
+    }
+
+    private long insertRekeyed(Connection connection, Task task) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(INSERT_REKEYED_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            Object[] parameters = {task.getTitle(), task.getDescription(), task.getPriority().name(),
+                    task.isCompleted(), timestamp(task.getDueDate()), timestamp(task.getCreatedDate()),
+                    timestamp(task.getCompletedDate()), task.getVersion()};
+            for (int i = 0; i < parameters.length; i++) {
+                stmt.setObject(i + 1, parameters[i]);
+            }
+            StatementTracer.Trace trace = tracer.start("syncInsertRekeyed", INSERT_REKEYED_SQL, parameters.length);
+            int affectedRows = stmt.executeUpdate();
+            tracer.executed(trace);
+            tracer.finish(trace, affectedRows);
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (!generatedKeys.next()) {
+                    throw new SQLException("Re-keyed insert returned no id");
+                }
+                return generatedKeys.getLong(1);
+            }
+        }
+    }
+
+    // Same connection, so it sees the row as of this transaction
+    private Task findRemote(Connection connection, long id) throws SQLException {
+        return taskDAO.findById(connection, id).orElse(null);
+    }
+
+    private int executeUpdate(Connection connection, String operation, String sql, Object... parameters)
+            throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                stmt.setObject(i + 1, parameters[i]);
+            }
+            StatementTracer.Trace trace = tracer.start(operation, sql, parameters.length);
+            int affectedRows = stmt.executeUpdate();
+            tracer.executed(trace);
+            tracer.finish(trace, affectedRows);
+            return affectedRows;
+        }
+    }
+
+    private static OutboxEntry rekey(OutboxEntry entry, long newId) {
+        OutboxEntry rekeyed = new OutboxEntry(entry.getOperation(), entry.getTask(), entry.getBaseVersion());
+        rekeyed.setSeq(entry.getSeq());
+        rekeyed.setTaskId(newId);
+        rekeyed.getTask().setId(newId);
+        return rekeyed;
+    }
+
+    private static Timestamp timestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+
+    private void rollbackQuietly(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.warn("Rollback failed", e);
+        }
+    }
+}
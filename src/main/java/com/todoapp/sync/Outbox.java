@@ -0,0 +1,282 @@
+package com.todoapp.sync;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * Ordered, durable queue of local writes not yet applied remotely: an append-only NDJSON file
+ * (one {@link OutboxEntry} per line) mirrored in memory. Appends go to the end of the file.
+ * A sidecar {@code <outbox>.state} file keeps this client's id and the last acknowledged
+ * sequence number, which both keeps numbering from restarting below what the remote store has
+ * already applied and marks the acknowledged lines at the front of the file as done. Those are
+ * only cut off, by rewriting the remainder to a temporary file renamed into place, once they
+ * outnumber the pending entries, so acknowledging costs a state write rather than a rewrite.
+ * A line torn by a crash mid-append is dropped when the outbox is opened.
+ */
+public class Outbox {
+    private static final Logger logger = LoggerFactory.getLogger(Outbox.class);
+
+    private final Path file;
+    private final Path stateFile;
+    private final boolean fsync;
+    private final ObjectMapper mapper;
+    private final ObjectReader entryReader;
+    private final List<OutboxEntry> entries = new ArrayList<>();
+    private final String clientId;
+    private long ackedSeq;
+    private long lastSeq;
+    // Acknowledged lines still at the front of the file
+    private int ackedLines;
+    private FileChannel channel;
+
+    /**
+     * @param fsync force every append to disk, so entries also survive an OS crash or power
+     *              loss rather than only a crash of this process
+     */
+    public Outbox(Path file, boolean fsync) throws IOException {
+        this.file = file;
+        this.stateFile = file.resolveSibling(file.getFileName() + ".state");
+        this.fsync = fsync;
+        this.mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        this.entryReader = mapper.readerFor(OutboxEntry.class);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+
+        Properties state = new Properties();
+        if (Files.exists(stateFile)) {
+            try (Reader reader = Files.newBufferedReader(stateFile, StandardCharsets.UTF_8)) {
+                state.load(reader);
+            }
+        }
+        this.ackedSeq = Long.parseLong(state.getProperty("acked.seq", "0"));
+        this.lastSeq = ackedSeq;
+        String id = state.getProperty("client.id");
+        this.clientId = id != null ? id : UUID.randomUUID().toString();
+        if (id == null) {
+            writeState();
+        }
+
+        load();
+        this.channel = openForAppend();
+    }
+
+    /** Identifies this outbox's writes to the remote store across restarts. */
+    public String getClientId() {
+        return clientId;
+    }
+
+    /** Numbers the entries and appends them in one write. */
+    public synchronized void append(List<OutboxEntry> newEntries) {
+        if (newEntries.isEmpty()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        for (OutboxEntry entry : newEntries) {
+            entry.setSeq(lastSeq + 1);
+            lines.append(toLine(entry)).append('\n');
+            lastSeq++;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to outbox " + file, e);
+        }
+        entries.addAll(newEntries);
+    }
+
+    /** Up to {@code max} of the oldest entries, without removing them. */
+    public synchronized List<OutboxEntry> peek(int max) {
+        return new ArrayList<>(entries.subList(0, Math.min(max, entries.size())));
+    }
+
+    /** Removes the entries up to and including {@code throughSeq} once the remote store has them. */
+    public synchronized void ack(long throughSeq) {
+        int acked = 0;
+        while (acked < entries.size() && entries.get(acked).getSeq() <= throughSeq) {
+            acked++;
+        }
+        if (acked == 0 && throughSeq <= ackedSeq) {
+            return;
+        }
+        entries.subList(0, acked).clear();
+        ackedSeq = Math.max(ackedSeq, throughSeq);
+        ackedLines += acked;
+        // Loading skips the lines this covers, so the file itself can wait
+        writeState();
+        if (ackedLines > entries.size()) {
+            rewrite();
+        }
+    }
+
+    /** Points pending entries for a task that was re-keyed remotely at its new id. */
+    public synchronized void remap(long oldId, long newId) {
+        boolean changed = false;
+        for (OutboxEntry entry : entries) {
+            if (entry.getTaskId() == oldId) {
+                entry.setTaskId(newId);
+                entry.getTask().setId(newId);
+                changed = true;
+            }
+        }
+        if (changed) {
+            rewrite();
+        }
+    }
+
+    /** Drops and returns the pending entries for a task, e.g. after a conflict resolved it. */
+    public synchronized List<OutboxEntry> discard(long taskId) {
+        List<OutboxEntry> discarded = new ArrayList<>();
+        for (Iterator<OutboxEntry> it = entries.iterator(); it.hasNext(); ) {
+            OutboxEntry entry = it.next();
+            if (entry.getTaskId() == taskId) {
+                discarded.add(entry);
+                it.remove();
+            }
+        }
+        if (!discarded.isEmpty()) {
+            rewrite();
+        }
+        return discarded;
+    }
+
+    public synchronized boolean hasPending(long taskId) {
+        return entries.stream().anyMatch(entry -> entry.getTaskId() == taskId);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /** Sequence number of the last entry ever appended; changes with every append. */
+    public synchronized long getLastSeq() {
+        return lastSeq;
+    }
+
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void load() throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        boolean torn = false;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                OutboxEntry entry;
+                try {
+                    entry = entryReader.readValue(line);
+                } catch (JsonProcessingException e) {
+                    // Only the last append can be cut short, and its write never returned
+                    logger.warn("Dropping unreadable outbox line in {}", file);
+                    torn = true;
+                    continue;
+                }
+                if (entry.getSeq() > ackedSeq) {
+                    entries.add(entry);
+                } else {
+                    ackedLines++;
+                }
+                lastSeq = Math.max(lastSeq, entry.getSeq());
+            }
+        }
+        if (torn) {
+            rewrite();
+        }
+        if (!entries.isEmpty()) {
+            logger.info("Outbox {} has {} writes waiting to be replicated", file, entries.size());
+        }
+    }
+
+    private FileChannel openForAppend() throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void rewrite() {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (OutboxEntry entry : entries) {
+                    writer.write(toLine(entry));
+                    writer.write('\n');
+                }
+            }
+            if (fsync) {
+                try (FileChannel tempChannel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    tempChannel.force(true);
+                }
+            }
+            if (channel != null) {
+                channel.close();
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            ackedLines = 0;
+            if (channel != null) {
+                channel = openForAppend();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to rewrite outbox " + file, e);
+        }
+    }
+
+    private void writeState() {
+        Properties state = new Properties();
+        state.setProperty("client.id", clientId);
+        state.setProperty("acked.seq", Long.toString(ackedSeq));
+        Path temp = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                state.store(writer, "Outbox replication state");
+            }
+            Files.move(temp, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write outbox state " + stateFile, e);
+        }
+    }
+
+    private String toLine(OutboxEntry entry) {
+        try {
+            return mapper.writeValueAsString(entry);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize outbox entry " + entry, e);
+        }
+    }
+}
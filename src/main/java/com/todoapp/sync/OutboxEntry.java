@@ -0,0 +1,63 @@
+package com.todoapp.sync;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.todoapp.model.Task;
+
+/**
+ * One local write waiting to be replicated: the task as written (for an upsert) and the
+ * version the remote copy must still have for the write to apply without a conflict.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OutboxEntry {
+
+    public enum Operation {
+        UPSERT, DELETE
+    }
+
+    /** Base version of a task created locally, which the remote store has never seen. */
+    public static final long NEW_TASK = -1;
+
+    private long seq;
+    private Operation operation;
+    private long taskId;
+    private long baseVersion;
+    private Task task;
+
+    public OutboxEntry() {
+    }
+
+    public OutboxEntry(Operation operation, Task task, long baseVersion) {
+        this.operation = operation;
+        this.taskId = task.getId();
+        this.task = task.copy();
+        this.baseVersion = baseVersion;
+    }
+
+    public static OutboxEntry upsert(Task task, long baseVersion) {
+        return new OutboxEntry(Operation.UPSERT, task, baseVersion);
+    }
+
+    public static OutboxEntry delete(Task task) {
+        return new OutboxEntry(Operation.DELETE, task, task.getVersion());
+    }
+
+    public long getSeq() { return seq; }
+    public void setSeq(long seq) { this.seq = seq; }
+
+    public Operation getOperation() { return operation; }
+    public void setOperation(Operation operation) { this.operation = operation; }
+
+    public long getTaskId() { return taskId; }
+    public void setTaskId(long taskId) { this.taskId = taskId; }
+
+    public long getBaseVersion() { return baseVersion; }
+    public void setBaseVersion(long baseVersion) { this.baseVersion = baseVersion; }
+
+    public Task getTask() { return task; }
+    public void setTask(Task task) { this.task = task; }
+
+    @Override
+    public String toString() {
+        return operation + " #" + seq + " task " + taskId + " @" + baseVersion;
+    }
+}
@@ -0,0 +1,148 @@
+package com.todoapp.sync;
+
+import com.todoapp.model.Task;
+import com.todoapp.util.ConfigurationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Background half of {@link SyncingTaskDAO}, on one daemon thread. A local write wakes it to
+ * drain the outbox {@code sync.flush.delay.ms} later, so a burst of writes goes out as a few
+ * batches of up to {@code sync.batch.size}. Every {@code sync.pull.interval.s} it also drains
+ * and, with nothing queued, pulls remote changes (the first pull fills an empty local store).
+ * When the database cannot be reached it stops trying on every write and retries with
+ * exponential backoff from {@code sync.retry.min.ms} up to {@code sync.retry.max.ms}.
+ */
+public class OutboxReplicator {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxReplicator.class);
+
+    private final SyncingTaskDAO dao;
+    private final SyncTarget target;
+    private final int batchSize;
+    private final long flushDelayMillis;
+    private final long retryMinMillis;
+    private final long retryMaxMillis;
+    private final long pullIntervalMillis;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private volatile boolean online = true;
+    // Touched on the replicator thread only
+    private long backoffMillis;
+    private long retryAtNanos;
+
+    OutboxReplicator(SyncingTaskDAO dao, SyncTarget target) {
+        this(dao, target,
+             ConfigurationManager.getInstance().getIntProperty("sync.batch.size", 500),
+             ConfigurationManager.getInstance().getIntProperty("sync.flush.delay.ms", 200),
+             ConfigurationManager.getInstance().getIntProperty("sync.retry.min.ms", 1000),
+             ConfigurationManager.getInstance().getIntProperty("sync.retry.max.ms", 60000),
+             ConfigurationManager.getInstance().getIntProperty("sync.pull.interval.s", 30) * 1000L);
+    }
+
+    OutboxReplicator(SyncingTaskDAO dao, SyncTarget target, int batchSize, long flushDelayMillis,
+                     long retryMinMillis, long retryMaxMillis, long pullIntervalMillis) {
+        this.dao = dao;
+        this.target = target;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushDelayMillis = Math.max(0, flushDelayMillis);
+        this.retryMinMillis = Math.max(1, retryMinMillis);
+        this.retryMaxMillis = Math.max(this.retryMinMillis, retryMaxMillis);
+        this.pullIntervalMillis = Math.max(1000, pullIntervalMillis);
+        this.backoffMillis = this.retryMinMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-replicator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Starts the periodic drain-and-pull cycle, the first one right away. */
+    public void start() {
+        executor.scheduleWithFixedDelay(() -> replicate(true), 0, pullIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /** Schedules a drain soon; a no-op while offline, when the next retry picks the write up. */
+    public void wake() {
+        if (online && drainScheduled.compareAndSet(false, true)) {
+            executor.schedule(() -> {
+                drainScheduled.set(false);
+                replicate(false);
+            }, flushDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isOnline() {
+        return online;
+    }
+
+    /**
+     * One cycle on the calling thread: drains the outbox and, if {@code pull}, merges remote
+     * changes. Returns false if the database could not be reached, or if a retry is not due yet.
+     */
+    boolean replicate(boolean pull) {
+        if (!online && System.nanoTime() - retryAtNanos < 0) {
+            return false;
+        }
+        try {
+            drain();
+            if (pull) {
+                pull();
+            }
+            if (!online) {
+                logger.info("Database reachable again, replication resumed");
+                online = true;
+            }
+            backoffMillis = retryMinMillis;
+            return true;
+        } catch (RuntimeException e) {
+            if (online) {
+                logger.warn("Database unreachable, keeping {} writes in the outbox: {}",
+                        dao.getQueuedWriteCount(), e.getMessage());
+                online = false;
+            } else {
+                logger.debug("Replication retry failed", e);
+            }
+            retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMillis);
+            if (!executor.isShutdown()) {
+                executor.schedule(() -> replicate(true), backoffMillis, TimeUnit.MILLISECONDS);
+            }
+            backoffMillis = Math.min(backoffMillis * 2, retryMaxMillis);
+            return false;
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            List<OutboxEntry> batch = dao.pending(batchSize);
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<SyncConflict> conflicts = target.apply(dao.getClientId(), batch);
+            dao.acknowledge(batch.get(batch.size() - 1).getSeq(), conflicts);
+        }
+    }
+
+    private void pull() {
+        long mark = dao.pullMark();
+        if (mark < 0) {
+            return;
+        }
+        Map<Long, Long> versions = target.fetchVersions();
+        Set<Long> changedIds = dao.changedIds(versions);
+        List<Task> changed = changedIds.isEmpty() ? Collections.emptyList() : target.fetch(changedIds);
+        dao.mergeRemote(versions, changed, mark);
+    }
+}
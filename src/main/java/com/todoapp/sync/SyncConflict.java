@@ -0,0 +1,69 @@
+package com.todoapp.sync;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.todoapp.model.Task;
+
+/**
+ * A replicated write that did not apply as made locally. Logged with both copies of the
+ * task so nothing is silently lost; the remote copy is what the local store keeps.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SyncConflict {
+
+    public enum Reason {
+        /** The task was changed by another client since this one last saw it. */
+        CHANGED_REMOTELY,
+        /** The task was deleted by another client; the local change is dropped. */
+        DELETED_REMOTELY,
+        /** Another client created a task with the same id first; this one was re-keyed to {@code newId}. */
+        ID_TAKEN
+    }
+
+    private long seq;
+    private long taskId;
+    private OutboxEntry.Operation operation;
+    private Reason reason;
+    private Task local;
+    private Task remote;
+    private Long newId;
+
+    public SyncConflict() {
+    }
+
+    public SyncConflict(OutboxEntry entry, Reason reason, Task remote, Long newId) {
+        this.seq = entry.getSeq();
+        this.taskId = entry.getTaskId();
+        this.operation = entry.getOperation();
+        this.reason = reason;
+        this.local = entry.getTask();
+        this.remote = remote;
+        this.newId = newId;
+    }
+
+    public long getSeq() { return seq; }
+    public void setSeq(long seq) { this.seq = seq; }
+
+    public long getTaskId() { return taskId; }
+    public void setTaskId(long taskId) { this.taskId = taskId; }
+
+    public OutboxEntry.Operation getOperation() { return operation; }
+    public void setOperation(OutboxEntry.Operation operation) { this.operation = operation; }
+
+    public Reason getReason() { return reason; }
+    public void setReason(Reason reason) { this.reason = reason; }
+
+    public Task getLocal() { return local; }
+    public void setLocal(Task local) { this.local = local; }
+
+    public Task getRemote() { return remote; }
+    public void setRemote(Task remote) { this.remote = remote; }
+
+    public Long getNewId() { return newId; }
+    public void setNewId(Long newId) { this.newId = newId; }
+
+    @Override
+    public String toString() {
+        return reason + " on " + operation + " #" + seq + " task " + taskId
+                + (newId != null ? " -> " + newId : "");
+    }
+}
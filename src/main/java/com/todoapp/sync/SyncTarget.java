@@ -0,0 +1,27 @@
+package com.todoapp.sync;
+
+import com.todoapp.model.Task;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The remote store an {@link OutboxReplicator} replicates to. Any method may throw a
+ * {@link RuntimeException} when the store is unreachable; the replicator then retries later.
+ */
+public interface SyncTarget {
+
+    /**
+     * Applies a batch of outbox entries atomically, skipping those at or below the sequence
+     * number already applied for {@code clientId}, so a batch replayed after a lost
+     * acknowledgement changes nothing. Entries that could not apply as written are returned.
+     */
+    List<SyncConflict> apply(String clientId, List<OutboxEntry> entries);
+
+    /** Version of every remote task by id. */
+    Map<Long, Long> fetchVersions();
+
+    /** Complete remote tasks with the given ids; ids deleted meanwhile are missing. */
+    List<Task> fetch(Collection<Long> ids);
+}
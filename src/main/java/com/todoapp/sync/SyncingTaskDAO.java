@@ -0,0 +1,446 @@
+package com.todoapp.sync;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.todoapp.dao.FileTaskDAO;
+import com.todoapp.dao.TaskDAO;
+import com.todoapp.metrics.Counter;
+import com.todoapp.metrics.MetricsRegistry;
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskAnalytics;
+import com.todoapp.util.ConfigurationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Offline-first storage ({@code storage.mode=hybrid}): a local {@link FileTaskDAO} serves every
+ * read and takes every write, and each write is also appended to an {@link Outbox} that an
+ * {@link OutboxReplicator} applies to MySQL in the background. Writes therefore finish at
+ * local-disk speed and keep working while the database is unreachable; queued writes go out
+ * in order once it is back.
+ *
+ * <p>Conflicts are settled remote-wins: a write that finds the remote task changed or deleted
+ * since this client last saw it is dropped, the local store takes the remote copy, and both
+ * copies are appended to the {@code sync.conflicts.path} log. When nothing is queued, remote
+ * changes by other clients are merged in on each pull. The local write and its outbox entry
+ * are two appends; a crash between them loses that one write at the next pull.
+ */
+public class SyncingTaskDAO implements TaskDAO {
+    private static final Logger logger = LoggerFactory.getLogger(SyncingTaskDAO.class);
+    private static final int RANGE_PAGE_SIZE = 1000;
+
+    private final FileTaskDAO local;
+    private final Outbox outbox;
+    private final Path conflictLog;
+    private final ObjectMapper mapper;
+    private final Counter conflictCounter;
+    private volatile Runnable writeListener = () -> { };
+    private volatile Runnable remoteChangeListener = () -> { };
+    private OutboxReplicator replicator;
+
+    public SyncingTaskDAO(FileTaskDAO local, Outbox outbox, Path conflictLog) {
+        this.local = local;
+        this.outbox = outbox;
+        this.conflictLog = conflictLog;
+        this.mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        this.conflictCounter = metrics.counter("sync.conflicts");
+        metrics.gauge("sync.outbox.pending", outbox::size);
+    }
+
+    /** Opens the configured local store and outbox and starts replicating them to the database. */
+    public static SyncingTaskDAO open() {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        try {
+            SyncingTaskDAO dao = new SyncingTaskDAO(
+                    new FileTaskDAO(config.getProperty("sync.local.path", "data/hybrid/tasks.json"),
+                                    config.getProperty("sync.local.backup.path", "data/hybrid/backups")),
+                    new Outbox(Paths.get(config.getProperty("sync.outbox.path", "data/hybrid/outbox.ndjson")),
+                               config.getBooleanProperty("sync.outbox.fsync", false)),
+                    Paths.get(config.getProperty("sync.conflicts.path", "data/hybrid/conflicts.ndjson")));
+            dao.replicator = new OutboxReplicator(dao, new JdbcSyncTarget());
+            dao.writeListener = dao.replicator::wake;
+            dao.replicator.start();
+            return dao;
+        } catch (IOException e) {
+            logger.error("Error opening the outbox", e);
+            throw new UncheckedIOException("Failed to open hybrid storage", e);
+        }
+    }
+
+    /** Told, on the replicating thread, after remote changes or conflict resolutions altered local tasks. */
+    public void setRemoteChangeListener(Runnable listener) {
+        this.remoteChangeListener = listener;
+    }
+
+    /** The local store that serves reads and takes writes first. */
+    public FileTaskDAO getLocalStore() {
+        return local;
+    }
+
+    void setWriteListener(Runnable listener) {
+        this.writeListener = listener;
+    }
+
+    /** Writes made locally and not yet applied to the database. */
+    public int getQueuedWriteCount() {
+        return outbox.size();
+    }
+
+    /** Whether the last replication attempt reached the database. */
+    public boolean isOnline() {
+        return replicator == null || replicator.isOnline();
+    }
+
+    // Writes: local store first, then the outbox, under one lock so entries keep write order
+
+    @Override
+    public synchronized Task save(Task task) {
+        long baseVersion = task.getId() == null ? OutboxEntry.NEW_TASK : task.getVersion();
+        Task saved = local.save(task);
+        record(Collections.singletonList(OutboxEntry.upsert(saved, baseVersion)));
+        return saved;
+    }
+
+    @Override
+    public synchronized void insertAll(List<Task> tasks) {
+        local.insertAll(tasks);
+        List<OutboxEntry> entries = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            entries.add(OutboxEntry.upsert(task, OutboxEntry.NEW_TASK));
+        }
+        record(entries);
+    }
+
+    @Override
+    public synchronized OptionalLong updateCompletion(Long id, boolean completed, LocalDateTime completedDate,
+                                                      long expectedVersion) {
+        OptionalLong version = local.updateCompletion(id, completed, completedDate, expectedVersion);
+        if (version.isPresent()) {
+            local.findById(id).ifPresent(task ->
+                    record(Collections.singletonList(OutboxEntry.upsert(task, expectedVersion))));
+        }
+        return version;
+    }
+
+    @Override
+    public synchronized boolean deleteById(Long id) {
+        Optional<Task> task = local.findById(id).map(Task::copy);
+        boolean deleted = local.deleteById(id);
+        if (deleted) {
+            record(Collections.singletonList(OutboxEntry.delete(task.get())));
+        }
+        return deleted;
+    }
+
+    @Override
+    public synchronized int deleteCompletedTasks() {
+        List<Task> doomed = copies(local.findByCompleted(true));
+        int deleted = local.deleteCompletedTasks();
+        recordDeletes(doomed);
+        return deleted;
+    }
+
+    @Override
+    public synchronized int deleteCompletedInRange(long afterId, long throughId) {
+        List<Task> doomed = new ArrayList<>();
+        long lastId = afterId;
+        while (lastId < throughId) {
+            List<Task> page = local.findPage(lastId, RANGE_PAGE_SIZE);
+            if (page.isEmpty()) {
+                break;
+            }
+            for (Task task : page) {
+                if (task.getId() <= throughId && task.isCompleted()) {
+                    doomed.add(task.copy());
+                }
+            }
+            lastId = page.get(page.size() - 1).getId();
+        }
+        int deleted = local.deleteCompletedInRange(afterId, throughId);
+        recordDeletes(doomed);
+        return deleted;
+    }
+
+    @Override
+    public synchronized int deleteUnchanged(Collection<Task> tasks) {
+        List<Task> doomed = new ArrayList<>();
+        for (Task task : tasks) {
+            local.findById(task.getId())
+                    .filter(current -> current.getVersion() == task.getVersion())
+                    .ifPresent(current -> doomed.add(current.copy()));
+        }
+        int deleted = local.deleteUnchanged(tasks);
+        recordDeletes(doomed);
+        return deleted;
+    }
+
+    @Override
+    public void beginBulkWrite() {
+        local.beginBulkWrite();
+    }
+
+    @Override
+    public void endBulkWrite() {
+        local.endBulkWrite();
+    }
+
+    private void recordDeletes(List<Task> doomed) {
+        List<OutboxEntry> entries = new ArrayList<>(doomed.size());
+        for (Task task : doomed) {
+            entries.add(OutboxEntry.delete(task));
+        }
+        record(entries);
+    }
+
+    private void record(List<OutboxEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        outbox.append(entries);
+        writeListener.run();
+    }
+
+    // Replication, called by OutboxReplicator
+
+    String getClientId() {
+        return outbox.getClientId();
+    }
+
+    List<OutboxEntry> pending(int max) {
+        return outbox.peek(max);
+    }
+
+    /** Removes a replicated batch from the outbox and settles its conflicts in the local store. */
+    synchronized void acknowledge(long throughSeq, List<SyncConflict> conflicts) {
+        outbox.ack(throughSeq);
+        if (conflicts.isEmpty()) {
+            return;
+        }
+        for (SyncConflict conflict : conflicts) {
+            resolve(conflict);
+        }
+        remoteChangeListener.run();
+    }
+
+    private void resolve(SyncConflict conflict) {
+        logConflict(conflict);
+        if (conflict.getReason() == SyncConflict.Reason.ID_TAKEN) {
+            rekey(conflict.getTaskId(), conflict.getNewId());
+            return;
+        }
+        // Queued changes to the task were made on top of the losing copy
+        for (OutboxEntry superseded : outbox.discard(conflict.getTaskId())) {
+            logConflict(new SyncConflict(superseded, conflict.getReason(), conflict.getRemote(), null));
+        }
+        if (conflict.getRemote() != null) {
+            local.putAll(Collections.singletonList(conflict.getRemote()));
+        } else {
+            local.deleteById(conflict.getTaskId());
+        }
+    }
+
+    private void rekey(long oldId, long newId) {
+        if (local.findById(newId).isPresent()) {
+            // Only a task not yet replicated can hold an id the database just handed out
+            long freeId = local.findAll().stream().mapToLong(Task::getId).max().orElse(0) + 1;
+            rekey(newId, freeId);
+        }
+        Optional<Task> task = local.findById(oldId).map(Task::copy);
+        if (task.isPresent()) {
+            local.deleteById(oldId);
+            task.get().setId(newId);
+            local.putAll(Collections.singletonList(task.get()));
+        }
+        outbox.remap(oldId, newId);
+    }
+
+    private void logConflict(SyncConflict conflict) {
+        conflictCounter.increment();
+        logger.warn("Replication conflict, keeping the remote copy: {}", conflict);
+        try {
+            if (conflictLog.getParent() != null) {
+                Files.createDirectories(conflictLog.getParent());
+            }
+            Files.write(conflictLog, (mapper.writeValueAsString(conflict) + "\n").getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (JsonProcessingException e) {
+            logger.error("Cannot serialize conflict {}", conflict, e);
+        } catch (IOException e) {
+            logger.error("Error writing conflict log {}", conflictLog, e);
+        }
+    }
+
+    /** Outbox position to pass to {@link #mergeRemote}, or -1 while writes are queued. */
+    synchronized long pullMark() {
+        return outbox.isEmpty() ? outbox.getLastSeq() : -1;
+    }
+
+    /** Ids of remote tasks that are missing locally or at another version. */
+    synchronized Set<Long> changedIds(Map<Long, Long> remoteVersions) {
+        Map<Long, Long> localVersions = new HashMap<>();
+        for (Task task : local.findAll()) {
+            localVersions.put(task.getId(), task.getVersion());
+        }
+        Set<Long> changed = new HashSet<>();
+        for (Map.Entry<Long, Long> remote : remoteVersions.entrySet()) {
+            if (!remote.getValue().equals(localVersions.get(remote.getKey()))) {
+                changed.add(remote.getKey());
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Makes the local store match the remote one: takes the {@code changed} remote tasks and
+     * drops local tasks absent from {@code remoteVersions}. Skipped (returning false) if any
+     * local write happened since {@code mark} was taken, as the remote state predates it.
+     */
+    synchronized boolean mergeRemote(Map<Long, Long> remoteVersions, List<Task> changed, long mark) {
+        if (!outbox.isEmpty() || outbox.getLastSeq() != mark) {
+            return false;
+        }
+        List<Task> gone = new ArrayList<>();
+        for (Task task : local.findAll()) {
+            if (!remoteVersions.containsKey(task.getId())) {
+                gone.add(task);
+            }
+        }
+        if (changed.isEmpty() && gone.isEmpty()) {
+            return false;
+        }
+        local.putAll(changed);
+        local.deleteUnchanged(gone);
+        logger.info("Merged remote changes: {} tasks updated, {} deleted", changed.size(), gone.size());
+        remoteChangeListener.run();
+        return true;
+    }
+
+    private static List<Task> copies(List<Task> tasks) {
+        List<Task> copies = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            copies.add(task.copy());
+        }
+        return copies;
+    }
+
+    // Reads are served by the local store
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        return local.findById(id);
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return local.findAll();
+    }
+
+    @Override
+    public List<Task> findPage(long afterId, int limit) {
+        return local.findPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<Task> streamAll() {
+        return local.streamAll();
+    }
+
+    @Override
+    public List<Task> findCompletedBefore(LocalDateTime cutoff, long afterId, int limit) {
+        return local.findCompletedBefore(cutoff, afterId, limit);
+    }
+
+    @Override
+    public List<Task> findByCompleted(boolean completed) {
+        return local.findByCompleted(completed);
+    }
+
+    @Override
+    public List<Task> findByPriority(Priority priority) {
+        return local.findByPriority(priority);
+    }
+
+    @Override
+    public List<Task> findOverdueTasks() {
+        return local.findOverdueTasks();
+    }
+
+    @Override
+    public List<Task> findTasksDueToday() {
+        return local.findTasksDueToday();
+    }
+
+    @Override
+    public List<Task> findMostUrgent(int limit, LocalDateTime now) {
+        return local.findMostUrgent(limit, now);
+    }
+
+    @Override
+    public List<Task> searchTasks(String searchTerm) {
+        return local.searchTasks(searchTerm);
+    }
+
+    @Override
+    public OptionalLong findCompletedChunkEnd(long afterId, int chunkSize) {
+        return local.findCompletedChunkEnd(afterId, chunkSize);
+    }
+
+    @Override
+    public long getTotalCount() {
+        return local.getTotalCount();
+    }
+
+    @Override
+    public long getCompletedCount() {
+        return local.getCompletedCount();
+    }
+
+    @Override
+    public long getPendingCount() {
+        return local.getPendingCount();
+    }
+
+    @Override
+    public long getOverdueCount() {
+        return local.getOverdueCount();
+    }
+
+    @Override
+    public long getDueTodayCount() {
+        return local.getDueTodayCount();
+    }
+
+    @Override
+    public TaskAnalytics getAnalytics(LocalDateTime now) {
+        return local.getAnalytics(now);
+    }
+
+    @Override
+    public Map<Long, String> findDescriptions(Collection<Long> ids) {
+        return local.findDescriptions(ids);
+    }
+}
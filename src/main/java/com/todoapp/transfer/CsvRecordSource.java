@@ -0,0 +1,162 @@
+package com.todoapp.transfer;
+
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * RFC 4180 style CSV: comma separated, fields optionally quoted with {@code "}, quotes
+ * doubled inside quoted fields, which may span lines. The header row decides the column
+ * order; only {@code title} is required and unknown columns are ignored.
+ */
+class CsvRecordSource implements RecordSource<List<String>> {
+    static final List<String> COLUMNS = Arrays.asList(
+            "id", "title", "description", "priority", "completed", "due_date", "created_date", "completed_date");
+    // Matches the @JsonFormat pattern on Task
+    static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+    private final StringBuilder field = new StringBuilder();
+    private boolean finished;
+
+    CsvRecordSource(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header == null) {
+            finished = true;
+            return;
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columnIndex.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columnIndex.containsKey("title")) {
+            throw new IOException("CSV header has no title column: " + header);
+        }
+    }
+
+    @Override
+    public List<List<String>> readChunk(int max) throws IOException {
+        List<List<String>> records = new ArrayList<>(max);
+        while (!finished && records.size() < max) {
+            List<String> record = readRecord();
+            if (record == null) {
+                finished = true;
+            } else if (!(record.size() == 1 && record.get(0).isEmpty())) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    /** Reads one record, or returns null at end of input. */
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            any = true;
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n') {
+                break;
+            } else if (ch != '\r') {
+                field.append(ch);
+            }
+        }
+        if (!any) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Override
+    public Task parse(List<String> record) {
+        Task task = new Task();
+        task.setTitle(value(record, "title"));
+        task.setDescription(value(record, "description"));
+        task.setPriority(priority(value(record, "priority")));
+        task.setDueDate(date(value(record, "due_date")));
+        LocalDateTime createdDate = date(value(record, "created_date"));
+        if (createdDate != null) {
+            task.setCreatedDate(createdDate);
+        }
+        String completed = value(record, "completed");
+        if (completed != null && (completed.equalsIgnoreCase("true") || completed.equals("1"))) {
+            task.setCompletedDate(date(value(record, "completed_date")));
+            task.setCompleted(true);
+        }
+        return task;
+    }
+
+    private String value(List<String> record, String column) {
+        Integer index = columnIndex.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Priority priority(String value) {
+        if (value == null) {
+            return null;
+        }
+        for (Priority priority : Priority.values()) {
+            if (priority.name().equalsIgnoreCase(value) || priority.getDisplayName().equalsIgnoreCase(value)) {
+                return priority;
+            }
+        }
+        throw new IllegalArgumentException("Unknown priority: " + value);
+    }
+
+    private static LocalDateTime date(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value, DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            // Also accept ISO-8601 (2024-05-01T09:30)
+            return LocalDateTime.parse(value);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,67 @@
+package com.todoapp.transfer;
+
+import com.todoapp.model.Task;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+
+/** Writes the {@link CsvRecordSource#COLUMNS} layout, quoting fields only when needed. */
+class CsvTaskWriter implements TaskRecordWriter {
+    private final Writer out;
+
+    CsvTaskWriter(Writer out) throws IOException {
+        this.out = out;
+        out.write(String.join(",", CsvRecordSource.COLUMNS));
+        out.write('\n');
+    }
+
+    @Override
+    public void write(Task task) throws IOException {
+        out.write(task.getId() != null ? task.getId().toString() : "");
+        out.write(',');
+        writeField(task.getTitle());
+        out.write(',');
+        writeField(task.getDescription());
+        out.write(',');
+        out.write(task.getPriority() != null ? task.getPriority().name() : "");
+        out.write(',');
+        out.write(Boolean.toString(task.isCompleted()));
+        out.write(',');
+        writeDate(task.getDueDate());
+        out.write(',');
+        writeDate(task.getCreatedDate());
+        out.write(',');
+        writeDate(task.getCompletedDate());
+        out.write('\n');
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char ch = value.charAt(i);
+            needsQuotes = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+        }
+        if (!needsQuotes) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private void writeDate(LocalDateTime date) throws IOException {
+        if (date != null) {
+            out.write(CsvRecordSource.DATE_FORMAT.format(date));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,29 @@
+package com.todoapp.transfer;
+
+import com.todoapp.dao.TaskDAO;
+import com.todoapp.model.Task;
+
+import java.util.List;
+
+/**
+ * Writes batches through {@link TaskDAO#insertAll}: one multi-row insert per batch for the
+ * database, one file rewrite for the whole import for the file store.
+ */
+public class DaoTaskSink implements TaskSink {
+    private final TaskDAO taskDAO;
+
+    public DaoTaskSink(TaskDAO taskDAO) {
+        this.taskDAO = taskDAO;
+        taskDAO.beginBulkWrite();
+    }
+
+    @Override
+    public void write(List<Task> batch) {
+        taskDAO.insertAll(batch);
+    }
+
+    @Override
+    public void close() {
+        taskDAO.endBulkWrite();
+    }
+}
@@ -0,0 +1,61 @@
+package com.todoapp.transfer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.todoapp.model.Task;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams the elements of a top-level JSON array. The reader thread only tokenizes each
+ * element into a tree; binding to {@link Task} happens on the workers.
+ */
+class JsonArrayRecordSource implements RecordSource<JsonNode> {
+    private final JsonParser parser;
+    private final ObjectReader taskReader;
+    private boolean finished;
+
+    JsonArrayRecordSource(ObjectMapper mapper, InputStream in) throws IOException {
+        this.parser = mapper.createParser(in);
+        this.taskReader = mapper.readerFor(Task.class);
+        JsonToken first = parser.nextToken();
+        if (first == null) {
+            finished = true;
+        } else if (first != JsonToken.START_ARRAY) {
+            throw new IOException("Expected a JSON array of tasks, found " + first);
+        }
+    }
+
+    @Override
+    public List<JsonNode> readChunk(int max) throws IOException {
+        List<JsonNode> records = new ArrayList<>(max);
+        while (!finished && records.size() < max) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY || token == null) {
+                finished = true;
+            } else {
+                records.add(parser.readValueAsTree());
+            }
+        }
+        return records;
+    }
+
+    @Override
+    public Task parse(JsonNode record) throws IOException {
+        if (!record.isObject()) {
+            throw new IOException("Expected a task object, found " + record.getNodeType());
+        }
+        return taskReader.readValue(record);
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
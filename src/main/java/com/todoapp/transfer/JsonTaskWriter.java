@@ -0,0 +1,35 @@
+package com.todoapp.transfer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.todoapp.model.Task;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/** Streams tasks as a JSON array or as newline-delimited objects without buffering the list. */
+class JsonTaskWriter implements TaskRecordWriter {
+    private final SequenceWriter sequence;
+
+    private JsonTaskWriter(SequenceWriter sequence) {
+        this.sequence = sequence;
+    }
+
+    static JsonTaskWriter array(ObjectMapper mapper, Writer out) throws IOException {
+        return new JsonTaskWriter(mapper.writerFor(Task.class).writeValuesAsArray(out));
+    }
+
+    static JsonTaskWriter lines(ObjectMapper mapper, Writer out) throws IOException {
+        return new JsonTaskWriter(mapper.writerFor(Task.class).withRootValueSeparator("\n").writeValues(out));
+    }
+
+    @Override
+    public void write(Task task) throws IOException {
+        sequence.write(task);
+    }
+
+    @Override
+    public void close() throws IOException {
+        sequence.close();
+    }
+}
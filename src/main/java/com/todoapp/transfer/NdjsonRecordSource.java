@@ -0,0 +1,42 @@
+package com.todoapp.transfer;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.todoapp.model.Task;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/** One JSON task object per line; blank lines are skipped. */
+class NdjsonRecordSource implements RecordSource<String> {
+    private static final ObjectReader TASK_READER = TaskFormat.MAPPER.readerFor(Task.class);
+
+    private final BufferedReader reader;
+
+    NdjsonRecordSource(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public List<String> readChunk(int max) throws IOException {
+        List<String> lines = new ArrayList<>(max);
+        String line;
+        while (lines.size() < max && (line = reader.readLine()) != null) {
+            if (!line.trim().isEmpty()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    @Override
+    public Task parse(String record) throws IOException {
+        return TASK_READER.readValue(record);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
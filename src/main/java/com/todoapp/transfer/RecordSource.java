@@ -0,0 +1,22 @@
+package com.todoapp.transfer;
+
+import com.todoapp.model.Task;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Input side of the import pipeline. {@link #readChunk} is called from a single reader
+ * thread and only splits the input into raw records; {@link #parse} turns a record into a
+ * task and is called concurrently from the worker pool.
+ *
+ * @param <R> raw record type
+ */
+interface RecordSource<R> extends Closeable {
+
+    /** Reads up to {@code max} records in input order; an empty list means end of input. */
+    List<R> readChunk(int max) throws IOException;
+
+    Task parse(R record) throws IOException;
+}
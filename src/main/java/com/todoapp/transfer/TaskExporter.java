@@ -0,0 +1,64 @@
+package com.todoapp.transfer;
+
+import com.todoapp.dao.TaskDAO;
+import com.todoapp.model.Task;
+import com.todoapp.util.ConfigurationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streaming bulk export. Tasks are read through {@link TaskDAO#streamAll} and serialized as
+ * they arrive, so memory use does not depend on the number of tasks exported.
+ */
+public class TaskExporter {
+    private static final Logger logger = LoggerFactory.getLogger(TaskExporter.class);
+
+    private final long progressIntervalNanos;
+    private TransferListener listener = progress -> { };
+
+    public TaskExporter() {
+        this.progressIntervalNanos = ConfigurationManager.getInstance()
+                .getIntProperty("transfer.progress.interval.ms", 1000) * 1_000_000L;
+    }
+
+    public void setListener(TransferListener listener) {
+        this.listener = listener;
+    }
+
+    /** Writes every task of {@code taskDAO} to {@code out}, which is closed afterwards. */
+    public TransferStats exportTo(TaskDAO taskDAO, OutputStream out, TaskFormat format) throws IOException {
+        long started = System.nanoTime();
+        long lastReport = started;
+        long exported = 0;
+
+        try (TaskRecordWriter writer = format.openWriter(out);
+             Stream<Task> tasks = taskDAO.streamAll()) {
+            Iterator<Task> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                exported++;
+
+                long now = System.nanoTime();
+                if (now - lastReport >= progressIntervalNanos) {
+                    lastReport = now;
+                    listener.onProgress(new TransferStats(exported, exported, 0, now - started,
+                            Collections.emptyList()));
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to read tasks", e);
+        }
+
+        TransferStats result = new TransferStats(exported, exported, 0, System.nanoTime() - started,
+                Collections.emptyList());
+        logger.info("Export finished: {}", result);
+        listener.onProgress(result);
+        return result;
+    }
+}
@@ -0,0 +1,88 @@
+package com.todoapp.transfer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * File formats understood by the bulk import/export pipeline. JSON is the array layout of
+ * {@code data/tasks.json}; NDJSON holds one task object per line; CSV has a header row
+ * naming the columns in {@link CsvRecordSource#COLUMNS}.
+ */
+public enum TaskFormat {
+    NDJSON {
+        @Override
+        RecordSource<?> openSource(InputStream in) {
+            return new NdjsonRecordSource(reader(in));
+        }
+
+        @Override
+        TaskRecordWriter openWriter(OutputStream out) throws IOException {
+            return JsonTaskWriter.lines(MAPPER, writer(out));
+        }
+    },
+    CSV {
+        @Override
+        RecordSource<?> openSource(InputStream in) throws IOException {
+            return new CsvRecordSource(reader(in));
+        }
+
+        @Override
+        TaskRecordWriter openWriter(OutputStream out) throws IOException {
+            return new CsvTaskWriter(writer(out));
+        }
+    },
+    JSON {
+        @Override
+        RecordSource<?> openSource(InputStream in) throws IOException {
+            return new JsonArrayRecordSource(MAPPER, in);
+        }
+
+        @Override
+        TaskRecordWriter openWriter(OutputStream out) throws IOException {
+            return JsonTaskWriter.array(MAPPER, writer(out));
+        }
+    };
+
+    // Same configuration as FileTaskDAO, so JSON exports can be used as a tasks file
+    static final ObjectMapper MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    abstract RecordSource<?> openSource(InputStream in) throws IOException;
+
+    abstract TaskRecordWriter openWriter(OutputStream out) throws IOException;
+
+    /** Picks the format from a file name such as {@code tasks.ndjson} or {@code tasks.csv.gz}. */
+    public static TaskFormat fromFileName(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".json")) {
+            return JSON;
+        }
+        throw new IllegalArgumentException("Cannot tell the format of " + fileName + "; use --format");
+    }
+
+    private static BufferedReader reader(InputStream in) {
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private static BufferedWriter writer(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+    }
+}
@@ -0,0 +1,237 @@
+package com.todoapp.transfer;
+
+import com.todoapp.dao.TaskDAO;
+import com.todoapp.model.Task;
+import com.todoapp.service.TaskValidator;
+import com.todoapp.util.ConfigurationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Streaming bulk import. A reader thread splits the input into chunks of
+ * {@code transfer.batch.size} records, a pool of {@code transfer.threads} workers parses and
+ * validates them with the rules of {@code TaskService.createTask}, and the calling thread
+ * writes each chunk to the sink as one batch, in input order. At most two chunks per worker
+ * are in flight, so memory stays bounded whatever the input size. Invalid records are
+ * counted and skipped rather than failing the import.
+ */
+public class TaskImporter {
+    private static final Logger logger = LoggerFactory.getLogger(TaskImporter.class);
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private final int batchSize;
+    private final int threads;
+    private final long progressIntervalNanos;
+    private TransferListener listener = progress -> { };
+
+    public TaskImporter() {
+        this(ConfigurationManager.getInstance().getIntProperty("transfer.batch.size", 1000),
+             ConfigurationManager.getInstance().getIntProperty("transfer.threads", 0));
+    }
+
+    /** @param threads parser threads; 0 uses one per available processor */
+    public TaskImporter(int batchSize, int threads) {
+        this.batchSize = Math.max(1, batchSize);
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.progressIntervalNanos = ConfigurationManager.getInstance()
+                .getIntProperty("transfer.progress.interval.ms", 1000) * 1_000_000L;
+    }
+
+    public void setListener(TransferListener listener) {
+        this.listener = listener;
+    }
+
+    /** Imports every record of {@code in}; the stream is closed when the import ends. */
+    public TransferStats importFrom(InputStream in, TaskFormat format, TaskSink sink) throws IOException {
+        try (RecordSource<?> source = format.openSource(in)) {
+            return run(source, sink);
+        }
+    }
+
+    /** Copies all tasks of another store, e.g. to migrate from the file store to the database. */
+    public TransferStats copy(TaskDAO source, TaskSink sink) throws IOException {
+        try (DaoRecordSource records = new DaoRecordSource(source)) {
+            return run(records, sink);
+        }
+    }
+
+    private <R> TransferStats run(RecordSource<R> source, TaskSink sink) throws IOException {
+        long started = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, daemonThreads("task-import-worker"));
+        BlockingQueue<Future<ParsedChunk>> pending = new ArrayBlockingQueue<>(threads * 2);
+        AtomicReference<IOException> readFailure = new AtomicReference<>();
+        Thread reader = daemonThreads("task-import-reader")
+                .newThread(() -> readChunks(source, workers, pending, readFailure));
+
+        long records = 0;
+        long transferred = 0;
+        long rejected = 0;
+        List<String> errors = new ArrayList<>();
+        long lastReport = started;
+
+        reader.start();
+        try {
+            while (true) {
+                ParsedChunk chunk = pending.take().get();
+                if (chunk == ParsedChunk.END) {
+                    break;
+                }
+                if (!chunk.tasks.isEmpty()) {
+                    sink.write(chunk.tasks);
+                }
+                records += chunk.records;
+                transferred += chunk.tasks.size();
+                rejected += chunk.errors.size();
+                for (String error : chunk.errors) {
+                    logger.debug("Rejected {}", error);
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        errors.add(error);
+                    }
+                }
+
+                long now = System.nanoTime();
+                if (now - lastReport >= progressIntervalNanos) {
+                    lastReport = now;
+                    listener.onProgress(new TransferStats(records, transferred, rejected, now - started,
+                            Collections.emptyList()));
+                }
+            }
+            if (readFailure.get() != null) {
+                throw readFailure.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to parse records", e.getCause());
+        } finally {
+            reader.interrupt();
+            workers.shutdownNow();
+            sink.close();
+        }
+
+        TransferStats result = new TransferStats(records, transferred, rejected, System.nanoTime() - started, errors);
+        if (rejected > 0) {
+            logger.warn("Import rejected {} of {} records, first: {}", rejected, records, errors.get(0));
+        }
+        logger.info("Import finished: {}", result);
+        listener.onProgress(result);
+        return result;
+    }
+
+    private <R> void readChunks(RecordSource<R> source, ExecutorService workers,
+                                BlockingQueue<Future<ParsedChunk>> pending, AtomicReference<IOException> failure) {
+        long nextRecord = 1;
+        try {
+            while (true) {
+                List<R> records = source.readChunk(batchSize);
+                if (records.isEmpty()) {
+                    break;
+                }
+                long firstRecord = nextRecord;
+                nextRecord += records.size();
+                pending.put(workers.submit(() -> parseChunk(source, records, firstRecord)));
+            }
+        } catch (IOException e) {
+            failure.set(e);
+        } catch (RuntimeException e) {
+            failure.set(new IOException("Failed to read records", e));
+        } catch (InterruptedException e) {
+            // The writer gave up; nobody is waiting for the end marker
+            return;
+        }
+        try {
+            pending.put(CompletableFuture.completedFuture(ParsedChunk.END));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static <R> ParsedChunk parseChunk(RecordSource<R> source, List<R> records, long firstRecord) {
+        List<Task> tasks = new ArrayList<>(records.size());
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                Task task = source.parse(records.get(i));
+                // Imported tasks always get new ids from the destination
+                task.setId(null);
+                task.setVersion(0);
+                tasks.add(TaskValidator.prepareNew(task));
+            } catch (IOException | RuntimeException e) {
+                errors.add("record " + (firstRecord + i) + ": " + e.getMessage());
+            }
+        }
+        return new ParsedChunk(records.size(), tasks, errors);
+    }
+
+    static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class ParsedChunk {
+        static final ParsedChunk END = new ParsedChunk(0, Collections.emptyList(), Collections.emptyList());
+
+        final int records;
+        final List<Task> tasks;
+        final List<String> errors;
+
+        ParsedChunk(int records, List<Task> tasks, List<String> errors) {
+            this.records = records;
+            this.tasks = tasks;
+            this.errors = errors;
+        }
+    }
+
+    /** Pages through another store by id; copies tasks so the source's own objects are left alone. */
+    private static final class DaoRecordSource implements RecordSource<Task> {
+        private final Stream<Task> tasks;
+        private final Iterator<Task> iterator;
+
+        DaoRecordSource(TaskDAO taskDAO) {
+            this.tasks = taskDAO.streamAll();
+            this.iterator = tasks.iterator();
+        }
+
+        @Override
+        public List<Task> readChunk(int max) {
+            List<Task> chunk = new ArrayList<>(max);
+            while (chunk.size() < max && iterator.hasNext()) {
+                chunk.add(iterator.next());
+            }
+            return chunk;
+        }
+
+        @Override
+        public Task parse(Task record) {
+            return record.copy();
+        }
+
+        @Override
+        public void close() {
+            tasks.close();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.todoapp.transfer;
+
+import com.todoapp.model.Task;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/** Output side of the export pipeline; {@link #close} finishes the document and closes the stream. */
+interface TaskRecordWriter extends Closeable {
+
+    void write(Task task) throws IOException;
+}
@@ -0,0 +1,12 @@
+package com.todoapp.transfer;
+
+import com.todoapp.model.Task;
+
+import java.io.Closeable;
+import java.util.List;
+
+/** Destination of imported tasks. Batches arrive in input order from a single thread. */
+public interface TaskSink extends Closeable {
+
+    void write(List<Task> batch);
+}
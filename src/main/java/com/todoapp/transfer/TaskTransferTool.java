@@ -0,0 +1,219 @@
+package com.todoapp.transfer;
+
+import com.todoapp.archive.TaskArchive;
+import com.todoapp.dao.FileTaskDAO;
+import com.todoapp.dao.TaskDAO;
+import com.todoapp.dao.TaskDAOImpl;
+import com.todoapp.database.DatabaseConnection;
+import com.todoapp.model.Task;
+import com.todoapp.service.TaskService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Command line entry point for bulk transfers:
+ * <pre>
+ *   import &lt;file&gt;  [--format ndjson|csv|json] [--storage file|db] [--batch N] [--threads N]
+ *   export &lt;file&gt;  [--format ndjson|csv|json] [--storage file|db]
+ *   migrate --from file|db --to file|db [--batch N] [--threads N]
+ *   archive [--days N]
+ *   archive-search &lt;term&gt; [--from yyyy-MM-dd] [--to yyyy-MM-dd] [--limit N]
+ *   backup-list
+ *   backup-restore --at yyyy-MM-ddTHH:mm:ss
+ *   rollup-rebuild
+ * </pre>
+ * Files ending in {@code .gz} are compressed transparently. Without {@code --storage} the
+ * database is used when reachable, as in the application.
+ */
+public class TaskTransferTool {
+    private static final Logger logger = LoggerFactory.getLogger(TaskTransferTool.class);
+    private static final String USAGE = "Usage: TaskTransferTool import|export <file> [--format ndjson|csv|json] "
+            + "[--storage file|db] [--batch N] [--threads N]\n"
+            + "       TaskTransferTool migrate --from file|db --to file|db [--batch N] [--threads N]\n"
+            + "       TaskTransferTool archive [--days N]\n"
+            + "       TaskTransferTool archive-search <term> [--from yyyy-MM-dd] [--to yyyy-MM-dd] [--limit N]\n"
+            + "       TaskTransferTool backup-list\n"
+            + "       TaskTransferTool backup-restore --at yyyy-MM-ddTHH:mm:ss\n"
+            + "       TaskTransferTool rollup-rebuild";
+
+    public static void main(String[] args) {
+        if (args.length < 1 || (!args[0].equals("migrate") && !args[0].equals("archive")
+                && !args[0].startsWith("backup-") && !args[0].startsWith("rollup-") && args.length < 2)) {
+            usage();
+        }
+        String command = args[0];
+        Map<String, String> options = parseOptions(args,
+                command.equals("migrate") || command.equals("archive") || command.startsWith("backup-")
+                        || command.startsWith("rollup-") ? 1 : 2);
+        TransferListener progress = stats -> logger.info("Progress: {}", stats);
+
+        try {
+            if (command.equals("archive") || command.equals("archive-search")) {
+                archive(command, args, options);
+                return;
+            }
+            if (command.equals("backup-list") || command.equals("backup-restore")) {
+                backup(command, options);
+                return;
+            }
+            if (command.equals("rollup-rebuild")) {
+                // Rollups belong to the file store, like backups
+                new TaskService(new FileTaskDAO(), false).rebuildRollups();
+                System.out.println("Rebuilt task activity rollups");
+                return;
+            }
+            TransferStats result;
+            switch (command) {
+                case "import": {
+                    Path file = Paths.get(args[1]);
+                    TaskImporter importer = importer(options);
+                    importer.setListener(progress);
+                    try (InputStream in = open(file)) {
+                        result = importer.importFrom(in, format(options, file), new DaoTaskSink(storage(options.get("storage"))));
+                    }
+                    break;
+                }
+                case "export": {
+                    Path file = Paths.get(args[1]);
+                    TaskExporter exporter = new TaskExporter();
+                    exporter.setListener(progress);
+                    result = exporter.exportTo(storage(options.get("storage")), create(file), format(options, file));
+                    break;
+                }
+                case "migrate": {
+                    String from = options.get("from");
+                    String to = options.get("to");
+                    if (from == null || to == null || from.equals(to)) {
+                        usage();
+                    }
+                    TaskImporter importer = importer(options);
+                    importer.setListener(progress);
+                    result = importer.copy(storage(from), new DaoTaskSink(storage(to)));
+                    break;
+                }
+                default:
+                    usage();
+                    return;
+            }
+
+            System.out.println(result);
+            for (String error : result.getErrors()) {
+                System.out.println("  " + error);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Transfer failed", e);
+            System.err.println("Transfer failed: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            DatabaseConnection.getInstance().closeConnection();
+        }
+    }
+
+    private static void archive(String command, String[] args, Map<String, String> options) throws IOException {
+        if (command.equals("archive")) {
+            // Only the file store is archived; the database is shared with other clients
+            TaskService service = new TaskService(new FileTaskDAO(), false);
+            int archived = options.containsKey("days")
+                    ? service.archiveCompletedBefore(LocalDateTime.now().minusDays(Long.parseLong(options.get("days"))))
+                    : service.archiveCompletedTasks();
+            System.out.println("Archived " + archived + " completed tasks");
+            return;
+        }
+        List<Task> tasks = new TaskArchive().search(args[1],
+                options.containsKey("from") ? LocalDate.parse(options.get("from")) : null,
+                options.containsKey("to") ? LocalDate.parse(options.get("to")) : null,
+                Integer.parseInt(options.getOrDefault("limit", "100")));
+        for (Task task : tasks) {
+            System.out.println(task);
+        }
+        System.out.println(tasks.size() + " archived tasks");
+    }
+
+    // Backups belong to the file store; the database has its own
+    private static void backup(String command, Map<String, String> options) throws IOException {
+        FileTaskDAO taskDAO = new FileTaskDAO();
+        if (command.equals("backup-list")) {
+            for (LocalDateTime point : taskDAO.getBackups().listRestorePoints()) {
+                System.out.println(point);
+            }
+            return;
+        }
+        if (!options.containsKey("at")) {
+            usage();
+        }
+        int restored = taskDAO.restoreBackup(LocalDateTime.parse(options.get("at")));
+        System.out.println("Restored " + restored + " tasks");
+    }
+
+    private static TaskImporter importer(Map<String, String> options) {
+        if (!options.containsKey("batch") && !options.containsKey("threads")) {
+            return new TaskImporter();
+        }
+        return new TaskImporter(Integer.parseInt(options.getOrDefault("batch", "1000")),
+                                Integer.parseInt(options.getOrDefault("threads", "0")));
+    }
+
+    private static TaskDAO storage(String name) {
+        if (name == null) {
+            name = DatabaseConnection.getInstance().testConnection() ? "db" : "file";
+        }
+        switch (name) {
+            case "db":
+                return new TaskDAOImpl();
+            case "file":
+                return new FileTaskDAO();
+            default:
+                throw new IllegalArgumentException("Unknown storage: " + name);
+        }
+    }
+
+    private static TaskFormat format(Map<String, String> options, Path file) {
+        String format = options.get("format");
+        return format != null
+                ? TaskFormat.valueOf(format.toUpperCase(Locale.ROOT))
+                : TaskFormat.fromFileName(file.getFileName().toString());
+    }
+
+    private static InputStream open(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+        return file.toString().endsWith(".gz") ? new GZIPInputStream(in, 1 << 16) : in;
+    }
+
+    private static OutputStream create(Path file) throws IOException {
+        OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16);
+        return file.toString().endsWith(".gz") ? new GZIPOutputStream(out, 1 << 16) : out;
+    }
+
+    private static Map<String, String> parseOptions(String[] args, int from) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = from; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                usage();
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static void usage() {
+        System.err.println(USAGE);
+        System.exit(2);
+    }
+}
@@ -0,0 +1,8 @@
+package com.todoapp.transfer;
+
+/** Receives periodic progress while a transfer runs, and the final result once it ends. */
+@FunctionalInterface
+public interface TransferListener {
+
+    void onProgress(TransferStats progress);
+}
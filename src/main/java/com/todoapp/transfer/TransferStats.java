@@ -0,0 +1,58 @@
+package com.todoapp.transfer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Progress or final outcome of an import, export or migration. Rejection messages are only
+ * carried by the final result and capped at {@link TaskImporter#MAX_REPORTED_ERRORS}.
+ */
+public class TransferStats {
+    private final long records;
+    private final long transferred;
+    private final long rejected;
+    private final long elapsedNanos;
+    private final List<String> errors;
+
+    TransferStats(long records, long transferred, long rejected, long elapsedNanos, List<String> errors) {
+        this.records = records;
+        this.transferred = transferred;
+        this.rejected = rejected;
+        this.elapsedNanos = elapsedNanos;
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    /** Records read from the input so far. */
+    public long getRecords() {
+        return records;
+    }
+
+    /** Records written to the destination. */
+    public long getTransferred() {
+        return transferred;
+    }
+
+    /** Records that failed to parse or validate. */
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000L;
+    }
+
+    public double getRecordsPerSecond() {
+        return elapsedNanos > 0 ? records * 1_000_000_000.0 / elapsedNanos : 0.0;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%d records, %d transferred, %d rejected in %.1f s (%.0f records/s)",
+                records, transferred, rejected, elapsedNanos / 1e9, getRecordsPerSecond());
+    }
+}
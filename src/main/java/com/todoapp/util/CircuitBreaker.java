@@ -0,0 +1,134 @@
+package com.todoapp.util;
+
+import com.todoapp.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Circuit breaker for a remote dependency. {@code failureThreshold} consecutive failures open
+ * it, and callers then fail fast without touching the dependency. After the open delay it goes
+ * half-open and runs {@code probe} once on a background thread: success closes it, failure
+ * reopens it with twice the delay, up to {@code maxOpenMillis}. Callers never act as the probe,
+ * so nobody waits out a timeout while the dependency is down.
+ */
+public class CircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /** Told on the thread that caused the change, outside the breaker's lock. */
+    @FunctionalInterface
+    public interface Listener {
+        void stateChanged(State from, State to);
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long initialOpenMillis;
+    private final long maxOpenMillis;
+    private final BooleanSupplier probe;
+    private final ScheduledExecutorService executor;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openMillis;
+
+    public CircuitBreaker(String name, int failureThreshold, long initialOpenMillis, long maxOpenMillis,
+                          BooleanSupplier probe) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.initialOpenMillis = Math.max(1, initialOpenMillis);
+        this.maxOpenMillis = Math.max(this.initialOpenMillis, maxOpenMillis);
+        this.probe = probe;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        MetricsRegistry.getInstance().gauge(name + ".breaker.state", () -> getState().ordinal());
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /** Whether a call may go to the dependency now; false while open or probing. */
+    public synchronized boolean allowRequest() {
+        return state == State.CLOSED;
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+    }
+
+    public void recordFailure(Throwable cause) {
+        State previous;
+        synchronized (this) {
+            if (state != State.CLOSED || ++consecutiveFailures < failureThreshold) {
+                return;
+            }
+            previous = state;
+            open(initialOpenMillis);
+        }
+        logger.warn("{} unavailable after {} consecutive failures, failing fast for {} ms: {}",
+                name, failureThreshold, initialOpenMillis, cause.toString());
+        notifyListeners(previous, State.OPEN);
+    }
+
+    // Caller holds the lock
+    private void open(long delayMillis) {
+        state = State.OPEN;
+        openMillis = delayMillis;
+        executor.schedule(this::probe, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void probe() {
+        synchronized (this) {
+            state = State.HALF_OPEN;
+        }
+        boolean recovered;
+        try {
+            recovered = probe.getAsBoolean();
+        } catch (RuntimeException e) {
+            logger.debug("{} probe failed", name, e);
+            recovered = false;
+        }
+
+        if (recovered) {
+            synchronized (this) {
+                state = State.CLOSED;
+                consecutiveFailures = 0;
+            }
+            logger.info("{} available again", name);
+            notifyListeners(State.HALF_OPEN, State.CLOSED);
+        } else {
+            synchronized (this) {
+                open(Math.min(openMillis * 2, maxOpenMillis));
+            }
+            logger.debug("{} still unavailable, next probe in {} ms", name, openMillis);
+        }
+    }
+
+    private void notifyListeners(State from, State to) {
+        for (Listener listener : listeners) {
+            try {
+                listener.stateChanged(from, to);
+            } catch (RuntimeException e) {
+                logger.error("Circuit breaker listener failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.todoapp.util;
+
+import com.todoapp.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs how long each startup phase takes and when milestones such as the first painted frame
+ * are reached, counted from JVM start. Both are also recorded as {@code startup.*} timers.
+ */
+public class StartupTimer {
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimer.class);
+    private static StartupTimer instance;
+    private final long launchNanos;
+
+    private StartupTimer() {
+        long uptimeNanos = TimeUnit.MILLISECONDS.toNanos(ManagementFactory.getRuntimeMXBean().getUptime());
+        this.launchNanos = System.nanoTime() - uptimeNanos;
+    }
+
+    public static synchronized StartupTimer getInstance() {
+        if (instance == null) {
+            instance = new StartupTimer();
+        }
+        return instance;
+    }
+
+    public long begin() {
+        return System.nanoTime();
+    }
+
+    /** Ends a phase started with {@link #begin()}; phases may run on any thread. */
+    public void phase(String name, long beginNanos) {
+        long nanos = System.nanoTime() - beginNanos;
+        MetricsRegistry.getInstance().timer("startup." + name).record(nanos);
+        logger.info("Startup phase {} took {} ms", name, TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    /** Records the time from JVM start until now under {@code name}, and returns it in milliseconds. */
+    public long milestone(String name) {
+        long nanos = System.nanoTime() - launchNanos;
+        MetricsRegistry.getInstance().timer("startup." + name).record(nanos);
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        logger.info("Startup reached {} after {} ms", name, millis);
+        return millis;
+    }
+}
@@ -10,18 +10,33 @@ CREATE TABLE IF NOT EXISTS tasks (
     due_date TIMESTAMP NULL,
     created_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     completed_date TIMESTAMP NULL,
+    version BIGINT NOT NULL DEFAULT 0,
     
     -- Indexes for better query performance
-    INDEX idx_priority (priority),
     INDEX idx_completed (completed),
     INDEX idx_due_date (due_date),
     INDEX idx_created_date (created_date),
     INDEX idx_title (title),
+
+    -- Filter plus sort order of the list queries: pending/completed by due or created date,
+    -- and by priority newest first. Date filters must compare the bare column (no DATE())
+    INDEX idx_completed_due_date (completed, due_date),
+    INDEX idx_completed_created_date (completed, created_date),
+    INDEX idx_priority_created_date (priority, created_date),
+    -- Next-up query: pending tasks of one priority in due date order
+    INDEX idx_completed_priority_due_date (completed, priority, due_date),
     
     -- Full-text search index for title and description
     FULLTEXT INDEX idx_search (title, description)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Hybrid storage (storage.mode=hybrid): last outbox sequence number applied per client,
+-- updated in the same transaction as the writes so a replayed batch is skipped
+CREATE TABLE IF NOT EXISTS task_sync_clients (
+    client_id VARCHAR(64) NOT NULL PRIMARY KEY,
+    last_seq BIGINT NOT NULL DEFAULT 0
+) ENGINE=InnoDB;
+
 -- Insert sample data (optional)
 INSERT INTO tasks (title, description, priority, completed, due_date) VALUES
 ('Complete project documentation', 'Write comprehensive documentation for the todo application', 'HIGH', FALSE, DATE_ADD(NOW(), INTERVAL 3 DAY)),
@@ -44,7 +59,8 @@ SELECT
     ) as completion_percentage
 FROM tasks;
 
--- Stored procedure to clean up old completed tasks (optional)
+-- Stored procedure to clean up old completed tasks (optional). It discards them; the
+-- application instead moves them to its archive (archive.after.days, TaskArchiver)
 DELIMITER //
 CREATE PROCEDURE CleanupOldCompletedTasks(IN days_old INT)
 BEGIN
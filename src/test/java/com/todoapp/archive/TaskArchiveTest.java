@@ -0,0 +1,115 @@
+package com.todoapp.archive;
+
+import com.todoapp.dao.FileTaskDAO;
+import com.todoapp.dao.TaskDAO;
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+import com.todoapp.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskArchiveTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileTaskDAO taskDAO;
+    private TaskArchive archive;
+    private TaskService taskService;
+
+    @BeforeEach
+    void setUp() {
+        taskDAO = new FileTaskDAO(tempDir.resolve("tasks.json").toString(),
+                                  tempDir.resolve("tasks_backup.json").toString());
+        archive = new TaskArchive(tempDir.resolve("archive").toString());
+        taskService = new TaskService(taskDAO, false, archive);
+    }
+
+    @Test
+    void testOldCompletedTasksMoveToSearchableSegments() throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tasks.add(completed("Old report " + i, now.minusDays(200 + i)));
+        }
+        tasks.add(completed("Recent report", now.minusDays(3)));
+        tasks.add(new Task("Pending report", "still open", Priority.HIGH, null));
+        taskDAO.insertAll(tasks);
+
+        int archived = new TaskArchiver(archive, 2, 3).archiveCompletedBefore(taskDAO, now.minusDays(90));
+
+        assertEquals(5, archived);
+        assertEquals(2, taskDAO.getTotalCount());
+        assertEquals(2, archive.listSegments().size());
+
+        List<Task> found = taskService.searchArchive("REPORT 3", null, null, 10);
+        assertEquals(1, found.size());
+        assertEquals("Old report 3", found.get(0).getTitle());
+        assertEquals("details", found.get(0).getDescription());
+        assertEquals(5, taskService.searchArchive("", null, null, 10).size());
+        assertEquals(3, taskService.searchArchive("", null, null, 3).size());
+
+        LocalDate day = now.minusDays(201).toLocalDate();
+        List<Task> onDay = taskService.searchArchive("report", day, day, 10);
+        assertEquals(1, onDay.size());
+        assertEquals("Old report 1", onDay.get(0).getTitle());
+    }
+
+    @Test
+    void testTasksChangedAfterReadingStayInTheStore() throws IOException {
+        LocalDateTime completedDate = LocalDateTime.now().minusDays(365);
+        taskDAO.insertAll(Arrays.asList(completed("Kept", completedDate), completed("Moved", completedDate)));
+        List<Task> read = new ArrayList<>();
+        for (Task task : taskDAO.findCompletedBefore(LocalDateTime.now(), 0, 10)) {
+            read.add(task.copy());
+        }
+
+        // Reopened between archiving and deleting
+        taskService.markTaskPending(read.get(0).getId());
+        archive.writeSegment(read);
+
+        assertEquals(1, taskDAO.deleteUnchanged(read));
+        assertEquals("Kept", taskDAO.findAll().get(0).getTitle());
+        assertFalse(taskDAO.findAll().get(0).isCompleted());
+    }
+
+    @Test
+    void testSharedStorageIsNeverArchived() {
+        LocalDateTime completedDate = LocalDateTime.now().minusDays(365);
+        taskDAO.insertAll(Arrays.asList(completed("Shared", completedDate)));
+        // Stands in for database storage: any store other than the file store itself
+        TaskDAO shared = (TaskDAO) Proxy.newProxyInstance(TaskDAO.class.getClassLoader(),
+                new Class<?>[] {TaskDAO.class}, (proxy, method, args) -> {
+                    try {
+                        return method.invoke(taskDAO, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        TaskService sharedService = new TaskService(shared, true, archive);
+
+        assertThrows(IllegalStateException.class, () -> sharedService.archiveCompletedBefore(LocalDateTime.now()));
+        assertEquals(1, taskDAO.getTotalCount());
+        assertTrue(archive.listSegments().isEmpty());
+    }
+
+    private static Task completed(String title, LocalDateTime completedDate) {
+        Task task = new Task(title, "details", Priority.MEDIUM, null);
+        task.setCompleted(true);
+        task.setCompletedDate(completedDate);
+        return task;
+    }
+}
@@ -0,0 +1,169 @@
+package com.todoapp.backup;
+
+import com.todoapp.dao.FileTaskDAO;
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskBackupsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final SteppingClock clock = new SteppingClock();
+
+    private static List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            Task task = new Task("Task " + id, "A description long enough to matter " + id, Priority.MEDIUM, null);
+            task.setId(id);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static List<String> titles(List<Task> tasks) {
+        return tasks.stream().map(Task::getTitle).collect(Collectors.toList());
+    }
+
+    @Test
+    void testDeltasHoldOnlyChanges() throws IOException {
+        TaskBackups backups = new TaskBackups(tempDir, 100, 3, clock);
+        List<Task> tasks = tasks(500);
+        long full = backups.record(tasks);
+
+        tasks.get(10).setTitle("Edited");
+        tasks.get(10).setVersion(1);
+        long delta = backups.record(tasks);
+
+        assertTrue(delta > 0 && delta * 20 < full, "delta " + delta + " vs full " + full);
+        assertEquals(0, backups.record(tasks));
+        assertEquals("Edited", backups.restoreLatest().get().get(10).getTitle());
+    }
+
+    @Test
+    void testRestoresPointInTime() throws IOException {
+        TaskBackups backups = new TaskBackups(tempDir, 100, 3, clock);
+        List<Task> tasks = tasks(3);
+        backups.record(tasks);
+        LocalDateTime first = clock.now();
+
+        clock.step();
+        tasks.get(0).setTitle("Renamed");
+        tasks.get(0).setVersion(1);
+        tasks.remove(1);
+        backups.record(tasks);
+        LocalDateTime second = clock.now();
+
+        clock.step();
+        Task added = new Task("Added", null, Priority.LOW, null);
+        added.setId(4L);
+        tasks.add(added);
+        backups.record(tasks);
+
+        assertEquals(List.of("Task 1", "Task 2", "Task 3"), titles(backups.restore(first).get()));
+        assertEquals(List.of("Renamed", "Task 3"), titles(backups.restore(second).get()));
+        assertEquals(List.of("Renamed", "Task 3", "Added"), titles(backups.restoreLatest().get()));
+        assertFalse(backups.restore(first.minusMinutes(1)).isPresent());
+        assertEquals(3, backups.listRestorePoints().size());
+    }
+
+    @Test
+    void testRetentionKeepsNewestChains() throws IOException {
+        TaskBackups backups = new TaskBackups(tempDir, 2, 2, clock);
+        List<Task> tasks = tasks(50);
+        for (int round = 1; round <= 10; round++) {
+            clock.step();
+            tasks.get(round).setVersion(round);
+            tasks.get(round).setTitle("Round " + round);
+            backups.record(tasks);
+        }
+
+        try (Stream<Path> files = Files.list(tempDir)) {
+            List<String> names = files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+            assertEquals(2, names.stream().filter(name -> name.startsWith("full-")).count(), names.toString());
+        }
+        assertEquals("Round 10", backups.restoreLatest().get().get(10).getTitle());
+    }
+
+    @Test
+    void testFileStoreRecoversAndRestores() throws IOException {
+        String filePath = tempDir.resolve("tasks.json").toString();
+        String backupPath = tempDir.resolve("backups").toString();
+        FileTaskDAO taskDAO = new FileTaskDAO(filePath, backupPath);
+        Task task = taskDAO.save(new Task("Original", null, Priority.HIGH, null));
+        LocalDateTime beforeEdit = LocalDateTime.now();
+        // The store stamps backups with the real clock; keep the edit's stamp after beforeEdit
+        sleep(5);
+        Task edited = task.copy();
+        edited.setTitle("Edited");
+        taskDAO.save(edited);
+        taskDAO.save(new Task("Later", null, Priority.LOW, null));
+
+        Files.write(tempDir.resolve("tasks.json"), "[{\"id\": 1, \"ti".getBytes());
+        FileTaskDAO recovered = new FileTaskDAO(filePath, backupPath);
+        assertEquals(List.of("Edited", "Later"), titles(recovered.findAll()));
+
+        assertEquals(1, recovered.restoreBackup(beforeEdit));
+        assertEquals("Original", recovered.findById(task.getId()).get().getTitle());
+        // Copies from before the restore are stale against it
+        assertTrue(recovered.findById(task.getId()).get().getVersion() > edited.getVersion());
+        assertEquals(3, recovered.save(new Task("Next", null, Priority.LOW, null)).getId());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** A clock that only moves when told to, a second at a time. */
+    private static final class SteppingClock extends Clock {
+        private Instant instant = Instant.parse("2024-03-01T12:00:00Z");
+
+        void step() {
+            instant = instant.plusSeconds(1);
+        }
+
+        LocalDateTime now() {
+            return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+        @Override
+        public long millis() {
+            return instant.toEpochMilli();
+        }
+    }
+}
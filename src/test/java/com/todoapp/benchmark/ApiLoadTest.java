@@ -0,0 +1,171 @@
+package com.todoapp.benchmark;
+
+import com.todoapp.dao.FileTaskDAO;
+import com.todoapp.server.ApiServer;
+import com.todoapp.service.TaskService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop load test of the task API on one node: {@code load.clients} clients send a mix
+ * of list reads (revalidated with If-None-Match), single-task reads and completion toggles
+ * for {@code load.seconds}, then requests per second and latency percentiles are printed.
+ * Without {@code -Dload.url} it starts an in-process server over file storage seeded with
+ * {@code load.tasks} tasks.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java -Dexec.mainClass=com.todoapp.benchmark.ApiLoadTest -Dload.clients=64
+ * </pre>
+ */
+public class ApiLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("load.clients", 32);
+        int seconds = Integer.getInteger("load.seconds", 20);
+        int warmupSeconds = Integer.getInteger("load.warmup.seconds", 5);
+        int taskCount = Integer.getInteger("load.tasks", 1000);
+        String url = System.getProperty("load.url");
+
+        ApiServer server = null;
+        if (url == null) {
+            Path dir = Files.createTempDirectory("api-load");
+            FileTaskDAO taskDAO = new FileTaskDAO(dir.resolve("tasks.json").toString(),
+                                                  dir.resolve("tasks_backup.json").toString());
+            taskDAO.insertAll(RefreshPipelineBenchmark.generateTasks(taskCount, 42));
+            server = new ApiServer(new TaskService(taskDAO, false), 0);
+            server.start();
+            url = "http://localhost:" + server.getPort();
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newFixedThreadPool(4))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        try {
+            System.out.printf("Warming up %d clients for %d s against %s%n", clients, warmupSeconds, url);
+            run(client, url, clients, warmupSeconds, taskCount);
+            System.out.printf("Measuring for %d s%n", seconds);
+            print(run(client, url, clients, seconds, taskCount), seconds);
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+        }
+        // The client's selector thread is not a daemon
+        System.exit(0);
+    }
+
+    private static Result run(HttpClient client, String url, int clients, int seconds, int taskCount) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Future<Result>> futures = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            long seed = i;
+            futures.add(pool.submit(() -> runClient(client, url, deadline, taskCount, new Random(seed))));
+        }
+        Result total = new Result();
+        for (Future<Result> future : futures) {
+            total.merge(future.get());
+        }
+        pool.shutdown();
+        return total;
+    }
+
+    private static Result runClient(HttpClient client, String url, long deadline, int taskCount, Random random)
+            throws Exception {
+        Result result = new Result();
+        String listETag = null;
+        while (System.nanoTime() < deadline) {
+            int dice = random.nextInt(100);
+            long id = 1 + random.nextInt(taskCount);
+            HttpRequest.Builder request = HttpRequest.newBuilder().header("Accept-Encoding", "gzip");
+            boolean list = false;
+            if (dice < 80) {
+                list = true;
+                request.uri(URI.create(url + "/api/tasks?filter=PENDING&sort=DUE_DATE")).GET();
+                if (listETag != null) {
+                    request.header("If-None-Match", listETag);
+                }
+            } else if (dice < 95) {
+                request.uri(URI.create(url + "/api/tasks/" + id)).GET();
+            } else {
+                String action = random.nextBoolean() ? "complete" : "pending";
+                request.uri(URI.create(url + "/api/tasks/" + id + "/" + action))
+                        .POST(HttpRequest.BodyPublishers.noBody());
+            }
+
+            long start = System.nanoTime();
+            try {
+                HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+                result.record(System.nanoTime() - start, response.statusCode());
+                if (list && response.statusCode() == 200) {
+                    listETag = response.headers().firstValue("ETag").orElse(null);
+                }
+            } catch (IOException e) {
+                // Reported under status 0
+                result.record(System.nanoTime() - start, 0);
+            }
+        }
+        return result;
+    }
+
+    private static void print(Result result, int seconds) {
+        long[] latencies = Arrays.copyOf(result.latencies, result.count);
+        Arrays.sort(latencies);
+        System.out.printf(Locale.ROOT, "requests: %d, throughput: %.0f req/s%n",
+                result.count, result.count / (double) seconds);
+        System.out.printf(Locale.ROOT, "latency ms: p50 %.2f, p90 %.2f, p99 %.2f, max %.2f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90),
+                percentile(latencies, 0.99), percentile(latencies, 1.0));
+        System.out.println("status codes: " + result.statuses);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static final class Result {
+        long[] latencies = new long[1 << 14];
+        int count;
+        final Map<Integer, Integer> statuses = new TreeMap<>();
+
+        void record(long nanos, int status) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            statuses.merge(status, 1, Integer::sum);
+        }
+
+        void merge(Result other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            other.statuses.forEach((status, n) -> statuses.merge(status, n, Integer::sum));
+        }
+    }
+}
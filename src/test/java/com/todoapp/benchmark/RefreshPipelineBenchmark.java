@@ -0,0 +1,168 @@
+package com.todoapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.todoapp.dao.FileTaskDAO;
+import com.todoapp.dao.TaskDAO;
+import com.todoapp.dao.TaskDAOImpl;
+import com.todoapp.database.DatabaseConnection;
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+import com.todoapp.service.TaskListRefresher;
+import com.todoapp.service.TaskService;
+import com.todoapp.service.TaskService.TaskFilter;
+import com.todoapp.service.TaskService.TaskSortCriteria;
+import com.todoapp.service.TaskService.TaskStatistics;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the refresh that follows every UI action (filter/search/sort, statistics and
+ * taskList.setAll) without a display. Only the FILE backend runs by default; DATABASE is
+ * added with -Dbench.db=true (or {@code -p storage=FILE,DATABASE}) and inserts its rows into
+ * the configured database, so point db.url at a scratch schema.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RefreshPipelineBenchmark {
+    static final String TITLE_PREFIX = "bench-";
+
+    public enum Storage { FILE, DATABASE }
+
+    @Param({"FILE"})
+    public Storage storage;
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private Path tempDir;
+    private TaskDAO taskDAO;
+    private TaskListRefresher refresher;
+    private ObservableList<Task> taskList;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<Task> tasks = generateTasks(size, 42L);
+
+        if (storage == Storage.FILE) {
+            tempDir = Files.createTempDirectory("todo-bench");
+            Path file = tempDir.resolve("tasks.json");
+            ObjectMapper mapper = new ObjectMapper();
+            mapper.registerModule(new JavaTimeModule());
+            for (int i = 0; i < tasks.size(); i++) {
+                tasks.get(i).setId((long) i + 1);
+            }
+            mapper.writeValue(file.toFile(), tasks);
+            taskDAO = new FileTaskDAO(file.toString(), tempDir.resolve("tasks_backup.json").toString());
+        } else {
+            if (!Boolean.getBoolean("bench.db") || !DatabaseConnection.getInstance().testConnection()) {
+                throw new IllegalStateException("DATABASE benchmarks need -Dbench.db=true and a reachable database");
+            }
+            taskDAO = new TaskDAOImpl();
+            for (Task task : tasks) {
+                taskDAO.save(task);
+            }
+        }
+
+        refresher = new TaskListRefresher(new TaskService(taskDAO, storage == Storage.DATABASE));
+        taskList = FXCollections.observableArrayList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (storage == Storage.DATABASE && taskDAO != null) {
+            for (Task task : taskDAO.searchTasks(TITLE_PREFIX)) {
+                taskDAO.deleteById(task.getId());
+            }
+        }
+        if (tempDir != null) {
+            try (Stream<Path> paths = Files.walk(tempDir)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    /** Startup / "View > Refresh": everything, newest first. */
+    @Benchmark
+    public void refreshAll(Blackhole bh) {
+        refresh(null, TaskFilter.ALL, TaskSortCriteria.CREATED_DATE, false, bh);
+    }
+
+    /** Filter combo set to PENDING while sorted by priority. */
+    @Benchmark
+    public void refreshPendingByPriority(Blackhole bh) {
+        refresh(null, TaskFilter.PENDING, TaskSortCriteria.PRIORITY, false, bh);
+    }
+
+    /** One keystroke in the search field. */
+    @Benchmark
+    public void refreshSearchByTitle(Blackhole bh) {
+        refresh("task 1", TaskFilter.ALL, TaskSortCriteria.TITLE, true, bh);
+    }
+
+    @Benchmark
+    public TaskStatistics statisticsOnly() {
+        return refresher.loadStatistics();
+    }
+
+    private void refresh(String searchTerm, TaskFilter filter, TaskSortCriteria criteria, boolean ascending, Blackhole bh) {
+        taskList.setAll(refresher.loadTasks(searchTerm, filter, criteria, ascending));
+        bh.consume(taskList);
+        bh.consume(refresher.loadStatistics());
+    }
+
+    static List<Task> generateTasks(int count, long seed) {
+        Random random = new Random(seed);
+        Priority[] priorities = Priority.values();
+        LocalDateTime base = LocalDateTime.now();
+        List<Task> tasks = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            Task task = new Task(TITLE_PREFIX + "task " + i, "Description for task " + i + " " + "x".repeat(random.nextInt(200)));
+            task.setPriority(priorities[random.nextInt(priorities.length)]);
+            task.setCreatedDate(base.minusMinutes(random.nextInt(60 * 24 * 365)));
+            if (random.nextInt(4) != 0) {
+                task.setDueDate(base.plusHours(random.nextInt(24 * 30) - 24 * 7));
+            }
+            if (random.nextInt(3) == 0) {
+                task.setCompleted(true);
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(RefreshPipelineBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend("-Djava.awt.headless=true");
+        if (Boolean.getBoolean("bench.db")) {
+            options.param("storage", Storage.FILE.name(), Storage.DATABASE.name())
+                    .jvmArgsAppend("-Dbench.db=true");
+        }
+        new Runner(options.build()).run();
+    }
+}
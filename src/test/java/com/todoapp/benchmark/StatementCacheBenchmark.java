@@ -0,0 +1,109 @@
+package com.todoapp.benchmark;
+
+import com.todoapp.database.DatabaseConnection;
+import com.todoapp.database.StatementCache;
+import com.todoapp.util.ConfigurationManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-statement latency of the TaskDAOImpl findById shape with and without the
+ * {@link StatementCache}, with client- or server-side prepares. Needs -Dbench.db=true and a
+ * reachable database (it inserts and removes one row).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatementCacheBenchmark {
+    private static final String FIND_BY_ID = "SELECT * FROM tasks WHERE id = ?";
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    @Param({"true", "false"})
+    public boolean serverPrepare;
+
+    private Connection connection;
+    private StatementCache cache;
+    private long taskId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        if (!Boolean.getBoolean("bench.db") || !DatabaseConnection.getInstance().testConnection()) {
+            throw new IllegalStateException("StatementCacheBenchmark needs -Dbench.db=true and a reachable database");
+        }
+
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        Properties properties = new Properties();
+        properties.setProperty("user", config.getProperty("db.username"));
+        properties.setProperty("password", config.getProperty("db.password"));
+        properties.setProperty("useServerPrepStmts", Boolean.toString(serverPrepare));
+        properties.setProperty("cachePrepStmts", Boolean.toString(serverPrepare));
+        connection = DriverManager.getConnection(config.getProperty("db.url"), properties);
+        cache = new StatementCache(connection, 32);
+
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO tasks (title, priority, completed) VALUES ('bench-statement-cache', 'MEDIUM', FALSE)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            insert.executeUpdate();
+            try (ResultSet keys = insert.getGeneratedKeys()) {
+                keys.next();
+                taskId = keys.getLong(1);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        if (connection != null) {
+            try (PreparedStatement delete = connection.prepareStatement("DELETE FROM tasks WHERE id = ?")) {
+                delete.setLong(1, taskId);
+                delete.executeUpdate();
+            }
+            cache.close();
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public String findById() throws SQLException {
+        PreparedStatement stmt = cached ? cache.prepare(FIND_BY_ID) : connection.prepareStatement(FIND_BY_ID);
+        try {
+            stmt.setLong(1, taskId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString("title") : null;
+            }
+        } finally {
+            if (cached) {
+                cache.release(stmt);
+            } else {
+                stmt.close();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(StatementCacheBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend("-Dbench.db=true")
+                .build();
+        new Runner(options).run();
+    }
+}
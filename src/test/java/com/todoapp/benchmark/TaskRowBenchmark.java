@@ -0,0 +1,107 @@
+package com.todoapp.benchmark;
+
+import com.todoapp.controller.TaskRow;
+import com.todoapp.controller.TaskRowCache;
+import com.todoapp.model.Task;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.SimpleStringProperty;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One frame of scrolling the task table: the viewport moves down a row and every visible
+ * cell asks for its value and style. {@code inlineCells} repeats what the cell factories did
+ * before row view-models (wrap, format and build style strings per update);
+ * {@code cachedRows} goes through {@link TaskRowCache}. Compare the gc.alloc.rate.norm lines.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskRowBenchmark {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    @Param({"10000"})
+    public int size;
+
+    @Param({"40"})
+    public int visibleRows;
+
+    private List<Task> tasks;
+    private TaskRowCache rowCache;
+    private int firstVisible;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = RefreshPipelineBenchmark.generateTasks(size, 42L);
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).setId((long) i + 1);
+        }
+        rowCache = new TaskRowCache();
+    }
+
+    @Benchmark
+    public void inlineCells(Blackhole bh) {
+        for (Task task : nextFrame()) {
+            bh.consume(new ReadOnlyObjectWrapper<>(task.getId()));
+            bh.consume(new ReadOnlyObjectWrapper<>(task.getTitle()));
+            bh.consume(new ReadOnlyObjectWrapper<>(task.getDescription()));
+            bh.consume(new ReadOnlyObjectWrapper<>(task.getPriority()));
+            LocalDateTime dueDate = task.getDueDate();
+            bh.consume(new SimpleStringProperty(dueDate != null ? dueDate.format(DATE_FORMATTER) : ""));
+            String status = task.isCompleted() ? "Completed" : "Pending";
+            if (!task.isCompleted() && task.isOverdue()) {
+                status += " (Overdue)";
+            }
+            bh.consume(new SimpleStringProperty(status));
+            bh.consume(new SimpleStringProperty(task.getCreatedDate().format(DATE_FORMATTER)));
+
+            bh.consume("-fx-background-color: " + task.getPriority().getColor() + "40;");
+            bh.consume(status.contains("Overdue") ? "-fx-text-fill: #dc3545; -fx-font-weight: bold;" : "");
+        }
+    }
+
+    @Benchmark
+    public void cachedRows(Blackhole bh) {
+        for (Task task : nextFrame()) {
+            TaskRow row = rowCache.get(task);
+            bh.consume(row.idProperty());
+            bh.consume(row.titleProperty());
+            bh.consume(row.descriptionProperty());
+            bh.consume(row.priorityProperty());
+            bh.consume(row.dueDateProperty());
+            bh.consume(row.statusProperty());
+            bh.consume(row.createdDateProperty());
+
+            bh.consume(TaskRow.priorityStyleClass(task.getPriority()));
+            bh.consume(TaskRow.statusStyleClass(row.statusProperty().getValue()));
+        }
+    }
+
+    // Scrolls one row per frame and wraps around, so after the first pass every row was seen
+    private List<Task> nextFrame() {
+        firstVisible = (firstVisible + 1) % (size - visibleRows);
+        return tasks.subList(firstVisible, firstVisible + visibleRows);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TaskRowBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend("-Djava.awt.headless=true")
+                .build();
+        new Runner(options).run();
+    }
+}
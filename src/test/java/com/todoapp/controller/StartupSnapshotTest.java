@@ -0,0 +1,62 @@
+package com.todoapp.controller;
+
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+import com.todoapp.service.TaskService.TaskFilter;
+import com.todoapp.service.TaskService.TaskSortCriteria;
+import com.todoapp.service.TaskService.TaskStatistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StartupSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSavedRowsAndStatisticsAreRestored() {
+        List<Task> rows = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Task task = new Task("Task " + i, "Private notes " + i, Priority.HIGH, LocalDateTime.of(2030, 1, i, 9, 0));
+            task.setId((long) i);
+            rows.add(task);
+        }
+        StartupSnapshot snapshot = new StartupSnapshot(tempDir.resolve("snapshot.json").toString(), 3);
+        snapshot.save(rows, TaskFilter.PENDING, TaskSortCriteria.DUE_DATE, true, new TaskStatistics(9, 4, 5, 1, 0));
+
+        StartupSnapshot.Contents restored = snapshot.load().orElseThrow();
+        assertEquals(TaskFilter.PENDING, restored.getFilter());
+        assertEquals(TaskSortCriteria.DUE_DATE, restored.getSort());
+        assertTrue(restored.isAscending());
+        assertEquals(9, restored.toStatistics().getTotal());
+        assertEquals(5, restored.toStatistics().getPending());
+
+        assertEquals(3, restored.getTasks().size());
+        Task first = restored.getTasks().get(0);
+        assertEquals("Task 1", first.getTitle());
+        assertEquals(LocalDateTime.of(2030, 1, 1, 9, 0), first.getDueDate());
+        assertFalse(first.isDescriptionLoaded());
+        // The originals keep their descriptions
+        assertEquals("Private notes 1", rows.get(0).getDescription());
+    }
+
+    @Test
+    void testMissingOrCorruptSnapshotIsIgnored() throws Exception {
+        Path path = tempDir.resolve("snapshot.json");
+        StartupSnapshot snapshot = new StartupSnapshot(path.toString(), 10);
+        assertTrue(snapshot.load().isEmpty());
+
+        Files.writeString(path, "{not json");
+        assertTrue(snapshot.load().isEmpty());
+
+        assertFalse(new StartupSnapshot("", 10).isEnabled());
+    }
+}
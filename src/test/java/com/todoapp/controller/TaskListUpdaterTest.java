@@ -0,0 +1,143 @@
+package com.todoapp.controller;
+
+import com.todoapp.dao.FileTaskDAO;
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+import com.todoapp.service.TaskChangeEvent;
+import com.todoapp.service.TaskListRefresher;
+import com.todoapp.service.TaskService;
+import com.todoapp.service.TaskService.TaskFilter;
+import com.todoapp.service.TaskService.TaskSortCriteria;
+import com.todoapp.service.TaskService.TaskStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskListUpdaterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TaskService taskService;
+    private TaskListRefresher refresher;
+    private TaskListUpdater updater;
+    private List<Task> rows;
+    private TaskStatistics statistics;
+    private String search;
+    private TaskFilter filter;
+    private TaskSortCriteria sort;
+    private boolean ascending;
+    private int reloads;
+
+    @BeforeEach
+    void setUp() {
+        taskService = new TaskService(new FileTaskDAO(tempDir.resolve("tasks.json").toString(),
+                                                      tempDir.resolve("tasks_backup.json").toString()), false);
+        refresher = new TaskListRefresher(taskService);
+        updater = new TaskListUpdater();
+        taskService.createTask("Bravo", null, Priority.LOW, null);
+        taskService.createTask("Delta", null, Priority.HIGH, null);
+        taskService.createTask("Foxtrot", null, Priority.MEDIUM, null);
+
+        // Mirrors MainController: changes are applied to the loaded rows and statistics,
+        // falling back to a reload
+        taskService.addChangeListener(event -> {
+            Task previous = updater.previousOf(rows, event);
+            if (updater.apply(rows, event) && event.getType() != TaskChangeEvent.Type.BULK) {
+                statistics = statistics.adjust(previous, event.getCurrent());
+            } else {
+                reloads++;
+                load(search, filter, sort, ascending);
+            }
+        });
+    }
+
+    @Test
+    void testEditsKeepSortAndFilterWithoutReloading() {
+        load(null, TaskFilter.PENDING, TaskSortCriteria.TITLE, true);
+
+        Task charlie = taskService.createTask("Charlie", "new", Priority.URGENT, null);
+        assertEquals(titles("Bravo", "Charlie", "Delta", "Foxtrot"), titles(rows));
+
+        Task renamed = charlie.copy();
+        renamed.setTitle("Golf");
+        taskService.updateTask(renamed);
+        assertEquals(titles("Bravo", "Delta", "Foxtrot", "Golf"), titles(rows));
+        assertSame(renamed, rows.get(3));
+
+        // No longer pending, so it leaves the filtered rows
+        taskService.markTaskCompleted(rows.get(0));
+        assertEquals(titles("Delta", "Foxtrot", "Golf"), titles(rows));
+
+        taskService.deleteTask(rows.get(1));
+        assertEquals(titles("Delta", "Golf"), titles(rows));
+
+        assertEquals(0, reloads);
+        assertRowsMatchReload();
+        assertStatisticsMatchReload();
+    }
+
+    @Test
+    void testSearchAndDescendingOrder() {
+        load("ta", TaskFilter.ALL, TaskSortCriteria.PRIORITY, false);
+        assertEquals(titles("Delta"), titles(rows));
+
+        taskService.createTask("Tango", null, Priority.URGENT, null);
+        taskService.createTask("Other", "mentions beta", Priority.LOW, null);
+        taskService.createTask("Unrelated", null, Priority.LOW, null);
+        assertEquals(titles("Tango", "Delta", "Other"), titles(rows));
+
+        assertEquals(0, reloads);
+        assertRowsMatchReload();
+        assertStatisticsMatchReload();
+    }
+
+    @Test
+    void testBulkChangesNeedReload() {
+        load(null, TaskFilter.ALL, TaskSortCriteria.TITLE, true);
+        taskService.markTaskCompleted(rows.get(0));
+        assertEquals(0, reloads);
+
+        taskService.deleteAllCompletedTasks();
+        assertEquals(1, reloads);
+        assertEquals(titles("Delta", "Foxtrot"), titles(rows));
+        assertStatisticsMatchReload();
+    }
+
+    private void load(String search, TaskFilter filter, TaskSortCriteria sort, boolean ascending) {
+        this.search = search;
+        this.filter = filter;
+        this.sort = sort;
+        this.ascending = ascending;
+        rows = new ArrayList<>(refresher.loadTasks(search, filter, sort, ascending));
+        updater.setView(search, filter, sort, ascending);
+        statistics = refresher.loadStatistics();
+    }
+
+    private void assertRowsMatchReload() {
+        assertEquals(titles(refresher.loadTasks(search, filter, sort, ascending)), titles(rows));
+    }
+
+    private void assertStatisticsMatchReload() {
+        TaskStatistics reloaded = refresher.loadStatistics();
+        assertEquals(reloaded.getTotal(), statistics.getTotal());
+        assertEquals(reloaded.getCompleted(), statistics.getCompleted());
+        assertEquals(reloaded.getPending(), statistics.getPending());
+        assertEquals(reloaded.getOverdue(), statistics.getOverdue());
+    }
+
+    private static List<String> titles(String... titles) {
+        return List.of(titles);
+    }
+
+    private static List<String> titles(List<Task> tasks) {
+        return tasks.stream().map(Task::getTitle).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,55 @@
+package com.todoapp.controller;
+
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskRowCacheTest {
+
+    @Test
+    void testRowsAreReusedUntilTheTaskChanges() {
+        TaskRowCache cache = new TaskRowCache();
+        Task task = new Task("Cached", "Description");
+        task.setId(1L);
+        task.setPriority(Priority.URGENT);
+
+        TaskRow row = cache.get(task);
+        assertSame(row, cache.get(task));
+        assertSame(row.titleProperty(), cache.get(task).titleProperty());
+        assertEquals("task-priority-urgent", TaskRow.priorityStyleClass(task.getPriority()));
+
+        task.setCompleted(true);
+        task.setVersion(task.getVersion() + 1);
+        TaskRow completed = cache.get(task);
+        assertNotSame(row, completed);
+        assertEquals(TaskRow.STATUS_COMPLETED, completed.statusProperty().getValue());
+        assertEquals("task-status-completed", TaskRow.statusStyleClass(completed.statusProperty().getValue()));
+
+        // A replaced instance (e.g. reloaded from the database) gets its own row
+        Task reloaded = task.copy();
+        assertNotSame(completed, cache.get(reloaded));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testPendingRowExpiresWhenTheTaskBecomesOverdue() {
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+        Task task = new Task("Due soon", null);
+        task.setId(2L);
+        task.setDueDate(now.plusMinutes(5));
+
+        TaskRow row = new TaskRow(task, now);
+        assertEquals(TaskRow.STATUS_PENDING, row.statusProperty().getValue());
+        assertNull(TaskRow.statusStyleClass(row.statusProperty().getValue()));
+
+        long dueMillis = task.getDueDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        assertTrue(row.isCurrent(task, dueMillis));
+        assertFalse(row.isCurrent(task, dueMillis + 1));
+        assertEquals(TaskRow.STATUS_OVERDUE, new TaskRow(task, now.plusMinutes(6)).statusProperty().getValue());
+    }
+}
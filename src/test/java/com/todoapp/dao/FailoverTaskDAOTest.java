@@ -0,0 +1,123 @@
+package com.todoapp.dao;
+
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+import com.todoapp.util.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.sql.SQLNonTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FailoverTaskDAOTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicBoolean down = new AtomicBoolean();
+    private final AtomicInteger primaryCalls = new AtomicInteger();
+    private final CountDownLatch recovered = new CountDownLatch(1);
+    private CircuitBreaker breaker;
+    private FailoverTaskDAO taskDAO;
+
+    @BeforeEach
+    void setUp() {
+        FileTaskDAO store = new FileTaskDAO(tempDir.resolve("tasks.json").toString(),
+                                            tempDir.resolve("tasks_backup.json").toString());
+        // Stands in for TaskDAOImpl: fails like Connector/J while the database is down
+        TaskDAO primary = (TaskDAO) Proxy.newProxyInstance(TaskDAO.class.getClassLoader(),
+                new Class<?>[] {TaskDAO.class}, (proxy, method, args) -> {
+                    primaryCalls.incrementAndGet();
+                    if (down.get()) {
+                        throw new RuntimeException("Failed to execute query",
+                                new SQLNonTransientConnectionException("Communications link failure", "08S01"));
+                    }
+                    try {
+                        return method.invoke(store, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        breaker = new CircuitBreaker("test-db", 2, 20, 20, () -> !down.get());
+        breaker.addListener((from, to) -> {
+            if (to == CircuitBreaker.State.CLOSED) {
+                recovered.countDown();
+            }
+        });
+        taskDAO = new FailoverTaskDAO(primary, breaker);
+    }
+
+    @Test
+    void testOutageServesSnapshotAndFailsWritesFast() throws InterruptedException {
+        Task task = taskDAO.save(new Task("Known", "details", Priority.HIGH, null));
+        assertEquals(1, taskDAO.findAll().size());
+
+        down.set(true);
+        // Connection failures fall back to the snapshot and open the breaker on the second one
+        assertEquals(1, taskDAO.findByCompleted(false).size());
+        assertEquals(1, taskDAO.getTotalCount());
+        assertFalse(taskDAO.isAvailable());
+
+        int callsWhileOpen = primaryCalls.get();
+        assertEquals("details", taskDAO.findById(task.getId()).get().getDescription());
+        assertEquals(1, taskDAO.searchTasks("know").size());
+        assertThrows(StorageUnavailableException.class,
+                () -> taskDAO.save(new Task("Lost", null, Priority.LOW, null)));
+        assertEquals(callsWhileOpen, primaryCalls.get());
+
+        down.set(false);
+        assertTrue(recovered.await(5, TimeUnit.SECONDS));
+        assertTrue(taskDAO.isAvailable());
+        taskDAO.save(new Task("After", null, Priority.LOW, null));
+        assertEquals(2, taskDAO.getTotalCount());
+    }
+
+    @Test
+    void testOrdinaryErrorsDoNotOpenTheBreaker() {
+        Task task = taskDAO.save(new Task("Task", null, Priority.MEDIUM, null));
+        long staleVersion = task.getVersion() + 5;
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(StaleTaskException.class,
+                    () -> taskDAO.updateCompletion(task.getId(), true, null, staleVersion));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testStreamAllReadsEveryTaskInIdOrder() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 2 * TaskDAO.STREAM_PAGE_SIZE + 5; i++) {
+            tasks.add(new Task("Task " + i, "details", Priority.LOW, null));
+        }
+        taskDAO.insertAll(tasks);
+        assertEquals(tasks.size(), taskDAO.findAll().size());
+
+        try (Stream<Task> stream = taskDAO.streamAll()) {
+            List<Long> ids = stream.map(Task::getId).collect(Collectors.toList());
+            assertEquals(tasks.size(), ids.size());
+            for (int i = 1; i < ids.size(); i++) {
+                assertTrue(ids.get(i - 1) < ids.get(i));
+            }
+        }
+
+        // Opening the stream during an outage falls back to the snapshot
+        down.set(true);
+        try (Stream<Task> stream = taskDAO.streamAll()) {
+            assertEquals(tasks.size(), stream.filter(task -> "details".equals(task.getDescription())).count());
+        }
+    }
+}
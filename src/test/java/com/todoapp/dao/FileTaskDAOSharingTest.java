@@ -0,0 +1,87 @@
+package com.todoapp.dao;
+
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileTaskDAOSharingTest {
+
+    @TempDir
+    Path tempDir;
+
+    // Two stores on one file stand in for two processes sharing it
+    private FileTaskDAO first;
+    private FileTaskDAO second;
+
+    @BeforeEach
+    void setUp() {
+        first = open();
+        second = open();
+    }
+
+    private FileTaskDAO open() {
+        return new FileTaskDAO(tempDir.resolve("tasks.json").toString(),
+                               tempDir.resolve("tasks_backup.json").toString());
+    }
+
+    @Test
+    void testWritesSeeEachOthersChanges() {
+        Task a = first.save(new Task("A", null, Priority.LOW, null));
+        Task b = second.save(new Task("B", null, Priority.LOW, null));
+
+        // The second store caught up before writing, so neither id nor task was lost
+        assertNotEquals(a.getId(), b.getId());
+        assertTrue(first.refreshIfChanged());
+        assertEquals(2, first.getTotalCount());
+        assertFalse(first.refreshIfChanged());
+
+        second.updateCompletion(a.getId(), true, null, a.getVersion());
+        Task stale = new Task("A edited", null, Priority.HIGH, null);
+        stale.setId(a.getId());
+        stale.setVersion(a.getVersion());
+        assertThrows(StaleTaskException.class, () -> first.save(stale));
+        assertTrue(first.findById(a.getId()).get().isCompleted());
+        assertEquals(2, open().getTotalCount());
+    }
+
+    @Test
+    void testCatchingUpRereadsOnlyChangedTasks() {
+        for (int i = 0; i < 20; i++) {
+            first.save(new Task("Task " + i, "details", Priority.MEDIUM, null));
+        }
+        second.refreshIfChanged();
+        Task untouched = second.findById(2L).get();
+        Task changed = second.findById(1L).get();
+
+        first.updateCompletion(1L, true, null, first.findById(1L).get().getVersion());
+        first.deleteById(3L);
+        assertTrue(second.refreshIfChanged());
+
+        assertEquals(19, second.getTotalCount());
+        assertTrue(second.findById(1L).get().isCompleted());
+        assertFalse(second.findById(3L).isPresent());
+        // Unchanged records keep their instances; only the changed one was bound again
+        assertSame(untouched, second.findById(2L).get());
+        assertNotSame(changed, second.findById(1L).get());
+    }
+
+    @Test
+    void testWatcherReportsOtherWriters() throws InterruptedException {
+        CountDownLatch changed = new CountDownLatch(1);
+        second.setExternalChangeListener(changed::countDown);
+        second.startWatching();
+
+        first.save(new Task("Elsewhere", null, Priority.LOW, null));
+
+        assertTrue(changed.await(10, TimeUnit.SECONDS));
+        assertEquals(1, second.getTotalCount());
+    }
+}
@@ -0,0 +1,103 @@
+package com.todoapp.dao;
+
+import com.todoapp.database.DatabaseConnection;
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the file store counts tasks due today like {@link TaskDAOImpl#COUNT_DUE_TODAY_SQL}.
+ * With {@code -Dtest.db=true} the query also runs against a temporary copy of the tasks table
+ * holding the same tasks, so stored tasks are left alone.
+ */
+public class TaskCountParityTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final LocalDate today = LocalDate.now();
+
+    private List<Task> tasks() {
+        List<Task> tasks = new ArrayList<>();
+        LocalDateTime[] dues = {today.atTime(12, 0), today.atStartOfDay(), today.minusDays(1).atTime(23, 0),
+                today.plusDays(1).atStartOfDay(), null};
+        for (int i = 0; i < 20; i++) {
+            Task task = new Task("Task " + i, null, Priority.MEDIUM, dues[i % dues.length]);
+            if (i % 4 == 0) {
+                task.setCompleted(true);
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    @Test
+    void testDueTodayCountMatchesDatabase() throws SQLException {
+        List<Task> tasks = tasks();
+        FileTaskDAO store = new FileTaskDAO(tempDir.resolve("tasks.json").toString(),
+                                            tempDir.resolve("tasks_backup.json").toString());
+        store.insertAll(tasks);
+        // Pending tasks due at noon or midnight today; completed ones do not count
+        long expected = tasks.stream().filter(task -> !task.isCompleted() && task.isDueToday()).count();
+        assertEquals(6, expected);
+        assertEquals(expected, store.getDueTodayCount());
+
+        if (Boolean.getBoolean("test.db") && DatabaseConnection.getInstance().testConnection()) {
+            assertEquals(expected, countInDatabase(tasks));
+        }
+    }
+
+    private long countInDatabase(List<Task> tasks) throws SQLException {
+        Connection connection = DatabaseConnection.getInstance().getConnection();
+        try (Statement statement = connection.createStatement()) {
+            // Not LIKE tasks: temporary tables cannot have the FULLTEXT index of schema.sql
+            statement.executeUpdate("CREATE TEMPORARY TABLE tasks_count ("
+                    + "id BIGINT AUTO_INCREMENT PRIMARY KEY, title VARCHAR(255) NOT NULL, "
+                    + "priority VARCHAR(20) NOT NULL, completed BOOLEAN NOT NULL DEFAULT FALSE, "
+                    + "due_date TIMESTAMP NULL, created_date TIMESTAMP NOT NULL, "
+                    + "INDEX idx_completed_due_date (completed, due_date)) ENGINE=InnoDB");
+        }
+        try {
+            String insert = "INSERT INTO tasks_count (title, priority, completed, due_date, created_date) VALUES (?, ?, ?, ?, ?)";
+            try (PreparedStatement stmt = connection.prepareStatement(insert)) {
+                for (Task task : tasks) {
+                    stmt.setString(1, task.getTitle());
+                    stmt.setString(2, task.getPriority().name());
+                    stmt.setBoolean(3, task.isCompleted());
+                    stmt.setTimestamp(4, task.getDueDate() != null ? Timestamp.valueOf(task.getDueDate()) : null);
+                    stmt.setTimestamp(5, Timestamp.valueOf(task.getCreatedDate()));
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            String count = TaskDAOImpl.COUNT_DUE_TODAY_SQL.replace("FROM tasks", "FROM tasks_count");
+            try (PreparedStatement stmt = connection.prepareStatement(count)) {
+                stmt.setTimestamp(1, Timestamp.valueOf(today.atStartOfDay()));
+                stmt.setTimestamp(2, Timestamp.valueOf(today.plusDays(1).atStartOfDay()));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    return rs.getLong(1);
+                }
+            }
+        } finally {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("DROP TEMPORARY TABLE IF EXISTS tasks_count");
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.todoapp.dao;
+
+import com.todoapp.database.DatabaseConnection;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks with EXPLAIN that the filter queries of {@link TaskDAOImpl} are served by their
+ * composite indexes as ref/range scans without a filesort. Needs the configured MySQL
+ * database and runs only with {@code -Dtest.db=true}; the plans are taken against a
+ * temporary copy of the tasks table, so stored tasks are left alone.
+ */
+public class TaskQueryPlanTest {
+    private static final int ROWS = 5000;
+    private static final List<String> INDEX_SCANS = Arrays.asList("ref", "range");
+    // Spelled out rather than LIKE tasks: temporary tables cannot have the FULLTEXT index of
+    // schema.sql. Keeps the B-tree indexes the plans pick from
+    private static final String CREATE_PLAN_TABLE_SQL = "CREATE TEMPORARY TABLE tasks_plan ("
+            + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "title VARCHAR(255) NOT NULL, "
+            + "description TEXT, "
+            + "priority VARCHAR(20) NOT NULL DEFAULT 'MEDIUM', "
+            + "completed BOOLEAN NOT NULL DEFAULT FALSE, "
+            + "due_date TIMESTAMP NULL, "
+            + "created_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+            + "completed_date TIMESTAMP NULL, "
+            + "version BIGINT NOT NULL DEFAULT 0, "
+            + "INDEX idx_completed (completed), "
+            + "INDEX idx_due_date (due_date), "
+            + "INDEX idx_created_date (created_date), "
+            + "INDEX idx_completed_due_date (completed, due_date), "
+            + "INDEX idx_completed_created_date (completed, created_date), "
+            + "INDEX idx_priority_created_date (priority, created_date), "
+            + "INDEX idx_completed_priority_due_date (completed, priority, due_date)"
+            + ") ENGINE=InnoDB";
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void createPlanTable() throws SQLException {
+        assumeTrue(Boolean.getBoolean("test.db"), "Run with -Dtest.db=true against a local database");
+        assumeTrue(DatabaseConnection.getInstance().testConnection(), "Database not reachable");
+        connection = DatabaseConnection.getInstance().getConnection();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(CREATE_PLAN_TABLE_SQL);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        String insert = "INSERT INTO tasks_plan (title, priority, completed, due_date, created_date) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = connection.prepareStatement(insert)) {
+            for (int i = 0; i < ROWS; i++) {
+                stmt.setString(1, "Task " + i);
+                // Like real history: mostly completed tasks, few urgent ones
+                stmt.setString(2, i % 50 == 0 ? "URGENT" : i % 3 == 0 ? "HIGH" : "MEDIUM");
+                stmt.setBoolean(3, i % 10 != 0);
+                stmt.setTimestamp(4, Timestamp.valueOf(now.minusDays(30).plusMinutes(15L * i)));
+                stmt.setTimestamp(5, Timestamp.valueOf(now.minusHours(i)));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE TABLE tasks_plan");
+        }
+    }
+
+    @AfterAll
+    static void dropPlanTable() throws SQLException {
+        if (connection != null) {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("DROP TEMPORARY TABLE IF EXISTS tasks_plan");
+            }
+        }
+    }
+
+    @Test
+    void testPendingTasksUseCompletedCreatedDateIndex() throws SQLException {
+        assertIndexScan(TaskDAOImpl.FIND_BY_COMPLETED_SQL, "idx_completed_created_date", false);
+    }
+
+    @Test
+    void testPriorityFilterUsesPriorityCreatedDateIndex() throws SQLException {
+        assertIndexScan(TaskDAOImpl.FIND_BY_PRIORITY_SQL, "idx_priority_created_date", "URGENT");
+    }
+
+    @Test
+    void testOverdueQueriesRangeScanCompletedDueDateIndex() throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        assertIndexScan(TaskDAOImpl.FIND_OVERDUE_SQL, "idx_completed_due_date", now);
+        assertIndexScan(TaskDAOImpl.COUNT_OVERDUE_SQL, "idx_completed_due_date", now);
+    }
+
+    @Test
+    void testDueTodayQueriesRangeScanCompletedDueDateIndex() throws SQLException {
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        Timestamp from = Timestamp.valueOf(today);
+        Timestamp to = Timestamp.valueOf(today.plusDays(1));
+        assertIndexScan(TaskDAOImpl.FIND_DUE_TODAY_SQL, "idx_completed_due_date", from, to);
+        assertIndexScan(TaskDAOImpl.COUNT_DUE_TODAY_SQL, "idx_completed_due_date", from, to);
+    }
+
+    @Test
+    void testNextUpCellsRangeScanCompletedPriorityDueDateIndex() throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp dueNow = Timestamp.valueOf(now);
+        Timestamp dueSoon = Timestamp.valueOf(now.plusDays(1));
+        String index = "idx_completed_priority_due_date";
+        assertIndexScan(TaskDAOImpl.URGENT_OVERDUE_SQL, index, "HIGH", dueNow, 10);
+        assertIndexScan(TaskDAOImpl.URGENT_DUE_SOON_SQL, index, "HIGH", dueNow, dueSoon, 10);
+        assertIndexScan(TaskDAOImpl.URGENT_DUE_LATER_SQL, index, "HIGH", dueSoon, 10);
+        assertIndexScan(TaskDAOImpl.URGENT_UNDATED_SQL, index, "HIGH", 10);
+    }
+
+    private static void assertIndexScan(String sql, String index, Object... parameters) throws SQLException {
+        String explain = "EXPLAIN " + sql.replace("FROM tasks", "FROM tasks_plan");
+        try (PreparedStatement stmt = connection.prepareStatement(explain)) {
+            for (int i = 0; i < parameters.length; i++) {
+                stmt.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet plan = stmt.executeQuery()) {
+                assertTrue(plan.next(), "No plan for " + sql);
+                String extra = String.valueOf(plan.getString("Extra"));
+                assertEquals(index, plan.getString("key"), sql);
+                assertTrue(INDEX_SCANS.contains(plan.getString("type")), sql + ": access type " + plan.getString("type"));
+                assertFalse(extra.contains("Using filesort"), sql + ": " + extra);
+            }
+        }
+    }
+}
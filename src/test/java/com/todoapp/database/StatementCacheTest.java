@@ -0,0 +1,98 @@
+package com.todoapp.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatementCacheTest {
+
+    private final List<String> prepared = new ArrayList<>();
+    private final List<String> closed = new ArrayList<>();
+
+    @Test
+    void testReusesReleasedStatement() throws Exception {
+        StatementCache cache = new StatementCache(fakeConnection(), 2);
+
+        PreparedStatement first = cache.prepare("SELECT 1");
+        cache.release(first);
+        PreparedStatement second = cache.prepare("SELECT 1");
+
+        assertSame(first, second);
+        assertEquals(1, prepared.size());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void testLeasedStatementIsNotShared() throws Exception {
+        StatementCache cache = new StatementCache(fakeConnection(), 2);
+
+        PreparedStatement first = cache.prepare("SELECT 1");
+        PreparedStatement second = cache.prepare("SELECT 1");
+
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() throws Exception {
+        StatementCache cache = new StatementCache(fakeConnection(), 2);
+
+        cache.release(cache.prepare("A"));
+        cache.release(cache.prepare("B"));
+        cache.release(cache.prepare("A"));
+        cache.release(cache.prepare("C"));
+
+        assertEquals(2, cache.size());
+        assertEquals(List.of("B"), closed);
+    }
+
+    @Test
+    void testZeroSizeClosesOnRelease() throws Exception {
+        StatementCache cache = new StatementCache(fakeConnection(), 0);
+
+        cache.release(cache.prepare("A"));
+
+        assertEquals(0, cache.size());
+        assertEquals(List.of("A"), closed);
+    }
+
+    private Connection fakeConnection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("prepareStatement")) {
+                        String sql = (String) args[0];
+                        prepared.add(sql);
+                        return fakeStatement(sql);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private PreparedStatement fakeStatement(String sql) {
+        boolean[] isClosed = {false};
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            isClosed[0] = true;
+                            closed.add(sql);
+                            return null;
+                        case "isClosed":
+                            return isClosed[0];
+                        case "clearParameters":
+                            return null;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,53 @@
+package com.todoapp.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatementTracerTest {
+
+    @Test
+    void testNormalizeReplacesLiteralsAndWhitespace() {
+        String shape = StatementTracer.normalize("SELECT *  FROM tasks\n WHERE id = 42 AND title = 'it''s'");
+
+        assertEquals("SELECT * FROM tasks WHERE id = ? AND title = ?", shape);
+    }
+
+    @Test
+    void testAggregatesByShapeAndOrdersByTotalTime() throws InterruptedException {
+        StatementTracer tracer = new StatementTracer(true, 10_000);
+
+        for (int i = 0; i < 3; i++) {
+            StatementTracer.Trace trace = tracer.start("getTotalCount", "SELECT COUNT(*) FROM tasks", 0);
+            tracer.executed(trace);
+            tracer.finish(trace, 1);
+        }
+        StatementTracer.Trace slow = tracer.start("findAll", "SELECT * FROM tasks ORDER BY created_date DESC", 0);
+        Thread.sleep(5);
+        tracer.executed(slow);
+        tracer.finish(slow, 250);
+
+        List<StatementTracer.StatementStats> top = tracer.topStatements(10);
+        assertEquals(2, top.size());
+        assertEquals("findAll", top.get(0).getOperation());
+        assertTrue(top.get(0).isFullRowSelect());
+        assertEquals(250, top.get(0).getRows());
+        assertEquals(3, top.get(1).getExecutions());
+        assertFalse(top.get(1).isFullRowSelect());
+        assertTrue(tracer.formatReport(1).contains("findAll"));
+    }
+
+    @Test
+    void testDisabledTracerReturnsNoTrace() {
+        StatementTracer tracer = new StatementTracer(false, 0);
+
+        StatementTracer.Trace trace = tracer.start("findAll", "SELECT * FROM tasks", 0);
+        tracer.executed(trace);
+        tracer.finish(trace, 10);
+
+        assertNull(trace);
+        assertTrue(tracer.topStatements(10).isEmpty());
+    }
+}
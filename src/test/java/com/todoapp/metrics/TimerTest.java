@@ -0,0 +1,45 @@
+package com.todoapp.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimerTest {
+
+    @Test
+    void testDisabledTimerRecordsNothing() {
+        Timer timer = new Timer("disabled", false);
+
+        long start = timer.start();
+        timer.stop(start);
+
+        assertEquals(Timer.DISABLED, start);
+        assertEquals(0, timer.getCount());
+    }
+
+    @Test
+    void testPercentilesWithinBucketPrecision() {
+        Timer timer = new Timer("latency", true);
+        for (long micros = 1; micros <= 1000; micros++) {
+            timer.record(micros * 1000);
+        }
+
+        assertEquals(1000, timer.getCount());
+        assertEquals(500_000, timer.percentileNanos(0.5), 500_000 * 0.125);
+        assertEquals(990_000, timer.percentileNanos(0.99), 990_000 * 0.125);
+        assertEquals(1_000_000, timer.percentileNanos(1.0));
+        assertEquals(1.0, timer.getMaxMillis(), 0.0001);
+    }
+
+    @Test
+    void testBucketBoundsCoverValue() {
+        long[] values = {0, 1, 15, 16, 17, 1000, 123_456_789L, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = Timer.bucketIndex(value);
+            assertTrue(Timer.bucketUpperBound(index) >= value, "upper bound below " + value);
+            if (index > 0) {
+                assertTrue(Timer.bucketUpperBound(index - 1) < value, "previous bucket covers " + value);
+            }
+        }
+    }
+}
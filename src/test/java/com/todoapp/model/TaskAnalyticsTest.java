@@ -0,0 +1,80 @@
+package com.todoapp.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskAnalyticsTest {
+
+    // A Wednesday
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 6, 12, 0);
+
+    private static Task task(Priority priority, LocalDateTime created, LocalDateTime due, LocalDateTime completed) {
+        Task task = new Task("Task", null, priority, due);
+        task.setCreatedDate(created);
+        if (completed != null) {
+            task.setCompleted(true);
+            task.setCompletedDate(completed);
+        }
+        return task;
+    }
+
+    @Test
+    void testBreakdowns() {
+        List<Task> tasks = List.of(
+                task(Priority.HIGH, NOW.minusDays(10), NOW.minusDays(8), null),
+                task(Priority.HIGH, NOW.minusDays(1), NOW.minusHours(2), null),
+                task(Priority.LOW, NOW.minusDays(2), null, NOW.minusDays(2).plusHours(3)),
+                task(Priority.LOW, NOW.minusDays(40), NOW.plusDays(1), NOW.minusDays(5)),
+                task(Priority.URGENT, NOW, NOW.plusHours(1), null));
+
+        TaskAnalytics analytics = TaskAnalytics.of(tasks, NOW);
+
+        assertEquals(5, analytics.getTotal());
+        assertEquals(2, analytics.getByPriority().get(Priority.HIGH).getOverdue());
+        assertEquals(2, analytics.getByPriority().get(Priority.LOW).getCompleted());
+        assertEquals(0, analytics.getByPriority().get(Priority.MEDIUM).getTotal());
+        // Weeks start on Monday; this week holds the tasks created Monday to Wednesday
+        assertEquals(3, analytics.getByCreatedWeek().get(LocalDate.of(2024, 3, 4)).getTotal());
+        assertEquals(1, analytics.getByCreatedWeek().get(LocalDate.of(2024, 2, 19)).getOverdue());
+        // Lead times of 0 and 35 days; overdue ages of 0 and 8 days
+        assertEquals(List.of(1L, 0L, 0L, 0L, 1L), analytics.getLeadTimes());
+        assertEquals(17.5, analytics.getAverageLeadTimeDays(), 1e-9);
+        assertEquals(List.of(1L, 0L, 1L, 0L), analytics.getOverdueAges());
+        assertEquals(List.of("< 1 day", "1-2 days", "3-6 days", "7-29 days", "30+ days"),
+                TaskAnalytics.bucketLabels(TaskAnalytics.LEAD_TIME_BUCKETS));
+    }
+
+    @Test
+    void testParallelReductionMatchesSequential() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            LocalDateTime created = NOW.minusHours(i % 5000);
+            tasks.add(task(Priority.values()[i % 4], created,
+                    i % 3 == 0 ? null : created.plusDays(i % 20),
+                    i % 5 == 0 ? created.plusHours(i % 900) : null));
+        }
+
+        TaskAnalytics parallel = TaskAnalytics.of(tasks, NOW);
+        TaskAnalytics.Accumulator sequential = new TaskAnalytics.Accumulator(NOW);
+        tasks.forEach(sequential::add);
+        TaskAnalytics expected = sequential.toAnalytics();
+
+        assertEquals(100_000, parallel.getTotal());
+        assertEquals(expected.getLeadTimes(), parallel.getLeadTimes());
+        assertEquals(expected.getOverdueAges(), parallel.getOverdueAges());
+        assertEquals(expected.getAverageLeadTimeDays(), parallel.getAverageLeadTimeDays(), 1e-9);
+        assertEquals(expected.getByCreatedWeek().keySet(), parallel.getByCreatedWeek().keySet());
+        expected.getByCreatedWeek().forEach((week, counts) ->
+                assertEquals(counts.getOverdue(), parallel.getByCreatedWeek().get(week).getOverdue()));
+        for (Priority priority : Priority.values()) {
+            assertEquals(expected.getByPriority().get(priority).getCompleted(),
+                    parallel.getByPriority().get(priority).getCompleted());
+        }
+    }
+}
@@ -137,6 +137,20 @@ public class TaskTest {
         assertNotSame(task, copy);
     }
     
+    @Test
+    void testSummaryTaskDescriptionLoading() {
+        assertTrue(task.isDescriptionLoaded());
+        
+        task.markDescriptionUnloaded();
+        assertFalse(task.isDescriptionLoaded());
+        assertNull(task.getDescription());
+        assertFalse(task.copy().isDescriptionLoaded());
+        
+        task.setDescription("Loaded later");
+        assertTrue(task.isDescriptionLoaded());
+        assertTrue(task.copy().isDescriptionLoaded());
+    }
+    
     @Test
     void testTaskToString() {
         task.setId(1L);
@@ -0,0 +1,122 @@
+package com.todoapp.rollup;
+
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+import com.todoapp.rollup.TaskRollups.Granularity;
+import com.todoapp.rollup.TaskRollups.Metric;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskRollupsTest {
+
+    @TempDir
+    Path tempDir;
+
+    // Midday four weeks ago, so every day used below has ended
+    private final LocalDateTime start = LocalDate.now().minusDays(28).atTime(12, 0);
+
+    private Task task(long id, Priority priority, int createdDay, Integer dueDay, Integer completedDay) {
+        Task task = new Task("Task " + id, null, priority, dueDay != null ? start.plusDays(dueDay) : null);
+        task.setId(id);
+        task.setCreatedDate(start.plusDays(createdDay));
+        if (completedDay != null) {
+            task.setCompleted(true);
+            task.setCompletedDate(start.plusDays(completedDay));
+        }
+        return task;
+    }
+
+    private long[] daily(TaskRollups rollups, Metric metric, Priority priority) {
+        return rollups.series(metric, Granularity.DAY, start.toLocalDate(), start.toLocalDate().plusDays(6), priority);
+    }
+
+    @Test
+    void testCountsFollowEdits() {
+        TaskRollups rollups = TaskRollups.of(List.of(
+                task(1, Priority.HIGH, 0, 2, null),
+                task(2, Priority.LOW, 0, null, 1)));
+        assertArrayEquals(new long[] {2, 0, 0, 0, 0, 0, 0}, daily(rollups, Metric.CREATED, null));
+        assertArrayEquals(new long[] {1, 0, 0, 0, 0, 0, 0}, daily(rollups, Metric.CREATED, Priority.HIGH));
+        assertArrayEquals(new long[] {0, 0, 1, 0, 0, 0, 0}, daily(rollups, Metric.OVERDUE, null));
+
+        // Done late still went overdue; reopening takes back the completion
+        rollups.put(task(1, Priority.HIGH, 0, 2, 3));
+        rollups.put(task(2, Priority.LOW, 0, null, null));
+        assertArrayEquals(new long[] {0, 0, 0, 1, 0, 0, 0}, daily(rollups, Metric.COMPLETED, null));
+        assertArrayEquals(new long[] {0, 0, 1, 0, 0, 0, 0}, daily(rollups, Metric.OVERDUE, null));
+        // Done in time never went overdue
+        rollups.put(task(1, Priority.HIGH, 0, 2, 1));
+        assertArrayEquals(new long[7], daily(rollups, Metric.OVERDUE, null));
+
+        // Deleting keeps the history; rebuilding from what is left does not
+        rollups.remove(2L);
+        assertEquals(2, daily(rollups, Metric.CREATED, null)[0]);
+        rollups.rebuild(List.of(task(1, Priority.HIGH, 0, 2, 1)));
+        assertEquals(1, daily(rollups, Metric.CREATED, null)[0]);
+    }
+
+    @Test
+    void testWeeksSumDays() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            tasks.add(task(i + 1, Priority.values()[i % 4], i % 28, i % 3 == 0 ? i % 20 : null, i % 2 == 0 ? i % 28 : null));
+        }
+        TaskRollups rollups = TaskRollups.of(tasks);
+        LocalDate from = start.toLocalDate().minusWeeks(1);
+        LocalDate to = start.toLocalDate().plusDays(27);
+
+        for (Metric metric : Metric.values()) {
+            long[] weeks = rollups.series(metric, Granularity.WEEK, from, to, null);
+            LocalDate firstMonday = from.minusDays(from.getDayOfWeek().getValue() - 1);
+            long[] days = rollups.series(metric, Granularity.DAY, firstMonday, firstMonday.plusWeeks(weeks.length).minusDays(1), null);
+            for (int week = 0; week < weeks.length; week++) {
+                long sum = 0;
+                for (int day = 0; day < 7; day++) {
+                    sum += days[week * 7 + day];
+                }
+                assertEquals(sum, weeks[week], metric + " week " + week);
+            }
+        }
+        assertEquals(500, sum(rollups.series(Metric.CREATED, Granularity.WEEK, from, to, null)));
+    }
+
+    @Test
+    void testReopenCatchesUpWithChangesSinceSave() throws IOException {
+        Path file = tempDir.resolve("tasks.rollup");
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            tasks.add(task(i + 1, Priority.MEDIUM, i % 7, null, null));
+        }
+        TaskRollups rollups = TaskRollups.open(file, tasks, 60_000);
+        rollups.save();
+        assertTrue(Files.size(file) < 8 * tasks.size(), "rollup file is " + Files.size(file) + " bytes");
+
+        // Changed while the rollups were closed: one completed, one deleted, one added
+        tasks.set(0, task(1, Priority.MEDIUM, 0, null, 5));
+        tasks.remove(1);
+        tasks.add(task(2000, Priority.URGENT, 6, null, null));
+        TaskRollups reopened = TaskRollups.open(file, tasks, 60_000);
+
+        assertArrayEquals(new long[] {0, 0, 0, 0, 0, 1, 0}, daily(reopened, Metric.COMPLETED, null));
+        assertEquals(1001, sum(daily(reopened, Metric.CREATED, null)));
+        assertEquals(1, daily(reopened, Metric.CREATED, Priority.URGENT)[6]);
+    }
+
+    private static long sum(long[] series) {
+        long sum = 0;
+        for (long count : series) {
+            sum += count;
+        }
+        return sum;
+    }
+}
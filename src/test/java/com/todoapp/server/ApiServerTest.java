@@ -0,0 +1,132 @@
+package com.todoapp.server;
+
+import com.todoapp.dao.FileTaskDAO;
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+import com.todoapp.service.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApiServerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ApiServer server;
+    private HttpClient client;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        FileTaskDAO taskDAO = new FileTaskDAO(tempDir.resolve("tasks.json").toString(),
+                                              tempDir.resolve("tasks_backup.json").toString());
+        server = new ApiServer(new TaskService(taskDAO, false), 0);
+        server.start();
+        baseUrl = "http://localhost:" + server.getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void testListRevalidatesUntilDataChanges() throws Exception {
+        HttpResponse<String> first = send(get("/api/tasks"));
+        assertEquals(200, first.statusCode());
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+
+        assertEquals(304, send(get("/api/tasks").header("If-None-Match", etag)).statusCode());
+
+        HttpResponse<String> created = send(post("/api/tasks", "{\"title\":\"Write tests\",\"priority\":\"HIGH\"}"));
+        assertEquals(201, created.statusCode());
+
+        HttpResponse<String> changed = send(get("/api/tasks").header("If-None-Match", etag));
+        assertEquals(200, changed.statusCode());
+        assertTrue(changed.body().contains("Write tests"));
+        assertNotEquals(etag, changed.headers().firstValue("ETag").orElseThrow());
+    }
+
+    @Test
+    void testDatabaseListETagSeesWritesByOtherProcesses() throws Exception {
+        boolean[] stampAvailable = {true};
+        // Stands in for a database table that another process writes to directly
+        FileTaskDAO sharedStore = new FileTaskDAO(tempDir.resolve("shared.json").toString(),
+                                                  tempDir.resolve("shared_backup.json").toString()) {
+            @Override
+            public Optional<String> getChangeStamp() {
+                return stampAvailable[0] ? Optional.of(Long.toString(getTotalCount())) : Optional.empty();
+            }
+        };
+        ApiServer databaseServer = new ApiServer(new TaskService(sharedStore, true), 0);
+        databaseServer.start();
+        try {
+            String url = "http://localhost:" + databaseServer.getPort() + "/api/tasks";
+            HttpResponse<String> first = send(HttpRequest.newBuilder(URI.create(url)).GET());
+            String etag = first.headers().firstValue("ETag").orElseThrow();
+
+            sharedStore.save(new Task("Written elsewhere", null, Priority.LOW, null));
+            HttpResponse<String> changed = send(HttpRequest.newBuilder(URI.create(url)).header("If-None-Match", etag));
+            assertEquals(200, changed.statusCode());
+            assertTrue(changed.body().contains("Written elsewhere"));
+
+            stampAvailable[0] = false;
+            HttpResponse<String> untagged = send(HttpRequest.newBuilder(URI.create(url)).header("If-None-Match", "*"));
+            assertEquals(200, untagged.statusCode());
+            assertTrue(untagged.headers().firstValue("ETag").isEmpty());
+        } finally {
+            databaseServer.stop();
+        }
+    }
+
+    @Test
+    void testUpdateWithStaleIfMatchIsRejected() throws Exception {
+        HttpResponse<String> created = send(post("/api/tasks", "{\"title\":\"Original\"}"));
+        String etag = created.headers().firstValue("ETag").orElseThrow();
+        String location = "/api/tasks/" + etag.substring(2, etag.indexOf('-'));
+
+        HttpResponse<String> updated = send(put(location, "{\"title\":\"First edit\"}").header("If-Match", etag));
+        assertEquals(200, updated.statusCode());
+
+        HttpResponse<String> stale = send(put(location, "{\"title\":\"Lost edit\"}").header("If-Match", etag));
+        assertEquals(412, stale.statusCode());
+        assertTrue(send(get(location)).body().contains("First edit"));
+    }
+
+    @Test
+    void testUnknownTaskAndInvalidInput() throws Exception {
+        assertEquals(404, send(get("/api/tasks/999")).statusCode());
+        assertEquals(400, send(post("/api/tasks", "{\"title\":\"\"}")).statusCode());
+        assertEquals(400, send(get("/api/tasks?filter=SOMEDAY")).statusCode());
+        assertEquals(405, send(put("/api/tasks", "{}")).statusCode());
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private HttpRequest.Builder put(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).PUT(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,110 @@
+package com.todoapp.service;
+
+import com.todoapp.dao.FileTaskDAO;
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompletedTaskPurgeTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileTaskDAO taskDAO;
+
+    @BeforeEach
+    void setUp() {
+        taskDAO = newDao();
+
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Task task = new Task("Task " + i, null, Priority.MEDIUM, null);
+            // Every other task is completed, so chunks span ids of pending ones too
+            task.setCompleted(i % 2 == 0);
+            tasks.add(task);
+        }
+        taskDAO.insertAll(tasks);
+    }
+
+    @Test
+    void testPurgeDeletesCompletedTasksInChunks() {
+        List<Long> progress = new ArrayList<>();
+        List<Long> onDisk = new ArrayList<>();
+        CompletedTaskPurge purge = new CompletedTaskPurge(taskDAO, 2, 0, deleted -> { });
+        purge.setListener((deleted, total) -> {
+            assertEquals(5, total);
+            progress.add(deleted);
+            onDisk.add(newDao().getTotalCount());
+        });
+
+        assertEquals(5, purge.run());
+
+        assertEquals(List.of(2L, 4L, 5L), progress);
+        assertEquals(5, taskDAO.getTotalCount());
+        assertEquals(0, taskDAO.getCompletedCount());
+        // Each chunk is saved, and the store lock released, before the pause that follows it
+        assertEquals(List.of(8L, 6L, 5L), onDisk);
+    }
+
+    @Test
+    void testFileStoreSavesOncePerSpan() throws IOException {
+        List<Long> progress = new ArrayList<>();
+        long revision = revision();
+        // Five one-task chunks, all inside one span
+        CompletedTaskPurge purge = new CompletedTaskPurge(taskDAO, 1, 0, 60_000, deleted -> { });
+        purge.setListener((deleted, total) -> progress.add(deleted));
+
+        assertEquals(5, purge.run());
+
+        assertEquals(List.of(5L), progress);
+        assertEquals(1, revision() - revision);
+        assertEquals(5, newDao().getTotalCount());
+    }
+
+    @Test
+    void testCancelledPurgeKeepsWhatIsLeft() {
+        CompletedTaskPurge purge = new CompletedTaskPurge(taskDAO, 2, 0, deleted -> { });
+        purge.setListener((deleted, total) -> purge.cancel());
+
+        assertEquals(2, purge.run());
+
+        assertTrue(purge.isCancelled());
+        assertEquals(3, taskDAO.getCompletedCount());
+        assertEquals(8, newDao().getTotalCount());
+    }
+
+    @Test
+    void testServicePurgePublishesOneBulkChange() throws Exception {
+        TaskService taskService = new TaskService(taskDAO, false);
+        List<TaskChangeEvent> events = new ArrayList<>();
+        taskService.addChangeListener(events::add);
+
+        assertEquals(5L, taskService.purgeCompletedTasks().start().get());
+
+        assertEquals(1, events.size());
+        assertEquals(TaskChangeEvent.Type.BULK, events.get(0).getType());
+        assertEquals(0, taskService.deleteAllCompletedTasks());
+        assertEquals(1, events.size());
+    }
+
+    // Every save of the file store bumps the revision at the start of its lock file
+    private long revision() throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(tempDir.resolve("tasks.json.lock"))).getLong();
+    }
+
+    private FileTaskDAO newDao() {
+        return new FileTaskDAO(tempDir.resolve("tasks.json").toString(),
+                               tempDir.resolve("tasks_backup.json").toString());
+    }
+}
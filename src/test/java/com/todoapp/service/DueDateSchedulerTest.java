@@ -0,0 +1,115 @@
+package com.todoapp.service;
+
+import com.todoapp.dao.FileTaskDAO;
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DueDateSchedulerTest {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 6, 1, 12, 0);
+
+    @TempDir
+    Path tempDir;
+
+    private MutableClock clock;
+    private TaskService taskService;
+    private DueDateScheduler scheduler;
+    private final List<String> alerts = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(START.toInstant(ZoneOffset.UTC));
+        taskService = new TaskService(new FileTaskDAO(tempDir.resolve("tasks.json").toString(),
+                                                      tempDir.resolve("tasks_backup.json").toString()), false);
+        scheduler = new DueDateScheduler(clock);
+        scheduler.addListener((task, alert) -> alerts.add(alert + " " + task.getTitle()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+    }
+
+    @Test
+    void testAlertsFireWhenThresholdsPass() {
+        taskService.createTask("Seeded", null, Priority.LOW, START.plusDays(4));
+        scheduler.start(taskService);
+        taskService.createTask("Created later", null, Priority.HIGH, START.plusHours(2));
+        taskService.createTask("No due date", null, Priority.HIGH, null);
+        assertEquals(2, scheduler.size());
+
+        // Already inside the due-soon window when created, so only its overdue alert is pending
+        advance(Duration.ofHours(2));
+        assertTrue(alerts.isEmpty());
+        advance(Duration.ofMillis(1));
+        assertEquals(List.of("OVERDUE Created later"), alerts);
+
+        advance(Duration.ofDays(1));
+        assertEquals("DUE_SOON Seeded", alerts.get(1));
+        assertEquals(1, scheduler.size());
+    }
+
+    @Test
+    void testChangesReplaceEarlierAlerts() {
+        Task moved = taskService.createTask("Moved", null, Priority.MEDIUM, START.plusHours(1));
+        Task done = taskService.createTask("Done", null, Priority.MEDIUM, START.plusHours(1));
+        Task deleted = taskService.createTask("Deleted", null, Priority.MEDIUM, START.plusHours(1));
+        scheduler.start(taskService);
+
+        Task later = moved.copy();
+        later.setDueDate(START.plusHours(5));
+        taskService.updateTask(later);
+        taskService.markTaskCompleted(done);
+        taskService.deleteTask(deleted);
+
+        advance(Duration.ofHours(2));
+        assertTrue(alerts.isEmpty());
+        advance(Duration.ofHours(4));
+        assertEquals(List.of("OVERDUE Moved"), alerts);
+        assertEquals(0, scheduler.size());
+    }
+
+    // Fires what is due at the new time, as the scheduler thread would
+    private void advance(Duration duration) {
+        clock.instant = clock.instant.plus(duration);
+        scheduler.runDue();
+    }
+
+    private static final class MutableClock extends Clock {
+        Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
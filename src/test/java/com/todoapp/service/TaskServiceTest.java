@@ -1,10 +1,18 @@
 package com.todoapp.service;
 
+import com.todoapp.dao.FileTaskDAO;
+import com.todoapp.dao.StaleTaskException;
 import com.todoapp.model.Priority;
 import com.todoapp.model.Task;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -234,4 +242,110 @@ public class TaskServiceTest {
         // First task should have highest priority level when sorted descending
         assertEquals(Priority.HIGH, sortedByPriorityDesc.get(0).getPriority());
     }
+
+    @Test
+    void testMarkTaskCompletedWithStaleVersion() {
+        Task task = taskService.createTask("Versioned Task", "Description", Priority.MEDIUM, null);
+        Task staleCopy = task.copy();
+
+        Task completed = taskService.markTaskCompleted(task);
+        assertTrue(completed.isCompleted());
+        assertEquals(staleCopy.getVersion() + 1, completed.getVersion());
+
+        assertThrows(StaleTaskException.class, () -> taskService.markTaskPending(staleCopy));
+
+        // The id-based variant re-reads the current version
+        Task pending = taskService.markTaskPending(task.getId());
+        assertFalse(pending.isCompleted());
+        assertNull(pending.getCompletedDate());
+    }
+
+    @Test
+    void testWritesPublishChangeEvents() {
+        List<TaskChangeEvent> events = new ArrayList<>();
+        taskService.addChangeListener(events::add);
+
+        Task task = taskService.createTask("Evented Task", null, Priority.LOW, null);
+        taskService.markTaskCompleted(task);
+        taskService.deleteTask(task);
+
+        assertEquals(3, events.size());
+        assertEquals(TaskChangeEvent.Type.CREATED, events.get(0).getType());
+        assertSame(task, events.get(0).getCurrent());
+
+        TaskChangeEvent completed = events.get(1);
+        assertEquals(TaskChangeEvent.Type.UPDATED, completed.getType());
+        assertFalse(completed.getPrevious().isCompleted());
+        assertTrue(completed.getCurrent().isCompleted());
+
+        TaskChangeEvent deleted = events.get(2);
+        assertEquals(TaskChangeEvent.Type.DELETED, deleted.getType());
+        assertEquals(task.getId(), deleted.getTaskId());
+        assertNull(deleted.getCurrent());
+        assertEquals(taskService.getDataVersion(), deleted.getDataVersion());
+    }
+
+    @Test
+    void testTopTasksRankByUrgency(@TempDir Path tempDir) {
+        TaskService service = new TaskService(new FileTaskDAO(tempDir.resolve("tasks.json").toString(),
+                tempDir.resolve("backups").toString()), false);
+        LocalDateTime now = LocalDateTime.now();
+        service.createTask("Someday", null, Priority.URGENT, null);
+        service.createTask("Urgent tomorrow", null, Priority.URGENT, now.plusDays(2));
+        service.createTask("High overdue", null, Priority.HIGH, now.minusHours(1));
+        service.createTask("Low", null, Priority.LOW, now.plusDays(3));
+        service.createTask("Medium soon", null, Priority.MEDIUM, now.plusHours(2));
+        Task done = service.createTask("Done", null, Priority.URGENT, now.minusDays(1));
+        service.markTaskCompleted(done);
+
+        List<Task> top = service.getTopTasks(3, TaskService.TaskSortCriteria.URGENCY, TaskService.TaskFilter.PENDING);
+        // High + overdue outranks urgent; equal urgency goes to the earlier due date
+        assertEquals(List.of("High overdue", "Urgent tomorrow", "Someday"),
+                top.stream().map(Task::getTitle).collect(Collectors.toList()));
+
+        List<Task> newest = service.getTopTasks(2, TaskService.TaskSortCriteria.CREATED_DATE, TaskService.TaskFilter.ALL);
+        assertEquals(2, newest.size());
+        assertFalse(newest.get(0).getCreatedDate().isBefore(newest.get(1).getCreatedDate()));
+        assertEquals(Priority.URGENT,
+                service.getTopTasks(1, TaskService.TaskSortCriteria.PRIORITY, TaskService.TaskFilter.ALL).get(0).getPriority());
+    }
+
+    @Test
+    void testSortedViewsFollowChanges(@TempDir Path tempDir) {
+        FileTaskDAO taskDAO = new FileTaskDAO(tempDir.resolve("tasks.json").toString(),
+                tempDir.resolve("backups").toString());
+        TaskService service = new TaskService(taskDAO, false);
+        LocalDateTime now = LocalDateTime.now();
+        String[] titles = {"beta", "Alpha", "alpha", "Gamma", "ÉCLAIR", "delta", "Beta"};
+        for (int i = 0; i < titles.length; i++) {
+            Priority priority = Priority.values()[i % Priority.values().length];
+            service.createTask(titles[i], null, priority, i % 3 == 0 ? null : now.plusDays(i - 3));
+        }
+        // Loads the index, which the writes below then keep up to date
+        service.getTasksSortedBy(TaskService.TaskSortCriteria.TITLE, true);
+        service.markTaskCompleted(2L);
+        Task renamed = service.getTaskById(4L).get();
+        renamed.setTitle("aardvark");
+        renamed.setPriority(Priority.URGENT);
+        service.updateTask(renamed);
+        service.deleteTask(6L);
+        service.createTask("Zulu", null, Priority.LOW, now.minusDays(5));
+
+        for (TaskService.TaskSortCriteria criteria : TaskService.TaskSortCriteria.values()) {
+            for (boolean ascending : new boolean[] {true, false}) {
+                for (TaskService.TaskFilter filter : TaskService.TaskFilter.values()) {
+                    List<Long> sorted = ids(service.sortTasks(service.getFilteredTasks(filter), criteria, ascending));
+                    assertEquals(sorted, ids(service.getSortedView(filter, criteria, ascending)),
+                            criteria + (ascending ? " ascending, " : " descending, ") + filter);
+                }
+            }
+        }
+        assertEquals("aardvark", service.getTasksSortedBy(TaskService.TaskSortCriteria.TITLE, true).get(0).getTitle());
+        assertEquals(List.of("Zulu"), service.getTopTasks(1, TaskService.TaskSortCriteria.DUE_DATE, TaskService.TaskFilter.OVERDUE)
+                .stream().map(Task::getTitle).collect(Collectors.toList()));
+    }
+
+    private static List<Long> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,57 @@
+package com.todoapp.sync;
+
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutboxTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testAckedPrefixIsCompactedOnlyOnceItOutweighsPending() throws IOException {
+        Path file = tempDir.resolve("outbox.ndjson");
+        Outbox outbox = new Outbox(file, false);
+        outbox.append(entries(10));
+
+        outbox.ack(3);
+        assertEquals(10, lines(file), "acknowledging must not rewrite the file");
+        outbox.close();
+
+        Outbox reopened = new Outbox(file, false);
+        assertEquals(4, reopened.peek(1).get(0).getSeq());
+        assertEquals(7, reopened.size());
+
+        // Six acknowledged lines against four pending: the prefix is cut off
+        reopened.ack(6);
+        assertEquals(4, lines(file));
+        reopened.append(entries(1));
+        assertEquals(5, lines(file));
+        assertEquals(11, reopened.getLastSeq());
+        reopened.close();
+    }
+
+    private static List<OutboxEntry> entries(int count) {
+        List<OutboxEntry> entries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Task task = new Task("Task " + i, null, Priority.MEDIUM, null);
+            task.setId((long) i + 1);
+            entries.add(new OutboxEntry(OutboxEntry.Operation.UPSERT, task, OutboxEntry.NEW_TASK));
+        }
+        return entries;
+    }
+
+    private static long lines(Path file) throws IOException {
+        return Files.readAllLines(file).stream().filter(line -> !line.isEmpty()).count();
+    }
+}
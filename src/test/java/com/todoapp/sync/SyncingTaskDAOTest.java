@@ -0,0 +1,233 @@
+package com.todoapp.sync;
+
+import com.todoapp.dao.FileTaskDAO;
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SyncingTaskDAOTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final FakeTarget target = new FakeTarget();
+
+    @Test
+    void testWritesQueueWhileOfflineAndReplayOnce() throws IOException {
+        SyncingTaskDAO dao = open();
+        Task first = dao.save(new Task("First", "one", Priority.HIGH, null));
+        dao.save(new Task("Second", "two", Priority.LOW, null));
+        first.setTitle("First, edited");
+        dao.save(first);
+
+        target.offline = true;
+        OutboxReplicator offline = replicator(dao);
+        assertFalse(offline.replicate(false));
+        assertFalse(offline.isOnline());
+        offline.stop();
+
+        // The queue survives a restart
+        SyncingTaskDAO reopened = open();
+        assertEquals(3, reopened.getQueuedWriteCount());
+        assertEquals(2, reopened.getTotalCount());
+        List<OutboxEntry> queued = reopened.pending(10);
+
+        target.offline = false;
+        assertTrue(replicator(reopened).replicate(false));
+        assertEquals(0, reopened.getQueuedWriteCount());
+        assertEquals(2, target.tasks.size());
+        assertEquals("First, edited", target.tasks.get(first.getId()).getTitle());
+        assertEquals(1, target.tasks.get(first.getId()).getVersion());
+
+        // A batch whose acknowledgement was lost changes nothing the second time
+        int applied = target.appliedEntries;
+        assertTrue(target.apply(reopened.getClientId(), queued).isEmpty());
+        assertEquals(applied, target.appliedEntries);
+    }
+
+    @Test
+    void testRemoteChangeWinsAndLocalCopiesAreLogged() throws IOException {
+        SyncingTaskDAO dao = open();
+        Task task = dao.save(new Task("Shared", null, Priority.MEDIUM, null));
+        OutboxReplicator replicator = replicator(dao);
+        assertTrue(replicator.replicate(false));
+
+        Task remote = target.tasks.get(task.getId()).copy();
+        remote.setTitle("Changed elsewhere");
+        remote.setVersion(remote.getVersion() + 1);
+        target.tasks.put(remote.getId(), remote);
+
+        AtomicInteger remoteChanges = new AtomicInteger();
+        dao.setRemoteChangeListener(remoteChanges::incrementAndGet);
+        task.setTitle("Changed here");
+        dao.save(task);
+        dao.updateCompletion(task.getId(), true, null, task.getVersion());
+        assertTrue(replicator.replicate(false));
+
+        assertEquals("Changed elsewhere", dao.findById(task.getId()).get().getTitle());
+        assertFalse(dao.findById(task.getId()).get().isCompleted());
+        assertEquals(0, dao.getQueuedWriteCount());
+        assertEquals(1, remoteChanges.get());
+        assertEquals(2, Files.readAllLines(tempDir.resolve("conflicts.ndjson")).size());
+    }
+
+    @Test
+    void testTaskCreatedUnderTakenIdIsRekeyed() throws IOException {
+        Task other = new Task("Other client's", null, Priority.MEDIUM, null);
+        other.setId(1L);
+        target.tasks.put(1L, other);
+
+        SyncingTaskDAO dao = open();
+        Task mine = dao.save(new Task("Mine", null, Priority.MEDIUM, null));
+        assertEquals(1L, mine.getId());
+        mine.setTitle("Mine, edited");
+        dao.save(mine);
+
+        OutboxReplicator replicator = replicator(dao);
+        assertTrue(replicator.replicate(false));
+        long newId = FakeTarget.FIRST_GENERATED_ID;
+        assertEquals("Mine, edited", target.tasks.get(newId).getTitle());
+        assertEquals("Mine, edited", dao.findById(newId).get().getTitle());
+        assertFalse(dao.findById(1L).isPresent());
+
+        assertTrue(replicator.replicate(true));
+        assertEquals("Other client's", dao.findById(1L).get().getTitle());
+        assertEquals(2, dao.getTotalCount());
+    }
+
+    @Test
+    void testPullMirrorsRemoteChanges() throws IOException {
+        for (long id = 1; id <= 3; id++) {
+            Task task = new Task("Remote " + id, null, Priority.MEDIUM, null);
+            task.setId(id);
+            target.tasks.put(id, task);
+        }
+        SyncingTaskDAO dao = open();
+        OutboxReplicator replicator = replicator(dao);
+        assertTrue(replicator.replicate(true));
+        assertEquals(3, dao.getTotalCount());
+
+        target.tasks.remove(2L);
+        target.tasks.get(3L).setCompleted(true);
+        target.tasks.get(3L).setVersion(1);
+        assertTrue(replicator.replicate(true));
+
+        assertFalse(dao.findById(2L).isPresent());
+        assertTrue(dao.findById(3L).get().isCompleted());
+        // Ids handed out locally continue above the mirrored ones
+        assertEquals(4L, dao.save(new Task("Local", null, Priority.LOW, null)).getId());
+    }
+
+    private SyncingTaskDAO open() throws IOException {
+        return new SyncingTaskDAO(
+                new FileTaskDAO(tempDir.resolve("tasks.json").toString(), tempDir.resolve("tasks_backup.json").toString()),
+                new Outbox(tempDir.resolve("outbox.ndjson"), false),
+                tempDir.resolve("conflicts.ndjson"));
+    }
+
+    private OutboxReplicator replicator(SyncingTaskDAO dao) {
+        // Retries far in the future, so only the test drives replication
+        return new OutboxReplicator(dao, target, 2, 0, 60000, 60000, 60000);
+    }
+
+    /** In-memory database with the semantics of {@link JdbcSyncTarget}. */
+    private static class FakeTarget implements SyncTarget {
+        static final long FIRST_GENERATED_ID = 1000;
+
+        final Map<Long, Task> tasks = new TreeMap<>();
+        final Map<String, Long> appliedSeq = new HashMap<>();
+        boolean offline;
+        int appliedEntries;
+        long nextId = FIRST_GENERATED_ID;
+
+        @Override
+        public List<SyncConflict> apply(String clientId, List<OutboxEntry> entries) {
+            checkOnline();
+            long lastSeq = appliedSeq.getOrDefault(clientId, 0L);
+            List<SyncConflict> conflicts = new ArrayList<>();
+            Map<Long, Long> rekeyed = new HashMap<>();
+            Map<Long, SyncConflict> conflicted = new HashMap<>();
+            for (OutboxEntry entry : entries) {
+                if (entry.getSeq() <= lastSeq) {
+                    continue;
+                }
+                lastSeq = entry.getSeq();
+                appliedEntries++;
+                long id = rekeyed.getOrDefault(entry.getTaskId(), entry.getTaskId());
+                if (conflicted.containsKey(id)) {
+                    conflicts.add(new SyncConflict(entry, conflicted.get(id).getReason(), conflicted.get(id).getRemote(), null));
+                    continue;
+                }
+                Task remote = tasks.get(id);
+                Task written = entry.getTask().copy();
+                written.setId(id);
+                SyncConflict conflict = null;
+                if (entry.getOperation() == OutboxEntry.Operation.DELETE) {
+                    if (remote != null && remote.getVersion() != entry.getBaseVersion()) {
+                        conflict = new SyncConflict(entry, SyncConflict.Reason.CHANGED_REMOTELY, remote.copy(), null);
+                    } else {
+                        tasks.remove(id);
+                    }
+                } else if (entry.getBaseVersion() == OutboxEntry.NEW_TASK && remote != null) {
+                    written.setId(nextId++);
+                    tasks.put(written.getId(), written);
+                    rekeyed.put(entry.getTaskId(), written.getId());
+                    conflicts.add(new SyncConflict(entry, SyncConflict.Reason.ID_TAKEN, remote.copy(), written.getId()));
+                } else if (entry.getBaseVersion() == OutboxEntry.NEW_TASK || remote.getVersion() == entry.getBaseVersion()) {
+                    tasks.put(id, written);
+                } else {
+                    conflict = new SyncConflict(entry, SyncConflict.Reason.CHANGED_REMOTELY, remote.copy(), null);
+                }
+                if (conflict != null) {
+                    conflicts.add(conflict);
+                    conflicted.put(id, conflict);
+                }
+            }
+            appliedSeq.put(clientId, lastSeq);
+            return conflicts;
+        }
+
+        @Override
+        public Map<Long, Long> fetchVersions() {
+            checkOnline();
+            Map<Long, Long> versions = new HashMap<>();
+            tasks.forEach((id, task) -> versions.put(id, task.getVersion()));
+            return versions;
+        }
+
+        @Override
+        public List<Task> fetch(Collection<Long> ids) {
+            checkOnline();
+            Set<Long> wanted = new HashSet<>(ids);
+            List<Task> found = new ArrayList<>();
+            tasks.forEach((id, task) -> {
+                if (wanted.contains(id)) {
+                    found.add(task.copy());
+                }
+            });
+            return found;
+        }
+
+        private void checkOnline() {
+            if (offline) {
+                throw new RuntimeException("Connection refused");
+            }
+        }
+    }
+}
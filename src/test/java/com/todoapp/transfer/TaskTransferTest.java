@@ -0,0 +1,115 @@
+package com.todoapp.transfer;
+
+import com.todoapp.dao.FileTaskDAO;
+import com.todoapp.model.Priority;
+import com.todoapp.model.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskTransferTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testCsvImportHandlesQuotingAndRejectsInvalidRecords() throws IOException {
+        String csv = "title,description,priority,completed,due_date\n"
+                + "Plain,simple,HIGH,false,2030-01-02 10:00:00\n"
+                + "\"Quoted, title\",\"two\nlines with \"\"quotes\"\"\",Low,true,\n"
+                + ",missing title,MEDIUM,false,\n"
+                + "Bad priority,,SOMEDAY,false,\n";
+        List<Task> imported = new ArrayList<>();
+
+        TransferStats stats = new TaskImporter(2, 2).importFrom(stream(csv), TaskFormat.CSV, collectInto(imported));
+
+        assertEquals(4, stats.getRecords());
+        assertEquals(2, stats.getTransferred());
+        assertEquals(2, stats.getRejected());
+        assertTrue(stats.getErrors().get(0).startsWith("record 3"));
+
+        assertEquals("Plain", imported.get(0).getTitle());
+        assertEquals(Priority.HIGH, imported.get(0).getPriority());
+        assertEquals(LocalDateTime.of(2030, 1, 2, 10, 0), imported.get(0).getDueDate());
+        assertEquals("Quoted, title", imported.get(1).getTitle());
+        assertEquals("two\nlines with \"quotes\"", imported.get(1).getDescription());
+        assertTrue(imported.get(1).isCompleted());
+        assertNotNull(imported.get(1).getCompletedDate());
+    }
+
+    @Test
+    void testRoundTripThroughFileStorage() throws IOException {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 250; i++) {
+            ndjson.append("{\"title\":\"Task ").append(i).append("\",\"description\":\"  padded  \",\"id\":999}\n");
+        }
+        FileTaskDAO source = fileDao("source");
+        TransferStats imported = new TaskImporter(16, 3)
+                .importFrom(stream(ndjson.toString()), TaskFormat.NDJSON, new DaoTaskSink(source));
+        assertEquals(250, imported.getTransferred());
+
+        // Ids come from the destination, input order is kept and createTask's trimming applies
+        List<Task> stored = source.findPage(0, 1000);
+        assertEquals(250, stored.size());
+        assertEquals("Task 0", stored.get(0).getTitle());
+        assertEquals("Task 249", stored.get(249).getTitle());
+        assertEquals("padded", stored.get(0).getDescription());
+        assertEquals(1L, stored.get(0).getId());
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        TransferStats exported = new TaskExporter().exportTo(source, json, TaskFormat.JSON);
+        assertEquals(250, exported.getTransferred());
+
+        List<Task> reimported = new ArrayList<>();
+        new TaskImporter(50, 2).importFrom(new ByteArrayInputStream(json.toByteArray()), TaskFormat.JSON,
+                collectInto(reimported));
+        assertEquals(250, reimported.size());
+        assertEquals("Task 100", reimported.get(100).getTitle());
+
+        // Migration copies tasks and leaves the source objects untouched
+        FileTaskDAO copy = fileDao("copy");
+        new TaskImporter(64, 2).copy(source, new DaoTaskSink(copy));
+        assertEquals(250, copy.getTotalCount());
+        assertEquals("Task 0", source.findPage(0, 1).get(0).getTitle());
+    }
+
+    @Test
+    void testFormatFromFileName() {
+        assertEquals(TaskFormat.NDJSON, TaskFormat.fromFileName("tasks.jsonl"));
+        assertEquals(TaskFormat.CSV, TaskFormat.fromFileName("Tasks.CSV.gz"));
+        assertEquals(TaskFormat.JSON, TaskFormat.fromFileName("tasks.json"));
+        assertThrows(IllegalArgumentException.class, () -> TaskFormat.fromFileName("tasks.txt"));
+    }
+
+    private FileTaskDAO fileDao(String name) {
+        return new FileTaskDAO(tempDir.resolve(name + ".json").toString(),
+                               tempDir.resolve(name + "_backup.json").toString());
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static TaskSink collectInto(List<Task> tasks) {
+        return new TaskSink() {
+            @Override
+            public void write(List<Task> batch) {
+                tasks.addAll(batch);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}